@@ -0,0 +1,200 @@
+package com.example.turing;
+
+/**
+ * Turing machines used by the benchmarks.
+ */
+final class BenchmarkMachines {
+    /**
+     * Prevents instantiation.
+     */
+    private BenchmarkMachines() {
+    }
+
+    /**
+     * @return A machine that multiplies a decimal number by two, starting on its last digit.
+     */
+    static TuringMachine multiplyByTwo() {
+        TuringMachine turingMachine = new TuringMachine();
+
+        turingMachine.addState("0", false);
+        turingMachine.addState("1", false);
+        turingMachine.addState("H", true);
+
+        for (int digit = 0; digit <= 9; digit++) {
+            char symbol = (char) ('0' + digit);
+
+            turingMachine.addTransition("0", symbol, (char) ('0' + 2 * digit % 10), Action.LEFT, digit < 5 ? "0" : "1");
+            turingMachine.addTransition("1", symbol, (char) ('0' + (2 * digit + 1) % 10), Action.LEFT, digit < 5 ? "0" : "1");
+        }
+
+        turingMachine.addTransition("0", '\0', '\0', Action.HALT, "H");
+        turingMachine.addTransition("1", '\0', '1', Action.HALT, "H");
+
+        turingMachine.setInitialState("0");
+
+        return turingMachine;
+    }
+
+    /**
+     * @return A machine that accepts the strings a^n b^n c^n.
+     */
+    static TuringMachine abc() {
+        TuringMachine turingMachine = new TuringMachine();
+
+        for (int state = 0; state <= 4; state++) {
+            turingMachine.addState(String.valueOf(state), false);
+        }
+
+        turingMachine.addState("5", true);
+
+        turingMachine.addTransition("0", 'a', 'A', Action.RIGHT, "1");
+        turingMachine.addTransition("1", 'a', 'a', Action.RIGHT, "1");
+        turingMachine.addTransition("1", 'B', 'B', Action.RIGHT, "1");
+        turingMachine.addTransition("1", 'b', 'B', Action.RIGHT, "2");
+        turingMachine.addTransition("2", 'b', 'b', Action.RIGHT, "2");
+        turingMachine.addTransition("2", 'C', 'C', Action.RIGHT, "2");
+        turingMachine.addTransition("2", 'c', 'C', Action.LEFT, "3");
+        turingMachine.addTransition("3", 'C', 'C', Action.LEFT, "3");
+        turingMachine.addTransition("3", 'b', 'b', Action.LEFT, "3");
+        turingMachine.addTransition("3", 'B', 'B', Action.LEFT, "3");
+        turingMachine.addTransition("3", 'a', 'a', Action.LEFT, "3");
+        turingMachine.addTransition("3", 'A', 'A', Action.RIGHT, "0");
+        turingMachine.addTransition("0", 'B', 'B', Action.RIGHT, "4");
+        turingMachine.addTransition("4", 'B', 'B', Action.RIGHT, "4");
+        turingMachine.addTransition("4", 'C', 'C', Action.RIGHT, "4");
+        turingMachine.addTransition("4", '\0', '\0', Action.HALT, "5");
+        turingMachine.addTransition("0", '\0', '\0', Action.HALT, "5");
+
+        turingMachine.setInitialState("0");
+
+        return turingMachine;
+    }
+
+    /**
+     * @return The 4-state, 2-symbol busy beaver (107 steps), using '0' as the blank character.
+     */
+    static TuringMachine busyBeaver4() {
+        TuringMachine turingMachine = new TuringMachine();
+
+        for (String state : new String[]{"A", "B", "C", "D"}) {
+            turingMachine.addState(state, false);
+        }
+
+        turingMachine.addState("H", true);
+
+        turingMachine.addTransition("A", '0', '1', Action.RIGHT, "B");
+        turingMachine.addTransition("A", '1', '1', Action.LEFT, "B");
+        turingMachine.addTransition("B", '0', '1', Action.LEFT, "A");
+        turingMachine.addTransition("B", '1', '0', Action.LEFT, "C");
+        turingMachine.addTransition("C", '0', '1', Action.HALT, "H");
+        turingMachine.addTransition("C", '1', '1', Action.LEFT, "D");
+        turingMachine.addTransition("D", '0', '1', Action.RIGHT, "D");
+        turingMachine.addTransition("D", '1', '0', Action.RIGHT, "A");
+
+        turingMachine.setInitialState("A");
+
+        return turingMachine;
+    }
+
+    /**
+     * @return The 5-state, 2-symbol busy beaver champion (47,176,870 steps), using '0' as the blank character.
+     */
+    static TuringMachine busyBeaver5() {
+        TuringMachine turingMachine = new TuringMachine();
+
+        for (String state : new String[]{"A", "B", "C", "D", "E"}) {
+            turingMachine.addState(state, false);
+        }
+
+        turingMachine.addState("H", true);
+
+        turingMachine.addTransition("A", '0', '1', Action.RIGHT, "B");
+        turingMachine.addTransition("A", '1', '1', Action.LEFT, "C");
+        turingMachine.addTransition("B", '0', '1', Action.RIGHT, "C");
+        turingMachine.addTransition("B", '1', '1', Action.RIGHT, "B");
+        turingMachine.addTransition("C", '0', '1', Action.RIGHT, "D");
+        turingMachine.addTransition("C", '1', '0', Action.LEFT, "E");
+        turingMachine.addTransition("D", '0', '1', Action.LEFT, "A");
+        turingMachine.addTransition("D", '1', '1', Action.LEFT, "D");
+        turingMachine.addTransition("E", '0', '1', Action.HALT, "H");
+        turingMachine.addTransition("E", '1', '0', Action.LEFT, "A");
+
+        turingMachine.setInitialState("A");
+
+        return turingMachine;
+    }
+
+    /**
+     * @return A machine that scans to the left over blank characters until it finds an 'x', and then halts.
+     */
+    static TuringMachine seekLeft() {
+        TuringMachine turingMachine = new TuringMachine();
+
+        turingMachine.addState("S", false);
+        turingMachine.addState("H", true);
+
+        turingMachine.addTransition("S", '\0', '\0', Action.LEFT, "S");
+        turingMachine.addTransition("S", 'x', 'x', Action.HALT, "H");
+
+        turingMachine.setInitialState("S");
+
+        return turingMachine;
+    }
+
+    /**
+     * @return A machine that replaces every 'a' with a 'b' from left to right, and then halts.
+     */
+    static TuringMachine replace() {
+        TuringMachine turingMachine = new TuringMachine();
+
+        turingMachine.addState("S", false);
+        turingMachine.addState("H", true);
+
+        turingMachine.addTransition("S", 'a', 'b', Action.RIGHT, "S");
+        turingMachine.addTransition("S", '\0', '\0', Action.HALT, "H");
+
+        turingMachine.setInitialState("S");
+
+        return turingMachine;
+    }
+
+    /**
+     * Builds a machine with the given number of states, where each state has a transition for two symbols.
+     *
+     * @param states the number of states
+     * @return The machine.
+     */
+    static TuringMachine chain(int states) {
+        TuringMachine turingMachine = new TuringMachine();
+
+        for (int state = 0; state < states; state++) {
+            turingMachine.addState("q" + state, state == states - 1);
+        }
+
+        for (int state = 0; state < states - 1; state++) {
+            turingMachine.addTransition("q" + state, '0', '1', Action.RIGHT, "q" + (state + 1));
+            turingMachine.addTransition("q" + state, '1', '0', Action.LEFT, "q" + (state / 2));
+        }
+
+        turingMachine.setInitialState("q0");
+
+        return turingMachine;
+    }
+
+    /**
+     * Repeats the given string.
+     *
+     * @param s     the string
+     * @param count the number of repetitions
+     * @return The repeated string.
+     */
+    static String repeat(String s, int count) {
+        StringBuilder builder = new StringBuilder(s.length() * count);
+
+        for (int i = 0; i < count; i++) {
+            builder.append(s);
+        }
+
+        return builder.toString();
+    }
+}
@@ -0,0 +1,45 @@
+package com.example.turing;
+
+import org.openjdk.jmh.annotations.Benchmark;
+import org.openjdk.jmh.annotations.BenchmarkMode;
+import org.openjdk.jmh.annotations.Fork;
+import org.openjdk.jmh.annotations.Measurement;
+import org.openjdk.jmh.annotations.Mode;
+import org.openjdk.jmh.annotations.OutputTimeUnit;
+import org.openjdk.jmh.annotations.Param;
+import org.openjdk.jmh.annotations.Scope;
+import org.openjdk.jmh.annotations.State;
+import org.openjdk.jmh.annotations.Warmup;
+
+import java.util.concurrent.TimeUnit;
+
+/**
+ * Machine construction benchmarks.
+ * <p>
+ * Reports the average time to build a machine through {@link TuringMachine#addState(String, boolean)} and {@link
+ * TuringMachine#addTransition(String, char, char, Action, String)}, and to freeze it. Run with {@code -prof gc} to
+ * also report the allocation rate.
+ */
+@BenchmarkMode(Mode.AverageTime)
+@OutputTimeUnit(TimeUnit.MILLISECONDS)
+@Warmup(iterations = 3, time = 2)
+@Measurement(iterations = 5, time = 2)
+@Fork(1)
+@State(Scope.Benchmark)
+public class ConstructionBenchmark {
+    /**
+     * The number of states of the machine.
+     */
+    @Param({"1000", "100000"})
+    public int states;
+
+    @Benchmark
+    public TuringMachine build() {
+        return BenchmarkMachines.chain(states);
+    }
+
+    @Benchmark
+    public MachineDefinition buildAndFreeze() {
+        return BenchmarkMachines.chain(states).freeze();
+    }
+}
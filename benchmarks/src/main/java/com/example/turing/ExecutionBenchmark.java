@@ -0,0 +1,132 @@
+package com.example.turing;
+
+import org.openjdk.jmh.annotations.AuxCounters;
+import org.openjdk.jmh.annotations.Benchmark;
+import org.openjdk.jmh.annotations.BenchmarkMode;
+import org.openjdk.jmh.annotations.Fork;
+import org.openjdk.jmh.annotations.Level;
+import org.openjdk.jmh.annotations.Measurement;
+import org.openjdk.jmh.annotations.Mode;
+import org.openjdk.jmh.annotations.OutputTimeUnit;
+import org.openjdk.jmh.annotations.Scope;
+import org.openjdk.jmh.annotations.Setup;
+import org.openjdk.jmh.annotations.State;
+import org.openjdk.jmh.annotations.Warmup;
+
+import java.util.concurrent.TimeUnit;
+
+/**
+ * Execution engine benchmarks.
+ * <p>
+ * Each benchmark reports executions per second, and the "steps" secondary result reports steps per second. Run with
+ * {@code -prof gc} to also report the allocation rate.
+ */
+@BenchmarkMode(Mode.Throughput)
+@OutputTimeUnit(TimeUnit.SECONDS)
+@Warmup(iterations = 3, time = 2)
+@Measurement(iterations = 5, time = 2)
+@Fork(1)
+public class ExecutionBenchmark {
+    /**
+     * The number of digits of the multiply by two input.
+     */
+    private static final int DIGITS = 10000;
+    /**
+     * The number of each letter of the a^n b^n c^n input.
+     */
+    private static final int LETTERS = 300;
+    /**
+     * The distance between the head and the content of the wide sparse tape.
+     */
+    private static final int DISTANCE = 1 << 24;
+    /**
+     * The length of the very large input.
+     */
+    private static final int LARGE = 1 << 22;
+
+    /**
+     * Frozen machine definitions and their inputs.
+     */
+    @State(Scope.Benchmark)
+    public static class Machines {
+        MachineDefinition multiplyByTwo;
+        MachineDefinition abc;
+        MachineDefinition busyBeaver4;
+        MachineDefinition busyBeaver5;
+        MachineDefinition compiledBusyBeaver5;
+        MachineDefinition seekLeft;
+        MachineDefinition replace;
+        String multiplyByTwoInput;
+        String abcInput;
+        String largeInput;
+
+        @Setup
+        public void setUp() {
+            multiplyByTwo = BenchmarkMachines.multiplyByTwo().freeze();
+            abc = BenchmarkMachines.abc().freeze();
+            busyBeaver4 = BenchmarkMachines.busyBeaver4().freeze();
+            busyBeaver5 = BenchmarkMachines.busyBeaver5().freeze();
+            compiledBusyBeaver5 = busyBeaver5.compile();
+            seekLeft = BenchmarkMachines.seekLeft().freeze();
+            replace = BenchmarkMachines.replace().freeze();
+            multiplyByTwoInput = BenchmarkMachines.repeat("9876543210", DIGITS / 10);
+            abcInput = BenchmarkMachines.repeat("a", LETTERS) + BenchmarkMachines.repeat("b", LETTERS) + BenchmarkMachines.repeat("c", LETTERS);
+            largeInput = BenchmarkMachines.repeat("a", LARGE);
+        }
+    }
+
+    /**
+     * Steps counter, reported as steps per second.
+     */
+    @State(Scope.Thread)
+    @AuxCounters(AuxCounters.Type.OPERATIONS)
+    public static class Steps {
+        public long steps;
+
+        @Setup(Level.Iteration)
+        public void reset() {
+            steps = 0;
+        }
+
+        ExecutionResult count(ExecutionResult result) {
+            steps += result.getSteps();
+
+            return result;
+        }
+    }
+
+    @Benchmark
+    public ExecutionResult multiplyByTwo(Machines machines, Steps steps) {
+        return steps.count(machines.multiplyByTwo.execute(machines.multiplyByTwoInput, 0, DIGITS - 1, '\0'));
+    }
+
+    @Benchmark
+    public ExecutionResult abc(Machines machines, Steps steps) {
+        return steps.count(machines.abc.execute(machines.abcInput, 0, 0, '\0'));
+    }
+
+    @Benchmark
+    public ExecutionResult busyBeaver4(Machines machines, Steps steps) {
+        return steps.count(machines.busyBeaver4.execute("", 0, 0, '0'));
+    }
+
+    @Benchmark
+    public ExecutionResult busyBeaver5(Machines machines, Steps steps) {
+        return steps.count(machines.busyBeaver5.execute("", 0, 0, '0'));
+    }
+
+    @Benchmark
+    public ExecutionResult compiledBusyBeaver5(Machines machines, Steps steps) {
+        return steps.count(machines.compiledBusyBeaver5.execute("", 0, 0, '0'));
+    }
+
+    @Benchmark
+    public ExecutionResult wideSparseTape(Machines machines, Steps steps) {
+        return steps.count(machines.seekLeft.execute("x", -DISTANCE, DISTANCE, '\0'));
+    }
+
+    @Benchmark
+    public ExecutionResult largeInput(Machines machines, Steps steps) {
+        return steps.count(machines.replace.execute(machines.largeInput, 0, 0, '\0'));
+    }
+}
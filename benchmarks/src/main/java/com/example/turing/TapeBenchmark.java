@@ -0,0 +1,125 @@
+package com.example.turing;
+
+import org.openjdk.jmh.annotations.Benchmark;
+import org.openjdk.jmh.annotations.BenchmarkMode;
+import org.openjdk.jmh.annotations.Fork;
+import org.openjdk.jmh.annotations.Measurement;
+import org.openjdk.jmh.annotations.Mode;
+import org.openjdk.jmh.annotations.OperationsPerInvocation;
+import org.openjdk.jmh.annotations.OutputTimeUnit;
+import org.openjdk.jmh.annotations.Scope;
+import org.openjdk.jmh.annotations.Setup;
+import org.openjdk.jmh.annotations.State;
+import org.openjdk.jmh.annotations.Warmup;
+
+import java.util.concurrent.TimeUnit;
+
+/**
+ * Tape benchmarks.
+ * <p>
+ * Run with {@code -prof gc} to also report the allocation rate.
+ */
+@BenchmarkMode(Mode.Throughput)
+@OutputTimeUnit(TimeUnit.SECONDS)
+@Warmup(iterations = 3, time = 2)
+@Measurement(iterations = 5, time = 2)
+@Fork(1)
+@State(Scope.Thread)
+public class TapeBenchmark {
+    /**
+     * The number of cells visited by each sweep.
+     */
+    private static final int SWEEP = 1 << 16;
+    /**
+     * The length of the large tape content.
+     */
+    private static final int LARGE = 1 << 22;
+
+    /**
+     * A tape with a small content, swept back and forth.
+     */
+    private Tape tape;
+    /**
+     * A tape with a large content.
+     */
+    private Tape largeTape;
+    /**
+     * A packed tape with a small content, swept back and forth.
+     */
+    private Tape packedTape;
+    /**
+     * A packed tape with a large content.
+     */
+    private Tape largePackedTape;
+
+    @Setup
+    public void setUp() {
+        char[] alphabet = {'\0', 'a', 'b', 'c', 'x', 'y'};
+
+        tape = new Tape("abc", 0, 0, '\0');
+        largeTape = new Tape(BenchmarkMachines.repeat("ab", LARGE / 2), -LARGE / 2, 0, '\0');
+        packedTape = new PackedTape("abc", 0, 0, alphabet);
+        largePackedTape = new PackedTape(BenchmarkMachines.repeat("ab", LARGE / 2), -LARGE / 2, 0, alphabet);
+    }
+
+    /**
+     * Reads, writes and moves the head over every cell of a sweep to the right and back.
+     *
+     * @return The last character read.
+     */
+    @Benchmark
+    @OperationsPerInvocation(2 * SWEEP)
+    public char readWriteMove() {
+        return readWriteMove(tape);
+    }
+
+    /**
+     * Reads, writes and moves the head over every cell of a sweep to the right and back, on a packed tape.
+     *
+     * @return The last character read.
+     */
+    @Benchmark
+    @OperationsPerInvocation(2 * SWEEP)
+    public char packedReadWriteMove() {
+        return readWriteMove(packedTape);
+    }
+
+    /**
+     * Reads, writes and moves the head over every cell of a sweep to the right and back.
+     *
+     * @param tape the tape
+     * @return The last character read.
+     */
+    private static char readWriteMove(Tape tape) {
+        char c = 0;
+
+        for (int i = 0; i < SWEEP; i++) {
+            c = tape.read();
+            tape.write(c == 'x' ? 'y' : 'x');
+            tape.right();
+        }
+
+        for (int i = 0; i < SWEEP; i++) {
+            tape.left();
+            c = tape.read();
+            tape.write(c == 'x' ? 'y' : 'x');
+        }
+
+        return c;
+    }
+
+    @Benchmark
+    public String getContent() {
+        return largeTape.getContent();
+    }
+
+    @Benchmark
+    public String packedGetContent() {
+        return largePackedTape.getContent();
+    }
+
+    @Benchmark
+    public int getOffset() {
+        return largeTape.getOffset();
+    }
+}
@@ -0,0 +1,130 @@
+package com.example.turing;
+
+import java.util.BitSet;
+import java.util.HashSet;
+import java.util.Set;
+import java.util.function.Predicate;
+
+/**
+ * Execution breakpoints.
+ * <p>
+ * Breakpoints are checked after every step against the configuration the step leads to: the state entered, the symbol
+ * under the head and the head position. Runs without breakpoints do not observe their steps at all, so they keep the
+ * plain step loop.
+ */
+class Breakpoints implements StepObserver {
+    /**
+     * The observed execution.
+     */
+    private final Execution execution;
+    /**
+     * The transition table.
+     */
+    private final TransitionTable table;
+    /**
+     * The observed tape.
+     */
+    private final Tape tape;
+    /**
+     * The breakpoint states, by state index (null if there are none).
+     */
+    private boolean[] states;
+    /**
+     * The breakpoint symbols.
+     */
+    private final BitSet symbols;
+    /**
+     * The breakpoint head positions.
+     */
+    private final Set<Integer> positions;
+    /**
+     * The condition that stops the current run (null if there is none).
+     */
+    private Predicate<? super Execution> condition;
+
+    /**
+     * Creates a new set of breakpoints, with no breakpoints.
+     *
+     * @param execution the observed execution
+     * @param table     the transition table
+     * @param tape      the observed tape
+     */
+    Breakpoints(Execution execution, TransitionTable table, Tape tape) {
+        this.execution = execution;
+        this.table = table;
+        this.tape = tape;
+        this.states = null;
+        this.symbols = new BitSet();
+        this.positions = new HashSet<>();
+        this.condition = null;
+    }
+
+    /**
+     * Adds a breakpoint on the given state.
+     *
+     * @param state the state index
+     */
+    void addState(int state) {
+        if (states == null) {
+            states = new boolean[table.getStateCount()];
+        }
+
+        states[state] = true;
+    }
+
+    /**
+     * Adds a breakpoint on the given symbol.
+     *
+     * @param symbol the symbol
+     */
+    void addSymbol(char symbol) {
+        symbols.set(symbol);
+    }
+
+    /**
+     * Adds a breakpoint on the given head position.
+     *
+     * @param position the head position
+     */
+    void addPosition(int position) {
+        positions.add(position);
+    }
+
+    /**
+     * Removes every breakpoint.
+     */
+    void clear() {
+        states = null;
+        symbols.clear();
+        positions.clear();
+    }
+
+    /**
+     * Sets the condition that stops the current run.
+     *
+     * @param condition the condition (null if there is none)
+     */
+    void setCondition(Predicate<? super Execution> condition) {
+        this.condition = condition;
+    }
+
+    /**
+     * @return true if and only if there are no breakpoints and no condition.
+     */
+    boolean isEmpty() {
+        return states == null && symbols.isEmpty() && positions.isEmpty() && condition == null;
+    }
+
+    @Override
+    public boolean onStep(int transition, int position, char symbol) {
+        return !(states != null && states[table.getNextState(transition)]
+                || !symbols.isEmpty() && symbols.get(tape.read())
+                || !positions.isEmpty() && positions.contains(tape.getCurrent())
+                || condition != null && condition.test(execution));
+    }
+
+    @Override
+    public ExecutionStatus getStopStatus() {
+        return ExecutionStatus.BREAKPOINT_REACHED;
+    }
+}
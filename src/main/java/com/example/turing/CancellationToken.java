@@ -0,0 +1,34 @@
+package com.example.turing;
+
+/**
+ * Cooperative cancellation flag for turing machine executions.
+ * <p>
+ * A token may be shared by any number of executions, which stop at their next limit check once it is cancelled.
+ */
+public class CancellationToken {
+    /**
+     * true if and only if this token has been cancelled.
+     */
+    private volatile boolean cancelled;
+
+    /**
+     * Creates a new token that is not cancelled.
+     */
+    public CancellationToken() {
+        cancelled = false;
+    }
+
+    /**
+     * Cancels every execution using this token.
+     */
+    public void cancel() {
+        cancelled = true;
+    }
+
+    /**
+     * @return true if and only if this token has been cancelled.
+     */
+    public boolean isCancelled() {
+        return cancelled;
+    }
+}
@@ -0,0 +1,445 @@
+package com.example.turing;
+
+import java.io.BufferedInputStream;
+import java.io.BufferedOutputStream;
+import java.io.DataInputStream;
+import java.io.DataOutputStream;
+import java.io.IOException;
+import java.io.InputStream;
+import java.io.OutputStream;
+import java.io.UncheckedIOException;
+import java.io.Writer;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.nio.file.StandardCopyOption;
+
+/**
+ * Snapshot of the configuration of an {@link Execution}.
+ * <p>
+ * A checkpoint holds the fingerprint of the machine definition, the current state, the number of steps performed and
+ * the tape, and is written in a compact binary format where the tape content is run-length encoded. An execution
+ * resumed from a checkpoint through {@link MachineDefinition#resume(Checkpoint)} continues exactly as the original one
+ * would have.
+ * <p>
+ * A checkpoint taken from a running execution holds a snapshot of its tape instead of its content, so taking it only
+ * copies segment references, and the content is run-length encoded from the snapshot when the checkpoint is written,
+ * on whichever thread writes it.
+ */
+public class Checkpoint {
+    /**
+     * The file format magic number.
+     */
+    private static final int MAGIC = 0x54434B50;
+    /**
+     * The file format version.
+     */
+    private static final int VERSION = 1;
+
+    /**
+     * The machine definition fingerprint.
+     */
+    private final long fingerprint;
+    /**
+     * The current state index.
+     */
+    private final int state;
+    /**
+     * The number of steps performed.
+     */
+    private final long steps;
+    /**
+     * true if and only if the machine has halted.
+     */
+    private final boolean halted;
+    /**
+     * The content of the tape (null until it is read from {@link #tape}).
+     */
+    private String content;
+    /**
+     * The content offset.
+     */
+    private int offset;
+    /**
+     * The snapshot of the tape (null if the content has been read from it, or was given).
+     */
+    private Tape tape;
+    /**
+     * The head position.
+     */
+    private final int current;
+    /**
+     * The blank character.
+     */
+    private final char blank;
+
+    /**
+     * Creates a new checkpoint.
+     *
+     * @param fingerprint the machine definition fingerprint
+     * @param state       the current state index
+     * @param steps       the number of steps performed
+     * @param halted      true if and only if the machine has halted
+     * @param content     the content of the tape
+     * @param offset      the content offset
+     * @param current     the head position
+     * @param blank       the blank character
+     */
+    Checkpoint(long fingerprint, int state, long steps, boolean halted, String content, int offset, int current, char blank) {
+        this.fingerprint = fingerprint;
+        this.state = state;
+        this.steps = steps;
+        this.halted = halted;
+        this.content = content;
+        this.offset = offset;
+        this.current = current;
+        this.blank = blank;
+        this.tape = null;
+    }
+
+    /**
+     * Creates a new checkpoint of the given tape snapshot.
+     *
+     * @param fingerprint the machine definition fingerprint
+     * @param state       the current state index
+     * @param steps       the number of steps performed
+     * @param halted      true if and only if the machine has halted
+     * @param tape        the snapshot of the tape, which is only read
+     */
+    Checkpoint(long fingerprint, int state, long steps, boolean halted, Tape tape) {
+        this.fingerprint = fingerprint;
+        this.state = state;
+        this.steps = steps;
+        this.halted = halted;
+        this.content = null;
+        this.offset = 0;
+        this.current = tape.getCurrent();
+        this.blank = tape.getBlank();
+        this.tape = tape;
+    }
+
+    /**
+     * Reads a checkpoint from the given file.
+     *
+     * @param file the checkpoint file
+     * @return The checkpoint.
+     * @throws NullPointerException if the checkpoint file is null
+     * @throws IOException          if the checkpoint file cannot be read or is not a valid checkpoint
+     */
+    public static Checkpoint read(Path file) throws NullPointerException, IOException {
+        validateFile(file);
+
+        try (InputStream in = Files.newInputStream(file)) {
+            return read(in);
+        }
+    }
+
+    /**
+     * Reads a checkpoint from the given stream.
+     *
+     * @param in the stream
+     * @return The checkpoint.
+     * @throws IOException if the stream cannot be read or does not contain a valid checkpoint
+     */
+    private static Checkpoint read(InputStream in) throws IOException {
+        DataInputStream data = new DataInputStream(new BufferedInputStream(in));
+
+        if (data.readInt() != MAGIC) {
+            throw new IOException("the file is not a checkpoint");
+        }
+
+        if (data.readUnsignedByte() != VERSION) {
+            throw new IOException("the checkpoint version is not supported");
+        }
+
+        long fingerprint = data.readLong();
+        int state = data.readInt();
+        long steps = data.readLong();
+        boolean halted = data.readBoolean();
+        char blank = data.readChar();
+        int current = data.readInt();
+        int offset = data.readInt();
+        int length = data.readInt();
+        StringBuilder content = new StringBuilder(length);
+
+        while (content.length() < length) {
+            char c = data.readChar();
+            int run = readVarInt(data);
+
+            if (run <= 0 || run > length - content.length()) {
+                throw new IOException("the checkpoint is corrupted");
+            }
+
+            for (int i = 0; i < run; i++) {
+                content.append(c);
+            }
+        }
+
+        return new Checkpoint(fingerprint, state, steps, halted, content.toString(), offset, current, blank);
+    }
+
+    /**
+     * Writes this checkpoint to the given file, atomically replacing it.
+     * <p>
+     * The checkpoint is first written to a temporary file in the same directory, which is then moved over the given
+     * file, so the file always holds a complete checkpoint.
+     *
+     * @param file the checkpoint file
+     * @throws NullPointerException if the checkpoint file is null
+     * @throws IOException          if the checkpoint file cannot be written
+     */
+    public void write(Path file) throws NullPointerException, IOException {
+        validateFile(file);
+
+        Path temporary = file.resolveSibling(file.getFileName() + ".tmp");
+
+        try (OutputStream out = Files.newOutputStream(temporary)) {
+            write(out);
+        }
+
+        Files.move(temporary, file, StandardCopyOption.REPLACE_EXISTING, StandardCopyOption.ATOMIC_MOVE);
+    }
+
+    /**
+     * Writes this checkpoint to the given stream.
+     *
+     * @param out the stream
+     * @throws IOException if the stream cannot be written, or the source of the tape cannot be read
+     */
+    private synchronized void write(OutputStream out) throws IOException {
+        DataOutputStream data = new DataOutputStream(new BufferedOutputStream(out));
+
+        data.writeInt(MAGIC);
+        data.writeByte(VERSION);
+        data.writeLong(fingerprint);
+        data.writeInt(state);
+        data.writeLong(steps);
+        data.writeBoolean(halted);
+        data.writeChar(blank);
+        data.writeInt(current);
+
+        Writer runs = new RunWriter(data);
+
+        if (tape == null) {
+            data.writeInt(offset);
+            data.writeInt(content.length());
+            runs.write(content);
+        } else {
+            int left;
+            int right;
+
+            try {
+                left = tape.getOffset();
+                right = tape.getLast();
+            } catch (UncheckedIOException e) {
+                throw e.getCause();
+            }
+
+            data.writeInt(left);
+            data.writeInt(left > right ? 0 : right - left + 1);
+            tape.writeContent(runs);
+        }
+
+        runs.flush();
+        data.flush();
+    }
+
+    /**
+     * Validates a checkpoint file.
+     *
+     * @param file the checkpoint file
+     * @throws NullPointerException if the checkpoint file is null
+     */
+    private static void validateFile(Path file) throws NullPointerException {
+        if (file == null) {
+            throw new NullPointerException("the checkpoint file is null");
+        }
+    }
+
+    /**
+     * Writes a non negative integer using 7 bits per byte, with the high bit set on every byte but the last one.
+     *
+     * @param data  the stream
+     * @param value the non negative integer
+     * @throws IOException if the stream cannot be written
+     */
+    private static void writeVarInt(DataOutputStream data, int value) throws IOException {
+        while ((value & ~0x7F) != 0) {
+            data.writeByte((value & 0x7F) | 0x80);
+            value >>>= 7;
+        }
+
+        data.writeByte(value);
+    }
+
+    /**
+     * Reads a non negative integer written by {@link #writeVarInt(DataOutputStream, int)}.
+     *
+     * @param data the stream
+     * @return The non negative integer.
+     * @throws IOException if the stream cannot be read
+     */
+    private static int readVarInt(DataInputStream data) throws IOException {
+        int value = 0;
+
+        for (int shift = 0; shift < 32; shift += 7) {
+            int b = data.readUnsignedByte();
+
+            value |= (b & 0x7F) << shift;
+
+            if ((b & 0x80) == 0) {
+                return value;
+            }
+        }
+
+        throw new IOException("the checkpoint is corrupted");
+    }
+
+    /**
+     * @return The machine definition fingerprint.
+     */
+    public long getFingerprint() {
+        return fingerprint;
+    }
+
+    /**
+     * @return The current state index.
+     */
+    int getState() {
+        return state;
+    }
+
+    /**
+     * @return The number of steps performed.
+     */
+    public long getSteps() {
+        return steps;
+    }
+
+    /**
+     * @return true if and only if the machine has halted.
+     */
+    public boolean isHalted() {
+        return halted;
+    }
+
+    /**
+     * @return The content of the tape as a string.
+     * @throws UncheckedIOException if the source of the tape cannot be read
+     */
+    public synchronized String getContent() throws UncheckedIOException {
+        readSnapshot();
+
+        return content;
+    }
+
+    /**
+     * @return The position of the first non blank character (Integer.MAX_VALUE if the tape only contains blank
+     * characters)
+     * @throws UncheckedIOException if the source of the tape cannot be read
+     */
+    public synchronized int getContentOffset() throws UncheckedIOException {
+        readSnapshot();
+
+        return offset;
+    }
+
+    /**
+     * Reads the content of the tape from its snapshot, if it has not been read yet, and releases the snapshot.
+     *
+     * @throws UncheckedIOException if the source of the tape cannot be read
+     */
+    private void readSnapshot() throws UncheckedIOException {
+        if (tape != null) {
+            content = tape.getContent();
+            offset = tape.getOffset();
+            tape = null;
+        }
+    }
+
+    /**
+     * @return The head position.
+     */
+    public int getHeadPosition() {
+        return current;
+    }
+
+    /**
+     * @return The blank character being used.
+     */
+    public char getBlank() {
+        return blank;
+    }
+
+    /**
+     * Writer that run-length encodes the characters written to it, as a character followed by the length of its run.
+     */
+    private static class RunWriter extends Writer {
+        /**
+         * The stream the runs are written to.
+         */
+        private final DataOutputStream data;
+        /**
+         * The character of the current run.
+         */
+        private char c;
+        /**
+         * The length of the current run (0 if no character has been written yet).
+         */
+        private int run;
+
+        /**
+         * Creates a new writer.
+         *
+         * @param data the stream the runs are written to
+         */
+        private RunWriter(DataOutputStream data) {
+            this.data = data;
+            this.run = 0;
+        }
+
+        @Override
+        public void write(char[] buffer, int offset, int length) throws IOException {
+            for (int i = offset; i < offset + length; i++) {
+                if (run > 0 && buffer[i] != c) {
+                    writeRun();
+                }
+
+                c = buffer[i];
+                run++;
+            }
+        }
+
+        @Override
+        public void write(String s) throws IOException {
+            write(s.toCharArray(), 0, s.length());
+        }
+
+        /**
+         * Writes the last run, so every character written so far is encoded.
+         *
+         * @throws IOException if the stream cannot be written
+         */
+        @Override
+        public void flush() throws IOException {
+            if (run > 0) {
+                writeRun();
+            }
+        }
+
+        @Override
+        public void close() throws IOException {
+            flush();
+        }
+
+        /**
+         * Writes the current run.
+         *
+         * @throws IOException if the stream cannot be written
+         */
+        private void writeRun() throws IOException {
+            data.writeChar(c);
+            writeVarInt(data, run);
+            run = 0;
+        }
+    }
+}
@@ -0,0 +1,176 @@
+package com.example.turing;
+
+import java.io.IOException;
+import java.io.UncheckedIOException;
+import java.nio.file.Path;
+import java.util.concurrent.CompletableFuture;
+import java.util.concurrent.CompletionException;
+import java.util.concurrent.Executor;
+import java.util.concurrent.ForkJoinPool;
+
+/**
+ * Periodic checkpoint writer for {@link Execution#runCheckpointing(Checkpointer, ExecutionLimits)}.
+ * <p>
+ * The running execution only takes a snapshot of its tape, which shares the tape segments, and the checkpoint is encoded
+ * and written by the given executor while the execution goes on. A checkpoint that becomes due while the previous one is still being written is skipped.
+ * When the run stops, a last checkpoint is written before it returns.
+ */
+public class Checkpointer {
+    /**
+     * The checkpoint file.
+     */
+    private final Path file;
+    /**
+     * The time between two checkpoints, in milliseconds.
+     */
+    private final long interval;
+    /**
+     * The executor that writes the checkpoints.
+     */
+    private final Executor executor;
+    /**
+     * The checkpoint being written (null if none is being written).
+     */
+    private CompletableFuture<Void> pending;
+    /**
+     * The number of checkpoints written.
+     */
+    private volatile long writtenCount;
+
+    /**
+     * Creates a new checkpointer that writes its checkpoints with the common fork/join pool.
+     *
+     * @param file     the checkpoint file
+     * @param interval the time between two checkpoints, in milliseconds
+     * @throws NullPointerException     if the checkpoint file is null
+     * @throws IllegalArgumentException if the time between two checkpoints is not positive
+     */
+    public Checkpointer(Path file, long interval) throws NullPointerException, IllegalArgumentException {
+        this(file, interval, ForkJoinPool.commonPool());
+    }
+
+    /**
+     * Creates a new checkpointer.
+     *
+     * @param file     the checkpoint file
+     * @param interval the time between two checkpoints, in milliseconds
+     * @param executor the executor that writes the checkpoints
+     * @throws NullPointerException     if the checkpoint file is null
+     * @throws IllegalArgumentException if the time between two checkpoints is not positive
+     * @throws NullPointerException     if the executor is null
+     */
+    public Checkpointer(Path file, long interval, Executor executor) throws NullPointerException, IllegalArgumentException {
+        validateConstructorArguments(file, interval, executor);
+
+        this.file = file;
+        this.interval = interval;
+        this.executor = executor;
+        this.pending = null;
+        this.writtenCount = 0;
+    }
+
+    /**
+     * Validates the {@link #Checkpointer(Path, long, Executor)} arguments.
+     *
+     * @param file     the checkpoint file
+     * @param interval the time between two checkpoints, in milliseconds
+     * @param executor the executor that writes the checkpoints
+     * @throws NullPointerException     if the checkpoint file is null
+     * @throws IllegalArgumentException if the time between two checkpoints is not positive
+     * @throws NullPointerException     if the executor is null
+     */
+    private static void validateConstructorArguments(Path file, long interval, Executor executor) throws NullPointerException, IllegalArgumentException {
+        if (file == null) {
+            throw new NullPointerException("the checkpoint file is null");
+        }
+
+        if (interval <= 0) {
+            throw new IllegalArgumentException("the checkpoint interval is not positive");
+        }
+
+        if (executor == null) {
+            throw new NullPointerException("the executor is null");
+        }
+    }
+
+    /**
+     * Writes the given checkpoint in the background, unless the previous one is still being written.
+     *
+     * @param checkpoint the checkpoint
+     * @throws UncheckedIOException if the previous checkpoint could not be written
+     */
+    void submit(Checkpoint checkpoint) throws UncheckedIOException {
+        if (pending != null) {
+            if (!pending.isDone()) {
+                return;
+            }
+
+            await();
+        }
+
+        pending = CompletableFuture.runAsync(() -> write(checkpoint), executor);
+    }
+
+    /**
+     * Waits for the checkpoint being written, and then writes the given checkpoint.
+     *
+     * @param checkpoint the checkpoint
+     * @throws UncheckedIOException if any of the checkpoints could not be written
+     */
+    void finish(Checkpoint checkpoint) throws UncheckedIOException {
+        await();
+        write(checkpoint);
+    }
+
+    /**
+     * Waits for the checkpoint being written.
+     *
+     * @throws UncheckedIOException if the checkpoint could not be written
+     */
+    private void await() throws UncheckedIOException {
+        if (pending == null) {
+            return;
+        }
+
+        try {
+            pending.join();
+        } catch (CompletionException e) {
+            if (e.getCause() instanceof RuntimeException) {
+                throw (RuntimeException) e.getCause();
+            }
+
+            throw e;
+        } finally {
+            pending = null;
+        }
+    }
+
+    /**
+     * Writes the given checkpoint.
+     *
+     * @param checkpoint the checkpoint
+     * @throws UncheckedIOException if the checkpoint could not be written
+     */
+    private void write(Checkpoint checkpoint) throws UncheckedIOException {
+        try {
+            checkpoint.write(file);
+            writtenCount++;
+        } catch (IOException e) {
+            throw new UncheckedIOException(e);
+        }
+    }
+
+    /**
+     * @return The time between two checkpoints, in milliseconds.
+     */
+    public long getInterval() {
+        return interval;
+    }
+
+    /**
+     * @return The number of checkpoints written.
+     */
+    public long getWrittenCount() {
+        return writtenCount;
+    }
+}
@@ -0,0 +1,120 @@
+package com.example.turing;
+
+/**
+ * Base class of the code generated for a {@link MachineDefinition} by {@link MachineDefinition#compile()}.
+ * <p>
+ * Generated subclasses implement {@link #performSteps(long)} with the states, symbols and transitions of the machine
+ * embedded as constants, and access the tape through the final methods of this class, which the JIT inlines. This
+ * class is public only so that generated classes, which are defined by their own class loader, can extend it.
+ */
+public abstract class CompiledMachine {
+    /**
+     * The tape.
+     */
+    private Tape tape;
+    /**
+     * The current state index.
+     */
+    protected int state;
+    /**
+     * The number of steps performed by the last call to {@link #performSteps(long)}.
+     */
+    protected long performed;
+
+    /**
+     * Creates a new instance, not attached to any tape yet.
+     */
+    protected CompiledMachine() {
+        this.tape = null;
+        this.state = 0;
+        this.performed = 0;
+    }
+
+    /**
+     * Attaches this instance to the given tape.
+     *
+     * @param tape the tape
+     */
+    void attach(Tape tape) {
+        this.tape = tape;
+    }
+
+    /**
+     * Performs up to the given number of execution steps from the given state.
+     *
+     * @param state the current state index
+     * @param count the maximum number of steps
+     * @return true if and only if there are still more steps.
+     */
+    boolean perform(int state, long count) {
+        this.state = state;
+        this.performed = 0;
+
+        return performSteps(count);
+    }
+
+    /**
+     * Performs up to the given number of execution steps from {@link #state}, and then updates {@link #state} and
+     * {@link #performed}.
+     *
+     * @param count the maximum number of steps
+     * @return true if and only if there are still more steps.
+     */
+    protected abstract boolean performSteps(long count);
+
+    /**
+     * @return The character in the head position.
+     */
+    protected final char read() {
+        return tape.read();
+    }
+
+    /**
+     * Sets the character in the head position.
+     *
+     * @param c the character to be set
+     */
+    protected final void write(char c) {
+        tape.write(c);
+    }
+
+    /**
+     * Moves the head one position to the left.
+     */
+    protected final void left() {
+        tape.left();
+    }
+
+    /**
+     * Moves the head one position to the right.
+     */
+    protected final void right() {
+        tape.right();
+    }
+
+    /**
+     * Moves the head in the given direction for as long as it is on the given character.
+     *
+     * @param c         the character under the head
+     * @param direction 1 to move to the right, -1 to move to the left
+     * @param max       the maximum number of moves
+     * @return The number of moves.
+     */
+    protected final long sweep(char c, int direction, long max) {
+        return tape.sweep(c, direction, max);
+    }
+
+    /**
+     * @return The current state index.
+     */
+    int getState() {
+        return state;
+    }
+
+    /**
+     * @return The number of steps performed by the last call to {@link #performSteps(long)}.
+     */
+    long getPerformed() {
+        return performed;
+    }
+}
@@ -0,0 +1,98 @@
+package com.example.turing;
+
+/**
+ * Configuration of a nondeterministic turing machine branch.
+ * <p>
+ * Configurations are compared by value, so a branch that reaches a configuration another branch has already reached
+ * can be dropped.
+ */
+class Configuration {
+    /**
+     * The state index.
+     */
+    private final int state;
+    /**
+     * The head position.
+     */
+    private final int head;
+    /**
+     * The tape.
+     */
+    private final SharedTape tape;
+    /**
+     * true if and only if the branch halted when it reached this configuration.
+     */
+    private final boolean halted;
+
+    /**
+     * Creates a new configuration.
+     *
+     * @param state  the state index
+     * @param head   the head position
+     * @param tape   the tape
+     * @param halted true if and only if the branch halted when it reached this configuration
+     */
+    Configuration(int state, int head, SharedTape tape, boolean halted) {
+        this.state = state;
+        this.head = head;
+        this.tape = tape;
+        this.halted = halted;
+    }
+
+    /**
+     * @return The state index.
+     */
+    int getState() {
+        return state;
+    }
+
+    /**
+     * @return The head position.
+     */
+    int getHead() {
+        return head;
+    }
+
+    /**
+     * @return The tape.
+     */
+    SharedTape getTape() {
+        return tape;
+    }
+
+    /**
+     * @return true if and only if the branch halted when it reached this configuration.
+     */
+    boolean isHalted() {
+        return halted;
+    }
+
+    @Override
+    public boolean equals(Object o) {
+        if (this == o) {
+            return true;
+        }
+
+        if (!(o instanceof Configuration)) {
+            return false;
+        }
+
+        Configuration configuration = (Configuration) o;
+
+        return state == configuration.state
+                && head == configuration.head
+                && halted == configuration.halted
+                && tape.hasSameContent(configuration.tape);
+    }
+
+    @Override
+    public int hashCode() {
+        int hash = Long.hashCode(tape.getHash());
+
+        hash = 31 * hash + state;
+        hash = 31 * hash + head;
+        hash = 31 * hash + (halted ? 1 : 0);
+
+        return hash;
+    }
+}
@@ -0,0 +1,276 @@
+package com.example.turing;
+
+/**
+ * Exact configuration cycle detector.
+ * <p>
+ * Uses Brent's algorithm: a single checkpoint configuration is kept and compared against every later configuration,
+ * and it is replaced whenever the number of steps since it was taken reaches the next power of two. Two
+ * configurations are equal when they have the same state, the same head position relative to the content and the same
+ * content, so a machine that repeats a configuration, even shifted along the tape, never halts.
+ * <p>
+ * The content is compared through a polynomial hash, kept up to date on every step in constant time, and only
+ * compared cell by cell when the hashes match, so detection is exact and uses memory bounded by a single copy of the
+ * content.
+ * <p>
+ * If the initial content of the tape is read lazily and has not been read completely, the content bounds are unknown,
+ * so configurations are compared in place instead: the hash only covers the changes made to the initial content, and
+ * only the cells written since the run started are compared. A configuration is then only taken as equal to the
+ * checkpoint if no cell has been written outside the cells written before the checkpoint, so a cycle is detected at
+ * the first checkpoint taken inside it, and the initial content is only read where the head reaches it.
+ */
+class CycleDetector implements StepObserver {
+    /**
+     * The hash base (odd, so it has a multiplicative inverse modulo 2^64).
+     */
+    private static final long BASE = 0x9E3779B97F4A7C15L;
+    /**
+     * The multiplicative inverse of {@link #BASE} modulo 2^64.
+     */
+    private static final long BASE_INVERSE = inverse(BASE);
+
+    /**
+     * The transition table.
+     */
+    private final TransitionTable table;
+    /**
+     * The observed tape.
+     */
+    private final Tape tape;
+    /**
+     * The blank character.
+     */
+    private final char blank;
+    /**
+     * true if configurations are compared relative to the content offset, false if they are compared in place.
+     */
+    private final boolean relative;
+    /**
+     * The sum of (c - blank) * BASE^p over every cell, where c is the character in position p (compared in place, the
+     * sum of (c - i) * BASE^p, where i is the initial character in position p).
+     */
+    private long hash;
+    /**
+     * BASE raised to the head position.
+     */
+    private long headPower;
+    /**
+     * The current state index.
+     */
+    private int state;
+    /**
+     * The position of the first cell written since the run started.
+     */
+    private int low;
+    /**
+     * The position of the last cell written since the run started.
+     */
+    private int high;
+    /**
+     * The checkpoint state index.
+     */
+    private int savedState;
+    /**
+     * The checkpoint head position relative to the content offset (compared in place, the head position).
+     */
+    private long savedHead;
+    /**
+     * The position of the first cell written before the checkpoint.
+     */
+    private int savedLow;
+    /**
+     * The position of the last cell written before the checkpoint.
+     */
+    private int savedHigh;
+    /**
+     * The checkpoint content hash, relative to the content offset.
+     */
+    private long savedHash;
+    /**
+     * The checkpoint content (compared in place, the content of the cells written before the checkpoint).
+     */
+    private String savedContent;
+    /**
+     * The number of steps between two checkpoints.
+     */
+    private long power;
+    /**
+     * The number of steps since the checkpoint.
+     */
+    private long length;
+    /**
+     * The cycle length (0 if no cycle has been detected).
+     */
+    private long cycleLength;
+
+    /**
+     * Creates a new detector, whose first checkpoint is the current configuration.
+     *
+     * @param table the transition table
+     * @param tape  the tape
+     * @param state the current state index
+     */
+    CycleDetector(TransitionTable table, Tape tape, int state) {
+        this.table = table;
+        this.tape = tape;
+        this.blank = tape.getBlank();
+        this.relative = tape.isLoaded();
+        this.state = state;
+        this.low = tape.getCurrent();
+        this.high = tape.getCurrent();
+        this.hash = 0;
+        this.headPower = pow(tape.getCurrent());
+        this.power = 1;
+        this.length = 0;
+        this.cycleLength = 0;
+
+        if (relative) {
+            String content = tape.getContent();
+            long p = pow(tape.getOffset());
+
+            for (int i = 0; i < content.length(); i++) {
+                hash += (content.charAt(i) - blank) * p;
+                p *= BASE;
+            }
+        }
+
+        save();
+    }
+
+    @Override
+    public boolean onStep(int transition, int position, char symbol) {
+        hash += (table.getReplacement(transition) - symbol) * headPower;
+        state = table.getNextState(transition);
+        low = Math.min(low, position);
+        high = Math.max(high, position);
+
+        switch (table.getMove(transition)) {
+            case TransitionTable.MOVE_LEFT:
+                headPower *= BASE_INVERSE;
+                break;
+            case TransitionTable.MOVE_RIGHT:
+                headPower *= BASE;
+                break;
+            default:
+                break;
+        }
+
+        length++;
+
+        if (isCheckpoint()) {
+            cycleLength = length;
+
+            return false;
+        }
+
+        if (length == power) {
+            save();
+            power <<= 1;
+            length = 0;
+        }
+
+        return true;
+    }
+
+    @Override
+    public ExecutionStatus getStopStatus() {
+        return ExecutionStatus.LOOPS_FOREVER;
+    }
+
+    /**
+     * Takes the current configuration as the checkpoint.
+     */
+    private void save() {
+        savedState = state;
+        savedLow = low;
+        savedHigh = high;
+
+        if (relative) {
+            savedHead = getRelativeHead();
+            savedHash = getRelativeHash();
+            savedContent = tape.getContent();
+        } else {
+            savedHead = tape.getCurrent();
+            savedHash = hash;
+            savedContent = tape.getContent(low, high + 1);
+        }
+    }
+
+    /**
+     * @return true if and only if the current configuration equals the checkpoint.
+     */
+    private boolean isCheckpoint() {
+        if (relative) {
+            return state == savedState
+                    && getRelativeHead() == savedHead
+                    && getRelativeHash() == savedHash
+                    && tape.getContent().equals(savedContent);
+        }
+
+        return state == savedState
+                && tape.getCurrent() == savedHead
+                && low == savedLow
+                && high == savedHigh
+                && hash == savedHash
+                && tape.getContent(low, high + 1).equals(savedContent);
+    }
+
+    /**
+     * @return The head position relative to the content offset (0 if the tape only contains blank characters).
+     */
+    private long getRelativeHead() {
+        return tape.getOffset() == Integer.MAX_VALUE ? 0 : (long) tape.getCurrent() - tape.getOffset();
+    }
+
+    /**
+     * @return The content hash, as if the content started at position 0.
+     */
+    private long getRelativeHash() {
+        return tape.getOffset() == Integer.MAX_VALUE ? 0 : hash * pow(-(long) tape.getOffset());
+    }
+
+    /**
+     * @return The cycle length (0 if no cycle has been detected).
+     */
+    long getCycleLength() {
+        return cycleLength;
+    }
+
+    /**
+     * Raises the hash base to the given exponent, modulo 2^64.
+     *
+     * @param exponent the exponent (may be negative)
+     * @return BASE raised to the given exponent.
+     */
+    private static long pow(long exponent) {
+        long base = exponent < 0 ? BASE_INVERSE : BASE;
+        long e = Math.abs(exponent);
+        long result = 1;
+
+        while (e > 0) {
+            if ((e & 1) != 0) {
+                result *= base;
+            }
+
+            base *= base;
+            e >>= 1;
+        }
+
+        return result;
+    }
+
+    /**
+     * Computes the multiplicative inverse of an odd number modulo 2^64 with Newton's iteration.
+     *
+     * @param x the odd number
+     * @return The multiplicative inverse of the given number.
+     */
+    private static long inverse(long x) {
+        long y = x;
+
+        for (int i = 0; i < 6; i++) {
+            y *= 2 - x * y;
+        }
+
+        return y;
+    }
+}
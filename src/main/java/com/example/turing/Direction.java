@@ -0,0 +1,19 @@
+package com.example.turing;
+
+/**
+ * Head movement of a tape of a multi-tape turing machine.
+ */
+public enum Direction {
+    /**
+     * Head movement to the left.
+     */
+    LEFT,
+    /**
+     * Head movement to the right.
+     */
+    RIGHT,
+    /**
+     * No head movement.
+     */
+    STAY
+}
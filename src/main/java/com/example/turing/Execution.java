@@ -0,0 +1,874 @@
+package com.example.turing;
+
+import java.io.Closeable;
+import java.io.IOException;
+import java.io.UncheckedIOException;
+import java.nio.channels.WritableByteChannel;
+import java.nio.charset.Charset;
+import java.util.function.Predicate;
+import java.util.function.Supplier;
+
+/**
+ * Single turing machine execution.
+ * <p>
+ * An execution owns its tape, current state and result, while its {@link MachineDefinition} is only read, so any
+ * number of executions may share the same definition concurrently. A single execution must not be used by more than
+ * one thread at a time.
+ * <p>
+ * Executions created by {@link MachineDefinition#newPagedExecution(String, int, int, char, java.nio.file.Path, long)}
+ * hold a scratch file, which is released by {@link #close()}; closing any other execution does nothing.
+ * <p>
+ * An execution may be advanced a slice at a time with {@link #step(long)}, {@link #run(ExecutionLimits)} or
+ * {@link #runUntil(Predicate, ExecutionLimits)}, and its live configuration may be read between slices without copying
+ * the tape. Breakpoints on states, symbols and head positions stop those runs with
+ * {@link ExecutionStatus#BREAKPOINT_REACHED}; runs without breakpoints use the plain step loop.
+ */
+public class Execution implements Closeable {
+    /**
+     * The maximum number of steps performed between two execution limit checks.
+     */
+    private static final long CHECK_INTERVAL = 1 << 16;
+
+    /**
+     * The transition table.
+     */
+    private final TransitionTable table;
+    /**
+     * The tape.
+     */
+    private final Tape tape;
+    /**
+     * The generated code that performs plain steps (null if they are performed by the interpreter).
+     */
+    private final CompiledMachine code;
+    /**
+     * The current state index.
+     */
+    private int state;
+    /**
+     * The number of steps performed.
+     */
+    private long steps;
+    /**
+     * true if and only if the machine has halted.
+     */
+    private boolean halted;
+    /**
+     * true if and only if a step observer stopped the last observed steps.
+     */
+    private boolean stopped;
+    /**
+     * The result of the last run (null if this execution has not run yet).
+     */
+    private ExecutionResult result;
+    /**
+     * The breakpoints (null if no breakpoint has been added yet).
+     */
+    private Breakpoints breakpoints;
+
+    /**
+     * Creates a new execution in the initial state of the given transition table.
+     *
+     * @param table the transition table
+     * @param tape  the tape
+     * @param code  the generated code that performs plain steps (null to perform them with the interpreter)
+     */
+    Execution(TransitionTable table, Tape tape, CompiledMachine code) {
+        this(table, tape, table.getInitialState(), 0, false, code);
+    }
+
+    /**
+     * Creates a new execution in the given configuration.
+     *
+     * @param table  the transition table
+     * @param tape   the tape
+     * @param state  the current state index
+     * @param steps  the number of steps performed
+     * @param halted true if and only if the machine has halted
+     * @param code   the generated code that performs plain steps (null to perform them with the interpreter)
+     */
+    Execution(TransitionTable table, Tape tape, int state, long steps, boolean halted, CompiledMachine code) {
+        this.table = table;
+        this.tape = tape;
+        this.code = code;
+        this.state = state;
+        this.steps = steps;
+        this.halted = halted;
+        this.stopped = false;
+        this.result = null;
+        this.breakpoints = null;
+    }
+
+    /**
+     * Performs execution steps until the machine halts.
+     *
+     * @return The execution result.
+     */
+    public ExecutionResult run() {
+        return run(ExecutionLimits.NONE);
+    }
+
+    /**
+     * Performs execution steps until the machine halts, any of the given limits is reached or a breakpoint is reached.
+     * <p>
+     * An execution stopped by a limit or a breakpoint may be run again to continue where it stopped, in which case the
+     * maximum number of steps applies to the new run only. Steps are performed in chunks of at most
+     * {@link #CHECK_INTERVAL} steps, so the cancellation token and the clock are only checked once per chunk.
+     *
+     * @param limits the execution limits
+     * @return The execution result.
+     * @throws NullPointerException if the execution limits are null
+     */
+    public ExecutionResult run(ExecutionLimits limits) throws NullPointerException {
+        validateRunArguments(limits);
+
+        return runObserved(limits, breakpoints == null || breakpoints.isEmpty() ? null : breakpoints);
+    }
+
+    /**
+     * Performs up to the given number of execution steps, stopping earlier if the machine halts or a breakpoint is
+     * reached.
+     *
+     * @param count the maximum number of steps
+     * @return The execution result, with status {@link ExecutionStatus#STEP_LIMIT_REACHED} if every step was
+     * performed and the machine can still move.
+     * @throws IllegalArgumentException if the number of steps is negative
+     */
+    public ExecutionResult step(long count) throws IllegalArgumentException {
+        validateStepArguments(count);
+
+        return run(new ExecutionLimits(count, Long.MAX_VALUE, null));
+    }
+
+    /**
+     * Validates the {@link #step(long)} arguments.
+     *
+     * @param count the maximum number of steps
+     * @throws IllegalArgumentException if the number of steps is negative
+     */
+    private void validateStepArguments(long count) throws IllegalArgumentException {
+        if (count < 0) {
+            Metrics.getRegistry().executionRejected();
+
+            throw new IllegalArgumentException("the number of steps is negative");
+        }
+    }
+
+    /**
+     * Performs execution steps until the machine halts, any of the given limits is reached, a breakpoint is reached or
+     * the given condition holds.
+     * <p>
+     * The condition is tested after every step against this execution, so it can read the live configuration through
+     * the getters of this class, and the run stops with {@link ExecutionStatus#BREAKPOINT_REACHED} as soon as it holds.
+     * It is not tested before the first step, so a run stopped by a condition may be continued with the same one.
+     *
+     * @param condition the condition
+     * @param limits    the execution limits
+     * @return The execution result.
+     * @throws NullPointerException if the condition is null
+     * @throws NullPointerException if the execution limits are null
+     */
+    public ExecutionResult runUntil(Predicate<? super Execution> condition, ExecutionLimits limits) throws NullPointerException {
+        validateRunUntilArguments(condition, limits);
+
+        Breakpoints observer = getBreakpoints();
+
+        observer.setCondition(condition);
+
+        try {
+            return runObserved(limits, observer);
+        } finally {
+            observer.setCondition(null);
+        }
+    }
+
+    /**
+     * Validates the {@link #runUntil(Predicate, ExecutionLimits)} arguments.
+     *
+     * @param condition the condition
+     * @param limits    the execution limits
+     * @throws NullPointerException if the condition is null
+     * @throws NullPointerException if the execution limits are null
+     */
+    private void validateRunUntilArguments(Predicate<? super Execution> condition, ExecutionLimits limits) throws NullPointerException {
+        if (condition == null) {
+            Metrics.getRegistry().executionRejected();
+
+            throw new NullPointerException("the condition is null");
+        }
+
+        validateRunArguments(limits);
+    }
+
+    /**
+     * Performs execution steps until the machine halts, any of the given limits is reached or the given observer stops
+     * the execution, and measures the run.
+     *
+     * @param limits   the execution limits
+     * @param observer the step observer (null if steps are not observed)
+     * @return The execution result.
+     */
+    private ExecutionResult runObserved(ExecutionLimits limits, StepObserver observer) {
+        return measure(() -> new ExecutionResult(runUntilStopped(limits, observer), steps, table, state, tape));
+    }
+
+    /**
+     * Adds a breakpoint that stops {@link #run(ExecutionLimits)}, {@link #step(long)} and
+     * {@link #runUntil(Predicate, ExecutionLimits)} after any step that enters the given state.
+     *
+     * @param name the state name
+     * @throws NullPointerException     if the state name is null
+     * @throws IllegalArgumentException if the state name does not exist
+     */
+    public void addStateBreakpoint(String name) throws NullPointerException, IllegalArgumentException {
+        validateStateName(name);
+
+        for (int i = 0; i < table.getStateCount(); i++) {
+            if (name.equals(table.getName(i))) {
+                getBreakpoints().addState(i);
+
+                return;
+            }
+        }
+
+        throw new IllegalArgumentException("the state name does not exist");
+    }
+
+    /**
+     * Validates the {@link #addStateBreakpoint(String)} arguments.
+     *
+     * @param name the state name
+     * @throws NullPointerException if the state name is null
+     */
+    private void validateStateName(String name) throws NullPointerException {
+        if (name == null) {
+            throw new NullPointerException("the state name is null");
+        }
+    }
+
+    /**
+     * Adds a breakpoint that stops {@link #run(ExecutionLimits)}, {@link #step(long)} and
+     * {@link #runUntil(Predicate, ExecutionLimits)} after any step that leaves the head on the given symbol.
+     *
+     * @param symbol the symbol
+     */
+    public void addSymbolBreakpoint(char symbol) {
+        getBreakpoints().addSymbol(symbol);
+    }
+
+    /**
+     * Adds a breakpoint that stops {@link #run(ExecutionLimits)}, {@link #step(long)} and
+     * {@link #runUntil(Predicate, ExecutionLimits)} after any step that leaves the head on the given position.
+     *
+     * @param position the head position
+     */
+    public void addPositionBreakpoint(int position) {
+        getBreakpoints().addPosition(position);
+    }
+
+    /**
+     * Removes every breakpoint.
+     */
+    public void clearBreakpoints() {
+        if (breakpoints != null) {
+            breakpoints.clear();
+        }
+    }
+
+    /**
+     * @return The breakpoints, which are created the first time they are needed.
+     */
+    private Breakpoints getBreakpoints() {
+        if (breakpoints == null) {
+            breakpoints = new Breakpoints(this, table, tape);
+        }
+
+        return breakpoints;
+    }
+
+    /**
+     * Performs execution steps until the machine halts, any of the given limits is reached or the machine enters a
+     * configuration it had already been in during this run.
+     * <p>
+     * A repeated configuration (same state, same head position relative to the content and same content) proves the
+     * machine never halts, in which case the status is {@link ExecutionStatus#LOOPS_FOREVER} and the result reports the
+     * cycle length. Detection uses Brent's algorithm with an incrementally updated tape hash, so it keeps a single
+     * checkpoint configuration in memory and detects a cycle within a small multiple of its length after the machine
+     * enters it, at the cost of a slower step loop.
+     *
+     * @param limits the execution limits
+     * @return The execution result.
+     * @throws NullPointerException if the execution limits are null
+     */
+    public ExecutionResult runDetectingCycles(ExecutionLimits limits) throws NullPointerException {
+        validateRunArguments(limits);
+
+        return measure(() -> {
+            CycleDetector detector = new CycleDetector(table, tape, state);
+            ExecutionStatus status = runUntilStopped(limits, detector);
+
+            return new ExecutionResult(status, steps, table, state, tape, detector.getCycleLength());
+        });
+    }
+
+    /**
+     * Performs execution steps until the machine halts or any of the given limits is reached, appending every step to
+     * the given trace.
+     * <p>
+     * The first run with a trace starts its recording, and later runs with the same trace continue it, so an execution
+     * must not perform steps without its trace in between.
+     *
+     * @param trace  the trace
+     * @param limits the execution limits
+     * @return The execution result.
+     * @throws NullPointerException     if the trace is null
+     * @throws NullPointerException     if the execution limits are null
+     * @throws IllegalStateException    if the trace is closed
+     * @throws IllegalStateException    if the trace was opened to be replayed only
+     * @throws IllegalArgumentException if the trace records another execution
+     * @throws IllegalStateException    if this execution performed steps that were not recorded
+     * @throws UncheckedIOException     if the trace file cannot be extended
+     */
+    public ExecutionResult runRecording(ExecutionTrace trace, ExecutionLimits limits) throws NullPointerException, IllegalStateException, IllegalArgumentException, UncheckedIOException {
+        validateRunRecordingArguments(trace, limits);
+        trace.attach(this, table, tape, state, steps);
+
+        return measure(() -> {
+            try {
+                return new ExecutionResult(runUntilStopped(limits, new TraceRecorder(trace, table, tape)), steps, table, state, tape);
+            } finally {
+                trace.updateHeader();
+            }
+        });
+    }
+
+    /**
+     * Validates the {@link #runRecording(ExecutionTrace, ExecutionLimits)} arguments.
+     *
+     * @param trace  the trace
+     * @param limits the execution limits
+     * @throws NullPointerException if the trace is null
+     * @throws NullPointerException if the execution limits are null
+     */
+    private void validateRunRecordingArguments(ExecutionTrace trace, ExecutionLimits limits) throws NullPointerException {
+        if (trace == null) {
+            Metrics.getRegistry().executionRejected();
+
+            throw new NullPointerException("the trace is null");
+        }
+
+        validateRunArguments(limits);
+    }
+
+    /**
+     * Performs execution steps until the machine halts or any of the given limits is reached, writing a checkpoint of
+     * the configuration periodically and once more when the run stops.
+     * <p>
+     * Checkpoints are taken when the execution limits are checked, so the actual time between two checkpoints may be
+     * longer than the interval of the checkpointer by up to {@link #CHECK_INTERVAL} steps.
+     *
+     * @param checkpointer the checkpointer
+     * @param limits       the execution limits
+     * @return The execution result.
+     * @throws NullPointerException if the checkpointer is null
+     * @throws NullPointerException if the execution limits are null
+     * @throws UncheckedIOException if a checkpoint cannot be written
+     */
+    public ExecutionResult runCheckpointing(Checkpointer checkpointer, ExecutionLimits limits) throws NullPointerException, UncheckedIOException {
+        validateRunCheckpointingArguments(checkpointer, limits);
+
+        return measure(() -> {
+            long fingerprint = table.fingerprint();
+            long end = steps + limits.getMaxSteps() < 0 ? Long.MAX_VALUE : steps + limits.getMaxSteps();
+            ExecutionStatus status;
+
+            while (true) {
+                long now = System.currentTimeMillis();
+                long deadline = Math.min(limits.getDeadline(), now + checkpointer.getInterval() < 0 ? Long.MAX_VALUE : now + checkpointer.getInterval());
+
+                status = runUntilStopped(new ExecutionLimits(end - steps, deadline, limits.getCancellationToken()), null);
+
+                if (status != ExecutionStatus.DEADLINE_EXCEEDED || deadline == limits.getDeadline()) {
+                    break;
+                }
+
+                checkpointer.submit(checkpoint(fingerprint));
+            }
+
+            ExecutionResult stopped = new ExecutionResult(status, steps, table, state, tape);
+
+            checkpointer.finish(checkpoint(fingerprint));
+
+            return stopped;
+        });
+    }
+
+    /**
+     * Validates the {@link #runCheckpointing(Checkpointer, ExecutionLimits)} arguments.
+     *
+     * @param checkpointer the checkpointer
+     * @param limits       the execution limits
+     * @throws NullPointerException if the checkpointer is null
+     * @throws NullPointerException if the execution limits are null
+     */
+    private void validateRunCheckpointingArguments(Checkpointer checkpointer, ExecutionLimits limits) throws NullPointerException {
+        if (checkpointer == null) {
+            Metrics.getRegistry().executionRejected();
+
+            throw new NullPointerException("the checkpointer is null");
+        }
+
+        validateRunArguments(limits);
+    }
+
+    /**
+     * @return A checkpoint of the current configuration.
+     */
+    public Checkpoint checkpoint() {
+        return checkpoint(table.fingerprint());
+    }
+
+    /**
+     * Creates a checkpoint of the current configuration.
+     *
+     * @param fingerprint the machine definition fingerprint
+     * @return The checkpoint.
+     */
+    private Checkpoint checkpoint(long fingerprint) {
+        return new Checkpoint(fingerprint, state, steps, halted, tape.snapshot());
+    }
+
+    /**
+     * Performs execution steps as a macro machine until the machine halts or any of the given limits is reached.
+     * <p>
+     * The tape is grouped into blocks of the given number of cells, and every run of steps the machine performs inside
+     * a single block is replaced by a single cached macro step, computed the first time the machine enters a block
+     * with a given content, state and head position. This pays off for long running machines that keep revisiting the
+     * same block contents, and yields exactly the same configuration and number of steps as {@link
+     * #run(ExecutionLimits)}.
+     *
+     * @param blockSize the number of cells of each block
+     * @param limits    the execution limits
+     * @return The execution result.
+     * @throws IllegalArgumentException if the block size is not positive
+     * @throws NullPointerException     if the execution limits are null
+     */
+    public ExecutionResult runMacro(int blockSize, ExecutionLimits limits) throws IllegalArgumentException, NullPointerException {
+        validateRunMacroArguments(blockSize, limits);
+
+        return measure(() -> {
+            ExecutionStatus status = ExecutionStatus.HALTED;
+
+            if (!halted) {
+                MacroSimulator simulator = new MacroSimulator(table, blockSize, tape.getBlank());
+
+                status = simulator.run(tape, state, steps, limits);
+                state = simulator.getState();
+                steps = simulator.getSteps();
+                halted = status == ExecutionStatus.HALTED;
+            }
+
+            return new ExecutionResult(status, steps, table, state, tape);
+        });
+    }
+
+    /**
+     * Validates the {@link #runMacro(int, ExecutionLimits)} arguments.
+     *
+     * @param blockSize the number of cells of each block
+     * @param limits    the execution limits
+     * @throws IllegalArgumentException if the block size is not positive
+     * @throws NullPointerException     if the execution limits are null
+     */
+    private void validateRunMacroArguments(int blockSize, ExecutionLimits limits) throws IllegalArgumentException, NullPointerException {
+        if (blockSize <= 0) {
+            Metrics.getRegistry().executionRejected();
+
+            throw new IllegalArgumentException("the block size is not positive");
+        }
+
+        validateRunArguments(limits);
+    }
+
+    /**
+     * Validates the {@link #run(ExecutionLimits)} arguments.
+     *
+     * @param limits the execution limits
+     * @throws NullPointerException if the execution limits are null
+     */
+    private void validateRunArguments(ExecutionLimits limits) throws NullPointerException {
+        if (limits == null) {
+            Metrics.getRegistry().executionRejected();
+
+            throw new NullPointerException("the execution limits are null");
+        }
+    }
+
+    /**
+     * Performs the given run, keeping its result as the current result, and measures it. The installed registry is
+     * notified when the run stops, whether it returns or throws an exception, so a failed run is never left counted as
+     * active.
+     *
+     * @param run the run
+     * @return The result of the run.
+     */
+    private ExecutionResult measure(Supplier<ExecutionResult> run) {
+        MetricsRegistry registry = Metrics.getRegistry();
+        long start = startMeasuring(registry);
+        long startSteps = steps;
+
+        try {
+            result = run.get();
+        } catch (RuntimeException | Error e) {
+            if (registry != MetricsRegistry.NONE) {
+                registry.executionFailed(steps - startSteps, System.nanoTime() - start);
+            }
+
+            throw e;
+        }
+
+        stopMeasuring(registry, start, startSteps);
+
+        return result;
+    }
+
+    /**
+     * Notifies the given registry that a run has started.
+     *
+     * @param registry the metrics registry
+     * @return The start time of the run, in nanoseconds (0 if the registry is {@link MetricsRegistry#NONE}).
+     */
+    private static long startMeasuring(MetricsRegistry registry) {
+        if (registry == MetricsRegistry.NONE) {
+            return 0;
+        }
+
+        registry.executionStarted();
+
+        return System.nanoTime();
+    }
+
+    /**
+     * Notifies the given registry that the current run has stopped with the current result.
+     *
+     * @param registry   the metrics registry
+     * @param start      the start time of the run, in nanoseconds
+     * @param startSteps the number of steps performed before the run
+     */
+    private void stopMeasuring(MetricsRegistry registry, long start, long startSteps) {
+        if (registry != MetricsRegistry.NONE) {
+            registry.executionCompleted(result.getStatus(), steps - startSteps, System.nanoTime() - start, result.getContentLength());
+        }
+    }
+
+    /**
+     * Performs execution steps until the machine halts, any of the given limits is reached or the given observer stops
+     * the execution.
+     *
+     * @param limits   the execution limits
+     * @param observer the step observer (null if steps are not observed)
+     * @return The execution status.
+     */
+    private ExecutionStatus runUntilStopped(ExecutionLimits limits, StepObserver observer) {
+        long end = steps + limits.getMaxSteps() < 0 ? Long.MAX_VALUE : steps + limits.getMaxSteps();
+        long deadline = limits.getDeadline();
+        CancellationToken cancellationToken = limits.getCancellationToken();
+
+        if (halted) {
+            return ExecutionStatus.HALTED;
+        }
+
+        stopped = false;
+
+        while (observer == null ? performPlainSteps(Math.min(end - steps, CHECK_INTERVAL)) : performObservedSteps(Math.min(end - steps, CHECK_INTERVAL), observer)) {
+            if (steps >= end) {
+                if (table.getTransition(state, tape.read()) < 0) {
+                    halted = true;
+
+                    return ExecutionStatus.HALTED;
+                }
+
+                return ExecutionStatus.STEP_LIMIT_REACHED;
+            }
+
+            if (cancellationToken != null && cancellationToken.isCancelled()) {
+                return ExecutionStatus.CANCELLED;
+            }
+
+            if (deadline != Long.MAX_VALUE && System.currentTimeMillis() >= deadline) {
+                return ExecutionStatus.DEADLINE_EXCEEDED;
+            }
+        }
+
+        if (stopped) {
+            return observer.getStopStatus();
+        }
+
+        halted = true;
+
+        return ExecutionStatus.HALTED;
+    }
+
+    /**
+     * Performs up to the given number of execution steps, with the generated code if there is one.
+     *
+     * @param count the maximum number of steps
+     * @return true if and only if there are still more steps.
+     */
+    private boolean performPlainSteps(long count) {
+        if (code == null) {
+            return performSteps(count);
+        }
+
+        boolean more = code.perform(state, count);
+
+        state = code.getState();
+        steps += code.getPerformed();
+
+        return more;
+    }
+
+    /**
+     * Performs up to the given number of execution steps.
+     * <p>
+     * A run of sweep transitions, which keep the state and the symbol under the head, is performed as a single scan of
+     * the tape that counts one step per cell it moves over.
+     *
+     * @param count the maximum number of steps
+     * @return true if and only if there are still more steps.
+     */
+    private boolean performSteps(long count) {
+        TransitionTable table = this.table;
+        Tape tape = this.tape;
+        int state = this.state;
+        long i = 0;
+        boolean running = true;
+
+        while (running && i < count) {
+            char symbol = tape.read();
+            int transition = table.getTransition(state, symbol);
+
+            if (transition < 0) {
+                break; // stop
+            }
+
+            if (table.isSweep(transition)) {
+                i += tape.sweep(symbol, table.getMove(transition), count - i);
+                continue;
+            }
+
+            tape.write(table.getReplacement(transition));
+            state = table.getNextState(transition);
+            i++;
+
+            switch (table.getMove(transition)) {
+                case TransitionTable.MOVE_LEFT:
+                    tape.left();
+                    break; // continue
+                case TransitionTable.MOVE_RIGHT:
+                    tape.right();
+                    break; // continue
+                default:
+                    running = false; // stop
+            }
+        }
+
+        this.state = state;
+        this.steps += i;
+
+        return running && i == count;
+    }
+
+    /**
+     * Performs up to the given number of execution steps, notifying the given observer after each one.
+     *
+     * @param count    the maximum number of steps
+     * @param observer the step observer
+     * @return true if and only if there are still more steps.
+     */
+    private boolean performObservedSteps(long count, StepObserver observer) {
+        long i = 0;
+        boolean running = true;
+
+        while (running && i < count) {
+            int position = tape.getCurrent();
+            char symbol = tape.read();
+            int transition = table.getTransition(state, symbol);
+
+            if (transition < 0) {
+                break; // stop
+            }
+
+            tape.write(table.getReplacement(transition));
+            state = table.getNextState(transition);
+            steps++;
+            i++;
+
+            switch (table.getMove(transition)) {
+                case TransitionTable.MOVE_LEFT:
+                    tape.left();
+                    break; // continue
+                case TransitionTable.MOVE_RIGHT:
+                    tape.right();
+                    break; // continue
+                default:
+                    running = false; // stop
+            }
+
+            if (!observer.onStep(transition, position, symbol)) {
+                stopped = running;
+                running = false; // stop
+            }
+        }
+
+        return running && i == count;
+    }
+
+    /**
+     * Releases the scratch file of the tape, if it has one. Neither this execution nor its results may be used
+     * afterwards.
+     *
+     * @throws IOException if the scratch file cannot be released
+     */
+    @Override
+    public void close() throws IOException {
+        tape.close();
+    }
+
+    /**
+     * @return The result of the last run (null if this execution has not run yet).
+     */
+    public ExecutionResult getResult() {
+        return result;
+    }
+
+    /**
+     * @return true if and only if the machine has halted.
+     */
+    public boolean isHalted() {
+        return halted;
+    }
+
+    /**
+     * @return The number of steps performed.
+     */
+    public long getSteps() {
+        return steps;
+    }
+
+    /**
+     * @return true if and only if the current state is a final or accepting state.
+     */
+    public boolean isAccepted() {
+        return table.isAccepting(state);
+    }
+
+    /**
+     * @return The current state name.
+     */
+    public String getCurrentStateName() {
+        return table.getName(state);
+    }
+
+    /**
+     * @return The symbol under the head.
+     */
+    public char getCurrentSymbol() {
+        return tape.read();
+    }
+
+    /**
+     * @return The content of the tape as a string.
+     */
+    public String getContent() {
+        return tape.getContent();
+    }
+
+    /**
+     * Gets the content of the given range of the tape, blank characters included. Only the cells in the range are
+     * read, so this is cheaper than {@link #getContent()} on large tapes.
+     *
+     * @param from the range start (inclusive)
+     * @param to   the range end (exclusive)
+     * @return The content of the given range as a string.
+     * @throws IllegalArgumentException if the range start is greater than the range end
+     */
+    public String getContent(int from, int to) throws IllegalArgumentException {
+        return tape.getContent(from, to);
+    }
+
+    /**
+     * Gets the content of the cells at most the given distance away from the head, blank characters included.
+     *
+     * @param radius the maximum distance from the head
+     * @return The content around the head as a string.
+     * @throws IllegalArgumentException if the radius is negative
+     */
+    public String getContentAroundHead(int radius) throws IllegalArgumentException {
+        return tape.getContentAroundHead(radius);
+    }
+
+    /**
+     * Writes the content of the tape to the given appendable (a {@link java.io.Writer}, for instance) without building
+     * it as a string.
+     *
+     * @param out the appendable
+     * @throws NullPointerException if the appendable is null
+     * @throws IOException          if the appendable cannot be written
+     */
+    public void writeContent(Appendable out) throws NullPointerException, IOException {
+        tape.writeContent(out);
+    }
+
+    /**
+     * Writes the content of the given range of the tape, blank characters included, to the given appendable.
+     *
+     * @param from the range start (inclusive)
+     * @param to   the range end (exclusive)
+     * @param out  the appendable
+     * @throws IllegalArgumentException if the range start is greater than the range end
+     * @throws NullPointerException     if the appendable is null
+     * @throws IOException              if the appendable cannot be written
+     */
+    public void writeContent(int from, int to, Appendable out) throws IllegalArgumentException, NullPointerException, IOException {
+        tape.writeContent(from, to, out);
+    }
+
+    /**
+     * Writes the content of the tape to the given channel, encoded with the given charset. The channel is not closed.
+     *
+     * @param channel the channel
+     * @param charset the charset
+     * @throws NullPointerException if the channel is null
+     * @throws NullPointerException if the charset is null
+     * @throws IOException          if the channel cannot be written
+     */
+    public void writeContent(WritableByteChannel channel, Charset charset) throws NullPointerException, IOException {
+        tape.writeContent(channel, charset);
+    }
+
+    /**
+     * Gets the position of the first non blank character. If the initial content is read lazily, the part of it that
+     * has not been read yet is read first, since it may hold the first non blank character.
+     *
+     * @return The position of the first non blank character (Integer.MAX_VALUE if the tape only contains blank
+     * characters)
+     */
+    public int getContentOffset() {
+        return tape.getOffset();
+    }
+
+    /**
+     * @return The head position.
+     */
+    public int getHeadPosition() {
+        return tape.getCurrent();
+    }
+
+    /**
+     * @return The blank character being used.
+     */
+    public char getBlank() {
+        return tape.getBlank();
+    }
+}
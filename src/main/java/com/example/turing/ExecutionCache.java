@@ -0,0 +1,441 @@
+package com.example.turing;
+
+import java.util.Iterator;
+import java.util.LinkedHashMap;
+import java.util.Map;
+import java.util.concurrent.CompletableFuture;
+import java.util.concurrent.CompletionException;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.ExecutionException;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.TimeoutException;
+import java.util.concurrent.atomic.LongAdder;
+
+/**
+ * Bounded cache of turing machine execution results.
+ * <p>
+ * Results are keyed by the fingerprint of the machine definition and the execution arguments, so equal definitions
+ * share their cached results even if they are different instances. The least recently used results are evicted
+ * whenever the cache holds more than its maximum number of entries, or its total weight exceeds its maximum weight,
+ * where the weight of a result is the length of its initial content plus the length of its final content.
+ * <p>
+ * Only results that do not depend on timing are cached, that is, results of executions that halted or reached their
+ * maximum number of steps. Concurrent requests for the same key run a single execution and share its result. A request
+ * waiting for the execution of another one still honours its own deadline and cancellation token, and runs its own
+ * execution if the shared one was stopped by the deadline or cancellation token of the request that started it.
+ */
+public class ExecutionCache {
+    /**
+     * The maximum time a request waits for an execution in progress before checking its own limits again, in
+     * milliseconds.
+     */
+    private static final long POLL_INTERVAL = 10;
+
+    /**
+     * The maximum number of entries.
+     */
+    private final int maxEntries;
+    /**
+     * The maximum total weight.
+     */
+    private final long maxWeight;
+    /**
+     * The cached entries, in access order.
+     */
+    private final LinkedHashMap<Key, Entry> entries;
+    /**
+     * The executions in progress.
+     */
+    private final Map<Key, CompletableFuture<ExecutionResult>> executions;
+    /**
+     * The total weight of the cached entries.
+     */
+    private long weight;
+    /**
+     * The number of requests served from the cache.
+     */
+    private final LongAdder hits;
+    /**
+     * The number of requests that needed an execution.
+     */
+    private final LongAdder misses;
+    /**
+     * The number of evicted entries.
+     */
+    private final LongAdder evictions;
+
+    /**
+     * Creates a new empty cache.
+     *
+     * @param maxEntries the maximum number of entries
+     * @param maxWeight  the maximum total weight
+     * @throws IllegalArgumentException if the maximum number of entries is not positive
+     * @throws IllegalArgumentException if the maximum total weight is not positive
+     */
+    public ExecutionCache(int maxEntries, long maxWeight) throws IllegalArgumentException {
+        validateConstructorArguments(maxEntries, maxWeight);
+
+        this.maxEntries = maxEntries;
+        this.maxWeight = maxWeight;
+        this.entries = new LinkedHashMap<>(16, 0.75f, true);
+        this.executions = new ConcurrentHashMap<>();
+        this.weight = 0;
+        this.hits = new LongAdder();
+        this.misses = new LongAdder();
+        this.evictions = new LongAdder();
+    }
+
+    /**
+     * Validates the {@link #ExecutionCache(int, long)} arguments.
+     *
+     * @param maxEntries the maximum number of entries
+     * @param maxWeight  the maximum total weight
+     * @throws IllegalArgumentException if the maximum number of entries is not positive
+     * @throws IllegalArgumentException if the maximum total weight is not positive
+     */
+    private static void validateConstructorArguments(int maxEntries, long maxWeight) throws IllegalArgumentException {
+        if (maxEntries <= 0) {
+            throw new IllegalArgumentException("the maximum number of entries is not positive");
+        }
+
+        if (maxWeight <= 0) {
+            throw new IllegalArgumentException("the maximum total weight is not positive");
+        }
+    }
+
+    /**
+     * Executes the given machine for the given input, or returns the cached result of an equal execution.
+     *
+     * @param definition the machine definition
+     * @param content    the initial content of the tape
+     * @param offset     the initial content offset
+     * @param current    the head position
+     * @param blank      the blank character
+     * @param limits     the execution limits
+     * @return The execution result.
+     * @throws NullPointerException if the machine definition is null
+     * @throws NullPointerException if the initial content is null
+     * @throws NullPointerException if the execution limits are null
+     */
+    public ExecutionResult execute(MachineDefinition definition, String content, int offset, int current, char blank, ExecutionLimits limits) throws NullPointerException {
+        validateExecuteArguments(definition, content, limits);
+
+        Key key = new Key(definition.getFingerprint(), content, offset, current, blank, limits.getMaxSteps());
+        CompletableFuture<ExecutionResult> execution = new CompletableFuture<>();
+
+        while (true) {
+            ExecutionResult cached = get(key);
+
+            if (cached != null) {
+                return cached;
+            }
+
+            CompletableFuture<ExecutionResult> existing = executions.putIfAbsent(key, execution);
+
+            if (existing == null) {
+                break;
+            }
+
+            ExecutionResult result = await(existing, limits);
+
+            if (result == null) {
+                // the limits of this request were reached first, so it stops on its own
+                misses.increment();
+
+                return definition.execute(content, offset, current, blank, limits);
+            }
+
+            if (result.getStatus() != ExecutionStatus.CANCELLED && result.getStatus() != ExecutionStatus.DEADLINE_EXCEEDED) {
+                hits.increment();
+
+                return result;
+            }
+
+            // stopped by the limits of the request that started it, so this request runs it again
+            executions.remove(key, existing);
+        }
+
+        misses.increment();
+
+        try {
+            ExecutionResult result = definition.execute(content, offset, current, blank, limits);
+
+            if (result.getStatus() == ExecutionStatus.HALTED || result.getStatus() == ExecutionStatus.STEP_LIMIT_REACHED) {
+                put(key, result);
+            }
+
+            execution.complete(result);
+
+            return result;
+        } catch (RuntimeException | Error e) {
+            execution.completeExceptionally(e);
+
+            throw e;
+        } finally {
+            executions.remove(key, execution);
+        }
+    }
+
+    /**
+     * Validates the {@link #execute(MachineDefinition, String, int, int, char, ExecutionLimits)} arguments.
+     *
+     * @param definition the machine definition
+     * @param content    the initial content of the tape
+     * @param limits     the execution limits
+     * @throws NullPointerException if the machine definition is null
+     * @throws NullPointerException if the initial content is null
+     * @throws NullPointerException if the execution limits are null
+     */
+    private void validateExecuteArguments(MachineDefinition definition, String content, ExecutionLimits limits) throws NullPointerException {
+        if (definition == null) {
+            throw new NullPointerException("the machine definition is null");
+        }
+
+        if (content == null) {
+            throw new NullPointerException("the initial content is null");
+        }
+
+        if (limits == null) {
+            throw new NullPointerException("the execution limits are null");
+        }
+    }
+
+    /**
+     * Gets the cached result for the given key, counting a hit if there is one.
+     *
+     * @param key the key
+     * @return The cached result (null if there is none).
+     */
+    private synchronized ExecutionResult get(Key key) {
+        Entry entry = entries.get(key);
+
+        if (entry == null) {
+            return null;
+        }
+
+        hits.increment();
+
+        return entry.result;
+    }
+
+    /**
+     * Caches the given result, evicting the least recently used results if needed.
+     *
+     * @param key    the key
+     * @param result the result
+     */
+    private synchronized void put(Key key, ExecutionResult result) {
+        Entry entry = new Entry(result, key.content.length() + result.getContentLength());
+        Entry previous = entries.put(key, entry);
+
+        weight += entry.weight - (previous == null ? 0 : previous.weight);
+
+        Iterator<Entry> iterator = entries.values().iterator();
+
+        while ((entries.size() > maxEntries || weight > maxWeight) && iterator.hasNext()) {
+            weight -= iterator.next().weight;
+            iterator.remove();
+            evictions.increment();
+        }
+    }
+
+    /**
+     * Waits for an execution in progress, until it completes or the deadline or cancellation token of the waiting
+     * request stops it. Interrupts do not stop the wait, and are restored when it ends.
+     *
+     * @param execution the execution in progress
+     * @param limits    the execution limits of the waiting request
+     * @return The execution result (null if the limits of the waiting request were reached first).
+     */
+    private static ExecutionResult await(CompletableFuture<ExecutionResult> execution, ExecutionLimits limits) {
+        CancellationToken cancellationToken = limits.getCancellationToken();
+        long deadline = limits.getDeadline();
+        boolean interrupted = false;
+
+        try {
+            while (true) {
+                if (cancellationToken != null && cancellationToken.isCancelled()) {
+                    return null;
+                }
+
+                long timeout = deadline == Long.MAX_VALUE ? POLL_INTERVAL : Math.min(POLL_INTERVAL, deadline - System.currentTimeMillis());
+
+                if (timeout <= 0) {
+                    return null;
+                }
+
+                try {
+                    return execution.get(timeout, TimeUnit.MILLISECONDS);
+                } catch (TimeoutException e) {
+                    // the limits are checked again
+                } catch (InterruptedException e) {
+                    interrupted = true;
+                } catch (ExecutionException e) {
+                    if (e.getCause() instanceof RuntimeException) {
+                        throw (RuntimeException) e.getCause();
+                    }
+
+                    if (e.getCause() instanceof Error) {
+                        throw (Error) e.getCause();
+                    }
+
+                    throw new CompletionException(e.getCause());
+                }
+            }
+        } finally {
+            if (interrupted) {
+                Thread.currentThread().interrupt();
+            }
+        }
+    }
+
+    /**
+     * Removes every cached result.
+     */
+    public synchronized void clear() {
+        entries.clear();
+        weight = 0;
+    }
+
+    /**
+     * @return The number of cached results.
+     */
+    public synchronized int size() {
+        return entries.size();
+    }
+
+    /**
+     * @return The total weight of the cached results.
+     */
+    public synchronized long getWeight() {
+        return weight;
+    }
+
+    /**
+     * @return The number of requests served without an execution of their own.
+     */
+    public long getHitCount() {
+        return hits.sum();
+    }
+
+    /**
+     * @return The number of requests that needed an execution of their own.
+     */
+    public long getMissCount() {
+        return misses.sum();
+    }
+
+    /**
+     * @return The number of evicted results.
+     */
+    public long getEvictionCount() {
+        return evictions.sum();
+    }
+
+    /**
+     * Cache key.
+     */
+    private static class Key {
+        /**
+         * The machine definition fingerprint.
+         */
+        private final long fingerprint;
+        /**
+         * The initial content of the tape.
+         */
+        private final String content;
+        /**
+         * The initial content offset.
+         */
+        private final int offset;
+        /**
+         * The head position.
+         */
+        private final int current;
+        /**
+         * The blank character.
+         */
+        private final char blank;
+        /**
+         * The maximum number of steps.
+         */
+        private final long maxSteps;
+
+        /**
+         * Creates a new key.
+         *
+         * @param fingerprint the machine definition fingerprint
+         * @param content     the initial content of the tape
+         * @param offset      the initial content offset
+         * @param current     the head position
+         * @param blank       the blank character
+         * @param maxSteps    the maximum number of steps
+         */
+        private Key(long fingerprint, String content, int offset, int current, char blank, long maxSteps) {
+            this.fingerprint = fingerprint;
+            this.content = content;
+            this.offset = offset;
+            this.current = current;
+            this.blank = blank;
+            this.maxSteps = maxSteps;
+        }
+
+        @Override
+        public boolean equals(Object o) {
+            if (this == o) {
+                return true;
+            }
+
+            if (!(o instanceof Key)) {
+                return false;
+            }
+
+            Key key = (Key) o;
+
+            return fingerprint == key.fingerprint
+                    && offset == key.offset
+                    && current == key.current
+                    && blank == key.blank
+                    && maxSteps == key.maxSteps
+                    && content.equals(key.content);
+        }
+
+        @Override
+        public int hashCode() {
+            int hash = Long.hashCode(fingerprint);
+
+            hash = 31 * hash + content.hashCode();
+            hash = 31 * hash + offset;
+            hash = 31 * hash + current;
+            hash = 31 * hash + blank;
+            hash = 31 * hash + Long.hashCode(maxSteps);
+
+            return hash;
+        }
+    }
+
+    /**
+     * Cache entry.
+     */
+    private static class Entry {
+        /**
+         * The cached result.
+         */
+        private final ExecutionResult result;
+        /**
+         * The weight of the cached result.
+         */
+        private final long weight;
+
+        /**
+         * Creates a new entry.
+         *
+         * @param result the cached result
+         * @param weight the weight of the cached result
+         */
+        private Entry(ExecutionResult result, long weight) {
+            this.result = result;
+            this.weight = weight;
+        }
+    }
+}
@@ -0,0 +1,109 @@
+package com.example.turing;
+
+/**
+ * Turing machine execution limits.
+ */
+public class ExecutionLimits {
+    /**
+     * Limits that let an execution run until the machine halts.
+     */
+    public static final ExecutionLimits NONE = new ExecutionLimits(Long.MAX_VALUE, Long.MAX_VALUE, null);
+
+    /**
+     * The maximum number of steps.
+     */
+    private final long maxSteps;
+    /**
+     * The deadline, in milliseconds since the epoch.
+     */
+    private final long deadline;
+    /**
+     * The cancellation token (null if the execution cannot be cancelled).
+     */
+    private final CancellationToken cancellationToken;
+    /**
+     * The maximum number of distinct configurations a nondeterministic exploration keeps.
+     */
+    private final long maxConfigurations;
+
+    /**
+     * Creates new execution limits.
+     *
+     * @param maxSteps          the maximum number of steps (Long.MAX_VALUE for no limit)
+     * @param deadline          the deadline, in milliseconds since the epoch (Long.MAX_VALUE for no deadline)
+     * @param cancellationToken the cancellation token (null if the execution cannot be cancelled)
+     * @throws IllegalArgumentException if the maximum number of steps is negative
+     */
+    public ExecutionLimits(long maxSteps, long deadline, CancellationToken cancellationToken) throws IllegalArgumentException {
+        this(maxSteps, deadline, cancellationToken, Long.MAX_VALUE);
+    }
+
+    /**
+     * Creates new execution limits.
+     * <p>
+     * A nondeterministic exploration keeps every distinct configuration it reaches, so its memory grows with the number
+     * of configurations; the maximum number of configurations bounds it. Deterministic executions ignore it.
+     *
+     * @param maxSteps          the maximum number of steps (Long.MAX_VALUE for no limit)
+     * @param deadline          the deadline, in milliseconds since the epoch (Long.MAX_VALUE for no deadline)
+     * @param cancellationToken the cancellation token (null if the execution cannot be cancelled)
+     * @param maxConfigurations the maximum number of distinct configurations a nondeterministic exploration keeps
+     *                          (Long.MAX_VALUE for no limit)
+     * @throws IllegalArgumentException if the maximum number of steps is negative
+     * @throws IllegalArgumentException if the maximum number of configurations is not positive
+     */
+    public ExecutionLimits(long maxSteps, long deadline, CancellationToken cancellationToken, long maxConfigurations) throws IllegalArgumentException {
+        validateConstructorArguments(maxSteps, maxConfigurations);
+
+        this.maxSteps = maxSteps;
+        this.deadline = deadline;
+        this.cancellationToken = cancellationToken;
+        this.maxConfigurations = maxConfigurations;
+    }
+
+    /**
+     * Validates the {@link #ExecutionLimits(long, long, CancellationToken, long)} arguments.
+     *
+     * @param maxSteps          the maximum number of steps
+     * @param maxConfigurations the maximum number of configurations
+     * @throws IllegalArgumentException if the maximum number of steps is negative
+     * @throws IllegalArgumentException if the maximum number of configurations is not positive
+     */
+    private static void validateConstructorArguments(long maxSteps, long maxConfigurations) throws IllegalArgumentException {
+        if (maxSteps < 0) {
+            throw new IllegalArgumentException("the maximum number of steps is negative");
+        }
+
+        if (maxConfigurations <= 0) {
+            throw new IllegalArgumentException("the maximum number of configurations is not positive");
+        }
+    }
+
+    /**
+     * @return The maximum number of steps.
+     */
+    public long getMaxSteps() {
+        return maxSteps;
+    }
+
+    /**
+     * @return The deadline, in milliseconds since the epoch.
+     */
+    public long getDeadline() {
+        return deadline;
+    }
+
+    /**
+     * @return The cancellation token (null if the execution cannot be cancelled).
+     */
+    public CancellationToken getCancellationToken() {
+        return cancellationToken;
+    }
+
+    /**
+     * @return The maximum number of distinct configurations a nondeterministic exploration keeps.
+     */
+    public long getMaxConfigurations() {
+        return maxConfigurations;
+    }
+}
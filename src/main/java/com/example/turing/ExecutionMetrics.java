@@ -0,0 +1,228 @@
+package com.example.turing;
+
+import javax.management.JMException;
+import javax.management.MBeanServer;
+import javax.management.ObjectName;
+import java.lang.management.ManagementFactory;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.LongAccumulator;
+import java.util.concurrent.atomic.LongAdder;
+
+/**
+ * Metrics registry that aggregates counters and histograms, exposed as a JMX MBean.
+ * <p>
+ * Counters are striped, so concurrent runs do not contend on updates. A typical setup is:
+ * <pre>
+ * ExecutionMetrics metrics = new ExecutionMetrics();
+ *
+ * metrics.register(ManagementFactory.getPlatformMBeanServer(), new ObjectName(ExecutionMetrics.OBJECT_NAME));
+ * Metrics.setRegistry(metrics);
+ * </pre>
+ */
+public class ExecutionMetrics implements MetricsRegistry, ExecutionMetricsMXBean {
+    /**
+     * The default object name.
+     */
+    public static final String OBJECT_NAME = "com.example.turing:type=ExecutionMetrics";
+
+    /**
+     * The number of started runs.
+     */
+    private final LongAdder started;
+    /**
+     * The number of stopped runs.
+     */
+    private final LongAdder completed;
+    /**
+     * The number of runs that stopped because the machine halted.
+     */
+    private final LongAdder halted;
+    /**
+     * The number of runs that stopped because an exception was thrown.
+     */
+    private final LongAdder failed;
+    /**
+     * The number of refused runs.
+     */
+    private final LongAdder rejected;
+    /**
+     * The total number of steps performed by the stopped runs.
+     */
+    private final LongAdder totalSteps;
+    /**
+     * The total duration of the stopped runs, in nanoseconds.
+     */
+    private final LongAdder totalDuration;
+    /**
+     * The largest tape content length any run stopped with.
+     */
+    private final LongAccumulator peakTapeWidth;
+    /**
+     * The histogram of the number of steps per run.
+     */
+    private final Histogram stepHistogram;
+    /**
+     * The histogram of the duration of each run, in microseconds.
+     */
+    private final Histogram durationHistogram;
+
+    /**
+     * Creates a new registry with every metric set to zero.
+     */
+    public ExecutionMetrics() {
+        this.started = new LongAdder();
+        this.completed = new LongAdder();
+        this.halted = new LongAdder();
+        this.failed = new LongAdder();
+        this.rejected = new LongAdder();
+        this.totalSteps = new LongAdder();
+        this.totalDuration = new LongAdder();
+        this.peakTapeWidth = new LongAccumulator(Math::max, 0);
+        this.stepHistogram = new Histogram();
+        this.durationHistogram = new Histogram();
+    }
+
+    /**
+     * Creates a new registry, registers it on the platform MBean server with the default object name and installs it.
+     *
+     * @return The new registry.
+     * @throws JMException if the registry cannot be registered
+     */
+    public static ExecutionMetrics install() throws JMException {
+        ExecutionMetrics metrics = new ExecutionMetrics();
+
+        metrics.register(ManagementFactory.getPlatformMBeanServer(), new ObjectName(OBJECT_NAME));
+        Metrics.setRegistry(metrics);
+
+        return metrics;
+    }
+
+    /**
+     * Registers this registry on the given MBean server.
+     *
+     * @param server the MBean server
+     * @param name   the object name
+     * @throws NullPointerException if the MBean server is null
+     * @throws JMException          if this registry cannot be registered
+     */
+    public void register(MBeanServer server, ObjectName name) throws NullPointerException, JMException {
+        validateRegisterArguments(server);
+
+        server.registerMBean(this, name);
+    }
+
+    /**
+     * Validates the {@link #register(MBeanServer, ObjectName)} arguments.
+     *
+     * @param server the MBean server
+     * @throws NullPointerException if the MBean server is null
+     */
+    private void validateRegisterArguments(MBeanServer server) throws NullPointerException {
+        if (server == null) {
+            throw new NullPointerException("the MBean server is null");
+        }
+    }
+
+    @Override
+    public void executionStarted() {
+        started.increment();
+    }
+
+    @Override
+    public void executionCompleted(ExecutionStatus status, long steps, long duration, long tapeWidth) {
+        completed.increment();
+
+        if (status == ExecutionStatus.HALTED) {
+            halted.increment();
+        }
+
+        totalSteps.add(steps);
+        totalDuration.add(duration);
+        peakTapeWidth.accumulate(tapeWidth);
+        stepHistogram.record(steps);
+        durationHistogram.record(TimeUnit.NANOSECONDS.toMicros(duration));
+    }
+
+    @Override
+    public void executionFailed(long steps, long duration) {
+        failed.increment();
+        totalSteps.add(steps);
+        totalDuration.add(duration);
+    }
+
+    @Override
+    public void executionRejected() {
+        rejected.increment();
+    }
+
+    @Override
+    public long getStartedCount() {
+        return started.sum();
+    }
+
+    @Override
+    public long getCompletedCount() {
+        return completed.sum();
+    }
+
+    @Override
+    public long getHaltedCount() {
+        return halted.sum();
+    }
+
+    @Override
+    public long getFailedCount() {
+        return failed.sum();
+    }
+
+    @Override
+    public long getRejectedCount() {
+        return rejected.sum();
+    }
+
+    @Override
+    public long getActiveCount() {
+        return Math.max(0, started.sum() - completed.sum() - failed.sum());
+    }
+
+    @Override
+    public long getTotalSteps() {
+        return totalSteps.sum();
+    }
+
+    @Override
+    public double getStepsPerSecond() {
+        long duration = totalDuration.sum();
+
+        return duration == 0 ? 0 : totalSteps.sum() * 1e9 / duration;
+    }
+
+    @Override
+    public long getPeakTapeWidth() {
+        return peakTapeWidth.get();
+    }
+
+    @Override
+    public long[] getStepHistogram() {
+        return stepHistogram.getCounts();
+    }
+
+    @Override
+    public long[] getDurationHistogram() {
+        return durationHistogram.getCounts();
+    }
+
+    @Override
+    public void reset() {
+        started.reset();
+        completed.reset();
+        halted.reset();
+        failed.reset();
+        rejected.reset();
+        totalSteps.reset();
+        totalDuration.reset();
+        peakTapeWidth.reset();
+        stepHistogram.reset();
+        durationHistogram.reset();
+    }
+}
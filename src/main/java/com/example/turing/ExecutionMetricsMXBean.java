@@ -0,0 +1,69 @@
+package com.example.turing;
+
+/**
+ * Management interface of {@link ExecutionMetrics}.
+ * <p>
+ * Histograms have 64 buckets, where bucket 0 counts the zero values and bucket i counts the values from 2^(i-1) to
+ * 2^i - 1.
+ */
+public interface ExecutionMetricsMXBean {
+    /**
+     * @return The number of started runs.
+     */
+    long getStartedCount();
+
+    /**
+     * @return The number of stopped runs.
+     */
+    long getCompletedCount();
+
+    /**
+     * @return The number of runs that stopped because the machine halted.
+     */
+    long getHaltedCount();
+
+    /**
+     * @return The number of runs that stopped because an exception was thrown.
+     */
+    long getFailedCount();
+
+    /**
+     * @return The number of runs refused because of invalid arguments.
+     */
+    long getRejectedCount();
+
+    /**
+     * @return The number of runs in progress.
+     */
+    long getActiveCount();
+
+    /**
+     * @return The total number of steps performed by the stopped runs.
+     */
+    long getTotalSteps();
+
+    /**
+     * @return The average number of steps per second of the stopped runs, while they were running.
+     */
+    double getStepsPerSecond();
+
+    /**
+     * @return The largest tape content length any run stopped with.
+     */
+    long getPeakTapeWidth();
+
+    /**
+     * @return The histogram of the number of steps per run.
+     */
+    long[] getStepHistogram();
+
+    /**
+     * @return The histogram of the duration of each run, in microseconds.
+     */
+    long[] getDurationHistogram();
+
+    /**
+     * Resets every metric.
+     */
+    void reset();
+}
@@ -0,0 +1,215 @@
+package com.example.turing;
+
+import java.io.IOException;
+import java.nio.channels.WritableByteChannel;
+import java.nio.charset.Charset;
+
+/**
+ * Turing machine execution result.
+ * <p>
+ * The result keeps the tape and state the execution stopped with, whether or not the machine halted. The tape is
+ * shared with the execution, so its content reflects any later steps if the execution is run again.
+ */
+public class ExecutionResult {
+    /**
+     * The execution status.
+     */
+    private final ExecutionStatus status;
+    /**
+     * The number of steps performed.
+     */
+    private final long steps;
+    /**
+     * The transition table used by the execution.
+     */
+    private final TransitionTable table;
+    /**
+     * The state index the execution stopped with.
+     */
+    private final int state;
+    /**
+     * The tape the execution stopped with.
+     */
+    private final Tape tape;
+    /**
+     * The cycle length (0 if no cycle has been detected).
+     */
+    private final long cycleLength;
+
+    /**
+     * Creates a new execution result with no detected cycle.
+     *
+     * @param status the execution status
+     * @param steps  the number of steps performed
+     * @param table  the transition table used by the execution
+     * @param state  the state index the execution stopped with
+     * @param tape   the tape the execution stopped with
+     */
+    ExecutionResult(ExecutionStatus status, long steps, TransitionTable table, int state, Tape tape) {
+        this(status, steps, table, state, tape, 0);
+    }
+
+    /**
+     * Creates a new execution result.
+     *
+     * @param status      the execution status
+     * @param steps       the number of steps performed
+     * @param table       the transition table used by the execution
+     * @param state       the state index the execution stopped with
+     * @param tape        the tape the execution stopped with
+     * @param cycleLength the cycle length (0 if no cycle has been detected)
+     */
+    ExecutionResult(ExecutionStatus status, long steps, TransitionTable table, int state, Tape tape, long cycleLength) {
+        this.status = status;
+        this.steps = steps;
+        this.table = table;
+        this.state = state;
+        this.tape = tape;
+        this.cycleLength = cycleLength;
+    }
+
+    /**
+     * @return The execution status.
+     */
+    public ExecutionStatus getStatus() {
+        return status;
+    }
+
+    /**
+     * @return true if and only if the machine halted.
+     */
+    public boolean isHalted() {
+        return status == ExecutionStatus.HALTED;
+    }
+
+    /**
+     * @return The number of steps performed.
+     */
+    public long getSteps() {
+        return steps;
+    }
+
+    /**
+     * @return The number of steps of the detected cycle (0 if no cycle has been detected).
+     */
+    public long getCycleLength() {
+        return cycleLength;
+    }
+
+    /**
+     * @return true if and only if the current state is a final or accepting state.
+     */
+    public boolean isAccepted() {
+        return table.isAccepting(state);
+    }
+
+    /**
+     * @return The current state name.
+     */
+    public String getCurrentStateName() {
+        return table.getName(state);
+    }
+
+    /**
+     * @return The content of the tape as a string.
+     */
+    public String getContent() {
+        return tape.getContent();
+    }
+
+    /**
+     * Gets the content of the given range of the tape, blank characters included. Only the cells in the range are
+     * read, so this is cheaper than {@link #getContent()} on large tapes.
+     *
+     * @param from the range start (inclusive)
+     * @param to   the range end (exclusive)
+     * @return The content of the given range as a string.
+     * @throws IllegalArgumentException if the range start is greater than the range end
+     */
+    public String getContent(int from, int to) throws IllegalArgumentException {
+        return tape.getContent(from, to);
+    }
+
+    /**
+     * Gets the content of the cells at most the given distance away from the head, blank characters included.
+     *
+     * @param radius the maximum distance from the head
+     * @return The content around the head as a string.
+     * @throws IllegalArgumentException if the radius is negative
+     */
+    public String getContentAroundHead(int radius) throws IllegalArgumentException {
+        return tape.getContentAroundHead(radius);
+    }
+
+    /**
+     * Writes the content of the tape to the given appendable (a {@link java.io.Writer}, for instance) without building
+     * it as a string.
+     *
+     * @param out the appendable
+     * @throws NullPointerException if the appendable is null
+     * @throws IOException          if the appendable cannot be written
+     */
+    public void writeContent(Appendable out) throws NullPointerException, IOException {
+        tape.writeContent(out);
+    }
+
+    /**
+     * Writes the content of the given range of the tape, blank characters included, to the given appendable.
+     *
+     * @param from the range start (inclusive)
+     * @param to   the range end (exclusive)
+     * @param out  the appendable
+     * @throws IllegalArgumentException if the range start is greater than the range end
+     * @throws NullPointerException     if the appendable is null
+     * @throws IOException              if the appendable cannot be written
+     */
+    public void writeContent(int from, int to, Appendable out) throws IllegalArgumentException, NullPointerException, IOException {
+        tape.writeContent(from, to, out);
+    }
+
+    /**
+     * Writes the content of the tape to the given channel, encoded with the given charset. The channel is not closed.
+     *
+     * @param channel the channel
+     * @param charset the charset
+     * @throws NullPointerException if the channel is null
+     * @throws NullPointerException if the charset is null
+     * @throws IOException          if the channel cannot be written
+     */
+    public void writeContent(WritableByteChannel channel, Charset charset) throws NullPointerException, IOException {
+        tape.writeContent(channel, charset);
+    }
+
+    /**
+     * @return The length of the content of the tape, without reading any initial content that has not been read yet.
+     * @see Tape#getContentLength()
+     */
+    long getContentLength() {
+        return tape.getContentLength();
+    }
+
+    /**
+     * Gets the position of the first non blank character. If the initial content is read lazily, the part of it that
+     * has not been read yet is read first, since it may hold the first non blank character.
+     *
+     * @return The position of the first non blank character (Integer.MAX_VALUE if the tape only contains blank
+     * characters)
+     */
+    public int getContentOffset() {
+        return tape.getOffset();
+    }
+
+    /**
+     * @return The head position.
+     */
+    public int getHeadPosition() {
+        return tape.getCurrent();
+    }
+
+    /**
+     * @return The blank character being used.
+     */
+    public char getBlank() {
+        return tape.getBlank();
+    }
+}
@@ -0,0 +1,616 @@
+package com.example.turing;
+
+import java.io.Closeable;
+import java.util.ArrayDeque;
+import java.util.Collections;
+import java.util.Deque;
+import java.util.HashMap;
+import java.util.Iterator;
+import java.util.Map;
+import java.util.NavigableMap;
+import java.util.TreeMap;
+import java.util.concurrent.CompletableFuture;
+import java.util.concurrent.Executor;
+import java.util.concurrent.ForkJoinPool;
+import java.util.concurrent.RejectedExecutionException;
+
+/**
+ * Time-sliced execution scheduler.
+ * <p>
+ * Multiplexes any number of executions over a bounded number of workers: each worker runs an execution for at most a
+ * quantum of steps and then puts it back at the end of its queue, so short executions never wait for long ones to
+ * finish. Higher priorities are always served first; within a priority, tenants are served round robin, and the
+ * executions of each tenant in submission order. A tenant may be limited to a number of executions running at the same
+ * time, so a single tenant cannot take every worker.
+ * <p>
+ * Workers are tasks of the given executor that keep running quanta while there is work and end when there is none, so
+ * an idle scheduler holds no threads. With a {@link ForkJoinPool}, idle pool threads steal the worker tasks. If the
+ * executor rejects a worker, the running workers take its jobs. Every quantum is a separate {@link
+ * Execution#run(ExecutionLimits)}, so breakpoints stop a scheduled execution and every quantum is reported to the
+ * metrics registry as a run.
+ * <p>
+ * An execution must not be used by anyone else while it is scheduled.
+ */
+public class ExecutionScheduler implements Closeable {
+    /**
+     * The tenant of executions submitted without one.
+     */
+    public static final String DEFAULT_TENANT = "";
+
+    /**
+     * The executor that runs the workers.
+     */
+    private final Executor executor;
+    /**
+     * The maximum number of workers.
+     */
+    private final int parallelism;
+    /**
+     * The maximum number of steps an execution performs before it is put back in its queue.
+     */
+    private final long quantum;
+    /**
+     * The tenant queues that have jobs, by priority, highest first.
+     */
+    private final NavigableMap<Integer, Deque<TenantQueue>> levels;
+    /**
+     * The tenants that have jobs or a quota, by name.
+     */
+    private final Map<String, Tenant> tenants;
+    /**
+     * The number of queued jobs.
+     */
+    private int queued;
+    /**
+     * The number of workers.
+     */
+    private int workers;
+    /**
+     * true if and only if this scheduler is closed.
+     */
+    private boolean closed;
+
+    /**
+     * Creates a new scheduler whose workers run in the common fork/join pool, as many as its parallelism.
+     *
+     * @param quantum the maximum number of steps an execution performs before it is put back in its queue
+     * @throws IllegalArgumentException if the quantum is not positive
+     */
+    public ExecutionScheduler(long quantum) throws IllegalArgumentException {
+        this(ForkJoinPool.commonPool(), ForkJoinPool.getCommonPoolParallelism(), quantum);
+    }
+
+    /**
+     * Creates a new scheduler.
+     *
+     * @param executor    the executor that runs the workers
+     * @param parallelism the maximum number of workers
+     * @param quantum     the maximum number of steps an execution performs before it is put back in its queue
+     * @throws NullPointerException     if the executor is null
+     * @throws IllegalArgumentException if the parallelism is not positive
+     * @throws IllegalArgumentException if the quantum is not positive
+     */
+    public ExecutionScheduler(Executor executor, int parallelism, long quantum) throws NullPointerException, IllegalArgumentException {
+        validateConstructorArguments(executor, parallelism, quantum);
+
+        this.executor = executor;
+        this.parallelism = parallelism;
+        this.quantum = quantum;
+        this.levels = new TreeMap<>(Collections.reverseOrder());
+        this.tenants = new HashMap<>();
+        this.queued = 0;
+        this.workers = 0;
+        this.closed = false;
+    }
+
+    /**
+     * Validates the {@link #ExecutionScheduler(Executor, int, long)} arguments.
+     *
+     * @param executor    the executor that runs the workers
+     * @param parallelism the maximum number of workers
+     * @param quantum     the maximum number of steps an execution performs before it is put back in its queue
+     * @throws NullPointerException     if the executor is null
+     * @throws IllegalArgumentException if the parallelism is not positive
+     * @throws IllegalArgumentException if the quantum is not positive
+     */
+    private static void validateConstructorArguments(Executor executor, int parallelism, long quantum) throws NullPointerException, IllegalArgumentException {
+        if (executor == null) {
+            throw new NullPointerException("the executor is null");
+        }
+
+        if (parallelism <= 0) {
+            throw new IllegalArgumentException("the parallelism is not positive");
+        }
+
+        if (quantum <= 0) {
+            throw new IllegalArgumentException("the quantum is not positive");
+        }
+    }
+
+    /**
+     * Schedules the given execution for the default tenant with priority 0.
+     *
+     * @param execution the execution
+     * @param limits    the execution limits, which apply to the whole scheduled run
+     * @return A future completed with the result of the last quantum when the execution stops for any reason other
+     * than the end of a quantum.
+     * @throws NullPointerException       if the execution is null
+     * @throws NullPointerException       if the execution limits are null
+     * @throws IllegalStateException      if this scheduler is closed
+     * @throws RejectedExecutionException if there are no workers and the executor rejects a new one
+     * @see #submit(Execution, String, int, ExecutionLimits)
+     */
+    public CompletableFuture<ExecutionResult> submit(Execution execution, ExecutionLimits limits) throws NullPointerException, IllegalStateException, RejectedExecutionException {
+        return submit(execution, DEFAULT_TENANT, 0, limits);
+    }
+
+    /**
+     * Schedules the given execution.
+     * <p>
+     * The returned future is completed when the execution halts, reaches any of the given limits or a breakpoint, and
+     * completed exceptionally if a quantum throws. Cancelling it removes the execution from its queue, although a
+     * quantum already running finishes first.
+     *
+     * @param execution the execution
+     * @param tenant    the tenant the execution belongs to
+     * @param priority  the priority (higher priorities are served first)
+     * @param limits    the execution limits, which apply to the whole scheduled run
+     * @return A future completed with the result of the last quantum when the execution stops for any reason other
+     * than the end of a quantum.
+     * @throws NullPointerException       if the execution is null
+     * @throws NullPointerException       if the tenant is null
+     * @throws NullPointerException       if the execution limits are null
+     * @throws IllegalStateException      if this scheduler is closed
+     * @throws RejectedExecutionException if there are no workers and the executor rejects a new one
+     */
+    public synchronized CompletableFuture<ExecutionResult> submit(Execution execution, String tenant, int priority, ExecutionLimits limits) throws NullPointerException, IllegalStateException, RejectedExecutionException {
+        validateSubmitArguments(execution, tenant, limits);
+
+        long end = execution.getSteps() + limits.getMaxSteps() < 0 ? Long.MAX_VALUE : execution.getSteps() + limits.getMaxSteps();
+        Job job = new Job(execution, getTenant(tenant), priority, limits, end);
+
+        enqueue(job);
+
+        try {
+            startWorkers();
+        } catch (RejectedExecutionException e) {
+            remove(job);
+
+            throw e;
+        }
+
+        job.future.whenComplete((result, failure) -> {
+            if (job.future.isCancelled()) {
+                remove(job);
+            }
+        });
+
+        return job.future;
+    }
+
+    /**
+     * Validates the {@link #submit(Execution, String, int, ExecutionLimits)} arguments.
+     *
+     * @param execution the execution
+     * @param tenant    the tenant the execution belongs to
+     * @param limits    the execution limits
+     * @throws NullPointerException  if the execution is null
+     * @throws NullPointerException  if the tenant is null
+     * @throws NullPointerException  if the execution limits are null
+     * @throws IllegalStateException if this scheduler is closed
+     */
+    private void validateSubmitArguments(Execution execution, String tenant, ExecutionLimits limits) throws NullPointerException, IllegalStateException {
+        if (execution == null) {
+            throw new NullPointerException("the execution is null");
+        }
+
+        if (tenant == null) {
+            throw new NullPointerException("the tenant is null");
+        }
+
+        if (limits == null) {
+            throw new NullPointerException("the execution limits are null");
+        }
+
+        if (closed) {
+            throw new IllegalStateException("the scheduler is closed");
+        }
+    }
+
+    /**
+     * Limits the number of executions of the given tenant that run at the same time.
+     *
+     * @param tenant the tenant
+     * @param quota  the maximum number of executions of the tenant that run at the same time
+     * @throws NullPointerException       if the tenant is null
+     * @throws IllegalArgumentException   if the quota is not positive
+     * @throws RejectedExecutionException if there are no workers and the executor rejects a new one, in which case the
+     *                                    queued executions wait for the next submission
+     */
+    public synchronized void setTenantQuota(String tenant, int quota) throws NullPointerException, IllegalArgumentException, RejectedExecutionException {
+        validateSetTenantQuotaArguments(tenant, quota);
+
+        getTenant(tenant).quota = quota;
+        startWorkers();
+    }
+
+    /**
+     * Validates the {@link #setTenantQuota(String, int)} arguments.
+     *
+     * @param tenant the tenant
+     * @param quota  the maximum number of executions of the tenant that run at the same time
+     * @throws NullPointerException     if the tenant is null
+     * @throws IllegalArgumentException if the quota is not positive
+     */
+    private static void validateSetTenantQuotaArguments(String tenant, int quota) throws NullPointerException, IllegalArgumentException {
+        if (tenant == null) {
+            throw new NullPointerException("the tenant is null");
+        }
+
+        if (quota <= 0) {
+            throw new IllegalArgumentException("the quota is not positive");
+        }
+    }
+
+    /**
+     * Gets the given tenant, creating it if it does not exist.
+     *
+     * @param name the tenant name
+     * @return The tenant.
+     */
+    private Tenant getTenant(String name) {
+        return tenants.computeIfAbsent(name, Tenant::new);
+    }
+
+    /**
+     * Appends the given job to the queue of its tenant and priority.
+     *
+     * @param job the job
+     */
+    private void enqueue(Job job) {
+        TenantQueue queue = job.tenant.queues.get(job.priority);
+
+        if (queue == null) {
+            queue = new TenantQueue(job.tenant, job.priority);
+            job.tenant.queues.put(job.priority, queue);
+        }
+
+        if (queue.jobs.isEmpty()) {
+            levels.computeIfAbsent(job.priority, priority -> new ArrayDeque<>()).addLast(queue);
+        }
+
+        queue.jobs.addLast(job);
+        queued++;
+    }
+
+    /**
+     * Removes the given job from its queue, if it is still queued.
+     *
+     * @param job the job
+     */
+    private synchronized void remove(Job job) {
+        // closing empties the queues itself, while cancelling the queued jobs
+        if (closed) {
+            return;
+        }
+
+        TenantQueue queue = job.tenant.queues.get(job.priority);
+
+        if (queue == null || !queue.jobs.remove(job)) {
+            return;
+        }
+
+        queued--;
+
+        if (queue.jobs.isEmpty()) {
+            Deque<TenantQueue> level = levels.get(job.priority);
+
+            level.remove(queue);
+
+            if (level.isEmpty()) {
+                levels.remove(job.priority);
+            }
+
+            job.tenant.queues.remove(job.priority);
+            release(job.tenant);
+        }
+    }
+
+    /**
+     * Takes the next job to run: the first job of the first tenant under its quota in the highest priority.
+     *
+     * @return The next job (null if every queued job belongs to a tenant at its quota, or there are none).
+     */
+    private Job dequeue() {
+        for (Iterator<Deque<TenantQueue>> levelIterator = levels.values().iterator(); levelIterator.hasNext(); ) {
+            Deque<TenantQueue> level = levelIterator.next();
+
+            for (int i = level.size(); i > 0; i--) {
+                TenantQueue queue = level.pollFirst();
+
+                if (queue.tenant.running >= queue.tenant.quota) {
+                    level.addLast(queue);
+                    continue;
+                }
+
+                Job job = queue.jobs.pollFirst();
+
+                if (queue.jobs.isEmpty()) {
+                    queue.tenant.queues.remove(queue.priority);
+                } else {
+                    level.addLast(queue);
+                }
+
+                if (level.isEmpty()) {
+                    levelIterator.remove();
+                }
+
+                queue.tenant.running++;
+                queued--;
+
+                return job;
+            }
+        }
+
+        return null;
+    }
+
+    /**
+     * Starts workers until there are as many workers as queued jobs, or as the parallelism. If the executor rejects a
+     * worker, the queued jobs are left to the running workers.
+     *
+     * @throws RejectedExecutionException if there are no workers and the executor rejects a new one
+     */
+    private void startWorkers() throws RejectedExecutionException {
+        while (workers < parallelism && workers < queued) {
+            workers++;
+
+            try {
+                executor.execute(this::work);
+            } catch (RejectedExecutionException e) {
+                workers--;
+
+                if (workers == 0) {
+                    throw e;
+                }
+
+                return;
+            }
+        }
+    }
+
+    /**
+     * Runs quanta until there are no jobs left that may run.
+     */
+    private void work() {
+        Job job = next(null, false);
+
+        while (job != null) {
+            job = next(job, runQuantum(job));
+        }
+    }
+
+    /**
+     * Runs a quantum of the given job.
+     *
+     * @param job the job
+     * @return true if and only if the job has to be put back in its queue.
+     */
+    private boolean runQuantum(Job job) {
+        if (job.future.isDone()) {
+            return false;
+        }
+
+        try {
+            long steps = Math.min(quantum, job.end - job.execution.getSteps());
+            ExecutionLimits limits = new ExecutionLimits(steps, job.limits.getDeadline(), job.limits.getCancellationToken());
+            ExecutionResult result = job.execution.run(limits);
+
+            if (result.getStatus() == ExecutionStatus.STEP_LIMIT_REACHED && job.execution.getSteps() < job.end) {
+                return true;
+            }
+
+            job.future.complete(result);
+        } catch (RuntimeException | Error e) {
+            // an error is delivered to the caller too, so the worker goes on releasing the job and its tenant
+            job.future.completeExceptionally(e);
+        }
+
+        return false;
+    }
+
+    /**
+     * Releases the given job, and takes the next job to run or ends the calling worker.
+     *
+     * @param previous the job the calling worker has just run (null if there is none)
+     * @param requeue  true if and only if the previous job has to be put back in its queue
+     * @return The next job (null if the calling worker has to end).
+     */
+    private synchronized Job next(Job previous, boolean requeue) {
+        if (previous != null) {
+            previous.tenant.running--;
+
+            if (requeue && !closed && !previous.future.isDone()) {
+                enqueue(previous);
+            } else {
+                if (requeue) {
+                    previous.future.cancel(false);
+                }
+
+                release(previous.tenant);
+            }
+        }
+
+        Job job = dequeue();
+
+        if (job == null) {
+            workers--;
+        } else if (previous != null) {
+            // the previous job may have made room for others under their quota; since the calling worker keeps
+            // running, a rejected worker only leaves them to it
+            startWorkers();
+        }
+
+        return job;
+    }
+
+    /**
+     * Forgets the given tenant if it has no jobs and no quota.
+     *
+     * @param tenant the tenant
+     */
+    private void release(Tenant tenant) {
+        if (tenant.running == 0 && tenant.queues.isEmpty() && tenant.quota == Integer.MAX_VALUE) {
+            tenants.remove(tenant.name);
+        }
+    }
+
+    /**
+     * @return The number of executions waiting for a worker.
+     */
+    public synchronized int getQueuedCount() {
+        return queued;
+    }
+
+    /**
+     * @return The number of workers.
+     */
+    public synchronized int getWorkerCount() {
+        return workers;
+    }
+
+    /**
+     * Closes this scheduler: new executions are rejected, queued executions are cancelled, and running quanta finish
+     * but are not put back in their queues. Executions themselves are not closed.
+     */
+    @Override
+    public synchronized void close() {
+        closed = true;
+
+        for (Deque<TenantQueue> level : levels.values()) {
+            for (TenantQueue queue : level) {
+                for (Job job : queue.jobs) {
+                    job.future.cancel(false);
+                }
+
+                queue.tenant.queues.remove(queue.priority);
+                release(queue.tenant);
+            }
+        }
+
+        levels.clear();
+        queued = 0;
+    }
+
+    /**
+     * Scheduled execution.
+     */
+    private static class Job {
+        /**
+         * The execution.
+         */
+        private final Execution execution;
+        /**
+         * The tenant the execution belongs to.
+         */
+        private final Tenant tenant;
+        /**
+         * The priority.
+         */
+        private final int priority;
+        /**
+         * The execution limits of the whole scheduled run.
+         */
+        private final ExecutionLimits limits;
+        /**
+         * The number of steps at which the step limit is reached.
+         */
+        private final long end;
+        /**
+         * The future completed with the execution result.
+         */
+        private final CompletableFuture<ExecutionResult> future;
+
+        /**
+         * Creates a new job.
+         *
+         * @param execution the execution
+         * @param tenant    the tenant the execution belongs to
+         * @param priority  the priority
+         * @param limits    the execution limits of the whole scheduled run
+         * @param end       the number of steps at which the step limit is reached
+         */
+        private Job(Execution execution, Tenant tenant, int priority, ExecutionLimits limits, long end) {
+            this.execution = execution;
+            this.tenant = tenant;
+            this.priority = priority;
+            this.limits = limits;
+            this.end = end;
+            this.future = new CompletableFuture<>();
+        }
+    }
+
+    /**
+     * Scheduler tenant.
+     */
+    private static class Tenant {
+        /**
+         * The tenant name.
+         */
+        private final String name;
+        /**
+         * The queues of the tenant that have jobs, by priority.
+         */
+        private final Map<Integer, TenantQueue> queues;
+        /**
+         * The maximum number of executions of the tenant that run at the same time.
+         */
+        private int quota;
+        /**
+         * The number of executions of the tenant that are running.
+         */
+        private int running;
+
+        /**
+         * Creates a new tenant with no quota.
+         *
+         * @param name the tenant name
+         */
+        private Tenant(String name) {
+            this.name = name;
+            this.queues = new HashMap<>();
+            this.quota = Integer.MAX_VALUE;
+            this.running = 0;
+        }
+    }
+
+    /**
+     * Queue of the jobs of a tenant with the same priority.
+     */
+    private static class TenantQueue {
+        /**
+         * The tenant.
+         */
+        private final Tenant tenant;
+        /**
+         * The priority.
+         */
+        private final int priority;
+        /**
+         * The jobs, in submission order.
+         */
+        private final Deque<Job> jobs;
+
+        /**
+         * Creates a new empty queue.
+         *
+         * @param tenant   the tenant
+         * @param priority the priority
+         */
+        private TenantQueue(Tenant tenant, int priority) {
+            this.tenant = tenant;
+            this.priority = priority;
+            this.jobs = new ArrayDeque<>();
+        }
+    }
+}
@@ -0,0 +1,31 @@
+package com.example.turing;
+
+/**
+ * Turing machine execution status.
+ */
+public enum ExecutionStatus {
+    /**
+     * The machine halted.
+     */
+    HALTED,
+    /**
+     * The maximum number of steps was reached before the machine halted.
+     */
+    STEP_LIMIT_REACHED,
+    /**
+     * The deadline passed before the machine halted.
+     */
+    DEADLINE_EXCEEDED,
+    /**
+     * The execution was cancelled before the machine halted.
+     */
+    CANCELLED,
+    /**
+     * The machine entered a configuration it had already been in, so it never halts.
+     */
+    LOOPS_FOREVER,
+    /**
+     * A breakpoint or a run condition stopped the execution before the machine halted.
+     */
+    BREAKPOINT_REACHED
+}
@@ -0,0 +1,804 @@
+package com.example.turing;
+
+import java.io.Closeable;
+import java.io.IOException;
+import java.io.UncheckedIOException;
+import java.io.Writer;
+import java.nio.MappedByteBuffer;
+import java.nio.channels.FileChannel;
+import java.nio.file.Path;
+import java.nio.file.StandardOpenOption;
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.List;
+
+/**
+ * Compact binary trace of the steps of an {@link Execution}.
+ * <p>
+ * Each step is appended to a memory-mapped file as the 4-byte index of the transition it took. A transition index
+ * identifies the state it starts from, the symbol it reads, the symbol it writes and the head move, so every step can
+ * be replayed in both directions without storing the tape changes or the head deltas. The configuration is also
+ * written to the file every given number of steps, as a run-length encoded keyframe that bounds the work needed to
+ * seek to any step, so only the file offset of each keyframe is kept in memory.
+ * <p>
+ * The file starts with a header holding the fingerprint of the machine definition, the blank character and the number
+ * of recorded steps, followed by the initial configuration as the first keyframe. The number of recorded steps is
+ * updated after every keyframe and when each run stops, so a trace left behind by a process that died can still be
+ * replayed up to its last keyframe through {@link #open(Path, MachineDefinition)}.
+ * <p>
+ * A trace records a single execution, starting from the configuration it had the first time it was run with this
+ * trace, and may be replayed through {@link #newReplay()} while the execution is not running. Traces are not thread
+ * safe.
+ */
+public class ExecutionTrace implements Closeable {
+    /**
+     * The default number of steps between two keyframes.
+     */
+    public static final int DEFAULT_KEYFRAME_INTERVAL = 1 << 20;
+
+    /**
+     * The file format magic number.
+     */
+    private static final int MAGIC = 0x54524345;
+    /**
+     * The file format version.
+     */
+    private static final int VERSION = 1;
+    /**
+     * The size of the file header, a multiple of 4 so recorded steps never straddle two regions.
+     */
+    private static final int HEADER_SIZE = 40;
+    /**
+     * The file offset of the number of recorded steps.
+     */
+    private static final int STEP_COUNT_OFFSET = 32;
+    /**
+     * The size of each mapped file region.
+     */
+    private static final int REGION_SIZE = 1 << 24;
+
+    /**
+     * The trace file channel.
+     */
+    private final FileChannel channel;
+    /**
+     * false if and only if this trace was opened to be replayed only.
+     */
+    private final boolean writable;
+    /**
+     * The number of steps between two keyframes.
+     */
+    private final int keyframeInterval;
+    /**
+     * The mapped file regions.
+     */
+    private final List<MappedByteBuffer> regions;
+    /**
+     * The file offset of each keyframe, where keyframe i is the configuration after i * keyframeInterval steps.
+     */
+    private long[] keyframes;
+    /**
+     * The number of keyframes.
+     */
+    private int keyframeCount;
+    /**
+     * The region the next byte is appended to.
+     */
+    private MappedByteBuffer region;
+    /**
+     * The file offset the next byte is appended to, which is the length of the written data.
+     */
+    private long end;
+    /**
+     * The recorded execution (null if nothing has been recorded yet, or this trace was opened to be replayed only).
+     */
+    private Execution execution;
+    /**
+     * The transition table of the recorded execution.
+     */
+    private TransitionTable table;
+    /**
+     * The blank character of the recorded execution.
+     */
+    private char blank;
+    /**
+     * The number of steps the recorded execution had performed when the recording started.
+     */
+    private long firstStep;
+    /**
+     * The number of recorded steps.
+     */
+    private long stepCount;
+    /**
+     * true if and only if this trace has been closed.
+     */
+    private boolean closed;
+
+    /**
+     * Creates a new empty trace with the default keyframe interval, replacing the given file.
+     *
+     * @param file the trace file
+     * @throws NullPointerException if the trace file is null
+     * @throws IOException          if the trace file cannot be created
+     */
+    public ExecutionTrace(Path file) throws NullPointerException, IOException {
+        this(file, DEFAULT_KEYFRAME_INTERVAL);
+    }
+
+    /**
+     * Creates a new empty trace, replacing the given file.
+     *
+     * @param file             the trace file
+     * @param keyframeInterval the number of steps between two keyframes
+     * @throws NullPointerException     if the trace file is null
+     * @throws IllegalArgumentException if the keyframe interval is not positive
+     * @throws IOException              if the trace file cannot be created
+     */
+    public ExecutionTrace(Path file, int keyframeInterval) throws NullPointerException, IllegalArgumentException, IOException {
+        validateConstructorArguments(file, keyframeInterval);
+
+        this.channel = FileChannel.open(file, StandardOpenOption.CREATE, StandardOpenOption.TRUNCATE_EXISTING, StandardOpenOption.READ, StandardOpenOption.WRITE);
+        this.writable = true;
+        this.keyframeInterval = keyframeInterval;
+        this.regions = new ArrayList<>();
+        this.keyframes = new long[16];
+        this.keyframeCount = 0;
+        this.end = 0;
+        this.execution = null;
+        this.firstStep = 0;
+        this.stepCount = 0;
+        this.closed = false;
+
+        try {
+            this.region = map();
+
+            putInt(MAGIC);
+            putInt(VERSION);
+            putLong(0);
+            putInt(keyframeInterval);
+            putInt(0);
+            putLong(0);
+            putLong(0);
+        } catch (IOException | RuntimeException e) {
+            channel.close();
+
+            throw e;
+        }
+    }
+
+    /**
+     * Creates a trace that replays the given file.
+     *
+     * @param channel          the trace file channel
+     * @param regions          the mapped file regions
+     * @param keyframeInterval the number of steps between two keyframes
+     * @param table            the transition table of the recorded execution
+     * @param blank            the blank character of the recorded execution
+     * @param firstStep        the number of steps the recorded execution had performed when the recording started
+     * @param stepCount        the number of recorded steps
+     */
+    private ExecutionTrace(FileChannel channel, List<MappedByteBuffer> regions, int keyframeInterval, TransitionTable table, char blank, long firstStep, long stepCount) {
+        this.channel = channel;
+        this.writable = false;
+        this.keyframeInterval = keyframeInterval;
+        this.regions = regions;
+        this.keyframes = new long[16];
+        this.keyframeCount = 0;
+        this.region = null;
+        this.end = 0;
+        this.execution = null;
+        this.table = table;
+        this.blank = blank;
+        this.firstStep = firstStep;
+        this.stepCount = stepCount;
+        this.closed = false;
+    }
+
+    /**
+     * Validates the {@link #ExecutionTrace(Path, int)} arguments.
+     *
+     * @param file             the trace file
+     * @param keyframeInterval the number of steps between two keyframes
+     * @throws NullPointerException     if the trace file is null
+     * @throws IllegalArgumentException if the keyframe interval is not positive
+     */
+    private static void validateConstructorArguments(Path file, int keyframeInterval) throws NullPointerException, IllegalArgumentException {
+        if (file == null) {
+            throw new NullPointerException("the trace file is null");
+        }
+
+        if (keyframeInterval <= 0) {
+            throw new IllegalArgumentException("the keyframe interval is not positive");
+        }
+    }
+
+    /**
+     * Opens the given trace file to replay it, for instance after the process that recorded it died. Only the steps
+     * recorded up to the last update of the number of recorded steps are replayed.
+     *
+     * @param file       the trace file
+     * @param definition the definition of the machine whose execution was recorded
+     * @return The trace, which can be replayed but not recorded to.
+     * @throws NullPointerException if the trace file is null
+     * @throws NullPointerException if the machine definition is null
+     * @throws IOException          if the trace file cannot be read, is not a valid trace or was recorded from another
+     *                              machine definition
+     */
+    public static ExecutionTrace open(Path file, MachineDefinition definition) throws NullPointerException, IOException {
+        validateOpenArguments(file, definition);
+
+        FileChannel channel = FileChannel.open(file, StandardOpenOption.READ);
+
+        try {
+            long size = channel.size();
+            List<MappedByteBuffer> regions = new ArrayList<>();
+
+            for (long position = 0; position < size; position += REGION_SIZE) {
+                regions.add(channel.map(FileChannel.MapMode.READ_ONLY, position, Math.min(REGION_SIZE, size - position)));
+            }
+
+            if (size < HEADER_SIZE || regions.get(0).getInt(0) != MAGIC) {
+                throw new IOException("the file is not a trace");
+            }
+
+            MappedByteBuffer header = regions.get(0);
+
+            if (header.getInt(4) != VERSION) {
+                throw new IOException("the trace version is not supported");
+            }
+
+            // the size of the first keyframe is written last, so it is 0 until something has been recorded
+            boolean recorded = size >= HEADER_SIZE + 8 && header.getLong(HEADER_SIZE) != 0;
+
+            if (recorded && header.getLong(8) != definition.getFingerprint()) {
+                throw new IOException("the trace belongs to another machine definition");
+            }
+
+            int keyframeInterval = header.getInt(16);
+            char blank = header.getChar(20);
+            long firstStep = header.getLong(24);
+            long stepCount = header.getLong(STEP_COUNT_OFFSET);
+
+            if (keyframeInterval <= 0 || stepCount < 0) {
+                throw new IOException("the trace is corrupted");
+            }
+
+            ExecutionTrace trace = new ExecutionTrace(channel, regions, keyframeInterval, definition.getTable(), blank, firstStep, stepCount);
+
+            if (recorded) {
+                trace.indexKeyframes(size);
+            } else if (stepCount != 0) {
+                throw new IOException("the trace is corrupted");
+            }
+
+            return trace;
+        } catch (IOException | RuntimeException e) {
+            channel.close();
+
+            throw e;
+        }
+    }
+
+    /**
+     * Validates the {@link #open(Path, MachineDefinition)} arguments.
+     *
+     * @param file       the trace file
+     * @param definition the definition of the machine whose execution was recorded
+     * @throws NullPointerException if the trace file is null
+     * @throws NullPointerException if the machine definition is null
+     */
+    private static void validateOpenArguments(Path file, MachineDefinition definition) throws NullPointerException {
+        if (file == null) {
+            throw new NullPointerException("the trace file is null");
+        }
+
+        if (definition == null) {
+            throw new NullPointerException("the machine definition is null");
+        }
+    }
+
+    /**
+     * Finds the keyframes of a trace opened to be replayed, skipping the recorded steps between them.
+     *
+     * @param size the file size
+     * @throws IOException if the file is shorter than the number of recorded steps requires
+     */
+    private void indexKeyframes(long size) throws IOException {
+        long position = HEADER_SIZE;
+
+        for (long i = 0; i <= stepCount / keyframeInterval; i++) {
+            if (position + 8 > size || getLong(position) < 28 || position + getLong(position) > size) {
+                throw new IOException("the trace is corrupted");
+            }
+
+            addKeyframePosition(position);
+            position += getLong(position) + 4L * keyframeInterval;
+        }
+
+        if (getStepPosition(stepCount) > size) {
+            throw new IOException("the trace is corrupted");
+        }
+    }
+
+    /**
+     * Maps the next file region.
+     *
+     * @return The mapped region.
+     * @throws IOException if the region cannot be mapped
+     */
+    private MappedByteBuffer map() throws IOException {
+        MappedByteBuffer mapped = channel.map(FileChannel.MapMode.READ_WRITE, (long) regions.size() * REGION_SIZE, REGION_SIZE);
+
+        regions.add(mapped);
+
+        return mapped;
+    }
+
+    /**
+     * Prepares this trace to record the next run of the given execution, which starts in the given configuration.
+     *
+     * @param execution the execution
+     * @param table     the transition table of the execution
+     * @param tape      the tape of the execution
+     * @param state     the current state index of the execution
+     * @param steps     the number of steps the execution has performed
+     * @throws IllegalStateException    if this trace is closed
+     * @throws IllegalStateException    if this trace was opened to be replayed only
+     * @throws IllegalArgumentException if this trace records another execution
+     * @throws IllegalStateException    if the execution performed steps that were not recorded
+     * @throws UncheckedIOException     if the trace file cannot be extended
+     */
+    void attach(Execution execution, TransitionTable table, Tape tape, int state, long steps) throws IllegalStateException, IllegalArgumentException, UncheckedIOException {
+        validateOpen();
+
+        if (!writable) {
+            throw new IllegalStateException("the trace is read only");
+        }
+
+        if (this.execution == null) {
+            this.execution = execution;
+            this.table = table;
+            this.blank = tape.getBlank();
+            this.firstStep = steps;
+
+            MappedByteBuffer header = regions.get(0);
+
+            header.putLong(8, table.fingerprint());
+            header.putChar(20, blank);
+            header.putLong(24, steps);
+
+            try {
+                addKeyframe(state, tape);
+            } catch (IOException e) {
+                throw new UncheckedIOException(e);
+            }
+        } else if (this.execution != execution) {
+            throw new IllegalArgumentException("the trace records another execution");
+        } else if (firstStep + stepCount != steps) {
+            throw new IllegalStateException("the execution performed steps that were not recorded");
+        }
+    }
+
+    /**
+     * Appends a step.
+     *
+     * @param transition the transition index
+     * @throws IOException if the next file region cannot be mapped
+     */
+    void append(int transition) throws IOException {
+        // keyframes are padded, so steps are aligned and never straddle two regions
+        if (!region.hasRemaining()) {
+            region = map();
+        }
+
+        region.putInt(transition);
+        end += 4;
+        stepCount++;
+    }
+
+    /**
+     * @return true if and only if a keyframe is due after the last recorded step.
+     */
+    boolean isKeyframeDue() {
+        return stepCount % keyframeInterval == 0;
+    }
+
+    /**
+     * Appends a keyframe with the given configuration after the last recorded step.
+     * <p>
+     * The keyframe holds its own size, the state, the content offset, the head position and the content length,
+     * followed by the content as runs of a character and its varint encoded repeat count, padded to a multiple of 4
+     * bytes.
+     *
+     * @param state the state index
+     * @param tape  the tape
+     * @throws IOException if the trace file cannot be extended
+     */
+    void addKeyframe(int state, Tape tape) throws IOException {
+        long start = end;
+        int offset = tape.getOffset();
+        int last = tape.getLast();
+
+        putLong(0);
+        putInt(state);
+        putInt(offset);
+        putInt(tape.getCurrent());
+        putLong(offset > last ? 0 : (long) last - offset + 1);
+
+        try (RunWriter writer = new RunWriter()) {
+            tape.writeContent(writer);
+        }
+
+        while (end % 4 != 0) {
+            putByte(0);
+        }
+
+        setLong(start, end - start);
+        addKeyframePosition(start);
+    }
+
+    /**
+     * Adds the file offset of the next keyframe.
+     *
+     * @param position the file offset of the keyframe
+     */
+    private void addKeyframePosition(long position) {
+        if (keyframeCount == keyframes.length) {
+            keyframes = Arrays.copyOf(keyframes, 2 * keyframes.length);
+        }
+
+        keyframes[keyframeCount++] = position;
+    }
+
+    /**
+     * Writes the number of recorded steps to the file header.
+     */
+    void updateHeader() {
+        regions.get(0).putLong(STEP_COUNT_OFFSET, stepCount);
+    }
+
+    /**
+     * Creates a new replay of this trace, placed on its first configuration.
+     *
+     * @return The new replay.
+     * @throws IllegalStateException if this trace is closed
+     * @throws IllegalStateException if nothing has been recorded yet
+     */
+    public TraceReplay newReplay() throws IllegalStateException {
+        validateOpen();
+
+        if (keyframeCount == 0) {
+            throw new IllegalStateException("nothing has been recorded yet");
+        }
+
+        return new TraceReplay(this);
+    }
+
+    /**
+     * Validates this trace is not closed.
+     *
+     * @throws IllegalStateException if this trace is closed
+     */
+    void validateOpen() throws IllegalStateException {
+        if (closed) {
+            throw new IllegalStateException("the trace is closed");
+        }
+    }
+
+    /**
+     * Gets the transition taken by the given recorded step.
+     *
+     * @param step the step, from 0 to the number of recorded steps minus 1
+     * @return The transition index.
+     */
+    int getTransition(long step) {
+        long position = getStepPosition(step);
+
+        return regions.get((int) (position / REGION_SIZE)).getInt((int) (position % REGION_SIZE));
+    }
+
+    /**
+     * @param step the step
+     * @return The file offset of the given recorded step, which follows the keyframe that precedes it.
+     */
+    private long getStepPosition(long step) {
+        long keyframe = keyframes[(int) (step / keyframeInterval)];
+
+        return keyframe + getLong(keyframe) + 4 * (step % keyframeInterval);
+    }
+
+    /**
+     * Reads the last keyframe at or before the given step.
+     *
+     * @param step the step
+     * @return The last keyframe at or before the given step.
+     */
+    Keyframe getKeyframe(long step) {
+        long position = keyframes[(int) (step / keyframeInterval)] + 8;
+        int state = getInt(position);
+        int offset = getInt(position + 4);
+        int current = getInt(position + 8);
+        long length = getLong(position + 12);
+        StringBuilder content = new StringBuilder((int) length);
+
+        position += 20;
+
+        while (content.length() < length) {
+            char c = (char) ((getByte(position) & 0xFF) << 8 | getByte(position + 1) & 0xFF);
+            long run = 0;
+
+            position += 2;
+
+            for (int shift = 0; ; shift += 7) {
+                byte b = getByte(position++);
+
+                run |= (long) (b & 0x7F) << shift;
+
+                if (b >= 0) {
+                    break;
+                }
+            }
+
+            for (long i = 0; i < run; i++) {
+                content.append(c);
+            }
+        }
+
+        return new Keyframe(state, content.toString(), offset, current);
+    }
+
+    /**
+     * @return The number of steps between two keyframes.
+     */
+    int getKeyframeInterval() {
+        return keyframeInterval;
+    }
+
+    /**
+     * @return The transition table of the recorded execution.
+     */
+    TransitionTable getTable() {
+        return table;
+    }
+
+    /**
+     * @return The blank character of the recorded execution.
+     */
+    char getBlank() {
+        return blank;
+    }
+
+    /**
+     * @return The number of steps the recorded execution had performed when the recording started.
+     */
+    public long getFirstStep() {
+        return firstStep;
+    }
+
+    /**
+     * @return The number of recorded steps.
+     */
+    public long getStepCount() {
+        return stepCount;
+    }
+
+    /**
+     * Appends a byte to the file.
+     *
+     * @param value the byte
+     * @throws IOException if the next file region cannot be mapped
+     */
+    private void putByte(int value) throws IOException {
+        if (!region.hasRemaining()) {
+            region = map();
+        }
+
+        region.put((byte) value);
+        end++;
+    }
+
+    /**
+     * Appends an integer to the file, which may straddle two regions.
+     *
+     * @param value the integer
+     * @throws IOException if the next file region cannot be mapped
+     */
+    private void putInt(int value) throws IOException {
+        for (int shift = 24; shift >= 0; shift -= 8) {
+            putByte(value >>> shift);
+        }
+    }
+
+    /**
+     * Appends a long integer to the file, which may straddle two regions.
+     *
+     * @param value the long integer
+     * @throws IOException if the next file region cannot be mapped
+     */
+    private void putLong(long value) throws IOException {
+        putInt((int) (value >>> 32));
+        putInt((int) value);
+    }
+
+    /**
+     * Overwrites a long integer already written to the file.
+     *
+     * @param position the file offset of the long integer
+     * @param value    the long integer
+     */
+    private void setLong(long position, long value) {
+        for (int i = 0; i < 8; i++) {
+            long p = position + i;
+
+            regions.get((int) (p / REGION_SIZE)).put((int) (p % REGION_SIZE), (byte) (value >>> (56 - 8 * i)));
+        }
+    }
+
+    /**
+     * @param position the file offset
+     * @return The byte at the given file offset.
+     */
+    private byte getByte(long position) {
+        return regions.get((int) (position / REGION_SIZE)).get((int) (position % REGION_SIZE));
+    }
+
+    /**
+     * @param position the file offset
+     * @return The integer at the given file offset, which may straddle two regions.
+     */
+    private int getInt(long position) {
+        int value = 0;
+
+        for (int i = 0; i < 4; i++) {
+            value = value << 8 | getByte(position + i) & 0xFF;
+        }
+
+        return value;
+    }
+
+    /**
+     * @param position the file offset
+     * @return The long integer at the given file offset, which may straddle two regions.
+     */
+    private long getLong(long position) {
+        return (long) getInt(position) << 32 | getInt(position + 4) & 0xFFFFFFFFL;
+    }
+
+    /**
+     * Closes the file. If this trace records an execution, the number of recorded steps is written to the file header,
+     * the file is flushed and then truncated to the length of the written data.
+     *
+     * @throws IOException if the file cannot be flushed, truncated or closed
+     */
+    @Override
+    public void close() throws IOException {
+        if (closed) {
+            return;
+        }
+
+        closed = true;
+
+        try {
+            if (writable) {
+                updateHeader();
+
+                for (MappedByteBuffer mapped : regions) {
+                    mapped.force();
+                }
+
+                channel.truncate(end);
+            }
+        } finally {
+            channel.close();
+        }
+    }
+
+    /**
+     * Writer that appends the content of a keyframe to the file as runs of a character and its repeat count.
+     */
+    private class RunWriter extends Writer {
+        /**
+         * The character of the current run.
+         */
+        private char c;
+        /**
+         * The length of the current run (0 if no character has been written yet).
+         */
+        private long run;
+
+        @Override
+        public void write(char[] buffer, int offset, int length) throws IOException {
+            for (int i = offset; i < offset + length; i++) {
+                if (run > 0 && buffer[i] == c) {
+                    run++;
+                } else {
+                    flush();
+                    c = buffer[i];
+                    run = 1;
+                }
+            }
+        }
+
+        /**
+         * Appends the current run, if any.
+         *
+         * @throws IOException if the trace file cannot be extended
+         */
+        @Override
+        public void flush() throws IOException {
+            if (run == 0) {
+                return;
+            }
+
+            putByte(c >>> 8);
+            putByte(c);
+
+            while ((run & ~0x7FL) != 0) {
+                putByte((int) (run & 0x7F) | 0x80);
+                run >>>= 7;
+            }
+
+            putByte((int) run);
+            run = 0;
+        }
+
+        @Override
+        public void close() throws IOException {
+            flush();
+        }
+    }
+
+    /**
+     * Configuration read from a keyframe.
+     */
+    static class Keyframe {
+        /**
+         * The state index.
+         */
+        private final int state;
+        /**
+         * The content of the tape.
+         */
+        private final String content;
+        /**
+         * The content offset.
+         */
+        private final int offset;
+        /**
+         * The head position.
+         */
+        private final int current;
+
+        /**
+         * Creates a new keyframe.
+         *
+         * @param state   the state index
+         * @param content the content of the tape
+         * @param offset  the content offset
+         * @param current the head position
+         */
+        private Keyframe(int state, String content, int offset, int current) {
+            this.state = state;
+            this.content = content;
+            this.offset = offset;
+            this.current = current;
+        }
+
+        /**
+         * @return The state index.
+         */
+        int getState() {
+            return state;
+        }
+
+        /**
+         * Creates a new tape with the configuration of this keyframe.
+         *
+         * @param blank the blank character
+         * @return The new tape.
+         */
+        Tape newTape(char blank) {
+            return new Tape(content, offset, current, blank);
+        }
+    }
+}
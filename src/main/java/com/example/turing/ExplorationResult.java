@@ -0,0 +1,129 @@
+package com.example.turing;
+
+/**
+ * Nondeterministic turing machine exploration result.
+ * <p>
+ * An exploration halts either when a branch reaches an accepting state, in which case the result holds the accepting
+ * configuration, or when every branch has halted or repeated a configuration already reached, in which case the input
+ * is rejected.
+ */
+public class ExplorationResult {
+    /**
+     * The exploration status.
+     */
+    private final ExecutionStatus status;
+    /**
+     * The number of steps of the accepting branch, or of the longest explored branch if none accepted.
+     */
+    private final long steps;
+    /**
+     * The number of distinct configurations reached.
+     */
+    private final long configurationCount;
+    /**
+     * The transition table used by the exploration.
+     */
+    private final NondeterministicTransitionTable table;
+    /**
+     * The accepting configuration (null if no branch reached an accepting state).
+     */
+    private final Configuration accepted;
+
+    /**
+     * Creates a new exploration result.
+     *
+     * @param status             the exploration status
+     * @param steps              the number of steps of the accepting branch, or of the longest explored branch
+     * @param configurationCount the number of distinct configurations reached
+     * @param table              the transition table used by the exploration
+     * @param accepted           the accepting configuration (null if no branch reached an accepting state)
+     */
+    ExplorationResult(ExecutionStatus status, long steps, long configurationCount, NondeterministicTransitionTable table, Configuration accepted) {
+        this.status = status;
+        this.steps = steps;
+        this.configurationCount = configurationCount;
+        this.table = table;
+        this.accepted = accepted;
+    }
+
+    /**
+     * @return The exploration status, which is {@link ExecutionStatus#HALTED} if the input was either accepted or
+     * rejected.
+     */
+    public ExecutionStatus getStatus() {
+        return status;
+    }
+
+    /**
+     * @return true if and only if a branch reached an accepting state.
+     */
+    public boolean isAccepted() {
+        return accepted != null;
+    }
+
+    /**
+     * @return The number of steps of the accepting branch, or of the longest explored branch if none accepted.
+     */
+    public long getSteps() {
+        return steps;
+    }
+
+    /**
+     * @return The number of distinct configurations reached.
+     */
+    public long getConfigurationCount() {
+        return configurationCount;
+    }
+
+    /**
+     * @return The accepting state name.
+     * @throws IllegalStateException if no branch reached an accepting state
+     */
+    public String getCurrentStateName() throws IllegalStateException {
+        validateAccepted();
+
+        return table.getName(accepted.getState());
+    }
+
+    /**
+     * @return The content of the tape of the accepting branch as a string.
+     * @throws IllegalStateException if no branch reached an accepting state
+     */
+    public String getContent() throws IllegalStateException {
+        validateAccepted();
+
+        return accepted.getTape().getContent();
+    }
+
+    /**
+     * @return The position of the first non blank character of the accepting branch (Integer.MAX_VALUE if its tape
+     * only contains blank characters)
+     * @throws IllegalStateException if no branch reached an accepting state
+     */
+    public int getContentOffset() throws IllegalStateException {
+        validateAccepted();
+
+        return accepted.getTape().getOffset();
+    }
+
+    /**
+     * @return The head position of the accepting branch.
+     * @throws IllegalStateException if no branch reached an accepting state
+     */
+    public int getHeadPosition() throws IllegalStateException {
+        validateAccepted();
+
+        return accepted.getHead();
+    }
+
+    /**
+     * Validates that a branch reached an accepting state.
+     *
+     * @throws IllegalStateException if no branch reached an accepting state
+     */
+    private void validateAccepted() throws IllegalStateException {
+        if (accepted == null) {
+            throw new IllegalStateException("no branch reached an accepting state");
+        }
+    }
+}
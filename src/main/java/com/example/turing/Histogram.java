@@ -0,0 +1,66 @@
+package com.example.turing;
+
+import java.util.concurrent.atomic.AtomicLongArray;
+
+/**
+ * Concurrent histogram of non negative values, with a bucket per power of two.
+ */
+class Histogram {
+    /**
+     * The number of buckets.
+     */
+    static final int BUCKETS = 64;
+
+    /**
+     * The count of each bucket.
+     */
+    private final AtomicLongArray counts;
+
+    /**
+     * Creates a new empty histogram.
+     */
+    Histogram() {
+        this.counts = new AtomicLongArray(BUCKETS);
+    }
+
+    /**
+     * Records the given value.
+     *
+     * @param value the value (negative values are recorded as zero)
+     */
+    void record(long value) {
+        counts.incrementAndGet(bucket(value));
+    }
+
+    /**
+     * Gets the bucket of the given value.
+     *
+     * @param value the value
+     * @return 0 if the value is not positive, or else the number of bits of the value, saturated to the last bucket.
+     */
+    static int bucket(long value) {
+        return value <= 0 ? 0 : Math.min(BUCKETS - 1, Long.SIZE - Long.numberOfLeadingZeros(value));
+    }
+
+    /**
+     * @return A copy of the count of each bucket.
+     */
+    long[] getCounts() {
+        long[] copy = new long[BUCKETS];
+
+        for (int i = 0; i < BUCKETS; i++) {
+            copy[i] = counts.get(i);
+        }
+
+        return copy;
+    }
+
+    /**
+     * Resets the count of every bucket.
+     */
+    void reset() {
+        for (int i = 0; i < BUCKETS; i++) {
+            counts.set(i, 0);
+        }
+    }
+}
@@ -0,0 +1,300 @@
+package com.example.turing;
+
+import javax.tools.FileObject;
+import javax.tools.ForwardingJavaFileManager;
+import javax.tools.JavaCompiler;
+import javax.tools.JavaFileManager;
+import javax.tools.JavaFileObject;
+import javax.tools.SimpleJavaFileObject;
+import javax.tools.StandardJavaFileManager;
+import javax.tools.ToolProvider;
+import java.io.ByteArrayOutputStream;
+import java.io.File;
+import java.io.OutputStream;
+import java.io.Writer;
+import java.net.URI;
+import java.util.Arrays;
+import java.util.Collections;
+import java.util.HashMap;
+import java.util.List;
+import java.util.Map;
+
+/**
+ * Generator of specialized {@link CompiledMachine} classes.
+ * <p>
+ * Each state becomes a {@code case} of a switch on the current state, holding a nested switch on the symbol under the
+ * head, where the replacement symbols, head moves and next states are constants. Writes that would not change the
+ * cell are left out, and sweep transitions scan the tape instead of looping once per cell. The source is compiled in
+ * memory with the system Java compiler and defined by a new class loader, so the class can be unloaded together with
+ * its definition.
+ */
+class MachineCompiler {
+    /**
+     * The package of the generated classes.
+     */
+    private static final String PACKAGE = "com.example.turing.generated";
+    /**
+     * The maximum number of transitions of a compiled machine, which keeps the generated method within the size limit
+     * of the class file format.
+     */
+    static final int MAX_TRANSITIONS = 2048;
+
+    /**
+     * Prevents instantiation.
+     */
+    private MachineCompiler() {
+    }
+
+    /**
+     * Generates and loads a class for the given transition table.
+     *
+     * @param table the transition table
+     * @return The generated class (null if code generation is unavailable or the machine is too large).
+     */
+    static Class<? extends CompiledMachine> compile(TransitionTable table) {
+        JavaCompiler compiler = ToolProvider.getSystemJavaCompiler();
+
+        if (compiler == null || countTransitions(table) > MAX_TRANSITIONS) {
+            return null;
+        }
+
+        String simpleName = "Machine" + Long.toHexString(table.fingerprint());
+        String name = PACKAGE + "." + simpleName;
+        JavaFileObject source = new Source(simpleName, generate(table, simpleName));
+        Map<String, ByteArrayOutputStream> classes = new HashMap<>();
+
+        try (StandardJavaFileManager standard = compiler.getStandardFileManager(null, null, null)) {
+            JavaFileManager fileManager = new ClassCollector(standard, classes);
+            List<String> options = Arrays.asList("-classpath", getClassPath(), "-g:none", "-nowarn");
+            Writer discard = new Writer() {
+                @Override
+                public void write(char[] buffer, int offset, int length) {
+                }
+
+                @Override
+                public void flush() {
+                }
+
+                @Override
+                public void close() {
+                }
+            };
+
+            if (!compiler.getTask(discard, fileManager, null, options, null, Collections.singletonList(source)).call()) {
+                return null;
+            }
+
+            return new GeneratedClassLoader(classes).loadClass(name).asSubclass(CompiledMachine.class);
+        } catch (Exception | LinkageError e) {
+            return null;
+        }
+    }
+
+    /**
+     * @param table the transition table
+     * @return The number of transitions of the given table.
+     */
+    private static int countTransitions(TransitionTable table) {
+        int count = 0;
+
+        for (int state = 0; state < table.getStateCount(); state++) {
+            for (int symbol = 0; symbol < table.getSymbolCount(); symbol++) {
+                if (table.getTransition(state, table.getSymbol(symbol)) >= 0) {
+                    count++;
+                }
+            }
+        }
+
+        return count;
+    }
+
+    /**
+     * Generates the source of a class for the given transition table.
+     *
+     * @param table      the transition table
+     * @param simpleName the simple class name
+     * @return The source.
+     */
+    static String generate(TransitionTable table, String simpleName) {
+        StringBuilder s = new StringBuilder();
+
+        s.append("package ").append(PACKAGE).append(";\n\n");
+        s.append("public final class ").append(simpleName).append(" extends com.example.turing.CompiledMachine {\n");
+        s.append("    @Override\n");
+        s.append("    protected boolean performSteps(long count) {\n");
+        s.append("        int state = this.state;\n");
+        s.append("        long i = 0;\n");
+        s.append("        boolean running = true;\n\n");
+        s.append("        loop:\n");
+        s.append("        while (i < count) {\n");
+        s.append("            switch (state) {\n");
+
+        for (int state = 0; state < table.getStateCount(); state++) {
+            s.append("                case ").append(state).append(":\n");
+            s.append("                    switch (read()) {\n");
+
+            for (int symbolIndex = 0; symbolIndex < table.getSymbolCount(); symbolIndex++) {
+                char symbol = table.getSymbol(symbolIndex);
+                int transition = table.getTransition(state, symbol);
+
+                if (transition < 0) {
+                    continue;
+                }
+
+                s.append("                        case ").append((int) symbol).append(":\n");
+
+                if (table.isSweep(transition)) {
+                    s.append("                            i += sweep((char) ").append((int) symbol).append(", ").append(table.getMove(transition)).append(", count - i);\n");
+                    s.append("                            continue loop;\n");
+                    continue;
+                }
+
+                if (table.getReplacement(transition) != symbol) {
+                    s.append("                            write((char) ").append((int) table.getReplacement(transition)).append(");\n");
+                }
+
+                s.append("                            state = ").append(table.getNextState(transition)).append(";\n");
+                s.append("                            i++;\n");
+
+                switch (table.getMove(transition)) {
+                    case TransitionTable.MOVE_LEFT:
+                        s.append("                            left();\n");
+                        s.append("                            continue loop;\n");
+                        break;
+                    case TransitionTable.MOVE_RIGHT:
+                        s.append("                            right();\n");
+                        s.append("                            continue loop;\n");
+                        break;
+                    default:
+                        s.append("                            running = false;\n");
+                        s.append("                            break loop;\n");
+                }
+            }
+
+            s.append("                        default:\n");
+            s.append("                            break loop;\n");
+            s.append("                    }\n");
+        }
+
+        s.append("                default:\n");
+        s.append("                    break loop;\n");
+        s.append("            }\n");
+        s.append("        }\n\n");
+        s.append("        this.state = state;\n");
+        s.append("        this.performed = i;\n\n");
+        s.append("        return running && i == count;\n");
+        s.append("    }\n");
+        s.append("}\n");
+
+        return s.toString();
+    }
+
+    /**
+     * @return The class path the generated source is compiled with, which includes the location of this class.
+     */
+    private static String getClassPath() {
+        String classPath = System.getProperty("java.class.path", "");
+
+        try {
+            String location = new File(CompiledMachine.class.getProtectionDomain().getCodeSource().getLocation().toURI()).getPath();
+
+            return classPath.isEmpty() ? location : location + File.pathSeparator + classPath;
+        } catch (Exception e) {
+            return classPath;
+        }
+    }
+
+    /**
+     * In-memory source file.
+     */
+    private static class Source extends SimpleJavaFileObject {
+        /**
+         * The source code.
+         */
+        private final String code;
+
+        /**
+         * Creates a new source file.
+         *
+         * @param simpleName the simple class name
+         * @param code       the source code
+         */
+        private Source(String simpleName, String code) {
+            super(URI.create("string:///" + PACKAGE.replace('.', '/') + "/" + simpleName + Kind.SOURCE.extension), Kind.SOURCE);
+            this.code = code;
+        }
+
+        @Override
+        public CharSequence getCharContent(boolean ignoreEncodingErrors) {
+            return code;
+        }
+    }
+
+    /**
+     * File manager that keeps the compiled classes in memory.
+     */
+    private static class ClassCollector extends ForwardingJavaFileManager<JavaFileManager> {
+        /**
+         * The bytes of each compiled class, by class name.
+         */
+        private final Map<String, ByteArrayOutputStream> classes;
+
+        /**
+         * Creates a new file manager.
+         *
+         * @param fileManager the file manager to forward to
+         * @param classes     the bytes of each compiled class, by class name
+         */
+        private ClassCollector(JavaFileManager fileManager, Map<String, ByteArrayOutputStream> classes) {
+            super(fileManager);
+            this.classes = classes;
+        }
+
+        @Override
+        public JavaFileObject getJavaFileForOutput(Location location, String className, JavaFileObject.Kind kind, FileObject sibling) {
+            return new SimpleJavaFileObject(URI.create("bytes:///" + className.replace('.', '/') + kind.extension), kind) {
+                @Override
+                public OutputStream openOutputStream() {
+                    ByteArrayOutputStream bytes = new ByteArrayOutputStream();
+
+                    classes.put(className, bytes);
+
+                    return bytes;
+                }
+            };
+        }
+    }
+
+    /**
+     * Class loader of the compiled classes.
+     */
+    private static class GeneratedClassLoader extends ClassLoader {
+        /**
+         * The bytes of each compiled class, by class name.
+         */
+        private final Map<String, ByteArrayOutputStream> classes;
+
+        /**
+         * Creates a new class loader.
+         *
+         * @param classes the bytes of each compiled class, by class name
+         */
+        private GeneratedClassLoader(Map<String, ByteArrayOutputStream> classes) {
+            super(CompiledMachine.class.getClassLoader());
+            this.classes = classes;
+        }
+
+        @Override
+        protected Class<?> findClass(String name) throws ClassNotFoundException {
+            ByteArrayOutputStream bytes = classes.get(name);
+
+            if (bytes == null) {
+                throw new ClassNotFoundException(name);
+            }
+
+            byte[] b = bytes.toByteArray();
+
+            return defineClass(name, b, 0, b.length);
+        }
+    }
+}
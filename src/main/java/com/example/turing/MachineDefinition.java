@@ -0,0 +1,674 @@
+package com.example.turing;
+
+import java.io.IOException;
+import java.io.InputStream;
+import java.io.InputStreamReader;
+import java.io.Reader;
+import java.io.UncheckedIOException;
+import java.lang.reflect.Constructor;
+import java.nio.channels.FileChannel;
+import java.nio.charset.Charset;
+import java.nio.file.Path;
+import java.util.Arrays;
+import java.util.Collection;
+import java.util.List;
+import java.util.concurrent.CompletableFuture;
+import java.util.concurrent.CompletionException;
+import java.util.concurrent.Executor;
+import java.util.function.BiConsumer;
+import java.util.stream.IntStream;
+import java.util.stream.Stream;
+
+/**
+ * Immutable turing machine definition.
+ * <p>
+ * A definition is a frozen, compiled snapshot of a {@link TuringMachine}. It never changes, so a single instance may
+ * be shared by any number of threads, each of which runs its own {@link Execution}.
+ */
+public class MachineDefinition {
+    /**
+     * The number of chunks per available processor a batch is split into when it runs on a given executor.
+     */
+    private static final int CHUNKS_PER_PROCESSOR = 4;
+
+    /**
+     * The compiled transition table.
+     */
+    private final TransitionTable table;
+    /**
+     * The constructor of the generated code (null if executions use the interpreter).
+     */
+    private final Constructor<? extends CompiledMachine> code;
+    /**
+     * The compiled variant of this definition (null if it has not been requested yet).
+     */
+    private volatile MachineDefinition compiled;
+    /**
+     * The fingerprint of this definition (0 if it has not been computed yet).
+     */
+    private volatile long fingerprint;
+
+    /**
+     * Creates a new definition for the given transition table.
+     *
+     * @param table the compiled transition table
+     */
+    MachineDefinition(TransitionTable table) {
+        this(table, null);
+    }
+
+    /**
+     * Creates a new definition for the given transition table, whose fingerprint is already known.
+     *
+     * @param table       the compiled transition table
+     * @param fingerprint the fingerprint of the transition table
+     */
+    MachineDefinition(TransitionTable table, long fingerprint) {
+        this(table, null);
+
+        this.fingerprint = fingerprint;
+    }
+
+    /**
+     * Creates a new definition for the given transition table and generated code.
+     *
+     * @param table the compiled transition table
+     * @param code  the constructor of the generated code (null if executions use the interpreter)
+     */
+    private MachineDefinition(TransitionTable table, Constructor<? extends CompiledMachine> code) {
+        this.table = table;
+        this.code = code;
+        this.compiled = code == null ? null : this;
+        this.fingerprint = 0;
+    }
+
+    /**
+     * Gets a variant of this definition whose executions run code generated for this machine.
+     * <p>
+     * The generated class embeds every transition as constants in nested switches on the state and on the symbol under
+     * the head, which saves the table lookups of the interpreter on every step. Generating and loading the class is
+     * expensive, so it only pays off for machines that run many steps, and it is only done once per definition. Code
+     * generation needs the system Java compiler and is only done for machines with up to 2048 transitions, so this
+     * definition itself is returned whenever it is unavailable. Only plain runs use the generated code; observed runs
+     * such as {@link Execution#runDetectingCycles(ExecutionLimits)} and macro runs always use the interpreter.
+     *
+     * @return The compiled variant of this definition, or this definition if code generation is unavailable.
+     */
+    public MachineDefinition compile() {
+        MachineDefinition c = compiled;
+
+        if (c == null) {
+            c = this;
+
+            try {
+                Class<? extends CompiledMachine> generated = MachineCompiler.compile(table);
+
+                if (generated != null) {
+                    c = new MachineDefinition(table, generated.getConstructor());
+                }
+            } catch (NoSuchMethodException e) {
+                // keep the interpreter
+            }
+
+            compiled = c;
+        }
+
+        return c;
+    }
+
+    /**
+     * Optimizes this definition: prunes the states that cannot be reached from the initial state, merges equivalent
+     * states and drops the symbols the remaining transitions neither read nor write.
+     * <p>
+     * Two states are equivalent when they are both accepting or both not, and for every symbol either both have no
+     * transition, or both write the same symbol, move the head the same way and move to equivalent states. The
+     * optimized definition performs exactly the same steps as this one on every tape; only the reported state names
+     * may differ, since merged states take the name of the first of them, and the result maps each original name to
+     * its optimized name.
+     *
+     * @return The optimization result.
+     */
+    public OptimizationResult optimize() {
+        return MachineOptimizer.optimize(table);
+    }
+
+    /**
+     * Reads a definition written by {@link #write(Path)}.
+     * <p>
+     * The file is memory-mapped and its transition table is copied out in bulk, so loading a machine with hundreds of
+     * thousands of states takes milliseconds instead of rebuilding it through a {@link TuringMachine}. State names are
+     * only decoded when they are first needed. The file is rejected if its version is not supported or its checksum
+     * does not match.
+     *
+     * @param file the machine file
+     * @return The definition read.
+     * @throws NullPointerException if the machine file is null
+     * @throws IOException          if the machine file cannot be read, is not a machine file, has an unsupported
+     *                              version or is corrupted
+     */
+    public static MachineDefinition read(Path file) throws NullPointerException, IOException {
+        validateFile(file);
+
+        return MachineFile.read(file);
+    }
+
+    /**
+     * Writes this definition to the given file, in a versioned binary format that {@link #read(Path)} loads without
+     * rebuilding the machine.
+     * <p>
+     * The definition is first written to a temporary file in the same directory, which is then moved over the given
+     * file, so the file always holds a complete definition.
+     *
+     * @param file the machine file
+     * @throws NullPointerException if the machine file is null
+     * @throws IOException          if the machine file cannot be written
+     */
+    public void write(Path file) throws NullPointerException, IOException {
+        validateFile(file);
+
+        MachineFile.write(this, file);
+    }
+
+    /**
+     * Validates a machine file.
+     *
+     * @param file the machine file
+     * @throws NullPointerException if the machine file is null
+     */
+    private static void validateFile(Path file) throws NullPointerException {
+        if (file == null) {
+            throw new NullPointerException("the machine file is null");
+        }
+    }
+
+    /**
+     * @return true if and only if the executions of this definition run generated code.
+     */
+    public boolean isCompiled() {
+        return code != null;
+    }
+
+    /**
+     * Creates a new instance of the generated code, attached to the given tape.
+     *
+     * @param tape the tape
+     * @return The new instance (null if executions use the interpreter).
+     */
+    private CompiledMachine newCode(Tape tape) {
+        if (code == null) {
+            return null;
+        }
+
+        try {
+            CompiledMachine instance = code.newInstance();
+
+            instance.attach(tape);
+
+            return instance;
+        } catch (ReflectiveOperationException e) {
+            return null;
+        }
+    }
+
+    /**
+     * Creates a new execution of this machine for the given input, without performing any step.
+     *
+     * @param content the initial content of the tape
+     * @param offset  the initial content offset
+     * @param current the head position
+     * @param blank   the blank character
+     * @return The new execution.
+     * @throws NullPointerException if the initial content is null
+     */
+    public Execution newExecution(String content, int offset, int current, char blank) throws NullPointerException {
+        validateNewExecutionArguments(content);
+
+        return newExecution(newTape(content, offset, current, blank));
+    }
+
+    /**
+     * Creates a new tape for this machine, packed if every symbol it may hold fits in a {@link PackedTape}.
+     *
+     * @param content the initial content of the tape
+     * @param offset  the initial content offset
+     * @param current the head position
+     * @param blank   the blank character
+     * @return The new tape.
+     */
+    private Tape newTape(String content, int offset, int current, char blank) {
+        char[] alphabet = PackedTape.getAlphabet(table, content, blank);
+
+        return alphabet == null ? new Tape(content, offset, current, blank) : new PackedTape(content, offset, current, alphabet);
+    }
+
+    /**
+     * Validates the {@link #newExecution(String, int, int, char)} arguments.
+     *
+     * @param content the initial content of the tape
+     * @throws NullPointerException if the initial content is null
+     */
+    private void validateNewExecutionArguments(String content) throws NullPointerException {
+        if (content == null) {
+            Metrics.getRegistry().executionRejected();
+
+            throw new NullPointerException("the initial content is null");
+        }
+    }
+
+    /**
+     * Creates a new execution of this machine whose tape keeps at most the given amount of memory, without performing
+     * any step.
+     * <p>
+     * Tape segments are allocated on their first write, so far apart regions stay cheap, and once the resident
+     * segments reach the memory limit, the least recently entered ones are written to a scratch file created in the
+     * given directory and read back when they are needed again. The tape is then limited by disk space instead of by
+     * the heap. The scratch file is deleted when the execution is closed. Scratch file errors are thrown as {@link
+     * UncheckedIOException} by the execution methods.
+     *
+     * @param content     the initial content of the tape
+     * @param offset      the initial content offset
+     * @param current     the head position
+     * @param blank       the blank character
+     * @param directory   the directory of the scratch file
+     * @param memoryLimit the maximum number of bytes of tape cells kept in memory, at least 4096
+     * @return The new execution.
+     * @throws NullPointerException     if the initial content is null
+     * @throws NullPointerException     if the scratch directory is null
+     * @throws IllegalArgumentException if the memory limit is too small
+     * @throws IOException              if the scratch file cannot be created
+     */
+    public Execution newPagedExecution(String content, int offset, int current, char blank, Path directory, long memoryLimit) throws NullPointerException, IllegalArgumentException, IOException {
+        validateNewPagedExecutionArguments(content, directory, memoryLimit);
+
+        return newExecution(Tape.paged(content, offset, current, blank, directory, memoryLimit));
+    }
+
+    /**
+     * Validates the {@link #newPagedExecution(String, int, int, char, Path, long)} arguments.
+     *
+     * @param content     the initial content of the tape
+     * @param directory   the directory of the scratch file
+     * @param memoryLimit the maximum number of bytes of tape cells kept in memory
+     * @throws NullPointerException     if the initial content is null
+     * @throws NullPointerException     if the scratch directory is null
+     * @throws IllegalArgumentException if the memory limit is too small
+     */
+    private void validateNewPagedExecutionArguments(String content, Path directory, long memoryLimit) throws NullPointerException, IllegalArgumentException {
+        validateNewExecutionArguments(content);
+
+        if (directory == null) {
+            throw new NullPointerException("the scratch directory is null");
+        }
+
+        if (memoryLimit < Tape.MIN_MEMORY_LIMIT) {
+            throw new IllegalArgumentException("the memory limit is too small");
+        }
+    }
+
+    /**
+     * Creates a new execution of this machine whose initial content is read lazily from the given reader, without
+     * performing any step.
+     * <p>
+     * The initial content is read a segment at a time, when the head or a request for the content first reaches it,
+     * so startup does not depend on the input size. The reader must stay open while the execution runs, and is not
+     * closed by it. Reading errors are thrown as {@link UncheckedIOException} by the execution methods.
+     *
+     * @param reader  the reader of the initial content of the tape
+     * @param offset  the initial content offset
+     * @param current the head position
+     * @param blank   the blank character
+     * @return The new execution.
+     * @throws NullPointerException if the reader is null
+     * @throws UncheckedIOException if the reader cannot be read
+     */
+    public Execution newStreamingExecution(Reader reader, int offset, int current, char blank) throws NullPointerException, UncheckedIOException {
+        validateNewStreamingExecutionArguments(reader);
+
+        return newExecution(new Tape(new ReaderTapeSource(reader), offset, current, blank));
+    }
+
+    /**
+     * Validates the {@link #newStreamingExecution(Reader, int, int, char)} arguments.
+     *
+     * @param reader the reader of the initial content of the tape
+     * @throws NullPointerException if the reader is null
+     */
+    private void validateNewStreamingExecutionArguments(Reader reader) throws NullPointerException {
+        if (reader == null) {
+            throw new NullPointerException("the reader is null");
+        }
+    }
+
+    /**
+     * Creates a new execution of this machine whose initial content is decoded lazily from the given stream, without
+     * performing any step.
+     *
+     * @param in      the stream of the initial content of the tape
+     * @param charset the charset of the stream
+     * @param offset  the initial content offset
+     * @param current the head position
+     * @param blank   the blank character
+     * @return The new execution.
+     * @throws NullPointerException if the stream is null
+     * @throws NullPointerException if the charset is null
+     * @throws UncheckedIOException if the stream cannot be read
+     * @see #newStreamingExecution(Reader, int, int, char)
+     */
+    public Execution newStreamingExecution(InputStream in, Charset charset, int offset, int current, char blank) throws NullPointerException, UncheckedIOException {
+        validateNewStreamingExecutionArguments(in, charset);
+
+        return newStreamingExecution(new InputStreamReader(in, charset), offset, current, blank);
+    }
+
+    /**
+     * Validates the {@link #newStreamingExecution(InputStream, Charset, int, int, char)} arguments.
+     *
+     * @param in      the stream of the initial content of the tape
+     * @param charset the charset of the stream
+     * @throws NullPointerException if the stream is null
+     * @throws NullPointerException if the charset is null
+     */
+    private void validateNewStreamingExecutionArguments(InputStream in, Charset charset) throws NullPointerException {
+        if (in == null) {
+            throw new NullPointerException("the stream is null");
+        }
+
+        if (charset == null) {
+            throw new NullPointerException("the charset is null");
+        }
+    }
+
+    /**
+     * Creates a new execution of this machine whose initial content is the given file, mapped into memory and read
+     * lazily with one ISO-8859-1 character per byte, without performing any step.
+     * <p>
+     * Unlike streams, a mapped file is read in any order, so only the segments of the tape the execution actually
+     * reaches are ever read. The channel must stay open while the execution runs, and is not closed by it.
+     *
+     * @param channel the file channel of the initial content of the tape
+     * @param offset  the initial content offset
+     * @param current the head position
+     * @param blank   the blank character
+     * @return The new execution.
+     * @throws NullPointerException if the file channel is null
+     * @throws IOException          if the file cannot be read
+     */
+    public Execution newMappedExecution(FileChannel channel, int offset, int current, char blank) throws NullPointerException, IOException {
+        validateNewMappedExecutionArguments(channel);
+
+        try {
+            return newExecution(new Tape(new MappedTapeSource(channel), offset, current, blank));
+        } catch (UncheckedIOException e) {
+            throw e.getCause();
+        }
+    }
+
+    /**
+     * Validates the {@link #newMappedExecution(FileChannel, int, int, char)} arguments.
+     *
+     * @param channel the file channel of the initial content of the tape
+     * @throws NullPointerException if the file channel is null
+     */
+    private void validateNewMappedExecutionArguments(FileChannel channel) throws NullPointerException {
+        if (channel == null) {
+            throw new NullPointerException("the file channel is null");
+        }
+    }
+
+    /**
+     * Creates a new execution of this machine on the given tape.
+     *
+     * @param tape the tape
+     * @return The new execution.
+     */
+    private Execution newExecution(Tape tape) {
+        return new Execution(table, tape, newCode(tape));
+    }
+
+    /**
+     * Creates a new execution of this machine in the configuration of the given checkpoint, without performing any
+     * step.
+     *
+     * @param checkpoint the checkpoint
+     * @return The new execution.
+     * @throws NullPointerException     if the checkpoint is null
+     * @throws IllegalArgumentException if the checkpoint belongs to another machine definition
+     */
+    public Execution resume(Checkpoint checkpoint) throws NullPointerException, IllegalArgumentException {
+        validateResumeArguments(checkpoint);
+
+        Tape tape = newTape(checkpoint.getContent(), checkpoint.getContentOffset(), checkpoint.getHeadPosition(), checkpoint.getBlank());
+
+        return new Execution(table, tape, checkpoint.getState(), checkpoint.getSteps(), checkpoint.isHalted(), newCode(tape));
+    }
+
+    /**
+     * Validates the {@link #resume(Checkpoint)} arguments.
+     *
+     * @param checkpoint the checkpoint
+     * @throws NullPointerException     if the checkpoint is null
+     * @throws IllegalArgumentException if the checkpoint belongs to another machine definition
+     */
+    private void validateResumeArguments(Checkpoint checkpoint) throws NullPointerException, IllegalArgumentException {
+        if (checkpoint == null) {
+            throw new NullPointerException("the checkpoint is null");
+        }
+
+        if (checkpoint.getFingerprint() != getFingerprint()) {
+            throw new IllegalArgumentException("the checkpoint belongs to another machine definition");
+        }
+    }
+
+    /**
+     * Executes this machine for the given input until it halts.
+     *
+     * @param content the initial content of the tape
+     * @param offset  the initial content offset
+     * @param current the head position
+     * @param blank   the blank character
+     * @return The execution result.
+     * @throws NullPointerException if the initial content is null
+     */
+    public ExecutionResult execute(String content, int offset, int current, char blank) throws NullPointerException {
+        return execute(content, offset, current, blank, ExecutionLimits.NONE);
+    }
+
+    /**
+     * Executes this machine for the given input until it halts or any of the given limits is reached.
+     *
+     * @param content the initial content of the tape
+     * @param offset  the initial content offset
+     * @param current the head position
+     * @param blank   the blank character
+     * @param limits  the execution limits
+     * @return The execution result.
+     * @throws NullPointerException if the initial content is null
+     * @throws NullPointerException if the execution limits are null
+     */
+    public ExecutionResult execute(String content, int offset, int current, char blank, ExecutionLimits limits) throws NullPointerException {
+        Execution execution = newExecution(content, offset, current, blank);
+
+        return execution.run(limits);
+    }
+
+    /**
+     * Executes this machine for each of the given inputs in parallel, using the common fork/join pool.
+     *
+     * @param contents the initial content of the tape for each execution
+     * @param offset   the initial content offset
+     * @param current  the head position
+     * @param blank    the blank character
+     * @param limits   the execution limits of each execution
+     * @return The result of each execution, in input order.
+     * @throws NullPointerException if the initial contents are null
+     * @throws NullPointerException if any initial content is null
+     * @throws NullPointerException if the execution limits are null
+     */
+    public List<ExecutionResult> executeAll(Collection<String> contents, int offset, int current, char blank, ExecutionLimits limits) throws NullPointerException {
+        validateExecuteAllArguments(contents, limits);
+
+        String[] inputs = contents.toArray(new String[0]);
+        ExecutionResult[] results = new ExecutionResult[inputs.length];
+
+        IntStream.range(0, inputs.length).parallel().forEach(i -> results[i] = execute(inputs[i], offset, current, blank, limits));
+
+        return Arrays.asList(results);
+    }
+
+    /**
+     * Executes this machine for each of the given inputs in parallel, using the given executor.
+     * <p>
+     * The inputs are split into contiguous chunks, each of which runs as a single task.
+     *
+     * @param contents the initial content of the tape for each execution
+     * @param offset   the initial content offset
+     * @param current  the head position
+     * @param blank    the blank character
+     * @param limits   the execution limits of each execution
+     * @param executor the executor that runs the executions
+     * @return The result of each execution, in input order.
+     * @throws NullPointerException if the initial contents are null
+     * @throws NullPointerException if any initial content is null
+     * @throws NullPointerException if the execution limits are null
+     * @throws NullPointerException if the executor is null
+     */
+    public List<ExecutionResult> executeAll(Collection<String> contents, int offset, int current, char blank, ExecutionLimits limits, Executor executor) throws NullPointerException {
+        validateExecuteAllArguments(contents, limits);
+        validateExecutor(executor);
+
+        String[] inputs = contents.toArray(new String[0]);
+        ExecutionResult[] results = new ExecutionResult[inputs.length];
+        int chunkSize = Math.max(1, inputs.length / (CHUNKS_PER_PROCESSOR * Runtime.getRuntime().availableProcessors()));
+        CompletableFuture<?>[] futures = new CompletableFuture<?>[(inputs.length + chunkSize - 1) / chunkSize];
+
+        for (int i = 0; i < futures.length; i++) {
+            int from = i * chunkSize;
+            int to = Math.min(inputs.length, from + chunkSize);
+
+            futures[i] = CompletableFuture.runAsync(() -> {
+                for (int j = from; j < to; j++) {
+                    results[j] = execute(inputs[j], offset, current, blank, limits);
+                }
+            }, executor);
+        }
+
+        try {
+            CompletableFuture.allOf(futures).join();
+        } catch (CompletionException e) {
+            if (e.getCause() instanceof RuntimeException) {
+                throw (RuntimeException) e.getCause();
+            }
+
+            throw e;
+        }
+
+        return Arrays.asList(results);
+    }
+
+    /**
+     * Executes this machine for each of the given inputs in parallel, passing each result to the given consumer as
+     * soon as it is available.
+     * <p>
+     * The consumer is called concurrently from the threads running the executions, in no particular order.
+     *
+     * @param contents the initial content of the tape for each execution
+     * @param offset   the initial content offset
+     * @param current  the head position
+     * @param blank    the blank character
+     * @param limits   the execution limits of each execution
+     * @param consumer the consumer of each initial content and its execution result
+     * @throws NullPointerException if the initial contents are null
+     * @throws NullPointerException if any initial content is null
+     * @throws NullPointerException if the execution limits are null
+     * @throws NullPointerException if the consumer is null
+     */
+    public void executeAllUnordered(Stream<String> contents, int offset, int current, char blank, ExecutionLimits limits, BiConsumer<String, ExecutionResult> consumer) throws NullPointerException {
+        validateExecuteAllArguments(contents, limits);
+        validateConsumer(consumer);
+
+        contents.parallel().unordered().forEach(content -> consumer.accept(content, execute(content, offset, current, blank, limits)));
+    }
+
+    /**
+     * Validates the batch execution arguments.
+     *
+     * @param contents the initial contents
+     * @param limits   the execution limits
+     * @throws NullPointerException if the initial contents are null
+     * @throws NullPointerException if the execution limits are null
+     */
+    private void validateExecuteAllArguments(Object contents, ExecutionLimits limits) throws NullPointerException {
+        if (contents == null) {
+            throw new NullPointerException("the initial contents are null");
+        }
+
+        if (limits == null) {
+            throw new NullPointerException("the execution limits are null");
+        }
+    }
+
+    /**
+     * Validates the {@link #executeAll(Collection, int, int, char, ExecutionLimits, Executor)} executor.
+     *
+     * @param executor the executor
+     * @throws NullPointerException if the executor is null
+     */
+    private void validateExecutor(Executor executor) throws NullPointerException {
+        if (executor == null) {
+            throw new NullPointerException("the executor is null");
+        }
+    }
+
+    /**
+     * Validates the {@link #executeAllUnordered(Stream, int, int, char, ExecutionLimits, BiConsumer)} consumer.
+     *
+     * @param consumer the consumer
+     * @throws NullPointerException if the consumer is null
+     */
+    private void validateConsumer(BiConsumer<String, ExecutionResult> consumer) throws NullPointerException {
+        if (consumer == null) {
+            throw new NullPointerException("the consumer is null");
+        }
+    }
+
+    /**
+     * @return The number of states.
+     */
+    public int getStateCount() {
+        return table.getStateCount();
+    }
+
+    /**
+     * @return The initial state name.
+     */
+    public String getInitialStateName() {
+        return table.getName(table.getInitialState());
+    }
+
+    /**
+     * Gets a stable fingerprint of this definition.
+     * <p>
+     * The fingerprint only depends on the states, transitions and initial state of this definition, so equal
+     * definitions have the same fingerprint, even if they were frozen from different machines or in different
+     * processes.
+     *
+     * @return The 64-bit fingerprint of this definition.
+     */
+    public long getFingerprint() {
+        long f = fingerprint;
+
+        if (f == 0) {
+            f = table.fingerprint();
+            fingerprint = f;
+        }
+
+        return f;
+    }
+
+    /**
+     * @return The compiled transition table.
+     */
+    TransitionTable getTable() {
+        return table;
+    }
+}
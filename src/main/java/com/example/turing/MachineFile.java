@@ -0,0 +1,306 @@
+package com.example.turing;
+
+import java.io.BufferedOutputStream;
+import java.io.DataOutputStream;
+import java.io.IOException;
+import java.io.OutputStream;
+import java.nio.ByteBuffer;
+import java.nio.MappedByteBuffer;
+import java.nio.channels.FileChannel;
+import java.nio.charset.StandardCharsets;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.nio.file.StandardCopyOption;
+import java.nio.file.StandardOpenOption;
+import java.util.zip.CRC32;
+import java.util.zip.CheckedOutputStream;
+
+/**
+ * Binary file format for machine definitions.
+ * <p>
+ * A machine file holds the transition table exactly as it is laid out in memory, so loading it takes a few bulk
+ * copies from the mapped file instead of rebuilding the machine state by state. It starts with a 32 byte header (the
+ * magic number, the format version, the number of states, the number of symbols, the initial state index, the length
+ * of the name data and the fingerprint), followed by the next state and name offset arrays, the symbol and replacement
+ * arrays, the move and accepting arrays, the UTF-8 encoded state names and a CRC-32 of everything before it. Arrays
+ * are grouped by element size, so every multi-byte element is aligned. State names stay in the mapped file and are
+ * only decoded when they are first needed.
+ */
+class MachineFile {
+    /**
+     * The file format magic number.
+     */
+    private static final int MAGIC = 0x544D4446;
+    /**
+     * The file format version.
+     */
+    private static final int VERSION = 1;
+    /**
+     * The length of the header.
+     */
+    private static final int HEADER_LENGTH = 32;
+    /**
+     * The length of the checksum that ends the file.
+     */
+    private static final int CHECKSUM_LENGTH = 4;
+
+    /**
+     * Writes the given definition to the given file.
+     * <p>
+     * The definition is first written to a temporary file in the same directory, which is then moved over the given
+     * file, so the file always holds a complete definition.
+     *
+     * @param definition the machine definition
+     * @param file       the machine file
+     * @throws IOException if the machine file cannot be written, or the definition is too large for this format
+     */
+    static void write(MachineDefinition definition, Path file) throws IOException {
+        Path temporary = file.resolveSibling(file.getFileName() + ".tmp");
+
+        try (OutputStream out = Files.newOutputStream(temporary)) {
+            write(definition.getTable(), definition.getFingerprint(), out);
+        }
+
+        Files.move(temporary, file, StandardCopyOption.REPLACE_EXISTING, StandardCopyOption.ATOMIC_MOVE);
+    }
+
+    /**
+     * Writes the given transition table to the given stream.
+     *
+     * @param table       the transition table
+     * @param fingerprint the transition table fingerprint
+     * @param out         the stream
+     * @throws IOException if the stream cannot be written, or the table is too large for this format
+     */
+    private static void write(TransitionTable table, long fingerprint, OutputStream out) throws IOException {
+        int stateCount = table.getStateCount();
+        int symbolCount = table.getSymbolCount();
+        int transitionCount = stateCount * symbolCount;
+        byte[][] names = new byte[stateCount][];
+        long nameLength = 0;
+
+        for (int state = 0; state < stateCount; state++) {
+            names[state] = table.getName(state).getBytes(StandardCharsets.UTF_8);
+            nameLength += names[state].length;
+        }
+
+        if (getLength(stateCount, symbolCount, nameLength) > Integer.MAX_VALUE) {
+            throw new IOException("the machine definition is too large");
+        }
+
+        CheckedOutputStream checked = new CheckedOutputStream(out, new CRC32());
+        DataOutputStream data = new DataOutputStream(new BufferedOutputStream(checked));
+
+        data.writeInt(MAGIC);
+        data.writeInt(VERSION);
+        data.writeInt(stateCount);
+        data.writeInt(symbolCount);
+        data.writeInt(table.getInitialState());
+        data.writeInt((int) nameLength);
+        data.writeLong(fingerprint);
+
+        for (int i = 0; i < transitionCount; i++) {
+            data.writeInt(table.getNextState(i));
+        }
+
+        int nameOffset = 0;
+
+        for (byte[] name : names) {
+            data.writeInt(nameOffset);
+            nameOffset += name.length;
+        }
+
+        data.writeInt(nameOffset);
+
+        for (int i = 0; i < symbolCount; i++) {
+            data.writeChar(table.getSymbol(i));
+        }
+
+        for (int i = 0; i < transitionCount; i++) {
+            data.writeChar(table.getReplacement(i));
+        }
+
+        for (int i = 0; i < transitionCount; i++) {
+            data.writeByte(table.getMove(i));
+        }
+
+        for (int state = 0; state < stateCount; state++) {
+            data.writeBoolean(table.isAccepting(state));
+        }
+
+        for (byte[] name : names) {
+            data.write(name);
+        }
+
+        data.flush();
+        data.writeInt((int) checked.getChecksum().getValue());
+        data.flush();
+    }
+
+    /**
+     * Reads a definition from the given file.
+     * <p>
+     * The file is mapped into memory, its checksum and structure are verified, and the transition arrays are copied
+     * out of it in bulk. The fingerprint is taken from the file instead of being computed again.
+     *
+     * @param file the machine file
+     * @return The definition read.
+     * @throws IOException if the machine file cannot be read, is not a machine file, has an unsupported version or is
+     *                     corrupted
+     */
+    static MachineDefinition read(Path file) throws IOException {
+        MappedByteBuffer buffer;
+
+        try (FileChannel channel = FileChannel.open(file, StandardOpenOption.READ)) {
+            if (channel.size() < HEADER_LENGTH + CHECKSUM_LENGTH) {
+                throw new IOException("the file is not a machine definition");
+            }
+
+            if (channel.size() > Integer.MAX_VALUE) {
+                throw new IOException("the machine file is corrupted");
+            }
+
+            buffer = channel.map(FileChannel.MapMode.READ_ONLY, 0, channel.size());
+        }
+
+        if (buffer.getInt(0) != MAGIC) {
+            throw new IOException("the file is not a machine definition");
+        }
+
+        if (buffer.getInt(4) != VERSION) {
+            throw new IOException("the machine file version is not supported");
+        }
+
+        int stateCount = buffer.getInt(8);
+        int symbolCount = buffer.getInt(12);
+        int initialState = buffer.getInt(16);
+        int nameLength = buffer.getInt(20);
+        long fingerprint = buffer.getLong(24);
+
+        if (stateCount <= 0 || symbolCount < 0 || nameLength < 0
+                || (long) stateCount * symbolCount > Integer.MAX_VALUE
+                || getLength(stateCount, symbolCount, nameLength) != buffer.capacity()
+                || !isChecksumValid(buffer)) {
+            throw new IOException("the machine file is corrupted");
+        }
+
+        int transitionCount = stateCount * symbolCount;
+        int[] nextStates = new int[transitionCount];
+        int[] nameOffsets = new int[stateCount + 1];
+        char[] symbols = new char[symbolCount];
+        char[] replacements = new char[transitionCount];
+        byte[] moves = new byte[transitionCount];
+        byte[] accepting = new byte[stateCount];
+
+        buffer.position(HEADER_LENGTH);
+        buffer.asIntBuffer().get(nextStates);
+        buffer.position(buffer.position() + 4 * transitionCount);
+        buffer.asIntBuffer().get(nameOffsets);
+        buffer.position(buffer.position() + 4 * nameOffsets.length);
+        buffer.asCharBuffer().get(symbols);
+        buffer.position(buffer.position() + 2 * symbolCount);
+        buffer.asCharBuffer().get(replacements);
+        buffer.position(buffer.position() + 2 * transitionCount);
+        buffer.get(moves);
+        buffer.get(accepting);
+
+        ByteBuffer nameData = buffer.slice();
+
+        nameData.limit(nameLength);
+
+        if (!isValid(stateCount, initialState, nextStates, nameOffsets, nameLength, symbols, moves)) {
+            throw new IOException("the machine file is corrupted");
+        }
+
+        boolean[] acceptingStates = new boolean[stateCount];
+
+        for (int state = 0; state < stateCount; state++) {
+            acceptingStates[state] = accepting[state] != 0;
+        }
+
+        TransitionTable table = new TransitionTable(symbols, nextStates, replacements, moves, nameData, nameOffsets, acceptingStates, initialState);
+
+        return new MachineDefinition(table, fingerprint);
+    }
+
+    /**
+     * Computes the length of a machine file.
+     *
+     * @param stateCount  the number of states
+     * @param symbolCount the number of symbols
+     * @param nameLength  the length of the name data
+     * @return The length of the file, in bytes.
+     */
+    private static long getLength(long stateCount, long symbolCount, long nameLength) {
+        long transitionCount = stateCount * symbolCount;
+
+        return HEADER_LENGTH
+                + 4 * transitionCount + 4 * (stateCount + 1)
+                + 2 * symbolCount + 2 * transitionCount
+                + transitionCount + stateCount
+                + nameLength
+                + CHECKSUM_LENGTH;
+    }
+
+    /**
+     * Determines if the checksum at the end of the given file matches its content.
+     *
+     * @param buffer the mapped file
+     * @return true if and only if the checksum matches.
+     */
+    private static boolean isChecksumValid(ByteBuffer buffer) {
+        int end = buffer.capacity() - CHECKSUM_LENGTH;
+        ByteBuffer content = buffer.duplicate();
+        CRC32 crc = new CRC32();
+
+        content.position(0);
+        content.limit(end);
+        crc.update(content);
+
+        return (int) crc.getValue() == buffer.getInt(end);
+    }
+
+    /**
+     * Determines if the given arrays describe a well formed transition table, so a corrupted file that happens to have
+     * a valid checksum fails to load instead of failing while it executes.
+     *
+     * @param stateCount   the number of states
+     * @param initialState the initial state index
+     * @param nextStates   the next state index for each state and symbol index pair
+     * @param nameOffsets  the offset of each encoded name, followed by the length of the name data
+     * @param nameLength   the length of the name data
+     * @param symbols      the symbol for each symbol index
+     * @param moves        the head move for each state and symbol index pair
+     * @return true if and only if the arrays are well formed.
+     */
+    private static boolean isValid(int stateCount, int initialState, int[] nextStates, int[] nameOffsets, int nameLength, char[] symbols, byte[] moves) {
+        if (initialState < 0 || initialState >= stateCount) {
+            return false;
+        }
+
+        for (int i = 0; i < nextStates.length; i++) {
+            if (nextStates[i] < TransitionTable.NO_TRANSITION || nextStates[i] >= stateCount
+                    || moves[i] < TransitionTable.MOVE_LEFT || moves[i] > TransitionTable.MOVE_RIGHT) {
+                return false;
+            }
+        }
+
+        if (nameOffsets[0] != 0 || nameOffsets[stateCount] != nameLength) {
+            return false;
+        }
+
+        for (int state = 0; state < stateCount; state++) {
+            if (nameOffsets[state] > nameOffsets[state + 1]) {
+                return false;
+            }
+        }
+
+        for (int i = 1; i < symbols.length; i++) {
+            if (symbols[i - 1] >= symbols[i]) {
+                return false;
+            }
+        }
+
+        return true;
+    }
+}
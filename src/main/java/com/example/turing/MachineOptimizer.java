@@ -0,0 +1,346 @@
+package com.example.turing;
+
+import java.util.Arrays;
+import java.util.HashMap;
+import java.util.LinkedHashMap;
+import java.util.Map;
+
+/**
+ * Transition table optimizer.
+ * <p>
+ * Prunes the states that cannot be reached from the initial state, then merges equivalent states with Moore's
+ * partition refinement, adapted to turing machine transitions: states start in the same block when they agree on being
+ * accepting and, for every symbol, on whether there is a transition and on its replacement symbol and head move, and
+ * blocks are split until every pair of states in a block moves to the same block for every symbol. Equivalent states
+ * perform the same steps on every tape, so the optimized machine performs exactly the same steps as the original one.
+ * Finally, symbols that are neither read nor written by the remaining transitions are dropped from the alphabet.
+ */
+class MachineOptimizer {
+    /**
+     * Prevents instantiation.
+     */
+    private MachineOptimizer() {
+    }
+
+    /**
+     * Optimizes the given transition table.
+     *
+     * @param table the transition table
+     * @return The optimization result.
+     */
+    static OptimizationResult optimize(TransitionTable table) {
+        int[] reachable = findReachableStates(table);
+        int[] blocks = partition(table, reachable);
+        int blockCount = 0;
+
+        for (int block : blocks) {
+            blockCount = Math.max(blockCount, block + 1);
+        }
+
+        // the representative of each block is its first state, which keeps the initial state name when it is merged
+        int[] representatives = new int[blockCount];
+        int[] blockOf = new int[table.getStateCount()];
+
+        Arrays.fill(representatives, -1);
+        Arrays.fill(blockOf, -1);
+
+        for (int i = 0; i < reachable.length; i++) {
+            blockOf[reachable[i]] = blocks[i];
+
+            if (representatives[blocks[i]] < 0) {
+                representatives[blocks[i]] = reachable[i];
+            }
+        }
+
+        TransitionTable optimized = build(table, representatives, blockOf);
+        Map<String, String> stateNames = new LinkedHashMap<>();
+
+        for (int state : reachable) {
+            stateNames.put(table.getName(state), table.getName(representatives[blockOf[state]]));
+        }
+
+        return new OptimizationResult(
+                new MachineDefinition(optimized),
+                table.getStateCount(),
+                table.getStateCount() - reachable.length,
+                reachable.length - blockCount,
+                countTransitions(table),
+                countTransitions(optimized),
+                table.getSymbolCount(),
+                optimized.getSymbolCount(),
+                stateNames);
+    }
+
+    /**
+     * Finds the states reachable from the initial state.
+     *
+     * @param table the transition table
+     * @return The indices of the reachable states, in ascending order.
+     */
+    private static int[] findReachableStates(TransitionTable table) {
+        int symbolCount = table.getSymbolCount();
+        boolean[] reached = new boolean[table.getStateCount()];
+        int[] queue = new int[table.getStateCount()];
+        int size = 0;
+
+        reached[table.getInitialState()] = true;
+        queue[size++] = table.getInitialState();
+
+        for (int head = 0; head < size; head++) {
+            int state = queue[head];
+
+            for (int symbol = 0; symbol < symbolCount; symbol++) {
+                int next = table.getNextState(state * symbolCount + symbol);
+
+                if (next != TransitionTable.NO_TRANSITION && !reached[next]) {
+                    reached[next] = true;
+                    queue[size++] = next;
+                }
+            }
+        }
+
+        int[] reachable = new int[size];
+        int count = 0;
+
+        for (int state = 0; state < reached.length; state++) {
+            if (reached[state]) {
+                reachable[count++] = state;
+            }
+        }
+
+        return reachable;
+    }
+
+    /**
+     * Partitions the given states into blocks of equivalent states.
+     *
+     * @param table  the transition table
+     * @param states the indices of the states to be partitioned, closed under transitions
+     * @return The block of each given state, numbered in order of first appearance.
+     */
+    private static int[] partition(TransitionTable table, int[] states) {
+        int symbolCount = table.getSymbolCount();
+        int[] position = new int[table.getStateCount()];
+        int[][] signatures = new int[states.length][];
+
+        for (int i = 0; i < states.length; i++) {
+            int state = states[i];
+            int[] signature = new int[symbolCount + 1];
+
+            position[state] = i;
+            signature[0] = table.isAccepting(state) ? 1 : 0;
+
+            for (int symbol = 0; symbol < symbolCount; symbol++) {
+                int transition = state * symbolCount + symbol;
+
+                signature[symbol + 1] = table.getNextState(transition) == TransitionTable.NO_TRANSITION
+                        ? -1
+                        : table.getReplacement(transition) << 2 | (table.getMove(transition) + 1);
+            }
+
+            signatures[i] = signature;
+        }
+
+        int[] blocks = number(signatures);
+        int blockCount = -1;
+
+        while (true) {
+            int count = 0;
+
+            for (int block : blocks) {
+                count = Math.max(count, block + 1);
+            }
+
+            if (count == blockCount) {
+                return blocks;
+            }
+
+            blockCount = count;
+
+            for (int i = 0; i < states.length; i++) {
+                int[] signature = signatures[i];
+
+                signature[0] = blocks[i];
+
+                for (int symbol = 0; symbol < symbolCount; symbol++) {
+                    int next = table.getNextState(states[i] * symbolCount + symbol);
+
+                    signature[symbol + 1] = next == TransitionTable.NO_TRANSITION ? -1 : blocks[position[next]];
+                }
+            }
+
+            blocks = number(signatures);
+        }
+    }
+
+    /**
+     * Numbers the distinct signatures in order of first appearance.
+     *
+     * @param signatures the signatures
+     * @return The number of each signature.
+     */
+    private static int[] number(int[][] signatures) {
+        Map<Signature, Integer> numbers = new HashMap<>();
+        int[] result = new int[signatures.length];
+
+        for (int i = 0; i < signatures.length; i++) {
+            Signature signature = new Signature(signatures[i].clone());
+            Integer number = numbers.get(signature);
+
+            if (number == null) {
+                number = numbers.size();
+                numbers.put(signature, number);
+            }
+
+            result[i] = number;
+        }
+
+        return result;
+    }
+
+    /**
+     * Builds the optimized transition table.
+     *
+     * @param table           the original transition table
+     * @param representatives the original index of the representative state of each block
+     * @param blockOf         the block of each original state (-1 for unreachable states)
+     * @return The optimized transition table.
+     */
+    private static TransitionTable build(TransitionTable table, int[] representatives, int[] blockOf) {
+        int symbolCount = table.getSymbolCount();
+        boolean[] used = new boolean[symbolCount];
+        int[] symbolIndices = new int[symbolCount];
+
+        for (int state : representatives) {
+            for (int symbol = 0; symbol < symbolCount; symbol++) {
+                int transition = state * symbolCount + symbol;
+
+                if (table.getNextState(transition) != TransitionTable.NO_TRANSITION) {
+                    used[symbol] = true;
+                    used[indexOf(table, table.getReplacement(transition))] = true;
+                }
+            }
+        }
+
+        int usedCount = 0;
+
+        for (int symbol = 0; symbol < symbolCount; symbol++) {
+            symbolIndices[symbol] = used[symbol] ? usedCount++ : -1;
+        }
+
+        char[] symbols = new char[usedCount];
+
+        for (int symbol = 0; symbol < symbolCount; symbol++) {
+            if (used[symbol]) {
+                symbols[symbolIndices[symbol]] = table.getSymbol(symbol);
+            }
+        }
+
+        int stateCount = representatives.length;
+        int[] nextStates = new int[stateCount * usedCount];
+        char[] replacements = new char[nextStates.length];
+        byte[] moves = new byte[nextStates.length];
+        String[] names = new String[stateCount];
+        boolean[] accepting = new boolean[stateCount];
+
+        Arrays.fill(nextStates, TransitionTable.NO_TRANSITION);
+
+        for (int block = 0; block < stateCount; block++) {
+            int state = representatives[block];
+
+            names[block] = table.getName(state);
+            accepting[block] = table.isAccepting(state);
+
+            for (int symbol = 0; symbol < symbolCount; symbol++) {
+                int transition = state * symbolCount + symbol;
+                int next = table.getNextState(transition);
+
+                if (next != TransitionTable.NO_TRANSITION) {
+                    int index = block * usedCount + symbolIndices[symbol];
+
+                    nextStates[index] = blockOf[next];
+                    replacements[index] = table.getReplacement(transition);
+                    moves[index] = table.getMove(transition);
+                }
+            }
+        }
+
+        return new TransitionTable(symbols, nextStates, replacements, moves, names, accepting, blockOf[table.getInitialState()]);
+    }
+
+    /**
+     * Finds the symbol index of the given symbol.
+     *
+     * @param table  the transition table
+     * @param symbol the symbol, which belongs to the alphabet of the table
+     * @return The symbol index.
+     */
+    private static int indexOf(TransitionTable table, char symbol) {
+        int low = 0;
+        int high = table.getSymbolCount() - 1;
+
+        while (low < high) {
+            int middle = (low + high) >>> 1;
+
+            if (table.getSymbol(middle) < symbol) {
+                low = middle + 1;
+            } else {
+                high = middle;
+            }
+        }
+
+        return low;
+    }
+
+    /**
+     * Counts the transitions of the given table.
+     *
+     * @param table the transition table
+     * @return The number of transitions.
+     */
+    private static int countTransitions(TransitionTable table) {
+        int count = 0;
+
+        for (int i = 0; i < table.getStateCount() * table.getSymbolCount(); i++) {
+            if (table.getNextState(i) != TransitionTable.NO_TRANSITION) {
+                count++;
+            }
+        }
+
+        return count;
+    }
+
+    /**
+     * State signature, comparable by content.
+     */
+    private static class Signature {
+        /**
+         * The signature values.
+         */
+        private final int[] values;
+        /**
+         * The hash code of the signature values.
+         */
+        private final int hash;
+
+        /**
+         * Creates a new signature.
+         *
+         * @param values the signature values
+         */
+        private Signature(int[] values) {
+            this.values = values;
+            this.hash = Arrays.hashCode(values);
+        }
+
+        @Override
+        public boolean equals(Object o) {
+            return this == o || o instanceof Signature && Arrays.equals(values, ((Signature) o).values);
+        }
+
+        @Override
+        public int hashCode() {
+            return hash;
+        }
+    }
+}
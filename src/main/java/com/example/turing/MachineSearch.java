@@ -0,0 +1,323 @@
+package com.example.turing;
+
+import java.io.IOException;
+import java.io.UncheckedIOException;
+import java.nio.file.Path;
+import java.util.ArrayDeque;
+import java.util.ArrayList;
+import java.util.Deque;
+import java.util.List;
+import java.util.concurrent.ForkJoinPool;
+import java.util.concurrent.ForkJoinTask;
+import java.util.concurrent.RecursiveAction;
+import java.util.concurrent.RecursiveTask;
+
+/**
+ * Parallel, resumable search over every machine with a given number of states and symbols, in the style of busy
+ * beaver searches.
+ * <p>
+ * Machines are enumerated in tree normal form: starting from the machine with no transitions, each machine is run on a
+ * blank tape, and when it halts on an undefined transition, that transition is defined in every way that is not
+ * symmetric to another, so machines that only differ by the numbering of their states or symbols, or by mirroring the
+ * tape, are enumerated once, and transitions that are never reached are never enumerated. Every machine that halts is
+ * recorded, with the halting transition placed where it halted. A machine is discarded as soon as it repeats a
+ * configuration, and recorded as undecided when it reaches the step limit. Machines are built directly as transition
+ * tables and continue from the configuration their parent stopped in, so no step is performed twice.
+ * <p>
+ * The enumeration tree is split into parts: the first levels are expanded sequentially until there are
+ * {@link #SEED_COUNT} subtrees, which are then searched in parallel. Each task counts the machines of its subtree in
+ * its own tally, which is merged into the tally of its parent when joined, and the records gathered this way are
+ * appended to a {@link SearchFile} in batches while the part runs. Each part is committed to the file when complete, so
+ * running the search again with the same file only searches the parts that were not committed.
+ */
+public class MachineSearch {
+    /**
+     * The number of subtrees the enumeration tree is split into.
+     */
+    private static final int SEED_COUNT = 256;
+    /**
+     * The seed of the part made of the first levels of the enumeration tree.
+     */
+    private static final int FIRST_LEVELS_SEED = -1;
+    /**
+     * The number of characters of records a task gathers before appending them to the search file.
+     */
+    private static final int BATCH_LENGTH = 1 << 16;
+
+    /**
+     * The number of states.
+     */
+    private final int stateCount;
+    /**
+     * The number of symbols.
+     */
+    private final int symbolCount;
+    /**
+     * The maximum number of steps of each machine.
+     */
+    private final long stepLimit;
+
+    /**
+     * Creates a new search. States are named with the letters A to Z, and symbols with the digits 0 to 9, 0 being the
+     * blank symbol.
+     *
+     * @param stateCount  the number of states, from 1 to 26
+     * @param symbolCount the number of symbols, from 2 to 10
+     * @param stepLimit   the maximum number of steps of each machine
+     * @throws IllegalArgumentException if the number of states is out of range
+     * @throws IllegalArgumentException if the number of symbols is out of range
+     * @throws IllegalArgumentException if the step limit is not positive
+     */
+    public MachineSearch(int stateCount, int symbolCount, long stepLimit) throws IllegalArgumentException {
+        validateConstructorArguments(stateCount, symbolCount, stepLimit);
+
+        this.stateCount = stateCount;
+        this.symbolCount = symbolCount;
+        this.stepLimit = stepLimit;
+    }
+
+    /**
+     * Validates the {@link #MachineSearch(int, int, long)} arguments.
+     *
+     * @param stateCount  the number of states
+     * @param symbolCount the number of symbols
+     * @param stepLimit   the maximum number of steps of each machine
+     * @throws IllegalArgumentException if the number of states is out of range
+     * @throws IllegalArgumentException if the number of symbols is out of range
+     * @throws IllegalArgumentException if the step limit is not positive
+     */
+    private static void validateConstructorArguments(int stateCount, int symbolCount, long stepLimit) throws IllegalArgumentException {
+        if (stateCount < 1 || stateCount > 26) {
+            throw new IllegalArgumentException("the number of states is out of range");
+        }
+
+        if (symbolCount < 2 || symbolCount > 10) {
+            throw new IllegalArgumentException("the number of symbols is out of range");
+        }
+
+        if (stepLimit <= 0) {
+            throw new IllegalArgumentException("the step limit is not positive");
+        }
+    }
+
+    /**
+     * Runs or resumes this search in the common fork/join pool.
+     *
+     * @param file the search file
+     * @return The search result, including the parts committed by earlier runs.
+     * @throws NullPointerException if the search file is null
+     * @throws IOException          if the search file cannot be read or written, or belongs to another search
+     * @see #run(Path, ForkJoinPool)
+     */
+    public SearchResult run(Path file) throws NullPointerException, IOException {
+        return run(file, ForkJoinPool.commonPool());
+    }
+
+    /**
+     * Runs or resumes this search in the given pool, streaming the halting and undecided machines to the given file.
+     * <p>
+     * If the file already holds parts of this search, they are not searched again. Running the search again after it
+     * completed only reads the file.
+     *
+     * @param file the search file
+     * @param pool the pool the parts are searched in
+     * @return The search result, including the parts committed by earlier runs.
+     * @throws NullPointerException if the search file is null
+     * @throws NullPointerException if the pool is null
+     * @throws IOException          if the search file cannot be read or written, or belongs to another search
+     */
+    public SearchResult run(Path file, ForkJoinPool pool) throws NullPointerException, IOException {
+        validateRunArguments(file, pool);
+
+        SearchTally totals = new SearchTally();
+
+        try (SearchFile searchFile = SearchFile.open(file, getHeader(), totals)) {
+            int resumed = searchFile.getCommittedCount();
+            SearchTally firstLevels = new SearchTally(FIRST_LEVELS_SEED);
+            Deque<SearchNode> frontier = new ArrayDeque<>();
+
+            // deterministic, so the seeds are the same in every run
+            frontier.add(SearchNode.root(stateCount, symbolCount));
+
+            while (!frontier.isEmpty() && frontier.size() < SEED_COUNT) {
+                frontier.addAll(frontier.poll().expand(stepLimit, firstLevels));
+            }
+
+            if (!searchFile.isCommitted(FIRST_LEVELS_SEED)) {
+                searchFile.commit(firstLevels);
+                totals.merge(firstLevels);
+            }
+
+            List<Part> parts = new ArrayList<>();
+            int seed = 0;
+
+            for (SearchNode node : frontier) {
+                if (!searchFile.isCommitted(seed)) {
+                    parts.add(new Part(seed, node, searchFile, totals));
+                }
+
+                seed++;
+            }
+
+            try {
+                pool.invoke(new RecursiveAction() {
+                    @Override
+                    protected void compute() {
+                        invokeAll(parts);
+                    }
+                });
+            } catch (UncheckedIOException e) {
+                throw e.getCause();
+            }
+
+            return totals.toResult(frontier.size(), Math.max(0, resumed - 1));
+        }
+    }
+
+    /**
+     * Validates the {@link #run(Path, ForkJoinPool)} arguments.
+     *
+     * @param file the search file
+     * @param pool the pool the parts are searched in
+     * @throws NullPointerException if the search file is null
+     * @throws NullPointerException if the pool is null
+     */
+    private static void validateRunArguments(Path file, ForkJoinPool pool) throws NullPointerException {
+        if (file == null) {
+            throw new NullPointerException("the search file is null");
+        }
+
+        if (pool == null) {
+            throw new NullPointerException("the pool is null");
+        }
+    }
+
+    /**
+     * @return The header line of the search file, which identifies this search and the format of the file.
+     */
+    private String getHeader() {
+        return "machine search 2: " + stateCount + " states, " + symbolCount + " symbols, " + stepLimit + " steps, " + SEED_COUNT + " seeds";
+    }
+
+    /**
+     * Search of a subtree, committed when complete.
+     */
+    private class Part extends RecursiveAction {
+        /**
+         * The serialization version.
+         */
+        private static final long serialVersionUID = 1L;
+
+        /**
+         * The seed of the part.
+         */
+        private final int seed;
+        /**
+         * The root of the subtree.
+         */
+        private final SearchNode node;
+        /**
+         * The search file.
+         */
+        private final SearchFile searchFile;
+        /**
+         * The tally of the whole search.
+         */
+        private final SearchTally totals;
+
+        /**
+         * Creates a new part.
+         *
+         * @param seed       the seed of the part
+         * @param node       the root of the subtree
+         * @param searchFile the search file
+         * @param totals     the tally of the whole search
+         */
+        private Part(int seed, SearchNode node, SearchFile searchFile, SearchTally totals) {
+            this.seed = seed;
+            this.node = node;
+            this.searchFile = searchFile;
+            this.totals = totals;
+        }
+
+        @Override
+        protected void compute() {
+            SearchTally tally = new Expansion(seed, node, searchFile).compute();
+
+            try {
+                searchFile.commit(tally);
+            } catch (IOException e) {
+                throw new UncheckedIOException(e);
+            }
+
+            totals.merge(tally);
+        }
+    }
+
+    /**
+     * Search of a subtree, whose children are searched in parallel.
+     */
+    private class Expansion extends RecursiveTask<SearchTally> {
+        /**
+         * The serialization version.
+         */
+        private static final long serialVersionUID = 1L;
+
+        /**
+         * The seed of the part the subtree belongs to.
+         */
+        private final int seed;
+        /**
+         * The root of the subtree.
+         */
+        private final SearchNode node;
+        /**
+         * The search file.
+         */
+        private final SearchFile searchFile;
+
+        /**
+         * Creates a new expansion.
+         *
+         * @param seed       the seed of the part the subtree belongs to
+         * @param node       the root of the subtree
+         * @param searchFile the search file
+         */
+        private Expansion(int seed, SearchNode node, SearchFile searchFile) {
+            this.seed = seed;
+            this.node = node;
+            this.searchFile = searchFile;
+        }
+
+        /**
+         * Searches the subtree, appending the records gathered from the children to the search file whenever they make
+         * a whole batch.
+         *
+         * @return The tally of the subtree, holding the records not appended yet.
+         * @throws UncheckedIOException if the search file cannot be written
+         */
+        @Override
+        protected SearchTally compute() throws UncheckedIOException {
+            SearchTally tally = new SearchTally(seed);
+            List<Expansion> children = new ArrayList<>();
+
+            for (SearchNode child : node.expand(stepLimit, tally)) {
+                children.add(new Expansion(seed, child, searchFile));
+            }
+
+            for (Expansion child : ForkJoinTask.invokeAll(children)) {
+                tally.merge(child.join());
+
+                if (tally.getRecordLength() >= BATCH_LENGTH) {
+                    try {
+                        searchFile.appendRecords(tally.takeRecords());
+                    } catch (IOException e) {
+                        throw new UncheckedIOException(e);
+                    }
+                }
+            }
+
+            return tally;
+        }
+    }
+}
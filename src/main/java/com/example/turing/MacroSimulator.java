@@ -0,0 +1,526 @@
+package com.example.turing;
+
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.HashMap;
+import java.util.List;
+import java.util.Map;
+
+/**
+ * Macro machine simulator.
+ * <p>
+ * The tape is grouped into blocks of a fixed number of cells, and each block content is interned as a block id. A
+ * macro transition maps a state, a block id and a head position inside the block to the block id, state and head
+ * position the machine has once the head leaves the block (or the machine halts), together with the number of steps
+ * it took. Macro transitions are computed lazily by simulating the machine inside a single block, and cached, so a
+ * single macro step replaces every step the machine performs inside a block.
+ * <p>
+ * Both caches are bounded: the macro transitions are kept in an open addressing hash table keyed by primitive longs,
+ * which is cleared once it holds {@link #MAX_TRANSITIONS} transitions, and once more than {@link #MAX_BLOCKS} block
+ * contents have been interned, the ones that are not on the macro tape are dropped and the ids renumbered. When the
+ * macro tape itself holds more block contents than that, the next compaction waits until twice as many are interned,
+ * so compactions stay rare however long the tape grows. Machines that keep revisiting the same block contents stay
+ * well below both bounds, and the others only lose cached work.
+ */
+class MacroSimulator {
+    /**
+     * The maximum number of steps simulated inside a single block to compute a macro transition.
+     */
+    private static final long MAX_BLOCK_STEPS = 1 << 20;
+    /**
+     * The minimum number of steps performed between two execution limit checks.
+     */
+    private static final long CHECK_INTERVAL = 1 << 16;
+    /**
+     * The maximum number of cached macro transitions.
+     */
+    static final int MAX_TRANSITIONS = 1 << 16;
+    /**
+     * The maximum number of interned block contents kept while the macro tape does not need more.
+     */
+    static final int MAX_BLOCKS = 1 << 16;
+    /**
+     * The initial capacity of the macro transition hash table.
+     */
+    private static final int INITIAL_CAPACITY = 64;
+
+    /**
+     * The transition table.
+     */
+    private final TransitionTable table;
+    /**
+     * The number of cells of each block.
+     */
+    private final int blockSize;
+    /**
+     * The content of each block id.
+     */
+    private final List<char[]> blocks;
+    /**
+     * The block id of each block content.
+     */
+    private final Map<String, Integer> blockIds;
+    /**
+     * The number of interned block contents beyond which they are compacted.
+     */
+    private int maxBlocks;
+    /**
+     * The key of each macro transition hash table slot.
+     */
+    private long[] transitionKeys;
+    /**
+     * The macro transition of each hash table slot (null for empty slots).
+     */
+    private MacroTransition[] transitions;
+    /**
+     * The number of cached macro transitions.
+     */
+    private int transitionCount;
+    /**
+     * The block id of each block, indexed by block number minus {@link #firstBlock}.
+     */
+    private int[] macroTape;
+    /**
+     * The block number of the first element of {@link #macroTape}.
+     */
+    private int firstBlock;
+    /**
+     * The block number of the block under the head.
+     */
+    private int block;
+    /**
+     * The head position inside its block.
+     */
+    private int position;
+    /**
+     * The current state index.
+     */
+    private int state;
+    /**
+     * The number of steps performed.
+     */
+    private long steps;
+
+    /**
+     * Creates a new macro simulator.
+     *
+     * @param table     the transition table
+     * @param blockSize the number of cells of each block
+     * @param blank     the blank character
+     */
+    MacroSimulator(TransitionTable table, int blockSize, char blank) {
+        this.table = table;
+        this.blockSize = blockSize;
+        this.blocks = new ArrayList<>();
+        this.blockIds = new HashMap<>();
+        this.maxBlocks = MAX_BLOCKS;
+        this.transitionKeys = new long[INITIAL_CAPACITY];
+        this.transitions = new MacroTransition[INITIAL_CAPACITY];
+        this.transitionCount = 0;
+
+        char[] blankBlock = new char[blockSize];
+
+        Arrays.fill(blankBlock, blank);
+        intern(blankBlock); // the blank block id is 0
+    }
+
+    /**
+     * Runs the machine on the given tape until it halts or any of the given limits is reached, and writes the
+     * resulting configuration back to the tape.
+     *
+     * @param tape   the tape
+     * @param state  the current state index
+     * @param steps  the number of steps already performed
+     * @param limits the execution limits
+     * @return The execution status.
+     */
+    ExecutionStatus run(Tape tape, int state, long steps, ExecutionLimits limits) {
+        this.state = state;
+        this.steps = steps;
+
+        load(tape);
+
+        ExecutionStatus status = runUntilStopped(limits);
+
+        store(tape);
+
+        return status;
+    }
+
+    /**
+     * Performs macro steps until the machine halts or any of the given limits is reached.
+     *
+     * @param limits the execution limits
+     * @return The execution status.
+     */
+    private ExecutionStatus runUntilStopped(ExecutionLimits limits) {
+        long end = steps + limits.getMaxSteps() < 0 ? Long.MAX_VALUE : steps + limits.getMaxSteps();
+        long deadline = limits.getDeadline();
+        CancellationToken cancellationToken = limits.getCancellationToken();
+        long nextCheck = steps + CHECK_INTERVAL;
+
+        while (true) {
+            if (blocks.size() > maxBlocks) {
+                compact();
+            }
+
+            int index = ensureBlock(block);
+            int id = macroTape[index];
+
+            if (steps >= end) {
+                char symbol = blocks.get(id)[position];
+
+                return table.getTransition(this.state, symbol) < 0 ? ExecutionStatus.HALTED : ExecutionStatus.STEP_LIMIT_REACHED;
+            }
+
+            if (steps >= nextCheck) {
+                if (cancellationToken != null && cancellationToken.isCancelled()) {
+                    return ExecutionStatus.CANCELLED;
+                }
+
+                if (deadline != Long.MAX_VALUE && System.currentTimeMillis() >= deadline) {
+                    return ExecutionStatus.DEADLINE_EXCEEDED;
+                }
+
+                nextCheck = steps + CHECK_INTERVAL;
+            }
+
+            MacroTransition transition = getTransition(id, end - steps);
+
+            // a cached transition may take more steps than are left
+            if (transition.steps > end - steps) {
+                char[] cells = blocks.get(id).clone();
+
+                transition = simulate(cells, state, position, Math.min(end - steps, CHECK_INTERVAL));
+                transition.block = intern(cells);
+            }
+
+            macroTape[index] = transition.block;
+            state = transition.state;
+            steps += transition.steps;
+
+            if (transition.halted) {
+                position = transition.position;
+
+                return ExecutionStatus.HALTED;
+            } else if (transition.position < 0) {
+                block--;
+                position = blockSize - 1;
+            } else if (transition.position >= blockSize) {
+                block++;
+                position = 0;
+            } else {
+                position = transition.position;
+            }
+        }
+    }
+
+    /**
+     * Gets the macro transition for the given block id and the current state and head position, computing it if it
+     * has not been computed yet. A transition is computed for at most {@link #MAX_BLOCK_STEPS} steps, or the given
+     * number of steps if it is lower, in which case it is only cached if the head left the block or the machine halted
+     * within that many steps, since it would otherwise stop short of what the cached transition has to hold.
+     *
+     * @param id       the block id
+     * @param maxSteps the number of steps left
+     * @return The macro transition, which may not be determined, and may take more than the given number of steps if
+     * it was cached.
+     */
+    private MacroTransition getTransition(int id, long maxSteps) {
+        long key = ((long) id * table.getStateCount() + state) * blockSize + position;
+        int mask = transitions.length - 1;
+        int slot = slot(key, mask);
+
+        for (; transitions[slot] != null; slot = (slot + 1) & mask) {
+            if (transitionKeys[slot] == key) {
+                return transitions[slot];
+            }
+        }
+
+        char[] cells = blocks.get(id).clone();
+        long limit = Math.min(MAX_BLOCK_STEPS, maxSteps);
+        MacroTransition transition = simulate(cells, state, position, limit);
+
+        transition.block = intern(cells);
+
+        if (transition.determined || limit == MAX_BLOCK_STEPS) {
+            put(key, transition);
+        }
+
+        return transition;
+    }
+
+    /**
+     * Caches the given macro transition, which is not cached yet, growing the hash table while it holds less than
+     * {@link #MAX_TRANSITIONS} transitions, and clearing it once it holds that many.
+     *
+     * @param key        the macro transition key
+     * @param transition the macro transition
+     */
+    private void put(long key, MacroTransition transition) {
+        if (transitionCount == MAX_TRANSITIONS) {
+            clearTransitions();
+        } else if (2 * (transitionCount + 1) > transitions.length) {
+            long[] oldKeys = transitionKeys;
+            MacroTransition[] oldTransitions = transitions;
+
+            transitionKeys = new long[2 * oldKeys.length];
+            transitions = new MacroTransition[2 * oldTransitions.length];
+
+            for (int i = 0; i < oldTransitions.length; i++) {
+                if (oldTransitions[i] != null) {
+                    insert(oldKeys[i], oldTransitions[i]);
+                }
+            }
+        }
+
+        insert(key, transition);
+        transitionCount++;
+    }
+
+    /**
+     * Inserts the given macro transition in the first free slot of the hash table.
+     *
+     * @param key        the macro transition key
+     * @param transition the macro transition
+     */
+    private void insert(long key, MacroTransition transition) {
+        int mask = transitions.length - 1;
+        int slot = slot(key, mask);
+
+        while (transitions[slot] != null) {
+            slot = (slot + 1) & mask;
+        }
+
+        transitionKeys[slot] = key;
+        transitions[slot] = transition;
+    }
+
+    /**
+     * Computes the hash table slot of the given key, with Fibonacci hashing.
+     *
+     * @param key  the key
+     * @param mask the hash table capacity minus 1
+     * @return The slot of the given key.
+     */
+    private static int slot(long key, int mask) {
+        return (int) ((key * 0x9E3779B97F4A7C15L) >>> 32) & mask;
+    }
+
+    /**
+     * Drops every cached macro transition.
+     */
+    private void clearTransitions() {
+        Arrays.fill(transitions, null);
+        transitionCount = 0;
+    }
+
+    /**
+     * Drops the interned block contents that are not on the macro tape, renumbering the others, and the macro
+     * transitions, which refer to the old block ids. The next compaction waits until at least twice as many block
+     * contents as are left are interned.
+     */
+    private void compact() {
+        List<char[]> interned = new ArrayList<>(blocks);
+        int[] ids = new int[interned.size()];
+
+        Arrays.fill(ids, -1);
+        blocks.clear();
+        blockIds.clear();
+        ids[0] = intern(interned.get(0)); // the blank block id is still 0
+
+        for (int i = 0; i < macroTape.length; i++) {
+            int id = macroTape[i];
+
+            if (ids[id] < 0) {
+                ids[id] = intern(interned.get(id));
+            }
+
+            macroTape[i] = ids[id];
+        }
+
+        maxBlocks = Math.max(MAX_BLOCKS, 2 * blocks.size());
+        clearTransitions();
+    }
+
+    /**
+     * Simulates the machine inside a single block until the head leaves it, the machine halts or the given number of
+     * steps is reached.
+     *
+     * @param cells    the block content, which is updated in place
+     * @param state    the state index
+     * @param position the head position inside the block
+     * @param maxSteps the maximum number of steps
+     * @return The resulting macro transition, without its block id.
+     */
+    private MacroTransition simulate(char[] cells, int state, int position, long maxSteps) {
+        MacroTransition transition = new MacroTransition();
+
+        transition.determined = false;
+
+        while (transition.steps < maxSteps) {
+            int t = table.getTransition(state, cells[position]);
+
+            if (t < 0) {
+                transition.halted = true;
+                break;
+            }
+
+            cells[position] = table.getReplacement(t);
+            state = table.getNextState(t);
+            transition.steps++;
+
+            byte move = table.getMove(t);
+
+            if (move == TransitionTable.MOVE_HALT) {
+                transition.halted = true;
+                break;
+            }
+
+            position += move;
+
+            if (position < 0 || position >= blockSize) {
+                transition.determined = true;
+                break;
+            }
+        }
+
+        transition.determined |= transition.halted;
+        transition.state = state;
+        transition.position = position;
+
+        return transition;
+    }
+
+    /**
+     * Gets the block id of the given block content, assigning a new one if needed.
+     *
+     * @param cells the block content
+     * @return The block id.
+     */
+    private int intern(char[] cells) {
+        String key = new String(cells);
+        Integer id = blockIds.get(key);
+
+        if (id == null) {
+            id = blocks.size();
+            blocks.add(cells);
+            blockIds.put(key, id);
+        }
+
+        return id;
+    }
+
+    /**
+     * Makes sure the macro tape covers the given block, growing it if needed.
+     *
+     * @param number the block number
+     * @return The index of the given block in the macro tape.
+     */
+    private int ensureBlock(int number) {
+        if (number < firstBlock) {
+            int shift = Math.max(firstBlock - number, macroTape.length);
+            int[] grown = new int[macroTape.length + shift];
+
+            System.arraycopy(macroTape, 0, grown, shift, macroTape.length);
+            macroTape = grown;
+            firstBlock -= shift;
+        } else if (number - firstBlock >= macroTape.length) {
+            macroTape = Arrays.copyOf(macroTape, Math.max(number - firstBlock + 1, 2 * macroTape.length));
+        }
+
+        return number - firstBlock;
+    }
+
+    /**
+     * Loads the content and head position of the given tape into the macro tape.
+     *
+     * @param tape the tape
+     */
+    private void load(Tape tape) {
+        int head = tape.getCurrent();
+        int first = Math.min(head, tape.getOffset());
+        int last = Math.max(head, tape.getLast());
+
+        firstBlock = Math.floorDiv(first, blockSize);
+        macroTape = new int[Math.floorDiv(last, blockSize) - firstBlock + 1];
+        block = Math.floorDiv(head, blockSize);
+        position = Math.floorMod(head, blockSize);
+
+        for (int i = 0; i < macroTape.length; i++) {
+            char[] cells = new char[blockSize];
+            int start = (firstBlock + i) * blockSize;
+
+            for (int j = 0; j < blockSize; j++) {
+                cells[j] = tape.get(start + j);
+            }
+
+            macroTape[i] = intern(cells);
+        }
+    }
+
+    /**
+     * Stores the content and head position of the macro tape into the given tape.
+     *
+     * @param tape the tape
+     */
+    private void store(Tape tape) {
+        for (int i = 0; i < macroTape.length; i++) {
+            char[] cells = blocks.get(macroTape[i]);
+            int start = (firstBlock + i) * blockSize;
+
+            for (int j = 0; j < blockSize; j++) {
+                if (tape.get(start + j) != cells[j]) {
+                    tape.set(start + j, cells[j]);
+                }
+            }
+        }
+
+        tape.moveTo(block * blockSize + position);
+    }
+
+    /**
+     * @return The current state index.
+     */
+    int getState() {
+        return state;
+    }
+
+    /**
+     * @return The number of steps performed.
+     */
+    long getSteps() {
+        return steps;
+    }
+
+    /**
+     * Macro transition.
+     */
+    private static class MacroTransition {
+        /**
+         * The resulting block id.
+         */
+        private int block;
+        /**
+         * The resulting state index.
+         */
+        private int state;
+        /**
+         * The resulting head position inside the block (-1 or the block size if the head left the block).
+         */
+        private int position;
+        /**
+         * The number of steps performed.
+         */
+        private long steps;
+        /**
+         * true if and only if the machine halted.
+         */
+        private boolean halted;
+        /**
+         * true if and only if the head left the block or the machine halted (otherwise the head is still inside the
+         * block, and the transition can still be applied as the first steps of a longer one).
+         */
+        private boolean determined;
+    }
+}
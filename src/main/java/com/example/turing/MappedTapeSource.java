@@ -0,0 +1,99 @@
+package com.example.turing;
+
+import java.io.IOException;
+import java.nio.MappedByteBuffer;
+import java.nio.channels.FileChannel;
+
+/**
+ * Random access tape source that reads the initial content from a memory-mapped file, one ISO-8859-1 character per
+ * byte.
+ * <p>
+ * The file is mapped in regions, each of which is only mapped when a cell inside it is first read.
+ */
+class MappedTapeSource implements TapeSource {
+    /**
+     * The number of bits of a file position that select a byte inside its region.
+     */
+    private static final int REGION_BITS = 28;
+    /**
+     * The mask that selects a byte inside its region.
+     */
+    private static final int REGION_MASK = (1 << REGION_BITS) - 1;
+
+    /**
+     * The file channel.
+     */
+    private final FileChannel channel;
+    /**
+     * The file size.
+     */
+    private final long size;
+    /**
+     * The mapped regions (null for regions not mapped yet).
+     */
+    private final MappedByteBuffer[] regions;
+
+    /**
+     * Creates a new source.
+     *
+     * @param channel the file channel
+     * @throws IOException if the file size cannot be read
+     */
+    MappedTapeSource(FileChannel channel) throws IOException {
+        this.channel = channel;
+        this.size = Math.min(channel.size(), Integer.MAX_VALUE + 1L);
+        this.regions = new MappedByteBuffer[(int) ((size + REGION_MASK) >> REGION_BITS)];
+    }
+
+    @Override
+    public int read(long index, char[] destination, int offset, int count) throws IOException {
+        if (index >= size) {
+            return -1;
+        }
+
+        int region = (int) (index >> REGION_BITS);
+        int start = (int) index & REGION_MASK;
+        MappedByteBuffer buffer = getRegion(region);
+
+        int n = Math.min(count, buffer.limit() - start);
+
+        for (int i = 0; i < n; i++) {
+            destination[offset + i] = (char) (buffer.get(start + i) & 0xFF);
+        }
+
+        return n;
+    }
+
+    /**
+     * Gets the given region, mapping it if it has not been mapped yet. Tape snapshots read the source of the tape they
+     * are taken from, so regions may be mapped by several threads.
+     *
+     * @param region the region index
+     * @return The mapped region.
+     * @throws IOException if the region cannot be mapped
+     */
+    private MappedByteBuffer getRegion(int region) throws IOException {
+        synchronized (regions) {
+            MappedByteBuffer buffer = regions[region];
+
+            if (buffer == null) {
+                long position = (long) region << REGION_BITS;
+
+                buffer = channel.map(FileChannel.MapMode.READ_ONLY, position, Math.min(REGION_MASK + 1L, size - position));
+                regions[region] = buffer;
+            }
+
+            return buffer;
+        }
+    }
+
+    @Override
+    public boolean isSequential() {
+        return false;
+    }
+
+    @Override
+    public long length() {
+        return size;
+    }
+}
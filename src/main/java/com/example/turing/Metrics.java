@@ -0,0 +1,48 @@
+package com.example.turing;
+
+/**
+ * Process-wide execution metrics settings.
+ */
+public final class Metrics {
+    /**
+     * The installed registry.
+     */
+    private static volatile MetricsRegistry registry = MetricsRegistry.NONE;
+
+    /**
+     * Prevents instantiation.
+     */
+    private Metrics() {
+    }
+
+    /**
+     * @return The installed registry ({@link MetricsRegistry#NONE} if none has been installed).
+     */
+    public static MetricsRegistry getRegistry() {
+        return registry;
+    }
+
+    /**
+     * Installs the given registry, which receives the metrics of every run started from now on.
+     *
+     * @param registry the registry ({@link MetricsRegistry#NONE} to stop collecting metrics)
+     * @throws NullPointerException if the registry is null
+     */
+    public static void setRegistry(MetricsRegistry registry) throws NullPointerException {
+        validateSetRegistryArguments(registry);
+
+        Metrics.registry = registry;
+    }
+
+    /**
+     * Validates the {@link #setRegistry(MetricsRegistry)} arguments.
+     *
+     * @param registry the registry
+     * @throws NullPointerException if the registry is null
+     */
+    private static void validateSetRegistryArguments(MetricsRegistry registry) throws NullPointerException {
+        if (registry == null) {
+            throw new NullPointerException("the metrics registry is null");
+        }
+    }
+}
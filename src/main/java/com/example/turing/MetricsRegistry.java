@@ -0,0 +1,50 @@
+package com.example.turing;
+
+/**
+ * Receiver of execution metrics.
+ * <p>
+ * Executions notify the registry installed through {@link Metrics#setRegistry(MetricsRegistry)} once when each run
+ * starts and once when it stops or fails, never on individual steps. Implementations are called concurrently from every thread
+ * running an execution, so they must be thread safe and should return quickly.
+ */
+public interface MetricsRegistry {
+    /**
+     * Registry that ignores every notification, installed by default.
+     * <p>
+     * Executions recognize this registry and skip measuring their runs altogether.
+     */
+    MetricsRegistry NONE = new MetricsRegistry() {
+    };
+
+    /**
+     * Notifies that a run has started.
+     */
+    default void executionStarted() {
+    }
+
+    /**
+     * Notifies that a run has stopped.
+     *
+     * @param status    the execution status
+     * @param steps     the number of steps performed by the run
+     * @param duration  the duration of the run, in nanoseconds
+     * @param tapeWidth the length of the content of the tape when the run stopped
+     */
+    default void executionCompleted(ExecutionStatus status, long steps, long duration, long tapeWidth) {
+    }
+
+    /**
+     * Notifies that a run has stopped because an exception was thrown, such as a failure to read or write a file.
+     *
+     * @param steps    the number of steps performed by the run
+     * @param duration the duration of the run, in nanoseconds
+     */
+    default void executionFailed(long steps, long duration) {
+    }
+
+    /**
+     * Notifies that a run was refused because of invalid arguments.
+     */
+    default void executionRejected() {
+    }
+}
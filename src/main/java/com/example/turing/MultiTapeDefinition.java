@@ -0,0 +1,157 @@
+package com.example.turing;
+
+/**
+ * Immutable multi-tape turing machine definition.
+ * <p>
+ * A definition is a frozen, compiled snapshot of a {@link MultiTapeTuringMachine}. It never changes, so a single
+ * instance may be shared by any number of threads, each of which runs its own {@link MultiTapeExecution}.
+ */
+public class MultiTapeDefinition {
+    /**
+     * The compiled transition table.
+     */
+    private final MultiTapeTransitionTable table;
+
+    /**
+     * Creates a new definition for the given transition table.
+     *
+     * @param table the compiled transition table
+     */
+    MultiTapeDefinition(MultiTapeTransitionTable table) {
+        this.table = table;
+    }
+
+    /**
+     * Creates a new execution of this machine for the given input, where each initial content starts at position 0
+     * under its head, without performing any step.
+     *
+     * @param contents the initial content of each tape
+     * @param blank    the blank character
+     * @return The new execution.
+     * @throws NullPointerException     if the initial contents are null
+     * @throws NullPointerException     if any initial content is null
+     * @throws IllegalArgumentException if the number of initial contents does not match the number of tapes
+     */
+    public MultiTapeExecution newExecution(String[] contents, char blank) throws NullPointerException, IllegalArgumentException {
+        return newExecution(contents, new int[table.getTapeCount()], new int[table.getTapeCount()], blank);
+    }
+
+    /**
+     * Creates a new execution of this machine for the given input, without performing any step.
+     *
+     * @param contents the initial content of each tape
+     * @param offsets  the initial content offset of each tape
+     * @param currents the head position of each tape
+     * @param blank    the blank character
+     * @return The new execution.
+     * @throws NullPointerException     if the initial contents are null
+     * @throws NullPointerException     if any initial content is null
+     * @throws NullPointerException     if the initial content offsets are null
+     * @throws NullPointerException     if the head positions are null
+     * @throws IllegalArgumentException if the number of initial contents, offsets or head positions does not match the
+     *                                  number of tapes
+     */
+    public MultiTapeExecution newExecution(String[] contents, int[] offsets, int[] currents, char blank) throws NullPointerException, IllegalArgumentException {
+        validateNewExecutionArguments(contents, offsets, currents);
+
+        Tape[] tapes = new Tape[contents.length];
+
+        for (int i = 0; i < tapes.length; i++) {
+            tapes[i] = new Tape(contents[i], offsets[i], currents[i], blank);
+        }
+
+        return new MultiTapeExecution(table, tapes);
+    }
+
+    /**
+     * Validates the {@link #newExecution(String[], int[], int[], char)} arguments.
+     *
+     * @param contents the initial content of each tape
+     * @param offsets  the initial content offset of each tape
+     * @param currents the head position of each tape
+     * @throws NullPointerException     if the initial contents are null
+     * @throws NullPointerException     if any initial content is null
+     * @throws NullPointerException     if the initial content offsets are null
+     * @throws NullPointerException     if the head positions are null
+     * @throws IllegalArgumentException if the number of initial contents, offsets or head positions does not match the
+     *                                  number of tapes
+     */
+    private void validateNewExecutionArguments(String[] contents, int[] offsets, int[] currents) throws NullPointerException, IllegalArgumentException {
+        if (contents == null) {
+            throw new NullPointerException("the initial contents are null");
+        }
+
+        for (String content : contents) {
+            if (content == null) {
+                throw new NullPointerException("the initial content is null");
+            }
+        }
+
+        if (offsets == null) {
+            throw new NullPointerException("the initial content offsets are null");
+        }
+
+        if (currents == null) {
+            throw new NullPointerException("the head positions are null");
+        }
+
+        int tapeCount = table.getTapeCount();
+
+        if (contents.length != tapeCount || offsets.length != tapeCount || currents.length != tapeCount) {
+            throw new IllegalArgumentException("the number of initial contents does not match the number of tapes");
+        }
+    }
+
+    /**
+     * Executes this machine for the given input until it halts, where each initial content starts at position 0 under
+     * its head.
+     *
+     * @param contents the initial content of each tape
+     * @param blank    the blank character
+     * @return The execution result.
+     * @throws NullPointerException     if the initial contents are null
+     * @throws NullPointerException     if any initial content is null
+     * @throws IllegalArgumentException if the number of initial contents does not match the number of tapes
+     */
+    public MultiTapeExecutionResult execute(String[] contents, char blank) throws NullPointerException, IllegalArgumentException {
+        return newExecution(contents, blank).run(ExecutionLimits.NONE);
+    }
+
+    /**
+     * Executes this machine for the given input until it halts or any of the given limits is reached, where each
+     * initial content starts at position 0 under its head.
+     *
+     * @param contents the initial content of each tape
+     * @param blank    the blank character
+     * @param limits   the execution limits
+     * @return The execution result.
+     * @throws NullPointerException     if the initial contents are null
+     * @throws NullPointerException     if any initial content is null
+     * @throws IllegalArgumentException if the number of initial contents does not match the number of tapes
+     * @throws NullPointerException     if the execution limits are null
+     */
+    public MultiTapeExecutionResult execute(String[] contents, char blank, ExecutionLimits limits) throws NullPointerException, IllegalArgumentException {
+        return newExecution(contents, blank).run(limits);
+    }
+
+    /**
+     * @return The number of tapes.
+     */
+    public int getTapeCount() {
+        return table.getTapeCount();
+    }
+
+    /**
+     * @return The number of states.
+     */
+    public int getStateCount() {
+        return table.getStateCount();
+    }
+
+    /**
+     * @return The compiled transition table.
+     */
+    MultiTapeTransitionTable getTable() {
+        return table;
+    }
+}
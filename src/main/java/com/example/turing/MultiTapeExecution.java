@@ -0,0 +1,216 @@
+package com.example.turing;
+
+/**
+ * Single multi-tape turing machine execution.
+ * <p>
+ * An execution owns its tapes, current state and result, while its {@link MultiTapeDefinition} is only read, so any
+ * number of executions may share the same definition concurrently. A single execution must not be used by more than
+ * one thread at a time.
+ */
+public class MultiTapeExecution {
+    /**
+     * The maximum number of steps performed between two execution limit checks.
+     */
+    private static final long CHECK_INTERVAL = 1 << 16;
+
+    /**
+     * The transition table.
+     */
+    private final MultiTapeTransitionTable table;
+    /**
+     * The tapes.
+     */
+    private final Tape[] tapes;
+    /**
+     * The current state index.
+     */
+    private int state;
+    /**
+     * The number of steps performed.
+     */
+    private long steps;
+    /**
+     * true if and only if the machine has halted.
+     */
+    private boolean halted;
+    /**
+     * The result of the last run (null if this execution has not run yet).
+     */
+    private MultiTapeExecutionResult result;
+
+    /**
+     * Creates a new execution in the initial state of the given transition table.
+     *
+     * @param table the transition table
+     * @param tapes the tapes
+     */
+    MultiTapeExecution(MultiTapeTransitionTable table, Tape[] tapes) {
+        this.table = table;
+        this.tapes = tapes;
+        this.state = table.getInitialState();
+        this.steps = 0;
+        this.halted = false;
+        this.result = null;
+    }
+
+    /**
+     * Performs execution steps until the machine halts.
+     *
+     * @return The execution result.
+     */
+    public MultiTapeExecutionResult run() {
+        return run(ExecutionLimits.NONE);
+    }
+
+    /**
+     * Performs execution steps until the machine halts or any of the given limits is reached.
+     * <p>
+     * An execution stopped by a limit may be run again to continue where it stopped, in which case the maximum number
+     * of steps applies to the new run only.
+     *
+     * @param limits the execution limits
+     * @return The execution result.
+     * @throws NullPointerException if the execution limits are null
+     */
+    public MultiTapeExecutionResult run(ExecutionLimits limits) throws NullPointerException {
+        validateRunArguments(limits);
+
+        result = new MultiTapeExecutionResult(runUntilStopped(limits), steps, table, state, tapes);
+
+        return result;
+    }
+
+    /**
+     * Validates the {@link #run(ExecutionLimits)} arguments.
+     *
+     * @param limits the execution limits
+     * @throws NullPointerException if the execution limits are null
+     */
+    private void validateRunArguments(ExecutionLimits limits) throws NullPointerException {
+        if (limits == null) {
+            throw new NullPointerException("the execution limits are null");
+        }
+    }
+
+    /**
+     * Performs execution steps until the machine halts or any of the given limits is reached.
+     *
+     * @param limits the execution limits
+     * @return The execution status.
+     */
+    private ExecutionStatus runUntilStopped(ExecutionLimits limits) {
+        long end = steps + limits.getMaxSteps() < 0 ? Long.MAX_VALUE : steps + limits.getMaxSteps();
+        long deadline = limits.getDeadline();
+        CancellationToken cancellationToken = limits.getCancellationToken();
+
+        if (halted) {
+            return ExecutionStatus.HALTED;
+        }
+
+        while (performSteps(Math.min(end - steps, CHECK_INTERVAL))) {
+            if (steps >= end) {
+                if (findTransition() < 0) {
+                    halted = true;
+
+                    return ExecutionStatus.HALTED;
+                }
+
+                return ExecutionStatus.STEP_LIMIT_REACHED;
+            }
+
+            if (cancellationToken != null && cancellationToken.isCancelled()) {
+                return ExecutionStatus.CANCELLED;
+            }
+
+            if (deadline != Long.MAX_VALUE && System.currentTimeMillis() >= deadline) {
+                return ExecutionStatus.DEADLINE_EXCEEDED;
+            }
+        }
+
+        halted = true;
+
+        return ExecutionStatus.HALTED;
+    }
+
+    /**
+     * Performs up to the given number of execution steps.
+     *
+     * @param count the maximum number of steps
+     * @return true if and only if there are still more steps.
+     */
+    private boolean performSteps(long count) {
+        MultiTapeTransitionTable table = this.table;
+        Tape[] tapes = this.tapes;
+        long i = 0;
+
+        while (i < count) {
+            int transition = findTransition();
+
+            if (transition < 0) {
+                break; // stop
+            }
+
+            for (int tape = 0; tape < tapes.length; tape++) {
+                tapes[tape].write(table.getReplacement(transition, tape));
+
+                switch (table.getMove(transition, tape)) {
+                    case TransitionTable.MOVE_LEFT:
+                        tapes[tape].left();
+                        break;
+                    case TransitionTable.MOVE_RIGHT:
+                        tapes[tape].right();
+                        break;
+                    default:
+                        break;
+                }
+            }
+
+            state = table.getNextState(transition);
+            i++;
+        }
+
+        steps += i;
+
+        return i == count;
+    }
+
+    /**
+     * @return The transition for the current state and the symbols under the heads (-1 if there is none).
+     */
+    private int findTransition() {
+        long key = state;
+
+        for (Tape tape : tapes) {
+            int symbolIndex = table.getSymbolIndex(tape.read());
+
+            if (symbolIndex < 0) {
+                return -1;
+            }
+
+            key = key * table.getSymbolCount() + symbolIndex;
+        }
+
+        return table.getTransition(key);
+    }
+
+    /**
+     * @return The result of the last run (null if this execution has not run yet).
+     */
+    public MultiTapeExecutionResult getResult() {
+        return result;
+    }
+
+    /**
+     * @return true if and only if the machine has halted.
+     */
+    public boolean isHalted() {
+        return halted;
+    }
+
+    /**
+     * @return The number of steps performed.
+     */
+    public long getSteps() {
+        return steps;
+    }
+}
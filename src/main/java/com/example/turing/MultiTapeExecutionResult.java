@@ -0,0 +1,139 @@
+package com.example.turing;
+
+/**
+ * Multi-tape turing machine execution result.
+ * <p>
+ * The result keeps the tapes and state the execution stopped with, whether or not the machine halted. The tapes are
+ * shared with the execution, so their contents reflect any later steps if the execution is run again.
+ */
+public class MultiTapeExecutionResult {
+    /**
+     * The execution status.
+     */
+    private final ExecutionStatus status;
+    /**
+     * The number of steps performed.
+     */
+    private final long steps;
+    /**
+     * The transition table used by the execution.
+     */
+    private final MultiTapeTransitionTable table;
+    /**
+     * The state index the execution stopped with.
+     */
+    private final int state;
+    /**
+     * The tapes the execution stopped with.
+     */
+    private final Tape[] tapes;
+
+    /**
+     * Creates a new execution result.
+     *
+     * @param status the execution status
+     * @param steps  the number of steps performed
+     * @param table  the transition table used by the execution
+     * @param state  the state index the execution stopped with
+     * @param tapes  the tapes the execution stopped with
+     */
+    MultiTapeExecutionResult(ExecutionStatus status, long steps, MultiTapeTransitionTable table, int state, Tape[] tapes) {
+        this.status = status;
+        this.steps = steps;
+        this.table = table;
+        this.state = state;
+        this.tapes = tapes;
+    }
+
+    /**
+     * @return The execution status.
+     */
+    public ExecutionStatus getStatus() {
+        return status;
+    }
+
+    /**
+     * @return true if and only if the machine has halted.
+     */
+    public boolean isHalted() {
+        return status == ExecutionStatus.HALTED;
+    }
+
+    /**
+     * @return The number of steps performed.
+     */
+    public long getSteps() {
+        return steps;
+    }
+
+    /**
+     * @return true if and only if the current state is a final or accepting state.
+     */
+    public boolean isAccepted() {
+        return table.isAccepting(state);
+    }
+
+    /**
+     * @return The current state name.
+     */
+    public String getCurrentStateName() {
+        return table.getName(state);
+    }
+
+    /**
+     * @return The number of tapes.
+     */
+    public int getTapeCount() {
+        return tapes.length;
+    }
+
+    /**
+     * @param tape the tape index
+     * @return The content of the given tape as a string.
+     * @throws IndexOutOfBoundsException if the tape index is out of range
+     */
+    public String getContent(int tape) throws IndexOutOfBoundsException {
+        return getTape(tape).getContent();
+    }
+
+    /**
+     * @param tape the tape index
+     * @return The position of the first non blank character of the given tape (Integer.MAX_VALUE if the tape only
+     * contains blank characters)
+     * @throws IndexOutOfBoundsException if the tape index is out of range
+     */
+    public int getContentOffset(int tape) throws IndexOutOfBoundsException {
+        return getTape(tape).getOffset();
+    }
+
+    /**
+     * @param tape the tape index
+     * @return The head position of the given tape.
+     * @throws IndexOutOfBoundsException if the tape index is out of range
+     */
+    public int getHeadPosition(int tape) throws IndexOutOfBoundsException {
+        return getTape(tape).getCurrent();
+    }
+
+    /**
+     * @return The blank character being used.
+     */
+    public char getBlank() {
+        return tapes[0].getBlank();
+    }
+
+    /**
+     * Gets the given tape.
+     *
+     * @param tape the tape index
+     * @return The tape.
+     * @throws IndexOutOfBoundsException if the tape index is out of range
+     */
+    private Tape getTape(int tape) throws IndexOutOfBoundsException {
+        if (tape < 0 || tape >= tapes.length) {
+            throw new IndexOutOfBoundsException("the tape index is out of range");
+        }
+
+        return tapes[tape];
+    }
+}
@@ -0,0 +1,53 @@
+package com.example.turing;
+
+/**
+ * Multi-tape turing machine transition implementation.
+ */
+class MultiTapeTransition {
+    /**
+     * The replacement symbol for each tape.
+     */
+    private final String replacementSymbols;
+    /**
+     * The head movement for each tape.
+     */
+    private final Direction[] directions;
+    /**
+     * The destination state name.
+     */
+    private final String stateToName;
+
+    /**
+     * Creates a new transition.
+     *
+     * @param replacementSymbols the replacement symbol for each tape
+     * @param directions         the head movement for each tape
+     * @param stateToName        the destination state name
+     */
+    MultiTapeTransition(String replacementSymbols, Direction[] directions, String stateToName) {
+        this.replacementSymbols = replacementSymbols;
+        this.directions = directions;
+        this.stateToName = stateToName;
+    }
+
+    /**
+     * @return The replacement symbol for each tape.
+     */
+    String getReplacementSymbols() {
+        return replacementSymbols;
+    }
+
+    /**
+     * @return The head movement for each tape.
+     */
+    Direction[] getDirections() {
+        return directions;
+    }
+
+    /**
+     * @return The destination state name.
+     */
+    String getStateToName() {
+        return stateToName;
+    }
+}
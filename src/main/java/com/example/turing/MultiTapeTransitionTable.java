@@ -0,0 +1,335 @@
+package com.example.turing;
+
+import java.util.Arrays;
+import java.util.HashMap;
+import java.util.Map;
+import java.util.SortedSet;
+import java.util.TreeSet;
+
+/**
+ * Compiled multi-tape turing machine transition table.
+ * <p>
+ * States and symbols are mapped to dense indices, and the state together with the symbol index read from each tape
+ * form a single numeric key. The transition for a key is found with a single array access when every possible key fits
+ * in a table of up to {@link #MAX_DENSE_KEYS} entries, or else with an open addressing hash table that only holds the
+ * existing transitions.
+ */
+class MultiTapeTransitionTable {
+    /**
+     * The maximum number of entries of a dense key table.
+     */
+    static final int MAX_DENSE_KEYS = 1 << 20;
+
+    /**
+     * The number of tapes.
+     */
+    private final int tapeCount;
+    /**
+     * The number of symbols.
+     */
+    private final int symbolCount;
+    /**
+     * The symbol index for each character (-1 for characters not in the alphabet).
+     */
+    private final int[] symbolIndices;
+    /**
+     * The transition index for each key (null if keys are hashed).
+     */
+    private final int[] dense;
+    /**
+     * The key of each hash table slot (null if keys are dense).
+     */
+    private final long[] keys;
+    /**
+     * The transition index of each hash table slot (-1 for empty slots, null if keys are dense).
+     */
+    private final int[] values;
+    /**
+     * The next state index of each transition.
+     */
+    private final int[] nextStates;
+    /**
+     * The replacement symbol of each transition and tape, at index transition * tapeCount + tape.
+     */
+    private final char[] replacements;
+    /**
+     * The head move of each transition and tape, at index transition * tapeCount + tape.
+     */
+    private final byte[] moves;
+    /**
+     * The name of each state.
+     */
+    private final String[] names;
+    /**
+     * true for each accepting state.
+     */
+    private final boolean[] accepting;
+    /**
+     * The initial state index.
+     */
+    private final int initialState;
+
+    /**
+     * Creates a new table.
+     *
+     * @param tapeCount     the number of tapes
+     * @param symbolCount   the number of symbols
+     * @param symbolIndices the symbol index for each character
+     * @param dense         the transition index for each key (null if keys are hashed)
+     * @param keys          the key of each hash table slot (null if keys are dense)
+     * @param values        the transition index of each hash table slot (null if keys are dense)
+     * @param nextStates    the next state index of each transition
+     * @param replacements  the replacement symbol of each transition and tape
+     * @param moves         the head move of each transition and tape
+     * @param names         the name of each state
+     * @param accepting     true for each accepting state
+     * @param initialState  the initial state index
+     */
+    private MultiTapeTransitionTable(int tapeCount, int symbolCount, int[] symbolIndices, int[] dense, long[] keys, int[] values, int[] nextStates, char[] replacements, byte[] moves, String[] names, boolean[] accepting, int initialState) {
+        this.tapeCount = tapeCount;
+        this.symbolCount = symbolCount;
+        this.symbolIndices = symbolIndices;
+        this.dense = dense;
+        this.keys = keys;
+        this.values = values;
+        this.nextStates = nextStates;
+        this.replacements = replacements;
+        this.moves = moves;
+        this.names = names;
+        this.accepting = accepting;
+        this.initialState = initialState;
+    }
+
+    /**
+     * Compiles the given states and transitions.
+     *
+     * @param tapeCount    the number of tapes
+     * @param states       true for each accepting state name, false for each other state name, in insertion order
+     * @param transitions  the transitions of each state, by state name and input symbols
+     * @param initialState the initial state name
+     * @return The compiled table.
+     * @throws IllegalStateException if the machine has too many states and symbols for its keys to fit in 63 bits
+     */
+    static MultiTapeTransitionTable compile(int tapeCount, Map<String, Boolean> states, Map<String, Map<String, MultiTapeTransition>> transitions, String initialState) throws IllegalStateException {
+        Map<String, Integer> stateIndices = new HashMap<>();
+        String[] names = new String[states.size()];
+        boolean[] accepting = new boolean[states.size()];
+        SortedSet<Character> alphabet = new TreeSet<>();
+        int transitionCount = 0;
+
+        for (Map.Entry<String, Boolean> state : states.entrySet()) {
+            int index = stateIndices.size();
+
+            stateIndices.put(state.getKey(), index);
+            names[index] = state.getKey();
+            accepting[index] = state.getValue();
+
+            for (String symbols : transitions.get(state.getKey()).keySet()) {
+                for (int i = 0; i < symbols.length(); i++) {
+                    alphabet.add(symbols.charAt(i));
+                }
+
+                transitionCount++;
+            }
+        }
+
+        int symbolCount = alphabet.size();
+        int[] symbolIndices = new int[alphabet.isEmpty() ? 0 : alphabet.last() + 1];
+
+        Arrays.fill(symbolIndices, -1);
+
+        int symbolIndex = 0;
+
+        for (char symbol : alphabet) {
+            symbolIndices[symbol] = symbolIndex++;
+        }
+
+        double keyCount = states.size() * Math.pow(Math.max(1, symbolCount), tapeCount);
+
+        if (keyCount >= Long.MAX_VALUE) {
+            throw new IllegalStateException("the machine has too many states and symbols");
+        }
+
+        int[] dense = keyCount <= MAX_DENSE_KEYS ? new int[(int) keyCount] : null;
+        int capacity = Integer.highestOneBit(Math.max(1, 2 * transitionCount - 1)) << 1;
+        long[] keys = dense == null ? new long[capacity] : null;
+        int[] values = dense == null ? new int[capacity] : null;
+        int[] nextStates = new int[transitionCount];
+        char[] replacements = new char[transitionCount * tapeCount];
+        byte[] moves = new byte[transitionCount * tapeCount];
+        int transition = 0;
+
+        if (dense != null) {
+            Arrays.fill(dense, -1);
+        } else {
+            Arrays.fill(values, -1);
+        }
+
+        for (Map.Entry<String, Boolean> state : states.entrySet()) {
+            for (Map.Entry<String, MultiTapeTransition> entry : transitions.get(state.getKey()).entrySet()) {
+                long key = stateIndices.get(state.getKey());
+
+                for (int i = 0; i < tapeCount; i++) {
+                    key = key * symbolCount + symbolIndices[entry.getKey().charAt(i)];
+                }
+
+                if (dense != null) {
+                    dense[(int) key] = transition;
+                } else {
+                    int slot = slot(key, capacity);
+
+                    while (values[slot] >= 0) {
+                        slot = (slot + 1) & (capacity - 1);
+                    }
+
+                    keys[slot] = key;
+                    values[slot] = transition;
+                }
+
+                MultiTapeTransition t = entry.getValue();
+
+                nextStates[transition] = stateIndices.get(t.getStateToName());
+
+                for (int i = 0; i < tapeCount; i++) {
+                    replacements[transition * tapeCount + i] = t.getReplacementSymbols().charAt(i);
+                    moves[transition * tapeCount + i] = toMove(t.getDirections()[i]);
+                }
+
+                transition++;
+            }
+        }
+
+        return new MultiTapeTransitionTable(tapeCount, symbolCount, symbolIndices, dense, keys, values, nextStates, replacements, moves, names, accepting, stateIndices.get(initialState));
+    }
+
+    /**
+     * @param direction the head movement
+     * @return The move value of the given head movement.
+     */
+    private static byte toMove(Direction direction) {
+        switch (direction) {
+            case LEFT:
+                return TransitionTable.MOVE_LEFT;
+            case RIGHT:
+                return TransitionTable.MOVE_RIGHT;
+            default:
+                return TransitionTable.MOVE_HALT;
+        }
+    }
+
+    /**
+     * @param key      the key
+     * @param capacity the hash table capacity
+     * @return The home slot of the given key.
+     */
+    private static int slot(long key, int capacity) {
+        return (int) ((key * 0x9E3779B97F4A7C15L) >>> 32) & (capacity - 1);
+    }
+
+    /**
+     * @param symbol the symbol
+     * @return The symbol index (-1 if the symbol is not in the alphabet).
+     */
+    int getSymbolIndex(char symbol) {
+        return symbol < symbolIndices.length ? symbolIndices[symbol] : -1;
+    }
+
+    /**
+     * Finds the transition for the given key.
+     *
+     * @param key the state index followed by the symbol index read from each tape, in base {@link #getSymbolCount()}
+     * @return The transition index (-1 if there is no transition for the given key).
+     */
+    int getTransition(long key) {
+        if (dense != null) {
+            return dense[(int) key];
+        }
+
+        int capacity = keys.length;
+
+        for (int slot = slot(key, capacity); values[slot] >= 0; slot = (slot + 1) & (capacity - 1)) {
+            if (keys[slot] == key) {
+                return values[slot];
+            }
+        }
+
+        return -1;
+    }
+
+    /**
+     * @return true if and only if keys are looked up in a dense table.
+     */
+    boolean isDense() {
+        return dense != null;
+    }
+
+    /**
+     * @param transition the transition index
+     * @return The next state index of the given transition.
+     */
+    int getNextState(int transition) {
+        return nextStates[transition];
+    }
+
+    /**
+     * @param transition the transition index
+     * @param tape       the tape index
+     * @return The replacement symbol of the given transition for the given tape.
+     */
+    char getReplacement(int transition, int tape) {
+        return replacements[transition * tapeCount + tape];
+    }
+
+    /**
+     * @param transition the transition index
+     * @param tape       the tape index
+     * @return The head move of the given transition for the given tape.
+     */
+    byte getMove(int transition, int tape) {
+        return moves[transition * tapeCount + tape];
+    }
+
+    /**
+     * @return The number of tapes.
+     */
+    int getTapeCount() {
+        return tapeCount;
+    }
+
+    /**
+     * @return The number of symbols.
+     */
+    int getSymbolCount() {
+        return symbolCount;
+    }
+
+    /**
+     * @return The number of states.
+     */
+    int getStateCount() {
+        return names.length;
+    }
+
+    /**
+     * @param state the state index
+     * @return The name of the given state.
+     */
+    String getName(int state) {
+        return names[state];
+    }
+
+    /**
+     * @param state the state index
+     * @return true if and only if the given state is a final or accepting state.
+     */
+    boolean isAccepting(int state) {
+        return accepting[state];
+    }
+
+    /**
+     * @return The initial state index.
+     */
+    int getInitialState() {
+        return initialState;
+    }
+}
@@ -0,0 +1,244 @@
+package com.example.turing;
+
+import java.util.Arrays;
+import java.util.HashMap;
+import java.util.LinkedHashMap;
+import java.util.Map;
+
+/**
+ * Multi-tape turing machine implementation.
+ * <p>
+ * Each transition reads one symbol from every tape, and then writes one symbol to every tape and moves every head
+ * independently. The machine halts when there is no transition for the current state and the symbols under the heads.
+ */
+public class MultiTapeTuringMachine {
+    /**
+     * The number of tapes.
+     */
+    private final int tapeCount;
+    /**
+     * true for each accepting state name, false for each other state name.
+     */
+    private final Map<String, Boolean> states;
+    /**
+     * The transitions of each state, by state name and input symbols.
+     */
+    private final Map<String, Map<String, MultiTapeTransition>> transitions;
+    /**
+     * The initial state name.
+     */
+    private String initialState;
+    /**
+     * The frozen definition (null if this machine has changed since it was last frozen).
+     */
+    private MultiTapeDefinition definition;
+
+    /**
+     * Creates a new multi-tape turing machine with no states.
+     *
+     * @param tapeCount the number of tapes
+     * @throws IllegalArgumentException if the number of tapes is not positive
+     */
+    public MultiTapeTuringMachine(int tapeCount) throws IllegalArgumentException {
+        validateConstructorArguments(tapeCount);
+
+        this.tapeCount = tapeCount;
+        this.states = new LinkedHashMap<>();
+        this.transitions = new HashMap<>();
+        this.initialState = null;
+        this.definition = null;
+    }
+
+    /**
+     * Validates the {@link #MultiTapeTuringMachine(int)} arguments.
+     *
+     * @param tapeCount the number of tapes
+     * @throws IllegalArgumentException if the number of tapes is not positive
+     */
+    private static void validateConstructorArguments(int tapeCount) throws IllegalArgumentException {
+        if (tapeCount <= 0) {
+            throw new IllegalArgumentException("the number of tapes is not positive");
+        }
+    }
+
+    /**
+     * Adds a given state to this machine.
+     *
+     * @param name      the state name
+     * @param accepting true if and only if this is a final or accepting state
+     * @throws NullPointerException     if the state name is null
+     * @throws IllegalArgumentException if the state name already exists
+     */
+    public void addState(String name, boolean accepting) throws NullPointerException, IllegalArgumentException {
+        validateAddStateArguments(name);
+
+        states.put(name, accepting);
+        transitions.put(name, new HashMap<>());
+        definition = null;
+    }
+
+    /**
+     * Validates the {@link #addState(String, boolean)} arguments.
+     *
+     * @param name the state name
+     * @throws NullPointerException     if the state name is null
+     * @throws IllegalArgumentException if the state name already exists
+     */
+    private void validateAddStateArguments(String name) throws NullPointerException, IllegalArgumentException {
+        if (name == null) {
+            throw new NullPointerException("the state name is null");
+        }
+
+        if (states.containsKey(name)) {
+            throw new IllegalArgumentException("the state name already exists");
+        }
+    }
+
+    /**
+     * Adds a given transition to this machine.
+     *
+     * @param stateFromName      the source state name
+     * @param currentSymbols     the input symbol of each tape
+     * @param replacementSymbols the replacement symbol of each tape
+     * @param stateToName        the destination state name
+     * @param directions         the head movement of each tape
+     * @throws NullPointerException     if the source state name is null
+     * @throws NullPointerException     if the input symbols are null
+     * @throws NullPointerException     if the replacement symbols are null
+     * @throws NullPointerException     if the destination state name is null
+     * @throws NullPointerException     if the head movements are null
+     * @throws NullPointerException     if any head movement is null
+     * @throws IllegalArgumentException if the number of input symbols, replacement symbols or head movements does not
+     *                                  match the number of tapes
+     * @throws IllegalArgumentException if the source state name does not exist
+     * @throws IllegalArgumentException if the destination state name does not exist
+     * @throws IllegalArgumentException if the transition already exists
+     */
+    public void addTransition(String stateFromName, String currentSymbols, String replacementSymbols, String stateToName, Direction... directions) throws NullPointerException, IllegalArgumentException {
+        validateAddTransitionArguments(stateFromName, currentSymbols, replacementSymbols, stateToName, directions);
+
+        transitions.get(stateFromName).put(currentSymbols, new MultiTapeTransition(replacementSymbols, directions.clone(), stateToName));
+        definition = null;
+    }
+
+    /**
+     * Validates the {@link #addTransition(String, String, String, String, Direction...)} arguments.
+     *
+     * @param stateFromName      the source state name
+     * @param currentSymbols     the input symbol of each tape
+     * @param replacementSymbols the replacement symbol of each tape
+     * @param stateToName        the destination state name
+     * @param directions         the head movement of each tape
+     * @throws NullPointerException     if the source state name is null
+     * @throws NullPointerException     if the input symbols are null
+     * @throws NullPointerException     if the replacement symbols are null
+     * @throws NullPointerException     if the destination state name is null
+     * @throws NullPointerException     if the head movements are null
+     * @throws NullPointerException     if any head movement is null
+     * @throws IllegalArgumentException if the number of input symbols, replacement symbols or head movements does not
+     *                                  match the number of tapes
+     * @throws IllegalArgumentException if the source state name does not exist
+     * @throws IllegalArgumentException if the destination state name does not exist
+     * @throws IllegalArgumentException if the transition already exists
+     */
+    private void validateAddTransitionArguments(String stateFromName, String currentSymbols, String replacementSymbols, String stateToName, Direction[] directions) throws NullPointerException, IllegalArgumentException {
+        if (stateFromName == null) {
+            throw new NullPointerException("the source state name is null");
+        }
+
+        if (currentSymbols == null) {
+            throw new NullPointerException("the input symbols are null");
+        }
+
+        if (replacementSymbols == null) {
+            throw new NullPointerException("the replacement symbols are null");
+        }
+
+        if (stateToName == null) {
+            throw new NullPointerException("the destination state name is null");
+        }
+
+        if (directions == null) {
+            throw new NullPointerException("the head movements are null");
+        }
+
+        if (Arrays.asList(directions).contains(null)) {
+            throw new NullPointerException("a head movement is null");
+        }
+
+        if (currentSymbols.length() != tapeCount || replacementSymbols.length() != tapeCount || directions.length != tapeCount) {
+            throw new IllegalArgumentException("the number of symbols or head movements does not match the number of tapes");
+        }
+
+        if (!states.containsKey(stateFromName)) {
+            throw new IllegalArgumentException("the source state name does not exist");
+        }
+
+        if (!states.containsKey(stateToName)) {
+            throw new IllegalArgumentException("the destination state name does not exist");
+        }
+
+        if (transitions.get(stateFromName).containsKey(currentSymbols)) {
+            throw new IllegalArgumentException("the transition already exists");
+        }
+    }
+
+    /**
+     * Sets the initial state.
+     *
+     * @param name the initial state name
+     * @throws NullPointerException     if the initial state name is null
+     * @throws IllegalArgumentException if the initial state name does not exist
+     */
+    public void setInitialState(String name) throws NullPointerException, IllegalArgumentException {
+        validateSetInitialStateArguments(name);
+
+        initialState = name;
+        definition = null;
+    }
+
+    /**
+     * Validates the {@link #setInitialState(String)} arguments.
+     *
+     * @param name the initial state name
+     * @throws NullPointerException     if the initial state name is null
+     * @throws IllegalArgumentException if the initial state name does not exist
+     */
+    private void validateSetInitialStateArguments(String name) throws NullPointerException, IllegalArgumentException {
+        if (name == null) {
+            throw new NullPointerException("the initial state name is null");
+        }
+
+        if (!states.containsKey(name)) {
+            throw new IllegalArgumentException("the initial state name does not exist");
+        }
+    }
+
+    /**
+     * Freezes the current definition of this machine.
+     * <p>
+     * The returned definition is immutable and safe to share across threads. It is reused until this machine is
+     * modified, and later modifications do not affect it.
+     *
+     * @return The immutable definition of this machine.
+     * @throws IllegalStateException if the initial state is not set
+     */
+    public MultiTapeDefinition freeze() throws IllegalStateException {
+        if (initialState == null) {
+            throw new IllegalStateException("the initial state is not set");
+        }
+
+        if (definition == null) {
+            definition = new MultiTapeDefinition(MultiTapeTransitionTable.compile(tapeCount, states, transitions, initialState));
+        }
+
+        return definition;
+    }
+
+    /**
+     * @return The number of tapes.
+     */
+    public int getTapeCount() {
+        return tapeCount;
+    }
+}
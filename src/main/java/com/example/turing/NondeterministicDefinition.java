@@ -0,0 +1,118 @@
+package com.example.turing;
+
+import java.util.concurrent.ForkJoinPool;
+
+/**
+ * Immutable nondeterministic turing machine definition.
+ * <p>
+ * A definition is a frozen, compiled snapshot of a {@link NondeterministicTuringMachine}. It never changes, so a
+ * single instance may be shared by any number of threads, each of which runs its own explorations.
+ */
+public class NondeterministicDefinition {
+    /**
+     * The compiled transition table.
+     */
+    private final NondeterministicTransitionTable table;
+
+    /**
+     * Creates a new definition for the given transition table.
+     *
+     * @param table the compiled transition table
+     */
+    NondeterministicDefinition(NondeterministicTransitionTable table) {
+        this.table = table;
+    }
+
+    /**
+     * Explores every branch of this machine for the given input until a branch reaches an accepting state or every
+     * branch halts, on the common fork/join pool.
+     *
+     * @param content the initial content of the tape
+     * @param offset  the initial content offset
+     * @param current the head position
+     * @param blank   the blank character
+     * @return The exploration result.
+     * @throws NullPointerException if the initial content is null
+     */
+    public ExplorationResult explore(String content, int offset, int current, char blank) throws NullPointerException {
+        return explore(content, offset, current, blank, ExecutionLimits.NONE);
+    }
+
+    /**
+     * Explores every branch of this machine for the given input until a branch reaches an accepting state, every
+     * branch halts or any of the given limits is reached, on the common fork/join pool.
+     *
+     * @param content the initial content of the tape
+     * @param offset  the initial content offset
+     * @param current the head position
+     * @param blank   the blank character
+     * @param limits  the exploration limits, where the maximum number of steps applies to each branch
+     * @return The exploration result.
+     * @throws NullPointerException if the initial content is null
+     * @throws NullPointerException if the execution limits are null
+     */
+    public ExplorationResult explore(String content, int offset, int current, char blank, ExecutionLimits limits) throws NullPointerException {
+        return explore(content, offset, current, blank, limits, ForkJoinPool.commonPool());
+    }
+
+    /**
+     * Explores every branch of this machine for the given input until a branch reaches an accepting state, every
+     * branch halts or any of the given limits is reached, on the given fork/join pool.
+     * <p>
+     * Branches advance in lockstep, a step at a time, and the configurations of each step are expanded in parallel.
+     * Branches share the tape segments they have not written, and a branch that reaches a configuration already
+     * reached by any branch is dropped, so branches that loop end as soon as they repeat a configuration. The memory
+     * used grows with the number of distinct configurations reached, which is bounded by the maximum number of
+     * configurations of the limits: once more configurations are reached, the exploration stops with status
+     * {@link ExecutionStatus#STEP_LIMIT_REACHED}.
+     *
+     * @param content the initial content of the tape
+     * @param offset  the initial content offset
+     * @param current the head position
+     * @param blank   the blank character
+     * @param limits  the exploration limits, where the maximum number of steps applies to each branch
+     * @param pool    the pool the branches are explored on
+     * @return The exploration result.
+     * @throws NullPointerException if the initial content is null
+     * @throws NullPointerException if the execution limits are null
+     * @throws NullPointerException if the pool is null
+     */
+    public ExplorationResult explore(String content, int offset, int current, char blank, ExecutionLimits limits, ForkJoinPool pool) throws NullPointerException {
+        validateExploreArguments(content, limits, pool);
+
+        Configuration initial = new Configuration(table.getInitialState(), current, SharedTape.of(content, offset, blank), false);
+
+        return new NondeterministicExplorer(table, limits).explore(initial, limits.getMaxSteps(), pool);
+    }
+
+    /**
+     * Validates the {@link #explore(String, int, int, char, ExecutionLimits, ForkJoinPool)} arguments.
+     *
+     * @param content the initial content of the tape
+     * @param limits  the exploration limits
+     * @param pool    the pool the branches are explored on
+     * @throws NullPointerException if the initial content is null
+     * @throws NullPointerException if the execution limits are null
+     * @throws NullPointerException if the pool is null
+     */
+    private void validateExploreArguments(String content, ExecutionLimits limits, ForkJoinPool pool) throws NullPointerException {
+        if (content == null) {
+            throw new NullPointerException("the initial content is null");
+        }
+
+        if (limits == null) {
+            throw new NullPointerException("the execution limits are null");
+        }
+
+        if (pool == null) {
+            throw new NullPointerException("the pool is null");
+        }
+    }
+
+    /**
+     * @return The number of states.
+     */
+    public int getStateCount() {
+        return table.getStateCount();
+    }
+}
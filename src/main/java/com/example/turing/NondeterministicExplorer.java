@@ -0,0 +1,245 @@
+package com.example.turing;
+
+import java.util.ArrayList;
+import java.util.Collections;
+import java.util.List;
+import java.util.Set;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.ForkJoinPool;
+import java.util.concurrent.RecursiveTask;
+
+/**
+ * Parallel breadth-first explorer of the branches of a nondeterministic turing machine.
+ * <p>
+ * The branches are explored a step at a time: every configuration of the current frontier is expanded into its
+ * successors by fork/join tasks, each of which handles a slice of the frontier. Configurations that have already been
+ * reached are dropped, so each distinct configuration is only expanded once, and the exploration stops as soon as any
+ * branch reaches an accepting state. Since every branch advances in lockstep, the accepting configuration found is
+ * reached in the fewest possible steps.
+ * <p>
+ * Every configuration reached is kept until the exploration ends, since a branch can loop back to a configuration
+ * reached any number of steps before, and dropping it would expand the loop again. The number of configurations kept
+ * is bounded by {@link ExecutionLimits#getMaxConfigurations()}, checked after each step.
+ */
+class NondeterministicExplorer {
+    /**
+     * The maximum number of configurations a task expands without splitting its slice.
+     */
+    private static final int SPLIT_THRESHOLD = 256;
+
+    /**
+     * The transition table.
+     */
+    private final NondeterministicTransitionTable table;
+    /**
+     * The configurations reached so far.
+     */
+    private final Set<Configuration> reached;
+    /**
+     * The maximum number of configurations kept.
+     */
+    private final long maxConfigurations;
+    /**
+     * The deadline, in milliseconds since the epoch.
+     */
+    private final long deadline;
+    /**
+     * The cancellation token (null if the exploration cannot be cancelled).
+     */
+    private final CancellationToken cancellationToken;
+    /**
+     * The accepting configuration found (null if none has been found yet).
+     */
+    private volatile Configuration accepted;
+    /**
+     * The status the exploration was interrupted with (null if it has not been interrupted).
+     */
+    private volatile ExecutionStatus interruption;
+
+    /**
+     * Creates a new explorer.
+     *
+     * @param table  the transition table
+     * @param limits the exploration limits
+     */
+    NondeterministicExplorer(NondeterministicTransitionTable table, ExecutionLimits limits) {
+        this.table = table;
+        this.reached = ConcurrentHashMap.newKeySet();
+        this.maxConfigurations = limits.getMaxConfigurations();
+        this.deadline = limits.getDeadline();
+        this.cancellationToken = limits.getCancellationToken();
+        this.accepted = null;
+        this.interruption = null;
+    }
+
+    /**
+     * Explores the branches that start from the given configuration.
+     *
+     * @param initial  the initial configuration
+     * @param maxSteps the maximum number of steps of each branch
+     * @param pool     the pool the frontier is expanded on
+     * @return The exploration result.
+     */
+    ExplorationResult explore(Configuration initial, long maxSteps, ForkJoinPool pool) {
+        reached.add(initial);
+
+        if (table.isAccepting(initial.getState())) {
+            return new ExplorationResult(ExecutionStatus.HALTED, 0, 1, table, initial);
+        }
+
+        List<Configuration> frontier = Collections.singletonList(initial);
+        long steps = 0;
+
+        while (!frontier.isEmpty()) {
+            if (steps >= maxSteps || reached.size() > maxConfigurations) {
+                ExecutionStatus status = canMove(frontier) ? ExecutionStatus.STEP_LIMIT_REACHED : ExecutionStatus.HALTED;
+
+                return new ExplorationResult(status, steps, reached.size(), table, null);
+            }
+
+            frontier = pool.invoke(new Expansion(frontier, 0, frontier.size()));
+            steps++;
+
+            if (accepted != null) {
+                return new ExplorationResult(ExecutionStatus.HALTED, steps, reached.size(), table, accepted);
+            }
+
+            if (interruption != null) {
+                return new ExplorationResult(interruption, steps - 1, reached.size(), table, null);
+            }
+        }
+
+        return new ExplorationResult(ExecutionStatus.HALTED, steps, reached.size(), table, null);
+    }
+
+    /**
+     * Determines if any of the given configurations has a transition.
+     *
+     * @param configurations the configurations
+     * @return true if and only if any of the given configurations has a transition.
+     */
+    private boolean canMove(List<Configuration> configurations) {
+        for (Configuration configuration : configurations) {
+            char symbol = configuration.getTape().get(configuration.getHead());
+
+            if (table.getFirstTransition(configuration.getState(), symbol) < table.getEndTransition(configuration.getState(), symbol)) {
+                return true;
+            }
+        }
+
+        return false;
+    }
+
+    /**
+     * Expands the given configuration, adding its successors that have not been reached yet to the given list.
+     *
+     * @param configuration the configuration
+     * @param successors    the list of successors
+     */
+    private void expand(Configuration configuration, List<Configuration> successors) {
+        int state = configuration.getState();
+        int head = configuration.getHead();
+        SharedTape tape = configuration.getTape();
+        char symbol = tape.get(head);
+        int end = table.getEndTransition(state, symbol);
+
+        for (int transition = table.getFirstTransition(state, symbol); transition < end; transition++) {
+            int next = table.getNextState(transition);
+            byte move = table.getMove(transition);
+            Configuration successor = new Configuration(next, head + move, tape.with(head, table.getReplacement(transition)), move == TransitionTable.MOVE_HALT);
+
+            if (table.isAccepting(next)) {
+                accepted = successor;
+                reached.add(successor);
+
+                return;
+            }
+
+            if (reached.add(successor) && !successor.isHalted()) {
+                successors.add(successor);
+            }
+        }
+    }
+
+    /**
+     * Checks whether the exploration has been cancelled or its deadline has passed, recording the interruption.
+     *
+     * @return true if and only if the exploration has to stop.
+     */
+    private boolean isStopped() {
+        if (accepted != null || interruption != null) {
+            return true;
+        }
+
+        if (cancellationToken != null && cancellationToken.isCancelled()) {
+            interruption = ExecutionStatus.CANCELLED;
+        } else if (deadline != Long.MAX_VALUE && System.currentTimeMillis() >= deadline) {
+            interruption = ExecutionStatus.DEADLINE_EXCEEDED;
+        }
+
+        return interruption != null;
+    }
+
+    /**
+     * Task that expands a slice of the frontier into the successors of its configurations.
+     */
+    private class Expansion extends RecursiveTask<List<Configuration>> {
+        /**
+         * The serialization version.
+         */
+        private static final long serialVersionUID = 1L;
+
+        /**
+         * The frontier.
+         */
+        private final List<Configuration> frontier;
+        /**
+         * The index of the first configuration of the slice.
+         */
+        private final int from;
+        /**
+         * The index of the last configuration of the slice plus 1.
+         */
+        private final int to;
+
+        /**
+         * Creates a new task.
+         *
+         * @param frontier the frontier
+         * @param from     the index of the first configuration of the slice
+         * @param to       the index of the last configuration of the slice plus 1
+         */
+        private Expansion(List<Configuration> frontier, int from, int to) {
+            this.frontier = frontier;
+            this.from = from;
+            this.to = to;
+        }
+
+        @Override
+        protected List<Configuration> compute() {
+            if (to - from > SPLIT_THRESHOLD) {
+                int middle = (from + to) >>> 1;
+                Expansion left = new Expansion(frontier, from, middle);
+
+                left.fork();
+
+                List<Configuration> right = new Expansion(frontier, middle, to).compute();
+                List<Configuration> successors = left.join();
+
+                successors.addAll(right);
+
+                return successors;
+            }
+
+            List<Configuration> successors = new ArrayList<>();
+
+            if (!isStopped()) {
+                for (int i = from; i < to && accepted == null; i++) {
+                    expand(frontier.get(i), successors);
+                }
+            }
+
+            return successors;
+        }
+    }
+}
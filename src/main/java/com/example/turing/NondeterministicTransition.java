@@ -0,0 +1,82 @@
+package com.example.turing;
+
+/**
+ * Nondeterministic turing machine transition implementation.
+ * <p>
+ * Transitions are compared by value, so adding the same choice twice to a state and symbol can be detected.
+ */
+class NondeterministicTransition {
+    /**
+     * The replacement symbol.
+     */
+    private final char replacement;
+    /**
+     * The action to be taken.
+     */
+    private final Action action;
+    /**
+     * The destination state name.
+     */
+    private final String stateToName;
+
+    /**
+     * Creates a new transition.
+     *
+     * @param replacement the replacement symbol
+     * @param action      the action to be taken
+     * @param stateToName the destination state name
+     */
+    NondeterministicTransition(char replacement, Action action, String stateToName) {
+        this.replacement = replacement;
+        this.action = action;
+        this.stateToName = stateToName;
+    }
+
+    /**
+     * @return The replacement symbol.
+     */
+    char getReplacement() {
+        return replacement;
+    }
+
+    /**
+     * @return The action to be taken.
+     */
+    Action getAction() {
+        return action;
+    }
+
+    /**
+     * @return The destination state name.
+     */
+    String getStateToName() {
+        return stateToName;
+    }
+
+    @Override
+    public boolean equals(Object o) {
+        if (this == o) {
+            return true;
+        }
+
+        if (!(o instanceof NondeterministicTransition)) {
+            return false;
+        }
+
+        NondeterministicTransition transition = (NondeterministicTransition) o;
+
+        return replacement == transition.replacement
+                && action == transition.action
+                && stateToName.equals(transition.stateToName);
+    }
+
+    @Override
+    public int hashCode() {
+        int hash = replacement;
+
+        hash = 31 * hash + action.hashCode();
+        hash = 31 * hash + stateToName.hashCode();
+
+        return hash;
+    }
+}
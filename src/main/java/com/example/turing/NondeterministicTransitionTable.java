@@ -0,0 +1,242 @@
+package com.example.turing;
+
+import java.util.Arrays;
+import java.util.Collections;
+import java.util.HashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.SortedSet;
+import java.util.TreeSet;
+
+/**
+ * Compiled nondeterministic turing machine transition table.
+ * <p>
+ * States and symbols are mapped to dense indices, and the choices of every state and symbol index pair are stored
+ * contiguously, so the choices for a given state and symbol are the range of transition indices between two
+ * consecutive entries of a single array.
+ */
+class NondeterministicTransitionTable {
+    /**
+     * The number of symbols.
+     */
+    private final int symbolCount;
+    /**
+     * The symbol index for each character (-1 for characters not in the alphabet).
+     */
+    private final int[] symbolIndices;
+    /**
+     * The first transition index for each state and symbol index pair, followed by the number of transitions.
+     */
+    private final int[] firstTransitions;
+    /**
+     * The next state index of each transition.
+     */
+    private final int[] nextStates;
+    /**
+     * The replacement symbol of each transition.
+     */
+    private final char[] replacements;
+    /**
+     * The head move of each transition.
+     */
+    private final byte[] moves;
+    /**
+     * The name of each state.
+     */
+    private final String[] names;
+    /**
+     * true for each final or accepting state.
+     */
+    private final boolean[] accepting;
+    /**
+     * The initial state index.
+     */
+    private final int initialState;
+
+    /**
+     * Creates a new transition table with the given data.
+     *
+     * @param symbolIndices    the symbol index for each character
+     * @param firstTransitions the first transition index for each state and symbol index pair, followed by the number
+     *                         of transitions
+     * @param nextStates       the next state index of each transition
+     * @param replacements     the replacement symbol of each transition
+     * @param moves            the head move of each transition
+     * @param names            the name of each state
+     * @param accepting        true for each final or accepting state
+     * @param initialState     the initial state index
+     */
+    private NondeterministicTransitionTable(int[] symbolIndices, int[] firstTransitions, int[] nextStates, char[] replacements, byte[] moves, String[] names, boolean[] accepting, int initialState) {
+        this.symbolCount = (firstTransitions.length - 1) / names.length;
+        this.symbolIndices = symbolIndices;
+        this.firstTransitions = firstTransitions;
+        this.nextStates = nextStates;
+        this.replacements = replacements;
+        this.moves = moves;
+        this.names = names;
+        this.accepting = accepting;
+        this.initialState = initialState;
+    }
+
+    /**
+     * Compiles the given states and transitions into a transition table.
+     *
+     * @param states       true for each accepting state name, false for each other state name, in index order
+     * @param transitions  the transitions of each state, by state name and input symbol
+     * @param initialState the initial state name
+     * @return The compiled transition table.
+     */
+    static NondeterministicTransitionTable compile(Map<String, Boolean> states, Map<String, Map<Character, List<NondeterministicTransition>>> transitions, String initialState) {
+        Map<String, Integer> stateIndices = new HashMap<>();
+        String[] names = new String[states.size()];
+        boolean[] accepting = new boolean[states.size()];
+        SortedSet<Character> alphabet = new TreeSet<>();
+        int transitionCount = 0;
+
+        for (Map.Entry<String, Boolean> state : states.entrySet()) {
+            int index = stateIndices.size();
+
+            stateIndices.put(state.getKey(), index);
+            names[index] = state.getKey();
+            accepting[index] = state.getValue();
+
+            for (Map.Entry<Character, List<NondeterministicTransition>> entry : transitions.get(state.getKey()).entrySet()) {
+                alphabet.add(entry.getKey());
+                transitionCount += entry.getValue().size();
+            }
+        }
+
+        int symbolCount = alphabet.size();
+        char[] symbols = new char[symbolCount];
+        int[] symbolIndices = new int[alphabet.isEmpty() ? 0 : alphabet.last() + 1];
+
+        Arrays.fill(symbolIndices, -1);
+
+        int symbolIndex = 0;
+
+        for (char symbol : alphabet) {
+            symbols[symbolIndex] = symbol;
+            symbolIndices[symbol] = symbolIndex++;
+        }
+
+        int[] firstTransitions = new int[names.length * symbolCount + 1];
+        int[] nextStates = new int[transitionCount];
+        char[] replacements = new char[transitionCount];
+        byte[] moves = new byte[transitionCount];
+        int transition = 0;
+
+        for (int state = 0; state < names.length; state++) {
+            Map<Character, List<NondeterministicTransition>> choices = transitions.get(names[state]);
+
+            for (int symbol = 0; symbol < symbolCount; symbol++) {
+                firstTransitions[state * symbolCount + symbol] = transition;
+
+                for (NondeterministicTransition choice : choices.getOrDefault(symbols[symbol], Collections.emptyList())) {
+                    nextStates[transition] = stateIndices.get(choice.getStateToName());
+                    replacements[transition] = choice.getReplacement();
+                    moves[transition] = TransitionTable.toMove(choice.getAction());
+                    transition++;
+                }
+            }
+        }
+
+        firstTransitions[names.length * symbolCount] = transition;
+
+        return new NondeterministicTransitionTable(symbolIndices, firstTransitions, nextStates, replacements, moves, names, accepting, stateIndices.get(initialState));
+    }
+
+    /**
+     * Gets the first transition index for the given state and symbol.
+     *
+     * @param state  the state index
+     * @param symbol the symbol
+     * @return The first transition index, or the end of the transitions if there is none.
+     */
+    int getFirstTransition(int state, char symbol) {
+        int key = getKey(state, symbol);
+
+        return key < 0 ? 0 : firstTransitions[key];
+    }
+
+    /**
+     * Gets the transition index that follows the last transition for the given state and symbol.
+     *
+     * @param state  the state index
+     * @param symbol the symbol
+     * @return The transition index that follows the last one, which equals the first one if there is none.
+     */
+    int getEndTransition(int state, char symbol) {
+        int key = getKey(state, symbol);
+
+        return key < 0 ? 0 : firstTransitions[key + 1];
+    }
+
+    /**
+     * Gets the key of the given state and symbol.
+     *
+     * @param state  the state index
+     * @param symbol the symbol
+     * @return The key (-1 if the symbol is not in the alphabet).
+     */
+    private int getKey(int state, char symbol) {
+        if (symbol >= symbolIndices.length || symbolIndices[symbol] < 0) {
+            return -1;
+        }
+
+        return state * symbolCount + symbolIndices[symbol];
+    }
+
+    /**
+     * @param transition the transition index
+     * @return The next state index of the given transition.
+     */
+    int getNextState(int transition) {
+        return nextStates[transition];
+    }
+
+    /**
+     * @param transition the transition index
+     * @return The replacement symbol of the given transition.
+     */
+    char getReplacement(int transition) {
+        return replacements[transition];
+    }
+
+    /**
+     * @param transition the transition index
+     * @return The head move of the given transition.
+     */
+    byte getMove(int transition) {
+        return moves[transition];
+    }
+
+    /**
+     * @return The number of states.
+     */
+    int getStateCount() {
+        return names.length;
+    }
+
+    /**
+     * @param state the state index
+     * @return The name of the given state.
+     */
+    String getName(int state) {
+        return names[state];
+    }
+
+    /**
+     * @param state the state index
+     * @return true if and only if the given state is a final or accepting state.
+     */
+    boolean isAccepting(int state) {
+        return accepting[state];
+    }
+
+    /**
+     * @return The initial state index.
+     */
+    int getInitialState() {
+        return initialState;
+    }
+}
@@ -0,0 +1,193 @@
+package com.example.turing;
+
+import java.util.ArrayList;
+import java.util.HashMap;
+import java.util.LinkedHashMap;
+import java.util.List;
+import java.util.Map;
+
+/**
+ * Nondeterministic turing machine implementation.
+ * <p>
+ * Unlike a {@link TuringMachine}, a state may have several transitions for the same symbol, each of which is a
+ * different choice. The machine accepts an input when any sequence of choices reaches an accepting state, which is
+ * searched for by {@link NondeterministicDefinition#explore(String, int, int, char)}.
+ */
+public class NondeterministicTuringMachine {
+    /**
+     * true for each accepting state name, false for each other state name.
+     */
+    private final Map<String, Boolean> states;
+    /**
+     * The transitions of each state, by state name and input symbol, in the order they were added.
+     */
+    private final Map<String, Map<Character, List<NondeterministicTransition>>> transitions;
+    /**
+     * The initial state name.
+     */
+    private String initialState;
+    /**
+     * The frozen definition (null if this machine has changed since it was last frozen).
+     */
+    private NondeterministicDefinition definition;
+
+    /**
+     * Creates a new nondeterministic turing machine with no states.
+     */
+    public NondeterministicTuringMachine() {
+        this.states = new LinkedHashMap<>();
+        this.transitions = new HashMap<>();
+        this.initialState = null;
+        this.definition = null;
+    }
+
+    /**
+     * Adds a given state to this machine.
+     *
+     * @param name      the state name
+     * @param accepting true if and only if this is a final or accepting state
+     * @throws NullPointerException     if the state name is null
+     * @throws IllegalArgumentException if the state name already exists
+     */
+    public void addState(String name, boolean accepting) throws NullPointerException, IllegalArgumentException {
+        validateAddStateArguments(name);
+
+        states.put(name, accepting);
+        transitions.put(name, new LinkedHashMap<>());
+        definition = null;
+    }
+
+    /**
+     * Validates the {@link #addState(String, boolean)} arguments.
+     *
+     * @param name the state name
+     * @throws NullPointerException     if the state name is null
+     * @throws IllegalArgumentException if the state name already exists
+     */
+    private void validateAddStateArguments(String name) throws NullPointerException, IllegalArgumentException {
+        if (name == null) {
+            throw new NullPointerException("the state name is null");
+        }
+
+        if (states.containsKey(name)) {
+            throw new IllegalArgumentException("the state name already exists");
+        }
+    }
+
+    /**
+     * Adds a given transition to this machine, as one more choice for its source state and input symbol.
+     *
+     * @param stateFromName     the source state name
+     * @param currentSymbol     the input symbol
+     * @param replacementSymbol the replacement symbol
+     * @param action            the action to be taken
+     * @param stateToName       the destination state name
+     * @throws NullPointerException     if the source state name is null
+     * @throws NullPointerException     if the action to be taken is null
+     * @throws NullPointerException     if the destination state name is null
+     * @throws IllegalArgumentException if the source state name does not exist
+     * @throws IllegalArgumentException if the destination state name does not exist
+     * @throws IllegalArgumentException if the transition already exists
+     */
+    public void addTransition(String stateFromName, char currentSymbol, char replacementSymbol, Action action, String stateToName) throws NullPointerException, IllegalArgumentException {
+        validateAddTransitionArguments(stateFromName, currentSymbol, replacementSymbol, action, stateToName);
+
+        transitions.get(stateFromName).computeIfAbsent(currentSymbol, symbol -> new ArrayList<>()).add(new NondeterministicTransition(replacementSymbol, action, stateToName));
+        definition = null;
+    }
+
+    /**
+     * Validates the {@link #addTransition(String, char, char, Action, String)} arguments.
+     *
+     * @param stateFromName     the source state name
+     * @param currentSymbol     the input symbol
+     * @param replacementSymbol the replacement symbol
+     * @param action            the action to be taken
+     * @param stateToName       the destination state name
+     * @throws NullPointerException     if the source state name is null
+     * @throws NullPointerException     if the action to be taken is null
+     * @throws NullPointerException     if the destination state name is null
+     * @throws IllegalArgumentException if the source state name does not exist
+     * @throws IllegalArgumentException if the destination state name does not exist
+     * @throws IllegalArgumentException if the transition already exists
+     */
+    private void validateAddTransitionArguments(String stateFromName, char currentSymbol, char replacementSymbol, Action action, String stateToName) throws NullPointerException, IllegalArgumentException {
+        if (stateFromName == null) {
+            throw new NullPointerException("the source state name is null");
+        }
+
+        if (action == null) {
+            throw new NullPointerException("the action to be taken is null");
+        }
+
+        if (stateToName == null) {
+            throw new NullPointerException("the destination state name is null");
+        }
+
+        if (!states.containsKey(stateFromName)) {
+            throw new IllegalArgumentException("the source state name does not exist");
+        }
+
+        if (!states.containsKey(stateToName)) {
+            throw new IllegalArgumentException("the destination state name does not exist");
+        }
+
+        List<NondeterministicTransition> choices = transitions.get(stateFromName).get(currentSymbol);
+
+        if (choices != null && choices.contains(new NondeterministicTransition(replacementSymbol, action, stateToName))) {
+            throw new IllegalArgumentException("the transition already exists");
+        }
+    }
+
+    /**
+     * Sets the initial state.
+     *
+     * @param name the initial state name
+     * @throws NullPointerException     if the initial state name is null
+     * @throws IllegalArgumentException if the initial state name does not exist
+     */
+    public void setInitialState(String name) throws NullPointerException, IllegalArgumentException {
+        validateSetInitialStateArguments(name);
+
+        initialState = name;
+        definition = null;
+    }
+
+    /**
+     * Validates the {@link #setInitialState(String)} arguments.
+     *
+     * @param name the initial state name
+     * @throws NullPointerException     if the initial state name is null
+     * @throws IllegalArgumentException if the initial state name does not exist
+     */
+    private void validateSetInitialStateArguments(String name) throws NullPointerException, IllegalArgumentException {
+        if (name == null) {
+            throw new NullPointerException("the initial state name is null");
+        }
+
+        if (!states.containsKey(name)) {
+            throw new IllegalArgumentException("the initial state name does not exist");
+        }
+    }
+
+    /**
+     * Freezes the current definition of this machine.
+     * <p>
+     * The returned definition is immutable and safe to share across threads. It is reused until this machine is
+     * modified, and later modifications do not affect it.
+     *
+     * @return The immutable definition of this machine.
+     * @throws IllegalStateException if the initial state is not set
+     */
+    public NondeterministicDefinition freeze() throws IllegalStateException {
+        if (initialState == null) {
+            throw new IllegalStateException("the initial state is not set");
+        }
+
+        if (definition == null) {
+            definition = new NondeterministicDefinition(NondeterministicTransitionTable.compile(states, transitions, initialState));
+        }
+
+        return definition;
+    }
+}
@@ -0,0 +1,162 @@
+package com.example.turing;
+
+import java.util.Map;
+
+/**
+ * Machine optimization result.
+ * <p>
+ * Holds the optimized definition, how much smaller it is than the original one, and the name of the state each
+ * original state became, so state names reported by executions of the optimized definition can be traced back.
+ */
+public class OptimizationResult {
+    /**
+     * The optimized definition.
+     */
+    private final MachineDefinition definition;
+    /**
+     * The number of states of the original definition.
+     */
+    private final int originalStateCount;
+    /**
+     * The number of pruned unreachable states.
+     */
+    private final int unreachableStateCount;
+    /**
+     * The number of states merged into equivalent states.
+     */
+    private final int mergedStateCount;
+    /**
+     * The number of transitions of the original definition.
+     */
+    private final int originalTransitionCount;
+    /**
+     * The number of transitions of the optimized definition.
+     */
+    private final int transitionCount;
+    /**
+     * The number of symbols of the original definition.
+     */
+    private final int originalSymbolCount;
+    /**
+     * The number of symbols of the optimized definition.
+     */
+    private final int symbolCount;
+    /**
+     * The optimized state name for each reachable original state name.
+     */
+    private final Map<String, String> stateNames;
+
+    /**
+     * Creates a new optimization result.
+     *
+     * @param definition              the optimized definition
+     * @param originalStateCount      the number of states of the original definition
+     * @param unreachableStateCount   the number of pruned unreachable states
+     * @param mergedStateCount        the number of states merged into equivalent states
+     * @param originalTransitionCount the number of transitions of the original definition
+     * @param transitionCount         the number of transitions of the optimized definition
+     * @param originalSymbolCount     the number of symbols of the original definition
+     * @param symbolCount             the number of symbols of the optimized definition
+     * @param stateNames              the optimized state name for each reachable original state name
+     */
+    OptimizationResult(MachineDefinition definition, int originalStateCount, int unreachableStateCount, int mergedStateCount, int originalTransitionCount, int transitionCount, int originalSymbolCount, int symbolCount, Map<String, String> stateNames) {
+        this.definition = definition;
+        this.originalStateCount = originalStateCount;
+        this.unreachableStateCount = unreachableStateCount;
+        this.mergedStateCount = mergedStateCount;
+        this.originalTransitionCount = originalTransitionCount;
+        this.transitionCount = transitionCount;
+        this.originalSymbolCount = originalSymbolCount;
+        this.symbolCount = symbolCount;
+        this.stateNames = stateNames;
+    }
+
+    /**
+     * @return The optimized definition.
+     */
+    public MachineDefinition getDefinition() {
+        return definition;
+    }
+
+    /**
+     * Gets the name of the state the given original state became in the optimized definition, which is the name of
+     * the first state, in the order the states were added, of the equivalent states it was merged with.
+     *
+     * @param name the original state name
+     * @return The optimized state name (null if the state was pruned or does not exist).
+     * @throws NullPointerException if the state name is null
+     */
+    public String getOptimizedStateName(String name) throws NullPointerException {
+        validateName(name);
+
+        return stateNames.get(name);
+    }
+
+    /**
+     * Validates a state name.
+     *
+     * @param name the state name
+     * @throws NullPointerException if the state name is null
+     */
+    private void validateName(String name) throws NullPointerException {
+        if (name == null) {
+            throw new NullPointerException("the state name is null");
+        }
+    }
+
+    /**
+     * @return The number of states of the original definition.
+     */
+    public int getOriginalStateCount() {
+        return originalStateCount;
+    }
+
+    /**
+     * @return The number of states of the optimized definition.
+     */
+    public int getStateCount() {
+        return originalStateCount - unreachableStateCount - mergedStateCount;
+    }
+
+    /**
+     * @return The number of states pruned because they cannot be reached from the initial state.
+     */
+    public int getUnreachableStateCount() {
+        return unreachableStateCount;
+    }
+
+    /**
+     * @return The number of states removed because they were merged into equivalent states.
+     */
+    public int getMergedStateCount() {
+        return mergedStateCount;
+    }
+
+    /**
+     * @return The number of transitions of the original definition.
+     */
+    public int getOriginalTransitionCount() {
+        return originalTransitionCount;
+    }
+
+    /**
+     * @return The number of transitions of the optimized definition.
+     */
+    public int getTransitionCount() {
+        return transitionCount;
+    }
+
+    /**
+     * @return The number of symbols of the original definition.
+     */
+    public int getOriginalSymbolCount() {
+        return originalSymbolCount;
+    }
+
+    /**
+     * @return The number of symbols of the optimized definition.
+     */
+    public int getSymbolCount() {
+        return symbolCount;
+    }
+}
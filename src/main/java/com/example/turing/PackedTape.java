@@ -0,0 +1,576 @@
+package com.example.turing;
+
+import java.util.Arrays;
+
+/**
+ * Bit-packed turing machine tape, for small alphabets.
+ * <p>
+ * Each cell stores the code of its symbol in 1, 2 or 4 bits, the smallest width that fits every symbol the tape may
+ * hold, so a segment takes 16, 8 or 4 times less memory than a plain {@code char[]} segment and many more cells fit in
+ * the CPU caches. Code 0 is the blank character, so a new segment is blank without being filled and blank runs are
+ * skipped a word at a time. Reads and writes extract and replace a cell with a shift and a mask on its 64-bit word;
+ * symbols are mapped to codes through a table indexed by character, which is why every symbol must be at most
+ * {@link #MAX_SYMBOL}.
+ * <p>
+ * Only the head and cell methods of {@link Tape} are overridden: the content methods read this tape a decoded segment
+ * at a time.
+ */
+class PackedTape extends Tape {
+    /**
+     * The maximum number of symbols of a packed tape.
+     */
+    static final int MAX_SYMBOLS = 16;
+    /**
+     * The maximum symbol of a packed tape.
+     */
+    static final char MAX_SYMBOL = 0xFF;
+    /**
+     * A blank segment of the widest cells, shared by every packed tape and never written.
+     */
+    private static final long[] BLANK_SEGMENT = new long[SEGMENT_SIZE * 4 / Long.SIZE];
+
+    /**
+     * The symbol of each code.
+     */
+    private final char[] symbols;
+    /**
+     * The code of each symbol, indexed by symbol.
+     */
+    private final byte[] codes;
+    /**
+     * The base 2 logarithm of the number of bits of a cell.
+     */
+    private final int bitsLog;
+    /**
+     * The base 2 logarithm of the number of cells of a word.
+     */
+    private final int cellsLog;
+    /**
+     * The mask of the bits of a cell.
+     */
+    private final long mask;
+    /**
+     * The segments, indexed by segment number minus {@link #firstSegment} (null for segments never written).
+     */
+    private long[][] segments;
+    /**
+     * The segment number of the first element of {@link #segments}.
+     */
+    private int firstSegment;
+    /**
+     * The segment under the head ({@link #BLANK_SEGMENT} if it has never been written).
+     */
+    private long[] segment;
+    /**
+     * The segment number of the segment under the head.
+     */
+    private int segmentNumber;
+    /**
+     * The position of the head inside its segment.
+     */
+    private int index;
+    /**
+     * The position of the first non blank character (Integer.MAX_VALUE if the tape only contains blank characters).
+     */
+    private int left;
+    /**
+     * The position of the last non blank character (Integer.MIN_VALUE if the tape only contains blank characters).
+     */
+    private int right;
+    /**
+     * true for each segment shared with a snapshot, indexed like {@link #segments} (null if no snapshot has been
+     * taken).
+     */
+    private boolean[] shared;
+    /**
+     * true if and only if the segment under the head is shared with a snapshot.
+     */
+    private boolean segmentShared;
+
+    /**
+     * Creates a new packed tape and sets its initial content.
+     *
+     * @param content  the initial content of this tape, made of symbols of the given alphabet
+     * @param offset   the initial content offset
+     * @param current  the head position
+     * @param alphabet the symbols this tape may hold, at most {@link #MAX_SYMBOLS} distinct symbols of at most {@link
+     *                 #MAX_SYMBOL}, starting with the blank character
+     */
+    PackedTape(String content, int offset, int current, char[] alphabet) {
+        super(alphabet[0]);
+
+        int bits = alphabet.length <= 2 ? 1 : alphabet.length <= 4 ? 2 : 4;
+        char max = 0;
+
+        for (char symbol : alphabet) {
+            max = (char) Math.max(max, symbol);
+        }
+
+        this.symbols = Arrays.copyOf(alphabet, 1 << bits);
+        this.codes = new byte[max + 1];
+        this.bitsLog = Integer.numberOfTrailingZeros(bits);
+        this.cellsLog = 6 - bitsLog;
+        this.mask = (1L << bits) - 1;
+        this.segments = new long[1][];
+        this.firstSegment = current >> SEGMENT_BITS;
+        this.left = Integer.MAX_VALUE;
+        this.right = Integer.MIN_VALUE;
+
+        for (int i = 0; i < alphabet.length; i++) {
+            codes[alphabet[i]] = (byte) i;
+        }
+
+        for (int i = 0; i < content.length(); i++) {
+            if (content.charAt(i) != alphabet[0]) {
+                set(offset + i, content.charAt(i));
+            }
+        }
+
+        moveTo(current);
+    }
+
+    /**
+     * Creates a snapshot of the given tape, which shares the segments of the tape.
+     *
+     * @param tape the tape
+     */
+    private PackedTape(PackedTape tape) {
+        super(tape.getBlank());
+
+        this.symbols = tape.symbols;
+        this.codes = tape.codes;
+        this.bitsLog = tape.bitsLog;
+        this.cellsLog = tape.cellsLog;
+        this.mask = tape.mask;
+        this.segments = tape.segments.clone();
+        this.firstSegment = tape.firstSegment;
+        this.segment = tape.segment;
+        this.segmentNumber = tape.segmentNumber;
+        this.index = tape.index;
+        this.left = tape.left;
+        this.right = tape.right;
+    }
+
+    /**
+     * Gets the alphabet of a packed tape that holds the given content and is written by the given transition table.
+     *
+     * @param table   the transition table
+     * @param content the initial content
+     * @param blank   the blank character
+     * @return The alphabet, starting with the blank character (null if the symbols do not fit in a packed tape).
+     */
+    static char[] getAlphabet(TransitionTable table, String content, char blank) {
+        char[] alphabet = new char[MAX_SYMBOLS];
+        int size = 0;
+
+        alphabet[size++] = blank;
+
+        for (int i = 0; i < table.getSymbolCount(); i++) {
+            size = add(alphabet, size, table.getSymbol(i));
+
+            if (size < 0) {
+                return null;
+            }
+        }
+
+        char previous = blank;
+
+        for (int i = 0; i < content.length(); i++) {
+            char c = content.charAt(i);
+
+            if (c != previous) {
+                size = add(alphabet, size, c);
+                previous = c;
+
+                if (size < 0) {
+                    return null;
+                }
+            }
+        }
+
+        return blank > MAX_SYMBOL ? null : Arrays.copyOf(alphabet, size);
+    }
+
+    /**
+     * Adds the given symbol to the given alphabet, if it is not there already.
+     *
+     * @param alphabet the alphabet
+     * @param size     the number of symbols of the alphabet
+     * @param symbol   the symbol
+     * @return The new number of symbols of the alphabet (-1 if the symbol does not fit in a packed tape).
+     */
+    private static int add(char[] alphabet, int size, char symbol) {
+        for (int i = 0; i < size; i++) {
+            if (alphabet[i] == symbol) {
+                return size;
+            }
+        }
+
+        if (size == MAX_SYMBOLS || symbol > MAX_SYMBOL) {
+            return -1;
+        }
+
+        alphabet[size] = symbol;
+
+        return size + 1;
+    }
+
+    @Override
+    void left() {
+        if (--index < 0) {
+            enterSegment(segmentNumber - 1);
+            index = SEGMENT_MASK;
+        }
+    }
+
+    @Override
+    void right() {
+        if (++index == SEGMENT_SIZE) {
+            enterSegment(segmentNumber + 1);
+            index = 0;
+        }
+    }
+
+    /**
+     * Moves the head in the given direction for as long as it is on the given character, a word at a time: the word
+     * is compared with the code of the character repeated in every cell, and the number of matching cells in a row is
+     * found by counting the zero bits of the difference.
+     *
+     * @param c         the character under the head, which belongs to the alphabet of this tape
+     * @param direction 1 to move to the right, -1 to move to the left
+     * @param max       the maximum number of moves
+     * @return The number of moves.
+     */
+    @Override
+    long sweep(char c, int direction, long max) {
+        long pattern = codes[c] * Long.divideUnsigned(-1L, mask);
+        int bits = 1 << bitsLog;
+        long moved = 0;
+
+        while (moved < max) {
+            long word = segment[index >>> cellsLog] ^ pattern;
+            int shift = index << bitsLog & 63;
+            int run;
+
+            if (direction > 0) {
+                long rest = word >>> shift;
+
+                run = rest == 0 ? (Long.SIZE - shift) >>> bitsLog : Long.numberOfTrailingZeros(rest) >>> bitsLog;
+            } else {
+                long rest = word << (Long.SIZE - shift - bits);
+
+                run = rest == 0 ? (shift >>> bitsLog) + 1 : Long.numberOfLeadingZeros(rest) >>> bitsLog;
+            }
+
+            if (run == 0) {
+                break;
+            }
+
+            run = (int) Math.min(run, max - moved);
+            moved += run;
+
+            // the run ends inside the word, or at its edge, so the head leaves the segment at most once
+            if (direction > 0) {
+                index += run - 1;
+                right();
+            } else {
+                index -= run - 1;
+                left();
+            }
+        }
+
+        return moved;
+    }
+
+    @Override
+    char read() {
+        return symbols[(int) (segment[index >>> cellsLog] >>> (index << bitsLog & 63) & mask)];
+    }
+
+    /**
+     * Sets the character in the head position, which must belong to the alphabet of this tape.
+     *
+     * @param c the character to be set
+     */
+    @Override
+    void write(char c) {
+        int i = index >>> cellsLog;
+        int shift = index << bitsLog & 63;
+        long word = segment[i];
+        long code = codes[c];
+
+        if ((word >>> shift & mask) == code) {
+            return;
+        }
+
+        if (segment == BLANK_SEGMENT) {
+            segment = allocate(segmentNumber);
+        } else if (segmentShared) {
+            segment = unshare(segmentNumber);
+        }
+
+        segment[i] = word & ~(mask << shift) | code << shift;
+        updateBounds(getCurrent(), code != 0);
+    }
+
+    @Override
+    char get(int position) {
+        long[] s = getSegment(position >> SEGMENT_BITS);
+
+        return s == null ? symbols[0] : decode(s, position & SEGMENT_MASK);
+    }
+
+    /**
+     * Sets the character in the given position, which must belong to the alphabet of this tape.
+     *
+     * @param position the position
+     * @param c        the character to be set
+     */
+    @Override
+    void set(int position, char c) {
+        int number = position >> SEGMENT_BITS;
+        long[] s = getSegment(number);
+        long code = codes[c];
+
+        if (s == null) {
+            if (code == 0) {
+                return;
+            }
+
+            s = allocate(number);
+        } else if (shared != null && shared[number - firstSegment]) {
+            s = unshare(number);
+        }
+
+        int i = (position & SEGMENT_MASK) >>> cellsLog;
+        int shift = position << bitsLog & 63;
+
+        s[i] = s[i] & ~(mask << shift) | code << shift;
+        updateBounds(position, code != 0);
+
+        if (number == segmentNumber) {
+            segment = s;
+        }
+    }
+
+    /**
+     * Decodes the given cell of the given segment.
+     *
+     * @param s     the segment
+     * @param index the position of the cell inside the segment
+     * @return The character in the cell.
+     */
+    private char decode(long[] s, int index) {
+        return symbols[(int) (s[index >>> cellsLog] >>> (index << bitsLog & 63) & mask)];
+    }
+
+    /**
+     * Updates the non blank character bounds after a character has been set.
+     *
+     * @param position the position of the character that has been set
+     * @param nonBlank true if and only if the character that has been set is not the blank character
+     */
+    private void updateBounds(int position, boolean nonBlank) {
+        if (nonBlank) {
+            if (position < left) {
+                left = position;
+            }
+
+            if (position > right) {
+                right = position;
+            }
+        } else if (left == right && position == left) {
+            left = Integer.MAX_VALUE;
+            right = Integer.MIN_VALUE;
+        } else if (position == left) {
+            left = findNonBlank(position + 1, 1);
+        } else if (position == right) {
+            right = findNonBlank(position - 1, -1);
+        }
+    }
+
+    /**
+     * Finds the nearest non blank character, which is known to exist, skipping blank words without decoding them.
+     *
+     * @param position  the position to start from
+     * @param direction 1 to search to the right, -1 to search to the left
+     * @return The position of the nearest non blank character.
+     */
+    private int findNonBlank(int position, int direction) {
+        int wordMask = (1 << cellsLog) - 1;
+
+        while (true) {
+            long[] s = getSegment(position >> SEGMENT_BITS);
+
+            if (s == null) {
+                position = direction > 0 ? (position | SEGMENT_MASK) + 1 : (position & ~SEGMENT_MASK) - 1;
+                continue;
+            }
+
+            long word = s[(position & SEGMENT_MASK) >>> cellsLog];
+            int shift = position << bitsLog & 63;
+
+            if (direction > 0) {
+                long rest = word >>> shift;
+
+                if (rest != 0) {
+                    return position + (Long.numberOfTrailingZeros(rest) >>> bitsLog);
+                }
+
+                position = (position | wordMask) + 1;
+            } else {
+                // the cell in the position becomes the highest bits of the word
+                long rest = word << (Long.SIZE - shift - (1 << bitsLog));
+
+                if (rest != 0) {
+                    return position - (Long.numberOfLeadingZeros(rest) >>> bitsLog);
+                }
+
+                position = (position & ~wordMask) - 1;
+            }
+        }
+    }
+
+    @Override
+    void moveTo(int position) {
+        enterSegment(position >> SEGMENT_BITS);
+        index = position & SEGMENT_MASK;
+    }
+
+    /**
+     * Makes the given segment the segment under the head.
+     *
+     * @param number the segment number
+     */
+    private void enterSegment(int number) {
+        long[] s = getSegment(number);
+
+        segmentNumber = number;
+        segment = s == null ? BLANK_SEGMENT : s;
+        segmentShared = s != null && shared != null && shared[number - firstSegment];
+    }
+
+    /**
+     * Gets the given segment.
+     *
+     * @param number the segment number
+     * @return The segment (null if it has never been written).
+     */
+    private long[] getSegment(int number) {
+        long i = (long) number - firstSegment;
+
+        return i < 0 || i >= segments.length ? null : segments[(int) i];
+    }
+
+    /**
+     * Allocates the given segment, growing the segment index if needed.
+     *
+     * @param number the segment number
+     * @return The allocated segment.
+     */
+    private long[] allocate(int number) {
+        if (number < firstSegment) {
+            int shift = Math.max(firstSegment - number, segments.length);
+            long[][] grown = new long[segments.length + shift][];
+
+            System.arraycopy(segments, 0, grown, shift, segments.length);
+
+            if (shared != null) {
+                boolean[] grownShared = new boolean[grown.length];
+
+                System.arraycopy(shared, 0, grownShared, shift, segments.length);
+                shared = grownShared;
+            }
+
+            segments = grown;
+            firstSegment -= shift;
+        } else if (number - firstSegment >= segments.length) {
+            int length = Math.max(number - firstSegment + 1, 2 * segments.length);
+
+            if (shared != null) {
+                shared = Arrays.copyOf(shared, length);
+            }
+
+            segments = Arrays.copyOf(segments, length);
+        }
+
+        long[] s = new long[SEGMENT_SIZE >>> cellsLog];
+
+        segments[number - firstSegment] = s;
+
+        if (shared != null) {
+            shared[number - firstSegment] = false;
+        }
+
+        return s;
+    }
+
+    /**
+     * Replaces the given segment, which is shared with a snapshot, with a copy that this tape can write.
+     *
+     * @param number the segment number
+     * @return The copy of the segment.
+     */
+    private long[] unshare(int number) {
+        int i = number - firstSegment;
+        long[] s = segments[i].clone();
+
+        segments[i] = s;
+        shared[i] = false;
+
+        if (number == segmentNumber) {
+            segment = s;
+            segmentShared = false;
+        }
+
+        return s;
+    }
+
+    @Override
+    Tape snapshot() {
+        PackedTape snapshot = new PackedTape(this);
+
+        if (shared == null || shared.length != segments.length) {
+            shared = new boolean[segments.length];
+        }
+
+        Arrays.fill(shared, true);
+        segmentShared = segment != BLANK_SEGMENT;
+
+        return snapshot;
+    }
+
+    /**
+     * Decodes the cells of the given range of the given segment into the given buffer, so concurrent readers of the
+     * same tape never share a buffer.
+     */
+    @Override
+    char[] getSegmentView(int number, int from, int to, char[] buffer) {
+        long[] s = getSegment(number);
+
+        if (s == null) {
+            return super.getSegmentView(number, from, to, buffer);
+        }
+
+        for (int i = from; i < to; i++) {
+            buffer[i] = decode(s, i);
+        }
+
+        return buffer;
+    }
+
+    @Override
+    int getOffset() {
+        return left;
+    }
+
+    @Override
+    int getLast() {
+        return right;
+    }
+
+    @Override
+    int getCurrent() {
+        return (segmentNumber << SEGMENT_BITS) | index;
+    }
+}
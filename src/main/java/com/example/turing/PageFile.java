@@ -0,0 +1,139 @@
+package com.example.turing;
+
+import java.io.Closeable;
+import java.io.IOException;
+import java.nio.ByteBuffer;
+import java.nio.channels.FileChannel;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.nio.file.StandardOpenOption;
+
+/**
+ * Scratch file that holds the tape segments evicted from memory.
+ * <p>
+ * Every segment that has ever been evicted gets a page of its own, so a segment is always written back to the same
+ * place. The file is deleted when it is closed. Snapshots of a tape read its pages from other threads while the tape
+ * writes others, so the pages are transferred under the lock of the file.
+ */
+class PageFile implements Closeable {
+    /**
+     * The scratch file channel.
+     */
+    private final FileChannel channel;
+    /**
+     * The direct buffer pages are transferred through.
+     */
+    private final ByteBuffer buffer;
+    /**
+     * The number of allocated pages.
+     */
+    private int pageCount;
+    /**
+     * The number of pages written.
+     */
+    private long writeCount;
+    /**
+     * The number of pages read.
+     */
+    private long readCount;
+
+    /**
+     * Creates a new empty scratch file in the given directory.
+     *
+     * @param directory the directory
+     * @param pageSize  the number of cells of each page
+     * @throws IOException if the scratch file cannot be created
+     */
+    PageFile(Path directory, int pageSize) throws IOException {
+        Path file = Files.createTempFile(directory, "tape", ".pages");
+
+        this.channel = FileChannel.open(file, StandardOpenOption.READ, StandardOpenOption.WRITE, StandardOpenOption.DELETE_ON_CLOSE);
+        this.buffer = ByteBuffer.allocateDirect(2 * pageSize);
+        this.pageCount = 0;
+        this.writeCount = 0;
+        this.readCount = 0;
+    }
+
+    /**
+     * Allocates a new page at the end of the file.
+     *
+     * @return The index of the new page.
+     */
+    synchronized int allocate() {
+        return pageCount++;
+    }
+
+    /**
+     * Writes the given cells to the given page.
+     *
+     * @param page  the page index
+     * @param cells the cells
+     * @throws IOException if the scratch file cannot be written
+     */
+    synchronized void write(int page, char[] cells) throws IOException {
+        long position = (long) page * buffer.capacity();
+
+        buffer.clear();
+        buffer.asCharBuffer().put(cells);
+
+        while (buffer.hasRemaining()) {
+            channel.write(buffer, position + buffer.position());
+        }
+
+        writeCount++;
+    }
+
+    /**
+     * Reads the given page into the given cells.
+     *
+     * @param page  the page index
+     * @param cells the cells
+     * @throws IOException if the scratch file cannot be read
+     */
+    synchronized void read(int page, char[] cells) throws IOException {
+        long position = (long) page * buffer.capacity();
+
+        buffer.clear();
+
+        while (buffer.hasRemaining()) {
+            if (channel.read(buffer, position + buffer.position()) < 0) {
+                throw new IOException("the scratch file is truncated");
+            }
+        }
+
+        buffer.flip();
+        buffer.asCharBuffer().get(cells);
+        readCount++;
+    }
+
+    /**
+     * @return The number of allocated pages.
+     */
+    synchronized int getPageCount() {
+        return pageCount;
+    }
+
+    /**
+     * @return The number of pages written.
+     */
+    synchronized long getWriteCount() {
+        return writeCount;
+    }
+
+    /**
+     * @return The number of pages read.
+     */
+    synchronized long getReadCount() {
+        return readCount;
+    }
+
+    /**
+     * Closes and deletes the scratch file.
+     *
+     * @throws IOException if the scratch file cannot be closed
+     */
+    @Override
+    public void close() throws IOException {
+        channel.close();
+    }
+}
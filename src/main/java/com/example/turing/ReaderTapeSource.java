@@ -0,0 +1,38 @@
+package com.example.turing;
+
+import java.io.IOException;
+import java.io.Reader;
+
+/**
+ * Sequential tape source that reads the initial content from a {@link Reader}.
+ */
+class ReaderTapeSource implements TapeSource {
+    /**
+     * The reader.
+     */
+    private final Reader reader;
+
+    /**
+     * Creates a new source.
+     *
+     * @param reader the reader
+     */
+    ReaderTapeSource(Reader reader) {
+        this.reader = reader;
+    }
+
+    @Override
+    public int read(long index, char[] destination, int offset, int count) throws IOException {
+        return reader.read(destination, offset, count);
+    }
+
+    @Override
+    public boolean isSequential() {
+        return true;
+    }
+
+    @Override
+    public long length() {
+        return -1;
+    }
+}
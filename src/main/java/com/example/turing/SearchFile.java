@@ -0,0 +1,276 @@
+package com.example.turing;
+
+import java.io.BufferedInputStream;
+import java.io.Closeable;
+import java.io.IOException;
+import java.io.InputStream;
+import java.nio.ByteBuffer;
+import java.nio.channels.Channels;
+import java.nio.channels.FileChannel;
+import java.nio.charset.StandardCharsets;
+import java.nio.file.Path;
+import java.nio.file.StandardOpenOption;
+import java.util.HashMap;
+import java.util.HashSet;
+import java.util.Map;
+import java.util.Set;
+
+/**
+ * Append-only file of a machine search, which makes the search resumable.
+ * <p>
+ * The file is a text file that starts with a header line describing the search, followed by the record lines of the
+ * parts: an {@code H <seed> <steps> <ones> <machine>} line for each halting machine, a {@code U <seed> <machine>} line
+ * for each machine that reached the step limit, and a {@code D <seed> <machines> <halting> <looping> <undecided>} line
+ * that commits the part. Parts are searched in parallel and append their records in batches while they run, so the
+ * records of different parts are interleaved, and only the records of a part followed by its commit line count. Commit
+ * lines are forced to the device, so after a crash the file holds every committed part, records of parts that were
+ * not committed, and at most a partial line, which is discarded when the file is opened again. An {@code R} line is
+ * then appended, which discards the records of every part that was not committed before it, since these parts are
+ * searched again.
+ */
+class SearchFile implements Closeable {
+    /**
+     * The maximum length of a line, beyond which the rest of the file is discarded.
+     */
+    private static final int MAX_LINE_LENGTH = 1 << 16;
+
+    /**
+     * The file channel.
+     */
+    private final FileChannel channel;
+    /**
+     * The seeds of the committed parts.
+     */
+    private final Set<Integer> committed;
+    /**
+     * The length of the content of the file.
+     */
+    private long length;
+
+    /**
+     * Creates a new search file.
+     *
+     * @param channel   the file channel
+     * @param committed the seeds of the committed parts
+     * @param length    the length of the content of the file
+     */
+    private SearchFile(FileChannel channel, Set<Integer> committed, long length) {
+        this.channel = channel;
+        this.committed = committed;
+        this.length = length;
+    }
+
+    /**
+     * Opens the given search file, creating it if it does not exist, and restores the committed parts into the given
+     * tally. The file is read as a stream, so its size is not limited by the memory.
+     *
+     * @param file   the search file
+     * @param header the header line of the search
+     * @param totals the tally the committed parts are restored into
+     * @return The search file.
+     * @throws IOException if the file cannot be read or written, or belongs to another search
+     */
+    static SearchFile open(Path file, String header, SearchTally totals) throws IOException {
+        FileChannel channel = FileChannel.open(file, StandardOpenOption.CREATE, StandardOpenOption.READ, StandardOpenOption.WRITE);
+
+        try {
+            Set<Integer> committed = new HashSet<>();
+            // not closed, since closing it would close the channel
+            InputStream in = new BufferedInputStream(Channels.newInputStream(channel));
+            StringBuilder line = new StringBuilder();
+
+            // a new file, or one whose header was never completely written
+            if (!readLine(in, line)) {
+                if (!header.startsWith(line.toString())) {
+                    throw new IOException("the search file belongs to another search");
+                }
+
+                SearchFile searchFile = new SearchFile(channel, committed, 0);
+
+                channel.truncate(0);
+                searchFile.append(header + '\n');
+                searchFile.channel.force(false);
+
+                return searchFile;
+            }
+
+            if (!line.toString().equals(header)) {
+                throw new IOException("the search file belongs to another search");
+            }
+
+            SearchFile searchFile = new SearchFile(channel, committed, header.length() + 1);
+
+            if (searchFile.restore(in, totals)) {
+                searchFile.append("R\n");
+            }
+
+            return searchFile;
+        } catch (IOException | RuntimeException e) {
+            channel.close();
+
+            throw e;
+        }
+    }
+
+    /**
+     * Restores the committed parts of this file into the given tally, reading the lines that follow the header from
+     * the given stream, and truncates the file after its last valid line.
+     *
+     * @param in     the stream
+     * @param totals the tally the committed parts are restored into
+     * @return true if and only if the file holds records of parts that were not committed.
+     * @throws IOException if the file cannot be read or written
+     */
+    private boolean restore(InputStream in, SearchTally totals) throws IOException {
+        // the maxima of the parts whose records have been read but that have not been committed yet
+        Map<Integer, SearchTally> pending = new HashMap<>();
+        StringBuilder line = new StringBuilder();
+        long position = length;
+
+        while (readLine(in, line) && restoreLine(line.toString(), pending, totals)) {
+            position += line.length() + 1;
+            length = position;
+        }
+
+        channel.truncate(length);
+
+        return !pending.isEmpty();
+    }
+
+    /**
+     * Restores a line of this file into the given tally.
+     *
+     * @param line    the line, without its line terminator
+     * @param pending the maxima of the parts whose records have been read but that have not been committed yet
+     * @param totals  the tally the committed parts are restored into
+     * @return true if and only if the line is valid.
+     */
+    private boolean restoreLine(String line, Map<Integer, SearchTally> pending, SearchTally totals) {
+        String[] fields = line.split(" ");
+
+        try {
+            if (fields[0].equals("H") && fields.length == 5) {
+                int seed = Integer.parseInt(fields[1]);
+                long steps = Long.parseLong(fields[2]);
+                long ones = Long.parseLong(fields[3]);
+
+                pending.computeIfAbsent(seed, s -> new SearchTally()).restoreHalting(fields[4], steps, ones);
+            } else if (fields[0].equals("U") && fields.length == 3) {
+                pending.computeIfAbsent(Integer.parseInt(fields[1]), s -> new SearchTally());
+            } else if (fields[0].equals("D") && fields.length == 6) {
+                int seed = Integer.parseInt(fields[1]);
+                SearchTally halting = pending.remove(seed);
+
+                totals.restoreCounts(Long.parseLong(fields[2]), Long.parseLong(fields[3]), Long.parseLong(fields[4]), Long.parseLong(fields[5]));
+
+                if (halting != null) {
+                    totals.merge(halting);
+                }
+
+                committed.add(seed);
+            } else if (fields[0].equals("R") && fields.length == 1) {
+                pending.clear();
+            } else {
+                return false;
+            }
+        } catch (NumberFormatException e) {
+            return false;
+        }
+
+        return true;
+    }
+
+    /**
+     * Reads a line from the given stream.
+     *
+     * @param in   the stream
+     * @param line the builder the line is read into, without its line terminator
+     * @return true if and only if a whole line has been read, false at the end of the stream, after a partial line,
+     * or if the line is too long.
+     * @throws IOException if the stream cannot be read
+     */
+    private static boolean readLine(InputStream in, StringBuilder line) throws IOException {
+        line.setLength(0);
+
+        while (line.length() < MAX_LINE_LENGTH) {
+            int b = in.read();
+
+            if (b < 0) {
+                return false;
+            }
+
+            if (b == '\n') {
+                return true;
+            }
+
+            line.append((char) b);
+        }
+
+        return false;
+    }
+
+    /**
+     * Determines if the given part has been committed.
+     *
+     * @param seed the seed of the part
+     * @return true if and only if the part has been committed.
+     */
+    synchronized boolean isCommitted(int seed) {
+        return committed.contains(seed);
+    }
+
+    /**
+     * @return The number of committed parts.
+     */
+    synchronized int getCommittedCount() {
+        return committed.size();
+    }
+
+    /**
+     * Appends a batch of records of parts that are not complete yet. The records are not forced to the device, since
+     * they only count once their part is committed.
+     *
+     * @param records the record lines
+     * @throws IOException if the file cannot be written
+     */
+    synchronized void appendRecords(String records) throws IOException {
+        append(records);
+    }
+
+    /**
+     * Commits the given part, appending its remaining records followed by its commit line, and forces them to the
+     * device.
+     *
+     * @param tally the tally of the part
+     * @throws IOException if the file cannot be written
+     */
+    synchronized void commit(SearchTally tally) throws IOException {
+        append(tally.takeCommit());
+        channel.force(false);
+        committed.add(tally.getSeed());
+    }
+
+    /**
+     * Appends the given lines to the file.
+     *
+     * @param lines the lines
+     * @throws IOException if the file cannot be written
+     */
+    private void append(String lines) throws IOException {
+        ByteBuffer buffer = ByteBuffer.wrap(lines.getBytes(StandardCharsets.US_ASCII));
+
+        while (buffer.hasRemaining()) {
+            length += channel.write(buffer, length);
+        }
+    }
+
+    /**
+     * Closes the file.
+     *
+     * @throws IOException if the file cannot be closed
+     */
+    @Override
+    public void close() throws IOException {
+        channel.close();
+    }
+}
@@ -0,0 +1,266 @@
+package com.example.turing;
+
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.List;
+
+/**
+ * Node of the tree normal form enumeration of a machine space.
+ * <p>
+ * A node is a partially defined machine, together with the configuration its parent stopped in. Running it continues
+ * from that configuration on a blank tape until it halts on an undefined transition, enters a cycle or reaches the step
+ * limit. The children of a node that halted define the transition it halted on in every way that is not symmetric to
+ * another: the next state is a state already used or the first unused one, the written symbol is a symbol already used
+ * or the first unused one, and the very first transition only moves to the right. Since a child behaves exactly like
+ * its parent until it takes that transition, it starts from the configuration its parent stopped in.
+ */
+class SearchNode {
+    /**
+     * The blank symbol.
+     */
+    static final char BLANK = '0';
+
+    /**
+     * The number of states.
+     */
+    private final int stateCount;
+    /**
+     * The number of symbols.
+     */
+    private final int symbolCount;
+    /**
+     * The next state index for each state and symbol index pair ({@link TransitionTable#NO_TRANSITION} if undefined).
+     */
+    private final int[] nextStates;
+    /**
+     * The replacement symbol for each state and symbol index pair.
+     */
+    private final char[] replacements;
+    /**
+     * The head move for each state and symbol index pair.
+     */
+    private final byte[] moves;
+    /**
+     * The number of defined transitions.
+     */
+    private final int definedCount;
+    /**
+     * The number of states used so far.
+     */
+    private final int usedStates;
+    /**
+     * The number of symbols used so far, blank included.
+     */
+    private final int usedSymbols;
+    /**
+     * The tape content of the start configuration.
+     */
+    private final String content;
+    /**
+     * The content offset of the start configuration.
+     */
+    private final int offset;
+    /**
+     * The head position of the start configuration.
+     */
+    private final int head;
+    /**
+     * The state index of the start configuration.
+     */
+    private final int state;
+    /**
+     * The number of steps performed before the start configuration.
+     */
+    private final long steps;
+
+    /**
+     * Creates a new node.
+     *
+     * @param stateCount   the number of states
+     * @param symbolCount  the number of symbols
+     * @param nextStates   the next state index for each state and symbol index pair
+     * @param replacements the replacement symbol for each state and symbol index pair
+     * @param moves        the head move for each state and symbol index pair
+     * @param definedCount the number of defined transitions
+     * @param usedStates   the number of states used so far
+     * @param usedSymbols  the number of symbols used so far, blank included
+     * @param content      the tape content of the start configuration
+     * @param offset       the content offset of the start configuration
+     * @param head         the head position of the start configuration
+     * @param state        the state index of the start configuration
+     * @param steps        the number of steps performed before the start configuration
+     */
+    private SearchNode(int stateCount, int symbolCount, int[] nextStates, char[] replacements, byte[] moves, int definedCount, int usedStates, int usedSymbols, String content, int offset, int head, int state, long steps) {
+        this.stateCount = stateCount;
+        this.symbolCount = symbolCount;
+        this.nextStates = nextStates;
+        this.replacements = replacements;
+        this.moves = moves;
+        this.definedCount = definedCount;
+        this.usedStates = usedStates;
+        this.usedSymbols = usedSymbols;
+        this.content = content;
+        this.offset = offset;
+        this.head = head;
+        this.state = state;
+        this.steps = steps;
+    }
+
+    /**
+     * Creates the root node of a machine space: the machine with no transitions, on a blank tape.
+     *
+     * @param stateCount  the number of states
+     * @param symbolCount the number of symbols
+     * @return The root node.
+     */
+    static SearchNode root(int stateCount, int symbolCount) {
+        int[] nextStates = new int[stateCount * symbolCount];
+
+        Arrays.fill(nextStates, TransitionTable.NO_TRANSITION);
+
+        return new SearchNode(stateCount, symbolCount, nextStates, new char[nextStates.length], new byte[nextStates.length], 0, 1, 1, "", 0, 0, 0, 0);
+    }
+
+    /**
+     * Runs this node and records its outcome in the given tally.
+     *
+     * @param stepLimit the maximum number of steps, counted from the blank tape
+     * @param tally     the tally
+     * @return The children of this node (empty if it does not halt or every other transition is defined).
+     */
+    List<SearchNode> expand(long stepLimit, SearchTally tally) {
+        ExecutionResult result = run(stepLimit);
+
+        tally.addMachine();
+
+        switch (result.getStatus()) {
+            case HALTED:
+                break;
+            case LOOPS_FOREVER:
+                tally.addLooping();
+
+                return new ArrayList<>();
+            default:
+                tally.addUndecided(toString());
+
+                return new ArrayList<>();
+        }
+
+        int haltState = result.getCurrentStateName().charAt(0) - 'A';
+        char symbol = result.getContent(result.getHeadPosition(), result.getHeadPosition() + 1).charAt(0);
+        // shared by every child, so the tape is only formatted once
+        String content = result.getContent();
+        int offset = result.getContentOffset();
+        long ones = countNonBlank(content) + (symbol == BLANK ? 1 : 0);
+
+        // the halting step is counted, and writes a non blank symbol
+        tally.addHalting(toString(), result.getSteps() + 1, ones);
+
+        List<SearchNode> children = new ArrayList<>();
+
+        if (definedCount == nextStates.length - 1) {
+            return children;
+        }
+
+        int transition = haltState * symbolCount + (symbol - BLANK);
+
+        for (int next = 0; next < Math.min(usedStates + 1, stateCount); next++) {
+            for (int write = 0; write < Math.min(usedSymbols + 1, symbolCount); write++) {
+                for (byte move : definedCount == 0 ? new byte[]{TransitionTable.MOVE_RIGHT} : new byte[]{TransitionTable.MOVE_LEFT, TransitionTable.MOVE_RIGHT}) {
+                    int[] childNextStates = nextStates.clone();
+                    char[] childReplacements = replacements.clone();
+                    byte[] childMoves = moves.clone();
+
+                    childNextStates[transition] = next;
+                    childReplacements[transition] = (char) (BLANK + write);
+                    childMoves[transition] = move;
+
+                    children.add(new SearchNode(
+                            stateCount,
+                            symbolCount,
+                            childNextStates,
+                            childReplacements,
+                            childMoves,
+                            definedCount + 1,
+                            Math.max(usedStates, next + 1),
+                            Math.max(usedSymbols, write + 1),
+                            content,
+                            offset,
+                            result.getHeadPosition(),
+                            haltState,
+                            result.getSteps()));
+                }
+            }
+        }
+
+        return children;
+    }
+
+    /**
+     * Runs this node from its start configuration, detecting cycles.
+     *
+     * @param stepLimit the maximum number of steps, counted from the blank tape
+     * @return The execution result.
+     */
+    private ExecutionResult run(long stepLimit) {
+        char[] symbols = new char[symbolCount];
+        String[] names = new String[stateCount];
+
+        for (int i = 0; i < symbolCount; i++) {
+            symbols[i] = (char) (BLANK + i);
+        }
+
+        for (int i = 0; i < stateCount; i++) {
+            names[i] = String.valueOf((char) ('A' + i));
+        }
+
+        TransitionTable table = new TransitionTable(symbols, nextStates, replacements, moves, names, new boolean[stateCount], 0);
+        Execution execution = new Execution(table, new Tape(content, offset, head, BLANK), state, steps, false, null);
+
+        return execution.runDetectingCycles(new ExecutionLimits(Math.max(0, stepLimit - steps), Long.MAX_VALUE, null));
+    }
+
+    /**
+     * Counts the non blank symbols of the given content.
+     *
+     * @param content the content
+     * @return The number of non blank symbols.
+     */
+    private static long countNonBlank(String content) {
+        long count = 0;
+
+        for (int i = 0; i < content.length(); i++) {
+            if (content.charAt(i) != BLANK) {
+                count++;
+            }
+        }
+
+        return count;
+    }
+
+    /**
+     * Formats the transitions of this node in the usual busy beaver notation: for each state, for each symbol, the
+     * written symbol, the move and the next state, or {@code ---} for an undefined transition, with states separated
+     * by underscores.
+     *
+     * @return The transitions of this node.
+     */
+    @Override
+    public String toString() {
+        StringBuilder s = new StringBuilder();
+
+        for (int i = 0; i < nextStates.length; i++) {
+            if (i > 0 && i % symbolCount == 0) {
+                s.append('_');
+            }
+
+            if (nextStates[i] == TransitionTable.NO_TRANSITION) {
+                s.append("---");
+            } else {
+                s.append(replacements[i]).append(moves[i] == TransitionTable.MOVE_LEFT ? 'L' : 'R').append((char) ('A' + nextStates[i]));
+            }
+        }
+
+        return s.toString();
+    }
+}
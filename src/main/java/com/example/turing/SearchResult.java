@@ -0,0 +1,147 @@
+package com.example.turing;
+
+/**
+ * Machine search result.
+ */
+public class SearchResult {
+    /**
+     * The number of machines run.
+     */
+    private final long machineCount;
+    /**
+     * The number of machines that halted.
+     */
+    private final long haltingCount;
+    /**
+     * The number of machines proved to run forever.
+     */
+    private final long loopingCount;
+    /**
+     * The number of machines that reached the step limit.
+     */
+    private final long undecidedCount;
+    /**
+     * The greatest number of steps of a halting machine.
+     */
+    private final long maxSteps;
+    /**
+     * The halting machine with the greatest number of steps (null if no machine halted).
+     */
+    private final String maxStepsMachine;
+    /**
+     * The greatest number of non blank symbols left by a halting machine.
+     */
+    private final long maxOnes;
+    /**
+     * The halting machine that leaves the greatest number of non blank symbols (null if no machine halted).
+     */
+    private final String maxOnesMachine;
+    /**
+     * The number of parts the search was split into.
+     */
+    private final int seedCount;
+    /**
+     * The number of parts committed by earlier runs of the search.
+     */
+    private final int resumedSeedCount;
+
+    /**
+     * Creates a new search result.
+     *
+     * @param machineCount     the number of machines run
+     * @param haltingCount     the number of machines that halted
+     * @param loopingCount     the number of machines proved to run forever
+     * @param undecidedCount   the number of machines that reached the step limit
+     * @param maxSteps         the greatest number of steps of a halting machine
+     * @param maxStepsMachine  the halting machine with the greatest number of steps (null if no machine halted)
+     * @param maxOnes          the greatest number of non blank symbols left by a halting machine
+     * @param maxOnesMachine   the halting machine that leaves the greatest number of non blank symbols (null if no
+     *                         machine halted)
+     * @param seedCount        the number of parts the search was split into
+     * @param resumedSeedCount the number of parts committed by earlier runs of the search
+     */
+    SearchResult(long machineCount, long haltingCount, long loopingCount, long undecidedCount, long maxSteps, String maxStepsMachine, long maxOnes, String maxOnesMachine, int seedCount, int resumedSeedCount) {
+        this.machineCount = machineCount;
+        this.haltingCount = haltingCount;
+        this.loopingCount = loopingCount;
+        this.undecidedCount = undecidedCount;
+        this.maxSteps = maxSteps;
+        this.maxStepsMachine = maxStepsMachine;
+        this.maxOnes = maxOnes;
+        this.maxOnesMachine = maxOnesMachine;
+        this.seedCount = seedCount;
+        this.resumedSeedCount = resumedSeedCount;
+    }
+
+    /**
+     * @return The number of machines run, including the machines run by earlier runs of the search.
+     */
+    public long getMachineCount() {
+        return machineCount;
+    }
+
+    /**
+     * @return The number of machines that halted.
+     */
+    public long getHaltingCount() {
+        return haltingCount;
+    }
+
+    /**
+     * @return The number of machines proved to run forever.
+     */
+    public long getLoopingCount() {
+        return loopingCount;
+    }
+
+    /**
+     * @return The number of machines that reached the step limit.
+     */
+    public long getUndecidedCount() {
+        return undecidedCount;
+    }
+
+    /**
+     * @return The greatest number of steps of a halting machine, the halting step included (0 if no machine halted).
+     */
+    public long getMaxSteps() {
+        return maxSteps;
+    }
+
+    /**
+     * @return The halting machine with the greatest number of steps, in busy beaver notation (null if no machine
+     * halted).
+     */
+    public String getMaxStepsMachine() {
+        return maxStepsMachine;
+    }
+
+    /**
+     * @return The greatest number of non blank symbols left by a halting machine (0 if no machine halted).
+     */
+    public long getMaxOnes() {
+        return maxOnes;
+    }
+
+    /**
+     * @return The halting machine that leaves the greatest number of non blank symbols, in busy beaver notation (null
+     * if no machine halted).
+     */
+    public String getMaxOnesMachine() {
+        return maxOnesMachine;
+    }
+
+    /**
+     * @return The number of parts the search was split into.
+     */
+    public int getSeedCount() {
+        return seedCount;
+    }
+
+    /**
+     * @return The number of parts committed by earlier runs of the search, which were not run again.
+     */
+    public int getResumedSeedCount() {
+        return resumedSeedCount;
+    }
+}
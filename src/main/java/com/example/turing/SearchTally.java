@@ -0,0 +1,236 @@
+package com.example.turing;
+
+/**
+ * Counts and records of a part of a machine search.
+ * <p>
+ * The records of halting and undecided machines are kept as lines of the search file, tagged with the seed of the
+ * part, until they are appended to it. A tally is only used by the task that creates it, and is merged into the tally
+ * of its parent once the task has been joined, so tasks never contend on a tally. Only merging into the tally of the
+ * whole search, which every part is merged into, is synchronized.
+ */
+class SearchTally {
+    /**
+     * The seed of the part.
+     */
+    private final int seed;
+    /**
+     * The number of machines run.
+     */
+    private long machineCount;
+    /**
+     * The number of machines that halted.
+     */
+    private long haltingCount;
+    /**
+     * The number of machines proved to run forever.
+     */
+    private long loopingCount;
+    /**
+     * The number of machines that reached the step limit.
+     */
+    private long undecidedCount;
+    /**
+     * The greatest number of steps of a halting machine.
+     */
+    private long maxSteps;
+    /**
+     * The halting machine with the greatest number of steps (null if no machine halted).
+     */
+    private String maxStepsMachine;
+    /**
+     * The greatest number of non blank symbols left by a halting machine.
+     */
+    private long maxOnes;
+    /**
+     * The halting machine that leaves the greatest number of non blank symbols (null if no machine halted).
+     */
+    private String maxOnesMachine;
+    /**
+     * The records not appended to the search file yet.
+     */
+    private final StringBuilder records;
+
+    /**
+     * Creates a new empty tally that only gathers the counts and maxima of other tallies.
+     */
+    SearchTally() {
+        this(0);
+    }
+
+    /**
+     * Creates a new empty tally of a part.
+     *
+     * @param seed the seed of the part
+     */
+    SearchTally(int seed) {
+        this.seed = seed;
+        this.records = new StringBuilder();
+    }
+
+    /**
+     * @return The seed of the part.
+     */
+    int getSeed() {
+        return seed;
+    }
+
+    /**
+     * Counts a machine run.
+     */
+    void addMachine() {
+        machineCount++;
+    }
+
+    /**
+     * Counts a machine proved to run forever.
+     */
+    void addLooping() {
+        loopingCount++;
+    }
+
+    /**
+     * Records a machine that reached the step limit.
+     *
+     * @param machine the machine
+     */
+    void addUndecided(String machine) {
+        undecidedCount++;
+        records.append("U ").append(seed).append(' ').append(machine).append('\n');
+    }
+
+    /**
+     * Records a halting machine.
+     *
+     * @param machine the machine
+     * @param steps   the number of steps, the halting step included
+     * @param ones    the number of non blank symbols left on the tape
+     */
+    void addHalting(String machine, long steps, long ones) {
+        haltingCount++;
+        records.append("H ").append(seed).append(' ').append(steps).append(' ').append(ones).append(' ').append(machine).append('\n');
+        updateMaxima(machine, steps, ones);
+    }
+
+    /**
+     * Updates the maxima with a halting machine.
+     *
+     * @param machine the machine
+     * @param steps   the number of steps, the halting step included
+     * @param ones    the number of non blank symbols left on the tape
+     */
+    private void updateMaxima(String machine, long steps, long ones) {
+        updateMaxSteps(machine, steps);
+        updateMaxOnes(machine, ones);
+    }
+
+    /**
+     * Updates the greatest number of steps with a halting machine. Ties go to the machine that comes first in
+     * lexicographic order, so the maxima do not depend on the order machines are run in.
+     *
+     * @param machine the machine
+     * @param steps   the number of steps, the halting step included
+     */
+    private void updateMaxSteps(String machine, long steps) {
+        if (maxStepsMachine == null || steps > maxSteps || steps == maxSteps && machine.compareTo(maxStepsMachine) < 0) {
+            maxSteps = steps;
+            maxStepsMachine = machine;
+        }
+    }
+
+    /**
+     * Updates the greatest number of non blank symbols with a halting machine. Ties go to the machine that comes first
+     * in lexicographic order.
+     *
+     * @param machine the machine
+     * @param ones    the number of non blank symbols left on the tape
+     */
+    private void updateMaxOnes(String machine, long ones) {
+        if (maxOnesMachine == null || ones > maxOnes || ones == maxOnes && machine.compareTo(maxOnesMachine) < 0) {
+            maxOnes = ones;
+            maxOnesMachine = machine;
+        }
+    }
+
+    /**
+     * Restores a halting machine read back from a search file, updating the maxima only.
+     *
+     * @param machine the machine
+     * @param steps   the number of steps, the halting step included
+     * @param ones    the number of non blank symbols left on the tape
+     */
+    void restoreHalting(String machine, long steps, long ones) {
+        updateMaxima(machine, steps, ones);
+    }
+
+    /**
+     * Restores the counts of a committed part read back from a search file.
+     *
+     * @param machineCount   the number of machines run
+     * @param haltingCount   the number of machines that halted
+     * @param loopingCount   the number of machines proved to run forever
+     * @param undecidedCount the number of machines that reached the step limit
+     */
+    void restoreCounts(long machineCount, long haltingCount, long loopingCount, long undecidedCount) {
+        this.machineCount += machineCount;
+        this.haltingCount += haltingCount;
+        this.loopingCount += loopingCount;
+        this.undecidedCount += undecidedCount;
+    }
+
+    /**
+     * Adds the counts, maxima and records of the given tally, whose task has been joined, to this one.
+     *
+     * @param other the tally
+     */
+    synchronized void merge(SearchTally other) {
+        restoreCounts(other.machineCount, other.haltingCount, other.loopingCount, other.undecidedCount);
+
+        if (other.maxStepsMachine != null) {
+            updateMaxSteps(other.maxStepsMachine, other.maxSteps);
+            updateMaxOnes(other.maxOnesMachine, other.maxOnes);
+        }
+
+        records.append(other.records);
+    }
+
+    /**
+     * @return The number of characters of the records not appended to the search file yet.
+     */
+    int getRecordLength() {
+        return records.length();
+    }
+
+    /**
+     * Removes the records not appended to the search file yet.
+     *
+     * @return The lines to be appended to the search file.
+     */
+    String takeRecords() {
+        String lines = records.toString();
+
+        records.setLength(0);
+
+        return lines;
+    }
+
+    /**
+     * Removes the records not appended to the search file yet, and formats them followed by the commit line of the
+     * part.
+     *
+     * @return The lines to be appended to the search file.
+     */
+    String takeCommit() {
+        return takeRecords() + "D " + seed + ' ' + machineCount + ' ' + haltingCount + ' ' + loopingCount + ' ' + undecidedCount + '\n';
+    }
+
+    /**
+     * Creates the result of a search from this tally.
+     *
+     * @param seedCount        the number of parts of the search
+     * @param resumedSeedCount the number of parts committed by earlier runs
+     * @return The search result.
+     */
+    synchronized SearchResult toResult(int seedCount, int resumedSeedCount) {
+        return new SearchResult(machineCount, haltingCount, loopingCount, undecidedCount, maxSteps, maxStepsMachine, maxOnes, maxOnesMachine, seedCount, resumedSeedCount);
+    }
+}
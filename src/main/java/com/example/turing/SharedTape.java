@@ -0,0 +1,417 @@
+package com.example.turing;
+
+import java.util.Arrays;
+
+/**
+ * Immutable turing machine tape that shares its segments with the tapes derived from it.
+ * <p>
+ * Segments are the leaves of a persistent radix trie indexed by segment number, with {@link #BRANCH_SIZE} children per
+ * node. Writing a cell returns a new tape that copies the written segment and the nodes on the path from the root to
+ * it, and shares every other node and segment with this tape, so the branches of a nondeterministic exploration only
+ * pay for the segments they change, and a write costs the same however wide the tape is. Each tape keeps a hash of its
+ * content, updated on every write in constant time, so equal tapes are found without comparing their content most of
+ * the time.
+ */
+class SharedTape {
+    /**
+     * The number of bits of a position that select a cell inside its segment.
+     */
+    private static final int SEGMENT_BITS = 6;
+    /**
+     * The number of cells of each segment.
+     */
+    private static final int SEGMENT_SIZE = 1 << SEGMENT_BITS;
+    /**
+     * The mask that selects a cell inside its segment.
+     */
+    private static final int SEGMENT_MASK = SEGMENT_SIZE - 1;
+    /**
+     * The number of bits of a segment index that select a child inside a trie node.
+     */
+    private static final int BRANCH_BITS = 5;
+    /**
+     * The number of children of each trie node.
+     */
+    private static final int BRANCH_SIZE = 1 << BRANCH_BITS;
+    /**
+     * The mask that selects a child inside a trie node.
+     */
+    private static final int BRANCH_MASK = BRANCH_SIZE - 1;
+
+    /**
+     * The root of the trie (null if no segment has been written), whose children are segments if {@link #shift} is 0
+     * and trie nodes otherwise.
+     */
+    private final Object[] root;
+    /**
+     * The number of bits of a segment index below the children of the root, so each child covers 2^shift segments.
+     */
+    private final int shift;
+    /**
+     * The segment number of the first segment covered by the root.
+     */
+    private final long base;
+    /**
+     * Blank character.
+     */
+    private final char blank;
+    /**
+     * The sum of (c - blank) * weight(p) over every cell, where c is the character in position p.
+     */
+    private final long hash;
+
+    /**
+     * Creates a new tape with the given data.
+     *
+     * @param root  the root of the trie
+     * @param shift the number of bits of a segment index below the children of the root
+     * @param base  the segment number of the first segment covered by the root
+     * @param blank the blank character
+     * @param hash  the content hash
+     */
+    private SharedTape(Object[] root, int shift, long base, char blank, long hash) {
+        this.root = root;
+        this.shift = shift;
+        this.base = base;
+        this.blank = blank;
+        this.hash = hash;
+    }
+
+    /**
+     * Creates a new tape with the given initial content.
+     *
+     * @param content the initial content of the tape
+     * @param offset  the initial content offset
+     * @param blank   the blank character
+     * @return The new tape.
+     */
+    static SharedTape of(String content, int offset, char blank) {
+        SharedTape tape = new SharedTape(null, 0, 0, blank, 0);
+        char[] segment = null;
+        long hash = 0;
+
+        for (int i = 0; i < content.length(); i++) {
+            int position = offset + i;
+
+            if (segment != null && (position & SEGMENT_MASK) == 0) {
+                tape = tape.withSegment((position >> SEGMENT_BITS) - 1, segment, hash);
+                segment = null;
+            }
+
+            char c = content.charAt(i);
+
+            if (c != blank) {
+                if (segment == null) {
+                    segment = tape.blankSegment();
+                }
+
+                segment[position & SEGMENT_MASK] = c;
+                hash += (c - blank) * weight(position);
+            }
+        }
+
+        if (segment != null) {
+            tape = tape.withSegment((offset + content.length() - 1) >> SEGMENT_BITS, segment, hash);
+        }
+
+        return tape;
+    }
+
+    /**
+     * Gets the character in the given position.
+     *
+     * @param position the position
+     * @return The character in the given position.
+     */
+    char get(int position) {
+        char[] segment = getSegment(position >> SEGMENT_BITS);
+
+        return segment == null ? blank : segment[position & SEGMENT_MASK];
+    }
+
+    /**
+     * Gets a tape equal to this one, except for the character in the given position.
+     *
+     * @param position the position
+     * @param c        the character to be set
+     * @return The new tape (this tape if the character in the given position is already the given one).
+     */
+    SharedTape with(int position, char c) {
+        char previous = get(position);
+
+        if (previous == c) {
+            return this;
+        }
+
+        int number = position >> SEGMENT_BITS;
+        char[] segment = getSegment(number);
+
+        segment = segment == null ? blankSegment() : segment.clone();
+        segment[position & SEGMENT_MASK] = c;
+
+        return withSegment(number, segment, hash + (c - previous) * weight(position));
+    }
+
+    /**
+     * Gets a tape equal to this one, except for the given segment.
+     *
+     * @param number  the segment number
+     * @param segment the segment
+     * @param hash    the content hash of the new tape
+     * @return The new tape.
+     */
+    private SharedTape withSegment(int number, char[] segment, long hash) {
+        Object[] root = this.root;
+        int shift = this.shift;
+        long base = root == null ? number & ~BRANCH_MASK : this.base;
+
+        // grows the trie around the current root until it covers the segment
+        while (number < base || number - base >= (long) BRANCH_SIZE << shift) {
+            Object[] parent = new Object[BRANCH_SIZE];
+
+            parent[BRANCH_SIZE / 2] = root;
+            base -= (long) (BRANCH_SIZE / 2) << (shift + BRANCH_BITS);
+            shift += BRANCH_BITS;
+            root = parent;
+        }
+
+        return new SharedTape(withSegment(root, shift, number - base, segment), shift, base, blank, hash);
+    }
+
+    /**
+     * Copies the given trie node, and the nodes below it on the path to the given segment, replacing the segment.
+     *
+     * @param node    the trie node (null if no segment below it has been written)
+     * @param shift   the number of bits of a segment index below the children of the node
+     * @param index   the segment index, relative to the first segment covered by the node
+     * @param segment the segment
+     * @return The new trie node.
+     */
+    private static Object[] withSegment(Object[] node, int shift, long index, char[] segment) {
+        Object[] copy = node == null ? new Object[BRANCH_SIZE] : node.clone();
+        int child = (int) (index >>> shift) & BRANCH_MASK;
+
+        copy[child] = shift == 0 ? segment : withSegment((Object[]) copy[child], shift - BRANCH_BITS, index, segment);
+
+        return copy;
+    }
+
+    /**
+     * Computes the hash weight of the given position with the SplitMix64 finalizer, so the weights of nearby positions
+     * look unrelated.
+     *
+     * @param position the position
+     * @return The hash weight of the given position.
+     */
+    private static long weight(int position) {
+        long z = position * 0x9E3779B97F4A7C15L;
+
+        z = (z ^ (z >>> 30)) * 0xBF58476D1CE4E5B9L;
+        z = (z ^ (z >>> 27)) * 0x94D049BB133111EBL;
+
+        return z ^ (z >>> 31);
+    }
+
+    /**
+     * @return The position of the first non blank character (Integer.MAX_VALUE if the tape only contains blank
+     * characters)
+     */
+    int getOffset() {
+        int[] left = {Integer.MAX_VALUE};
+
+        visitSegments(root, shift, base, (number, segment) -> {
+            for (int j = 0; j < SEGMENT_SIZE; j++) {
+                if (segment[j] != blank) {
+                    left[0] = (int) (number << SEGMENT_BITS) + j;
+
+                    return false;
+                }
+            }
+
+            return true;
+        });
+
+        return left[0];
+    }
+
+    /**
+     * @return The content of this tape as a string.
+     */
+    String getContent() {
+        int left = getOffset();
+
+        if (left == Integer.MAX_VALUE) {
+            return "";
+        }
+
+        int[] right = {left};
+
+        visitSegments(root, shift, base, (number, segment) -> {
+            for (int j = SEGMENT_SIZE - 1; j >= 0; j--) {
+                if (segment[j] != blank) {
+                    right[0] = Math.max(right[0], (int) (number << SEGMENT_BITS) + j);
+
+                    break;
+                }
+            }
+
+            return true;
+        });
+
+        StringBuilder s = new StringBuilder(right[0] - left + 1);
+
+        for (int position = left; position <= right[0]; position++) {
+            s.append(get(position));
+        }
+
+        return s.toString();
+    }
+
+    /**
+     * @return The blank character being used.
+     */
+    char getBlank() {
+        return blank;
+    }
+
+    /**
+     * @return The content hash, equal for tapes with equal content.
+     */
+    long getHash() {
+        return hash;
+    }
+
+    /**
+     * Determines if the given tape has the same content as this one.
+     *
+     * @param tape the tape
+     * @return true if and only if both tapes have the same character in every position.
+     */
+    boolean hasSameContent(SharedTape tape) {
+        if (this == tape) {
+            return true;
+        }
+
+        if (hash != tape.hash || blank != tape.blank) {
+            return false;
+        }
+
+        // tapes derived from the same one usually have the same trie shape, and then only differ in unshared nodes
+        if (shift == tape.shift && base == tape.base) {
+            return hasSameContent(root, tape.root, shift);
+        }
+
+        return visitSegments(root, shift, base, (number, segment) -> isSameSegment(segment, tape.getSegment(number)))
+                && visitSegments(tape.root, tape.shift, tape.base, (number, segment) -> isSameSegment(segment, getSegment(number)));
+    }
+
+    /**
+     * Determines if the given trie nodes, covering the same segments, have the same content.
+     *
+     * @param a     a trie node (null if no segment below it has been written)
+     * @param b     another trie node (null if no segment below it has been written)
+     * @param shift the number of bits of a segment index below the children of the nodes
+     * @return true if and only if both nodes have the same character in every position.
+     */
+    private boolean hasSameContent(Object[] a, Object[] b, int shift) {
+        if (a == b) {
+            return true;
+        }
+
+        for (int i = 0; i < BRANCH_SIZE; i++) {
+            Object x = a == null ? null : a[i];
+            Object y = b == null ? null : b[i];
+
+            if (shift == 0 ? !isSameSegment((char[]) x, (char[]) y) : !hasSameContent((Object[]) x, (Object[]) y, shift - BRANCH_BITS)) {
+                return false;
+            }
+        }
+
+        return true;
+    }
+
+    /**
+     * Determines if the given segments have the same content.
+     *
+     * @param a a segment (null if it has never been written)
+     * @param b another segment (null if it has never been written)
+     * @return true if and only if both segments have the same character in every position.
+     */
+    private boolean isSameSegment(char[] a, char[] b) {
+        return a == b || Arrays.equals(a == null ? blankSegment() : a, b == null ? blankSegment() : b);
+    }
+
+    /**
+     * Gets the given segment.
+     *
+     * @param number the segment number
+     * @return The segment (null if it has never been written).
+     */
+    private char[] getSegment(long number) {
+        long index = number - base;
+
+        if (root == null || index < 0 || index >= (long) BRANCH_SIZE << shift) {
+            return null;
+        }
+
+        Object[] node = root;
+
+        for (int s = shift; node != null && s > 0; s -= BRANCH_BITS) {
+            node = (Object[]) node[(int) (index >>> s) & BRANCH_MASK];
+        }
+
+        return node == null ? null : (char[]) node[(int) index & BRANCH_MASK];
+    }
+
+    /**
+     * Visits the written segments below the given trie node, in segment number order, until the visitor stops.
+     *
+     * @param node    the trie node (null if no segment below it has been written)
+     * @param shift   the number of bits of a segment index below the children of the node
+     * @param first   the segment number of the first segment covered by the node
+     * @param visitor the visitor
+     * @return false if the visitor stopped, true otherwise.
+     */
+    private static boolean visitSegments(Object[] node, int shift, long first, SegmentVisitor visitor) {
+        if (node == null) {
+            return true;
+        }
+
+        for (int i = 0; i < BRANCH_SIZE; i++) {
+            long number = first + ((long) i << shift);
+
+            if (node[i] != null && !(shift == 0
+                    ? visitor.visit(number, (char[]) node[i])
+                    : visitSegments((Object[]) node[i], shift - BRANCH_BITS, number, visitor))) {
+                return false;
+            }
+        }
+
+        return true;
+    }
+
+    /**
+     * @return A new segment that only contains blank characters.
+     */
+    private char[] blankSegment() {
+        char[] segment = new char[SEGMENT_SIZE];
+
+        Arrays.fill(segment, blank);
+
+        return segment;
+    }
+
+    /**
+     * Visitor of the written segments of a tape.
+     */
+    private interface SegmentVisitor {
+        /**
+         * Visits a segment.
+         *
+         * @param number  the segment number
+         * @param segment the segment
+         * @return true to keep visiting segments, false to stop.
+         */
+        boolean visit(long number, char[] segment);
+    }
+}
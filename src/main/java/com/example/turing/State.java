@@ -65,4 +65,11 @@ class State {
     Transition getTransition(char symbol) {
         return transitions.get(symbol);
     }
+
+    /**
+     * @return The corresponding transition for each symbol.
+     */
+    Map<Character, Transition> getTransitions() {
+        return transitions;
+    }
 }
@@ -0,0 +1,24 @@
+package com.example.turing;
+
+/**
+ * Observer of single execution steps.
+ * <p>
+ * Observed executions run a separate, slower step loop that notifies the observer after every step, so plain
+ * executions pay nothing for it.
+ */
+interface StepObserver {
+    /**
+     * Notifies that a step has been performed.
+     *
+     * @param transition the transition index
+     * @param position   the position of the cell that was read and written
+     * @param symbol     the symbol that was read
+     * @return true to keep executing, false to stop the execution.
+     */
+    boolean onStep(int transition, int position, char symbol);
+
+    /**
+     * @return The execution status to report when this observer stops an execution.
+     */
+    ExecutionStatus getStopStatus();
+}
@@ -1,24 +1,172 @@
 package com.example.turing;
 
-import java.util.HashMap;
-import java.util.Map;
+import java.io.IOException;
+import java.io.UncheckedIOException;
+import java.io.Writer;
+import java.nio.CharBuffer;
+import java.nio.channels.Channels;
+import java.nio.channels.WritableByteChannel;
+import java.nio.charset.Charset;
+import java.nio.file.Path;
+import java.util.Arrays;
 
 /**
  * Turing machine tape implementation.
+ * <p>
+ * Cells are stored in fixed size {@code char[]} segments, which are allocated on the first write and indexed by
+ * segment number, so the tape grows in both directions and far apart regions stay cheap. Untouched segments share a
+ * single read-only blank segment.
+ * <p>
+ * The initial content may also be loaded lazily from a {@link TapeSource}, a segment at a time, when a segment that
+ * overlaps it is first accessed. The exact content bounds depend on cells that may not have been loaded yet, so
+ * {@link #getOffset()} and {@link #getLast()}, and the methods that return the whole content, load the whole initial
+ * content first. Everything a run needs, such as {@link #getContentLength()} and {@link #isLoaded()}, is answered from
+ * the loaded cells and the extent of the source instead, so the initial content is only read where the head reaches
+ * it.
+ * <p>
+ * A snapshot of a tape shares its segments with the tape instead of copying them: once a snapshot has been taken, the
+ * tape copies a shared segment before writing it, so the snapshot keeps the cells it was taken with and can be read by
+ * another thread while the tape goes on.
+ * <p>
+ * A paged tape keeps at most a given number of segments in memory. When another segment is needed, a resident segment
+ * that has not been entered recently is written to a scratch {@link PageFile} and its array is reused, so the tape is
+ * limited by disk space instead of by the heap. The segment under the head is never evicted, so the head still moves,
+ * reads and writes on a plain array. Each segment has a dirty bit, set when it is written, so a segment that has not
+ * changed since it was last read back is evicted without writing it again. A snapshot of a paged tape keeps the pages
+ * of the evicted segments instead of reading them back, and reads them from the scratch file when its content is read;
+ * the pages that exist when a snapshot is taken are never written again, so a segment written back afterwards gets a
+ * new page.
+ * <p>
+ * The number of non blank cells of each segment is kept in memory, evicted or not, so when the first or last non blank
+ * cell is erased, the search for the next one skips blank segments without reading them, and only reads the segment
+ * it ends in.
+ * <p>
+ * {@link PackedTape} stores cells more compactly for small alphabets, and overrides the head and cell methods of this
+ * class; the content methods only read cells through {@link #getSegmentView(int, int, int, char[])}, {@link
+ * #getOffset()} and {@link #getLast()}, so they serve both representations.
  */
 class Tape {
     /**
-     * Maps a position to a given character.
+     * The number of bits of a position that select a cell inside its segment.
      */
-    private Map<Integer, Character> map;
+    static final int SEGMENT_BITS = 10;
     /**
-     * Head position.
+     * The number of cells of each segment.
      */
-    private int current;
+    static final int SEGMENT_SIZE = 1 << SEGMENT_BITS;
+    /**
+     * The mask that selects a cell inside its segment.
+     */
+    static final int SEGMENT_MASK = SEGMENT_SIZE - 1;
+    /**
+     * The smallest memory limit of a paged tape, which keeps two segments in memory.
+     */
+    static final long MIN_MEMORY_LIMIT = 2 * 2 * SEGMENT_SIZE;
+    /**
+     * The most recently created blank segment, shared by tapes using the same blank character.
+     */
+    private static volatile char[] sharedBlankSegment = new char[SEGMENT_SIZE];
+
+    /**
+     * The segments, indexed by segment number minus {@link #firstSegment} (null for segments never written).
+     */
+    private char[][] segments;
+    /**
+     * The number of non blank cells of each segment, indexed like {@link #segments}.
+     */
+    private int[] nonBlankCounts;
+    /**
+     * The segment number of the first element of {@link #segments}.
+     */
+    private int firstSegment;
+    /**
+     * The shared segment that only contains blank characters.
+     */
+    private final char[] blankSegment;
+    /**
+     * The segment under the head.
+     */
+    private char[] segment;
+    /**
+     * The segment number of the segment under the head.
+     */
+    private int segmentNumber;
+    /**
+     * The head position inside its segment.
+     */
+    private int index;
+    /**
+     * The position of the first non blank character (Integer.MAX_VALUE if the tape only contains blank characters).
+     */
+    private int left;
+    /**
+     * The position of the last non blank character (Integer.MIN_VALUE if the tape only contains blank characters).
+     */
+    private int right;
     /**
      * Blank character.
      */
     private char blank;
+    /**
+     * The source of the initial content (null if the whole initial content has been loaded).
+     */
+    private TapeSource source;
+    /**
+     * The position of the first cell of the initial content loaded from {@link #source}.
+     */
+    private int sourceOffset;
+    /**
+     * The number of cells loaded from a sequential {@link #source}.
+     */
+    private long loaded;
+    /**
+     * The scratch file evicted segments are written to (null if every segment stays in memory).
+     */
+    private final PageFile pages;
+    /**
+     * The scratch file the evicted segments of the tape this snapshot was taken of are read from (null if this tape is
+     * not a snapshot of a paged tape).
+     */
+    private final PageFile evictedPages;
+    /**
+     * The scratch file page of each segment, indexed like {@link #segments} (-1 for segments never evicted).
+     */
+    private int[] pageIndices;
+    /**
+     * The number of scratch file pages when the last snapshot was taken, which are never written again since a
+     * snapshot may read them.
+     */
+    private int frozenPageCount;
+    /**
+     * true for each segment entered since the eviction hand last passed it, indexed like {@link #segments}.
+     */
+    private boolean[] referenced;
+    /**
+     * true for each segment written since it was last written to the scratch file, indexed like {@link #segments}.
+     */
+    private boolean[] dirty;
+    /**
+     * The segment numbers of the resident segments, swept by the eviction hand.
+     */
+    private final int[] resident;
+    /**
+     * The number of resident segments.
+     */
+    private int residentCount;
+    /**
+     * The index in {@link #resident} of the next eviction candidate.
+     */
+    private int hand;
+    /**
+     * true for each segment shared with a snapshot, indexed like {@link #segments} (null if no snapshot has been
+     * taken).
+     */
+    private boolean[] shared;
+    /**
+     * true if and only if the segment under the head has to be copied from a snapshot, or marked dirty, before it is
+     * written.
+     */
+    private boolean segmentGuarded;
 
     /**
      * Creates a new tape and sets its initial content.
@@ -29,38 +177,239 @@ class Tape {
      * @param blank   the blank character
      */
     Tape(String content, int offset, int current, char blank) {
-        this.map = new HashMap<>();
-        this.current = current;
+        this(content, offset, current, blank, null, 0);
+    }
+
+    /**
+     * Creates a new paged tape and sets its initial content.
+     *
+     * @param content      the initial content of this tape
+     * @param offset       the initial content offset
+     * @param current      the head position
+     * @param blank        the blank character
+     * @param pages        the scratch file evicted segments are written to (null if every segment stays in memory)
+     * @param maxResident  the maximum number of segments kept in memory, at least 2 (ignored if there is no scratch
+     *                     file)
+     * @throws UncheckedIOException if the scratch file cannot be written
+     */
+    Tape(String content, int offset, int current, char blank, PageFile pages, int maxResident) throws UncheckedIOException {
         this.blank = blank;
+        this.blankSegment = getBlankSegment(blank);
+        this.left = Integer.MAX_VALUE;
+        this.right = Integer.MIN_VALUE;
+        this.source = null;
+        this.pages = pages;
+        this.evictedPages = null;
+        this.resident = pages == null ? null : new int[maxResident];
+
+        this.firstSegment = current >> SEGMENT_BITS;
+        this.segments = new char[1][];
+        this.nonBlankCounts = new int[1];
+
+        if (pages != null) {
+            this.pageIndices = new int[]{-1};
+            this.referenced = new boolean[1];
+            this.dirty = new boolean[1];
+        }
 
         for (int i = 0; i < content.length(); i++) {
             if (content.charAt(i) != blank) {
-                map.put(offset + i, content.charAt(i));
+                set(offset + i, content.charAt(i));
             }
         }
+
+        moveTo(current);
+    }
+
+    /**
+     * Creates a new blank tape that does not store any cell itself, for subclasses that store cells in another way.
+     *
+     * @param blank the blank character
+     */
+    Tape(char blank) {
+        this.blank = blank;
+        this.blankSegment = getBlankSegment(blank);
+        this.left = Integer.MAX_VALUE;
+        this.right = Integer.MIN_VALUE;
+        this.source = null;
+        this.pages = null;
+        this.evictedPages = null;
+        this.resident = null;
+
+        this.firstSegment = 0;
+        this.segments = new char[1][];
+        this.nonBlankCounts = new int[1];
+        this.segment = blankSegment;
+    }
+
+    /**
+     * Creates a new tape whose initial content is loaded lazily from the given source.
+     *
+     * @param source  the source of the initial content of this tape
+     * @param offset  the initial content offset
+     * @param current the head position
+     * @param blank   the blank character
+     * @throws UncheckedIOException if the source cannot be read
+     */
+    Tape(TapeSource source, int offset, int current, char blank) throws UncheckedIOException {
+        this.blank = blank;
+        this.blankSegment = getBlankSegment(blank);
+        this.left = Integer.MAX_VALUE;
+        this.right = Integer.MIN_VALUE;
+        this.source = source;
+        this.sourceOffset = offset;
+        this.loaded = 0;
+        this.pages = null;
+        this.evictedPages = null;
+        this.resident = null;
+
+        this.firstSegment = current >> SEGMENT_BITS;
+        this.segments = new char[1][];
+        this.nonBlankCounts = new int[1];
+
+        moveTo(current);
+    }
+
+    /**
+     * Creates a snapshot of the given tape, which shares the segments of the tape and the scratch file pages of the
+     * evicted ones.
+     *
+     * @param tape the tape
+     */
+    private Tape(Tape tape) {
+        this.blank = tape.blank;
+        this.blankSegment = tape.blankSegment;
+        this.left = tape.left;
+        this.right = tape.right;
+        this.source = tape.source;
+        this.sourceOffset = tape.sourceOffset;
+        this.loaded = tape.loaded;
+        this.pages = null;
+        this.evictedPages = tape.pages;
+        this.resident = null;
+
+        this.firstSegment = tape.firstSegment;
+        this.segments = tape.segments.clone();
+        this.nonBlankCounts = tape.nonBlankCounts.clone();
+        this.segment = tape.segment;
+        this.segmentNumber = tape.segmentNumber;
+        this.index = tape.index;
+
+        if (tape.pages != null) {
+            this.pageIndices = tape.pageIndices.clone();
+        }
+    }
+
+    /**
+     * Creates a new paged tape whose evicted segments are written to a new scratch file in the given directory.
+     *
+     * @param content     the initial content of this tape
+     * @param offset      the initial content offset
+     * @param current     the head position
+     * @param blank       the blank character
+     * @param directory   the directory of the scratch file
+     * @param memoryLimit the maximum number of bytes of the segments kept in memory, at least {@link
+     *                    #MIN_MEMORY_LIMIT}
+     * @return The new tape.
+     * @throws IOException if the scratch file cannot be created or written
+     */
+    static Tape paged(String content, int offset, int current, char blank, Path directory, long memoryLimit) throws IOException {
+        int maxResident = (int) Math.min(Integer.MAX_VALUE, memoryLimit / (2 * SEGMENT_SIZE));
+        PageFile pages = new PageFile(directory, SEGMENT_SIZE);
+
+        try {
+            return new Tape(content, offset, current, blank, pages, maxResident);
+        } catch (UncheckedIOException e) {
+            pages.close();
+
+            throw e.getCause();
+        }
+    }
+
+    /**
+     * Gets a segment that only contains the given blank character.
+     *
+     * @param blank the blank character
+     * @return A read-only segment that only contains the given blank character.
+     */
+    private static char[] getBlankSegment(char blank) {
+        char[] s = sharedBlankSegment;
+
+        if (s[0] != blank) {
+            s = new char[SEGMENT_SIZE];
+            Arrays.fill(s, blank);
+            sharedBlankSegment = s;
+        }
+
+        return s;
     }
 
     /**
      * Moves the head one position to the left.
      */
     void left() {
-        current--;
+        if (--index < 0) {
+            enterSegment(segmentNumber - 1);
+            index = SEGMENT_MASK;
+        }
     }
 
     /**
      * Moves the head one position to the right.
      */
     void right() {
-        current++;
+        if (++index == SEGMENT_SIZE) {
+            enterSegment(segmentNumber + 1);
+            index = 0;
+        }
+    }
+
+    /**
+     * Moves the head in the given direction for as long as it is on the given character, a segment at a time.
+     *
+     * @param c         the character under the head
+     * @param direction 1 to move to the right, -1 to move to the left
+     * @param max       the maximum number of moves
+     * @return The number of moves.
+     */
+    long sweep(char c, int direction, long max) {
+        long moved = 0;
+
+        while (moved < max && segment[index] == c) {
+            char[] s = segment;
+            int i = index;
+
+            if (direction > 0) {
+                int end = (int) Math.min(SEGMENT_SIZE, i + (max - moved));
+
+                while (i < end && s[i] == c) {
+                    i++;
+                }
+
+                moved += i - index;
+                index = i - 1;
+                right();
+            } else {
+                int end = (int) Math.max(-1, i - (max - moved));
+
+                while (i > end && s[i] == c) {
+                    i--;
+                }
+
+                moved += index - i;
+                index = i + 1;
+                left();
+            }
+        }
+
+        return moved;
     }
 
     /**
      * @return The character in the head position.
      */
     char read() {
-        Character c = map.get(current);
-
-        return c == null ? blank : c;
+        return segment[index];
     }
 
     /**
@@ -69,10 +418,630 @@ class Tape {
      * @param c the character to be set
      */
     void write(char c) {
-        if (c == blank) {
-            map.remove(current);
+        char previous = segment[index];
+
+        if (previous == c) {
+            return;
+        }
+
+        if (segment == blankSegment) {
+            segment = allocate(segmentNumber);
+        } else if (segmentGuarded) {
+            segment = prepareWrite(segmentNumber);
+        }
+
+        segment[index] = c;
+        updateNonBlankCount(segmentNumber, previous, c);
+        updateBounds(getCurrent(), c);
+    }
+
+    /**
+     * Gets the character in the given position.
+     *
+     * @param position the position
+     * @return The character in the given position.
+     */
+    char get(int position) {
+        char[] s = getSegment(position >> SEGMENT_BITS);
+
+        return s == null ? blank : s[position & SEGMENT_MASK];
+    }
+
+    /**
+     * Sets the character in the given position.
+     *
+     * @param position the position
+     * @param c        the character to be set
+     */
+    void set(int position, char c) {
+        int number = position >> SEGMENT_BITS;
+        char[] s = getSegment(number);
+
+        if (s == null) {
+            if (c == blank) {
+                return;
+            }
+
+            s = allocate(number);
+        } else if (isShared(number) || pages != null) {
+            s = prepareWrite(number);
+        }
+
+        char previous = s[position & SEGMENT_MASK];
+
+        s[position & SEGMENT_MASK] = c;
+        updateNonBlankCount(number, previous, c);
+        updateBounds(position, c);
+
+        if (number == segmentNumber) {
+            segment = s;
+        }
+    }
+
+    /**
+     * Updates the number of non blank cells of the given segment after one of its cells has been set.
+     *
+     * @param number   the segment number, of a segment in the segment index
+     * @param previous the character the cell held
+     * @param c        the character that has been set
+     */
+    private void updateNonBlankCount(int number, char previous, char c) {
+        if (previous == blank) {
+            if (c != blank) {
+                nonBlankCounts[number - firstSegment]++;
+            }
+        } else if (c == blank) {
+            nonBlankCounts[number - firstSegment]--;
+        }
+    }
+
+    /**
+     * Updates the non blank character bounds after a character has been set.
+     *
+     * @param position the position of the character that has been set
+     * @param c        the character that has been set
+     */
+    private void updateBounds(int position, char c) {
+        if (c != blank) {
+            if (position < left) {
+                left = position;
+            }
+
+            if (position > right) {
+                right = position;
+            }
+        } else if (left == right && position == left) {
+            left = Integer.MAX_VALUE;
+            right = Integer.MIN_VALUE;
+        } else if (position == left) {
+            left = findNonBlank(position + 1, 1);
+        } else if (position == right) {
+            right = findNonBlank(position - 1, -1);
+        }
+    }
+
+    /**
+     * Finds the nearest non blank character, which is known to exist among the loaded cells. Segments without non
+     * blank cells are skipped without being read, so only the segments that hold non blank cells are read back from
+     * the scratch file.
+     *
+     * @param position  the position to start from
+     * @param direction 1 to search to the right, -1 to search to the left
+     * @return The position of the nearest non blank character.
+     * @throws UncheckedIOException if the scratch file cannot be read or written
+     */
+    private int findNonBlank(int position, int direction) throws UncheckedIOException {
+        while (true) {
+            int number = position >> SEGMENT_BITS;
+            long i = (long) number - firstSegment;
+
+            if (i >= 0 && i < segments.length && nonBlankCounts[(int) i] > 0) {
+                char[] s = getStoredSegment(number);
+                int end = direction > 0 ? SEGMENT_SIZE : -1;
+
+                for (int j = position & SEGMENT_MASK; j != end; j += direction) {
+                    if (s[j] != blank) {
+                        return position & ~SEGMENT_MASK | j;
+                    }
+                }
+            }
+
+            position = direction > 0 ? (position | SEGMENT_MASK) + 1 : (position & ~SEGMENT_MASK) - 1;
+        }
+    }
+
+    /**
+     * Places the head in the given position.
+     *
+     * @param position the position
+     */
+    void moveTo(int position) {
+        enterSegment(position >> SEGMENT_BITS);
+        index = position & SEGMENT_MASK;
+    }
+
+    /**
+     * Makes the given segment the segment under the head.
+     *
+     * @param number the segment number
+     */
+    private void enterSegment(int number) {
+        char[] s = getSegment(number);
+
+        segmentNumber = number;
+        segment = s == null ? blankSegment : s;
+        segmentGuarded = s != null && (isShared(number) || pages != null && !dirty[number - firstSegment]);
+
+        if (pages != null && s != null) {
+            referenced[number - firstSegment] = true;
+        }
+    }
+
+    /**
+     * Gets the given segment.
+     *
+     * @param number the segment number
+     * @return The segment (null if it has never been written).
+     */
+    private char[] getSegment(int number) {
+        char[] s = getStoredSegment(number);
+
+        return s == null && source != null ? load(number) : s;
+    }
+
+    /**
+     * Gets the cells of the given range of the given segment. The returned array must only be read, and only until
+     * this tape is used again.
+     * <p>
+     * Subclasses that do not store cells as characters decode them into the given buffer, which belongs to the caller,
+     * so concurrent readers of a tape that is no longer written never overwrite each other's cells. A snapshot of a
+     * paged tape reads its evicted segments into it too.
+     *
+     * @param number the segment number
+     * @param from   the position of the first cell of the range inside the segment
+     * @param to     the position after the last cell of the range inside the segment
+     * @param buffer an array of {@link #SEGMENT_SIZE} characters the cells may be decoded into
+     * @return An array of the cells of the given segment, which holds at least the cells of the given range.
+     * @throws UncheckedIOException if the source or the scratch file cannot be read
+     */
+    char[] getSegmentView(int number, int from, int to, char[] buffer) throws UncheckedIOException {
+        if (evictedPages != null) {
+            long i = (long) number - firstSegment;
+
+            if (i >= 0 && i < segments.length && segments[(int) i] == null && pageIndices[(int) i] >= 0) {
+                try {
+                    evictedPages.read(pageIndices[(int) i], buffer);
+                } catch (IOException e) {
+                    throw new UncheckedIOException(e);
+                }
+
+                return buffer;
+            }
+        }
+
+        char[] s = getSegment(number);
+
+        return s == null ? blankSegment : s;
+    }
+
+    /**
+     * Gets the given segment, reading it back from the scratch file if it has been evicted, but without loading it
+     * from the source.
+     *
+     * @param number the segment number
+     * @return The segment (null if it has never been written or loaded).
+     * @throws UncheckedIOException if the scratch file cannot be read or written
+     */
+    private char[] getStoredSegment(int number) throws UncheckedIOException {
+        char[] s = getLoadedSegment(number);
+
+        if (s != null || pages == null) {
+            return s;
+        }
+
+        long i = (long) number - firstSegment;
+
+        if (i < 0 || i >= segments.length || pageIndices[(int) i] < 0) {
+            return null;
+        }
+
+        s = makeResident(number);
+
+        try {
+            pages.read(pageIndices[(int) i], s);
+        } catch (IOException e) {
+            throw new UncheckedIOException(e);
+        }
+
+        segments[(int) i] = s;
+        dirty[(int) i] = false;
+
+        if (shared != null) {
+            shared[(int) i] = false;
+        }
+
+        return s;
+    }
+
+    /**
+     * Gets the given segment, without loading it from the source.
+     *
+     * @param number the segment number
+     * @return The segment (null if it has never been written or loaded).
+     */
+    private char[] getLoadedSegment(int number) {
+        long i = (long) number - firstSegment;
+
+        return i < 0 || i >= segments.length ? null : segments[(int) i];
+    }
+
+    /**
+     * Loads the given segment from the source, if it overlaps the initial content.
+     *
+     * @param number the segment number
+     * @return The segment (null if it does not overlap the initial content).
+     * @throws UncheckedIOException if the source cannot be read
+     */
+    private char[] load(int number) throws UncheckedIOException {
+        long first = (long) number << SEGMENT_BITS;
+        long end = first + SEGMENT_SIZE - sourceOffset;
+
+        if (end <= 0) {
+            return null;
+        }
+
+        try {
+            if (source.isSequential()) {
+                while (source != null && loaded < end) {
+                    loadNext();
+                }
+            } else if (source.length() > Math.max(0, first - sourceOffset)) {
+                loadRange(Math.max(0, first - sourceOffset), Math.min(end, source.length()));
+            }
+        } catch (IOException e) {
+            throw new UncheckedIOException(e);
+        }
+
+        return getStoredSegment(number);
+    }
+
+    /**
+     * Loads the next cells from a sequential source, up to the end of the segment they start in.
+     *
+     * @throws IOException if the source cannot be read
+     */
+    private void loadNext() throws IOException {
+        long position = sourceOffset + loaded;
+
+        if (position > Integer.MAX_VALUE) {
+            source = null;
+
+            return;
+        }
+
+        int number = (int) (position >> SEGMENT_BITS);
+        char[] s = getStoredSegment(number);
+
+        if (s == null) {
+            s = allocate(number);
+        } else if (isShared(number)) {
+            s = prepareWrite(number);
+        }
+
+        int i = (int) position & SEGMENT_MASK;
+        int count = source.read(loaded, s, i, SEGMENT_SIZE - i);
+
+        if (count < 0) {
+            source = null;
         } else {
-            map.put(current, c);
+            updateLoadedBounds(s, (int) position, i, count);
+            loaded += count;
+        }
+    }
+
+    /**
+     * Loads the given cells from a random access source, all of which belong to the same segment.
+     *
+     * @param from the index of the first cell in the source
+     * @param to   the index of the last cell in the source plus 1
+     * @throws IOException if the source cannot be read
+     */
+    private void loadRange(long from, long to) throws IOException {
+        int position = (int) (sourceOffset + from);
+        int number = position >> SEGMENT_BITS;
+        char[] s = allocate(number);
+        int i = position & SEGMENT_MASK;
+        int count = 0;
+
+        while (from + count < to) {
+            int n = source.read(from + count, s, i + count, (int) (to - from - count));
+
+            if (n < 0) {
+                break;
+            }
+
+            count += n;
+        }
+
+        updateLoadedBounds(s, position, i, count);
+    }
+
+    /**
+     * Updates the non blank character bounds after some cells have been loaded.
+     *
+     * @param s        the segment the cells have been loaded into
+     * @param position the position of the first loaded cell
+     * @param i        the index of the first loaded cell in its segment
+     * @param count    the number of loaded cells
+     */
+    private void updateLoadedBounds(char[] s, int position, int i, int count) {
+        int nonBlankCount = 0;
+
+        for (int j = 0; j < count; j++) {
+            if (s[i + j] != blank) {
+                left = Math.min(left, position + j);
+                right = Math.max(right, position + j);
+                nonBlankCount++;
+            }
+        }
+
+        // the loaded cells were blank
+        nonBlankCounts[(position >> SEGMENT_BITS) - firstSegment] += nonBlankCount;
+
+        if (segmentNumber == position >> SEGMENT_BITS) {
+            segment = s;
+        }
+    }
+
+    /**
+     * Loads the whole initial content from the source, if it has not been loaded yet.
+     *
+     * @throws UncheckedIOException if the source cannot be read
+     */
+    private void loadAll() throws UncheckedIOException {
+        if (source == null) {
+            return;
+        }
+
+        if (source.isSequential()) {
+            try {
+                while (source != null) {
+                    loadNext();
+                }
+            } catch (IOException e) {
+                throw new UncheckedIOException(e);
+            }
+        } else {
+            long last = sourceOffset + source.length() - 1;
+
+            for (long position = sourceOffset; position <= Math.min(last, Integer.MAX_VALUE); position += SEGMENT_SIZE) {
+                getSegment((int) (position >> SEGMENT_BITS));
+            }
+
+            getSegment((int) (Math.min(last, Integer.MAX_VALUE) >> SEGMENT_BITS));
+            source = null;
+        }
+    }
+
+    /**
+     * Allocates the given segment, growing the segment index if needed.
+     *
+     * @param number the segment number
+     * @return The allocated segment.
+     */
+    private char[] allocate(int number) {
+        if (number < firstSegment) {
+            int shift = Math.max(firstSegment - number, segments.length);
+            char[][] grown = new char[segments.length + shift][];
+
+            int[] grownNonBlankCounts = new int[grown.length];
+
+            System.arraycopy(segments, 0, grown, shift, segments.length);
+            System.arraycopy(nonBlankCounts, 0, grownNonBlankCounts, shift, segments.length);
+            nonBlankCounts = grownNonBlankCounts;
+
+            if (pages != null) {
+                int[] grownPageIndices = new int[grown.length];
+                boolean[] grownReferenced = new boolean[grown.length];
+                boolean[] grownDirty = new boolean[grown.length];
+
+                Arrays.fill(grownPageIndices, 0, shift, -1);
+                System.arraycopy(pageIndices, 0, grownPageIndices, shift, segments.length);
+                System.arraycopy(referenced, 0, grownReferenced, shift, segments.length);
+                System.arraycopy(dirty, 0, grownDirty, shift, segments.length);
+                pageIndices = grownPageIndices;
+                referenced = grownReferenced;
+                dirty = grownDirty;
+            }
+
+            if (shared != null) {
+                boolean[] grownShared = new boolean[grown.length];
+
+                System.arraycopy(shared, 0, grownShared, shift, segments.length);
+                shared = grownShared;
+            }
+
+            segments = grown;
+            firstSegment -= shift;
+        } else if (number - firstSegment >= segments.length) {
+            int length = Math.max(number - firstSegment + 1, 2 * segments.length);
+
+            if (pages != null) {
+                pageIndices = Arrays.copyOf(pageIndices, length);
+                referenced = Arrays.copyOf(referenced, length);
+                dirty = Arrays.copyOf(dirty, length);
+                Arrays.fill(pageIndices, segments.length, length, -1);
+            }
+
+            if (shared != null) {
+                shared = Arrays.copyOf(shared, length);
+            }
+
+            segments = Arrays.copyOf(segments, length);
+            nonBlankCounts = Arrays.copyOf(nonBlankCounts, length);
+        }
+
+        char[] s = pages == null ? new char[SEGMENT_SIZE] : makeResident(number);
+
+        Arrays.fill(s, blank);
+        segments[number - firstSegment] = s;
+        nonBlankCounts[number - firstSegment] = 0;
+
+        if (pages != null) {
+            dirty[number - firstSegment] = true;
+        }
+
+        if (shared != null) {
+            shared[number - firstSegment] = false;
+        }
+
+        return s;
+    }
+
+    /**
+     * Determines if the given segment is shared with a snapshot.
+     *
+     * @param number the segment number, of a segment in the segment index
+     * @return true if and only if the given segment is shared with a snapshot.
+     */
+    private boolean isShared(int number) {
+        return shared != null && shared[number - firstSegment];
+    }
+
+    /**
+     * Prepares the given segment to be written: replaces it with a copy if it is shared with a snapshot, and marks it
+     * dirty if this tape is paged.
+     *
+     * @param number the segment number, of a segment in the segment index
+     * @return The segment to be written.
+     */
+    private char[] prepareWrite(int number) {
+        int i = number - firstSegment;
+        char[] s = segments[i];
+
+        if (isShared(number)) {
+            s = s.clone();
+            segments[i] = s;
+            shared[i] = false;
+        }
+
+        if (pages != null) {
+            dirty[i] = true;
+        }
+
+        if (number == segmentNumber) {
+            segment = s;
+            segmentGuarded = false;
+        }
+
+        return s;
+    }
+
+    /**
+     * Makes room for the given segment among the resident segments, evicting a resident segment if there are too many.
+     * <p>
+     * The eviction hand sweeps the resident segments and evicts the first one that is not under the head and has not
+     * been entered since the hand last passed it, giving the others a second chance.
+     *
+     * @param number the number of the segment to become resident
+     * @return An array for the given segment, which is either new or the array of the evicted segment.
+     * @throws UncheckedIOException if the scratch file cannot be written
+     */
+    private char[] makeResident(int number) throws UncheckedIOException {
+        if (residentCount < resident.length) {
+            resident[residentCount++] = number;
+
+            return new char[SEGMENT_SIZE];
+        }
+
+        while (true) {
+            int victim = resident[hand];
+            int i = victim - firstSegment;
+
+            if (victim != segmentNumber && !referenced[i]) {
+                char[] s = segments[i];
+
+                try {
+                    // a page a snapshot may read is not overwritten
+                    if (pageIndices[i] < 0 || dirty[i] && pageIndices[i] < frozenPageCount) {
+                        pageIndices[i] = pages.allocate();
+                        pages.write(pageIndices[i], s);
+                    } else if (dirty[i]) {
+                        pages.write(pageIndices[i], s);
+                    }
+                } catch (IOException e) {
+                    throw new UncheckedIOException(e);
+                }
+
+                segments[i] = null;
+                resident[hand] = number;
+                hand = (hand + 1) % resident.length;
+
+                // a snapshot still reads the array of a shared segment
+                return shared != null && shared[i] ? new char[SEGMENT_SIZE] : s;
+            }
+
+            referenced[i] = false;
+            hand = (hand + 1) % resident.length;
+        }
+    }
+
+    /**
+     * @return The number of segments written to the scratch file (0 if this tape is not paged).
+     */
+    long getPageWriteCount() {
+        return pages == null ? 0 : pages.getWriteCount();
+    }
+
+    /**
+     * @return The number of segments read back from the scratch file (0 if this tape is not paged).
+     */
+    long getPageReadCount() {
+        return pages == null ? 0 : pages.getReadCount();
+    }
+
+    /**
+     * Takes a snapshot of this tape, which holds the current content of this tape whatever this tape does afterwards.
+     * Only references to the segments, and the scratch file pages of the evicted segments of a paged tape, are copied,
+     * so taking a snapshot takes time proportional to the number of segments, except that a sequential source is loaded
+     * first, since only this tape can read it.
+     * <p>
+     * The snapshot must only be read, and may be read by another thread. The cells of a random access source that
+     * have not been loaded yet, and the evicted segments of a paged tape, are read by the snapshot itself when needed,
+     * so the snapshot of a paged tape must be read before the tape is closed.
+     *
+     * @return The snapshot.
+     * @throws UncheckedIOException if the source or the scratch file cannot be read
+     */
+    Tape snapshot() throws UncheckedIOException {
+        if (source != null && source.isSequential()) {
+            loadAll();
+        }
+
+        Tape snapshot = new Tape(this);
+
+        if (pages != null) {
+            frozenPageCount = pages.getPageCount();
+        }
+
+        if (shared == null || shared.length != segments.length) {
+            shared = new boolean[segments.length];
+        }
+
+        Arrays.fill(shared, true);
+        segmentGuarded = segment != blankSegment;
+
+        return snapshot;
+    }
+
+    /**
+     * Releases the scratch file of this tape, if it has one. The tape must not be used afterwards.
+     *
+     * @throws IOException if the scratch file cannot be closed
+     */
+    void close() throws IOException {
+        if (pages != null) {
+            pages.close();
         }
     }
 
@@ -80,51 +1049,308 @@ class Tape {
      * @return The content of this tape as a string.
      */
     String getContent() {
-        int left = getLeft();
-        int right = getRight();
+        int left = getOffset();
+        int right = getLast();
 
-        StringBuilder s = new StringBuilder();
+        return left > right ? "" : getContent(left, (long) right + 1);
+    }
 
-        for (int i = left; i <= right; i++) {
-            if (map.containsKey(i)) {
-                s.append(map.get(i));
-            } else {
-                s.append(blank);
-            }
+    /**
+     * Gets the content of the given range of this tape, blank characters included.
+     *
+     * @param from the range start (inclusive)
+     * @param to   the range end (exclusive)
+     * @return The content of the given range as a string.
+     * @throws IllegalArgumentException if the range start is greater than the range end
+     * @throws UncheckedIOException     if the source cannot be read
+     */
+    String getContent(int from, int to) throws IllegalArgumentException, UncheckedIOException {
+        validateRange(from, to);
+
+        return getContent((long) from, to);
+    }
+
+    /**
+     * Gets the content of the cells at most the given distance away from the head, blank characters included.
+     *
+     * @param radius the maximum distance from the head
+     * @return The content around the head as a string.
+     * @throws IllegalArgumentException if the radius is negative
+     * @throws UncheckedIOException     if the source cannot be read
+     */
+    String getContentAroundHead(int radius) throws IllegalArgumentException, UncheckedIOException {
+        validateRadius(radius);
+
+        long current = getCurrent();
+
+        return getContent(Math.max(Integer.MIN_VALUE, current - radius), Math.min(Integer.MAX_VALUE, current + radius) + 1);
+    }
+
+    /**
+     * Gets the content of the given range of this tape, blank characters included.
+     *
+     * @param from the range start (inclusive)
+     * @param to   the range end (exclusive)
+     * @return The content of the given range as a string.
+     * @throws UncheckedIOException if the source cannot be read
+     */
+    private String getContent(long from, long to) throws UncheckedIOException {
+        StringBuilder s = new StringBuilder((int) (to - from));
+        char[] buffer = new char[SEGMENT_SIZE];
+
+        for (long position = from; position < to; ) {
+            long end = Math.min(to, (position | SEGMENT_MASK) + 1);
+            int start = (int) position & SEGMENT_MASK;
+            int length = (int) (end - position);
+
+            s.append(getSegmentView((int) (position >> SEGMENT_BITS), start, start + length, buffer), start, length);
+            position = end;
         }
 
         return s.toString();
     }
 
     /**
-     * @return The position of the first non blank character (Integer.MAX_VALUE if the tape only contains blank
-     * characters)
+     * Writes the content of this tape to the given appendable, without building it as a string.
+     *
+     * @param out the appendable
+     * @throws NullPointerException if the appendable is null
+     * @throws IOException          if the appendable cannot be written, or the source or the scratch file cannot be
+     *                              read
      */
-    private int getLeft() {
-        return map.keySet().stream().min(Integer::compare).orElse(Integer.MAX_VALUE);
+    void writeContent(Appendable out) throws NullPointerException, IOException {
+        validateAppendable(out);
+        loadAllChecked();
+
+        int left = getOffset();
+        int right = getLast();
+
+        if (left <= right) {
+            try {
+                writeContent(left, (long) right + 1, out);
+            } catch (UncheckedIOException e) {
+                throw e.getCause();
+            }
+        }
     }
 
     /**
-     * @return The position of the last non blank character (Integer.MIN_VALUE if the tape only contains blank
-     * characters)
+     * Writes the content of the given range of this tape, blank characters included, to the given appendable.
+     *
+     * @param from the range start (inclusive)
+     * @param to   the range end (exclusive)
+     * @param out  the appendable
+     * @throws IllegalArgumentException if the range start is greater than the range end
+     * @throws NullPointerException     if the appendable is null
+     * @throws IOException              if the appendable cannot be written, or the source cannot be read
+     */
+    void writeContent(int from, int to, Appendable out) throws IllegalArgumentException, NullPointerException, IOException {
+        validateRange(from, to);
+        validateAppendable(out);
+
+        try {
+            writeContent((long) from, to, out);
+        } catch (UncheckedIOException e) {
+            throw e.getCause();
+        }
+    }
+
+    /**
+     * Writes the content of this tape to the given channel, encoded with the given charset.
+     *
+     * @param channel the channel
+     * @param charset the charset
+     * @throws NullPointerException if the channel is null
+     * @throws NullPointerException if the charset is null
+     * @throws IOException          if the channel cannot be written, or the source cannot be read
+     */
+    void writeContent(WritableByteChannel channel, Charset charset) throws NullPointerException, IOException {
+        validateChannelArguments(channel, charset);
+
+        // not closed, since closing the writer would close the channel
+        Writer writer = Channels.newWriter(channel, charset.newEncoder(), SEGMENT_SIZE);
+
+        writeContent(writer);
+        writer.flush();
+    }
+
+    /**
+     * Writes the content of the given range of this tape, a segment at a time, to the given appendable.
+     *
+     * @param from the range start (inclusive)
+     * @param to   the range end (exclusive)
+     * @param out  the appendable
+     * @throws IOException          if the appendable cannot be written
+     * @throws UncheckedIOException if the source cannot be read
+     */
+    private void writeContent(long from, long to, Appendable out) throws IOException, UncheckedIOException {
+        char[] buffer = new char[SEGMENT_SIZE];
+
+        for (long position = from; position < to; ) {
+            long end = Math.min(to, (position | SEGMENT_MASK) + 1);
+            int start = (int) position & SEGMENT_MASK;
+            int length = (int) (end - position);
+
+            append(out, getSegmentView((int) (position >> SEGMENT_BITS), start, start + length, buffer), start, length);
+            position = end;
+        }
+    }
+
+    /**
+     * Appends some characters to the given appendable, without copying them if it is a writer or a string builder.
+     *
+     * @param out    the appendable
+     * @param c      the characters
+     * @param offset the index of the first character to be appended
+     * @param length the number of characters to be appended
+     * @throws IOException if the appendable cannot be written
+     */
+    private static void append(Appendable out, char[] c, int offset, int length) throws IOException {
+        if (out instanceof Writer) {
+            ((Writer) out).write(c, offset, length);
+        } else if (out instanceof StringBuilder) {
+            ((StringBuilder) out).append(c, offset, length);
+        } else {
+            out.append(CharBuffer.wrap(c, offset, length));
+        }
+    }
+
+    /**
+     * Loads the whole initial content from the source, reporting read failures as checked exceptions.
+     *
+     * @throws IOException if the source cannot be read
+     */
+    private void loadAllChecked() throws IOException {
+        try {
+            loadAll();
+        } catch (UncheckedIOException e) {
+            throw e.getCause();
+        }
+    }
+
+    /**
+     * Validates a range of positions.
+     *
+     * @param from the range start (inclusive)
+     * @param to   the range end (exclusive)
+     * @throws IllegalArgumentException if the range start is greater than the range end
+     */
+    private static void validateRange(int from, int to) throws IllegalArgumentException {
+        if (from > to) {
+            throw new IllegalArgumentException("the range start is greater than the range end");
+        }
+    }
+
+    /**
+     * Validates a distance from the head.
+     *
+     * @param radius the maximum distance from the head
+     * @throws IllegalArgumentException if the radius is negative
+     */
+    private static void validateRadius(int radius) throws IllegalArgumentException {
+        if (radius < 0) {
+            throw new IllegalArgumentException("the radius is negative");
+        }
+    }
+
+    /**
+     * Validates an appendable to write the content to.
+     *
+     * @param out the appendable
+     * @throws NullPointerException if the appendable is null
+     */
+    private static void validateAppendable(Appendable out) throws NullPointerException {
+        if (out == null) {
+            throw new NullPointerException("the appendable is null");
+        }
+    }
+
+    /**
+     * Validates the {@link #writeContent(WritableByteChannel, Charset)} arguments.
+     *
+     * @param channel the channel
+     * @param charset the charset
+     * @throws NullPointerException if the channel is null
+     * @throws NullPointerException if the charset is null
+     */
+    private static void validateChannelArguments(WritableByteChannel channel, Charset charset) throws NullPointerException {
+        if (channel == null) {
+            throw new NullPointerException("the channel is null");
+        }
+
+        if (charset == null) {
+            throw new NullPointerException("the charset is null");
+        }
+    }
+
+    /**
+     * Gets the length of the content of this tape, without loading any of the initial content. Until the whole
+     * initial content is loaded, the cells of a random access source are all counted, as if none of them were blank,
+     * and the cells of a sequential source not read yet are not counted, since its length is unknown.
+     *
+     * @return The length of the content of this tape, exact once the whole initial content has been loaded.
+     */
+    long getContentLength() {
+        long first;
+        long last;
+
+        if (source == null) {
+            first = getOffset();
+            last = getLast();
+        } else {
+            first = left;
+            last = right;
+
+            if (!source.isSequential() && source.length() > 0) {
+                first = Math.min(first, sourceOffset);
+                last = Math.max(last, Math.min(Integer.MAX_VALUE, sourceOffset + source.length() - 1));
+            }
+        }
+
+        return first > last ? 0 : last - first + 1;
+    }
+
+    /**
+     * @return true if and only if the whole initial content has been loaded, so every cell can be read without reading
+     * the source.
      */
-    private int getRight() {
-        return map.keySet().stream().max(Integer::compare).orElse(Integer.MIN_VALUE);
+    boolean isLoaded() {
+        return source == null;
     }
 
     /**
+     * Gets the position of the first non blank character, loading the whole initial content first if it has not been
+     * loaded yet.
+     *
      * @return The position of the first non blank character (Integer.MAX_VALUE if the tape only contains blank
      * characters)
+     * @throws UncheckedIOException if the source cannot be read
      */
-    int getOffset() {
-        return getLeft();
+    int getOffset() throws UncheckedIOException {
+        loadAll();
+
+        return left;
+    }
+
+    /**
+     * Gets the position of the last non blank character, loading the whole initial content first if it has not been
+     * loaded yet.
+     *
+     * @return The position of the last non blank character (Integer.MIN_VALUE if the tape only contains blank
+     * characters)
+     * @throws UncheckedIOException if the source cannot be read
+     */
+    int getLast() throws UncheckedIOException {
+        loadAll();
+
+        return right;
     }
 
     /**
      * @return The head position.
      */
     int getCurrent() {
-        return current;
+        return (segmentNumber << SEGMENT_BITS) | index;
     }
 
     /**
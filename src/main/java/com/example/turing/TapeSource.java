@@ -0,0 +1,32 @@
+package com.example.turing;
+
+import java.io.IOException;
+
+/**
+ * Source of the initial content of a {@link Tape}, loaded lazily.
+ */
+interface TapeSource {
+    /**
+     * Reads cells of the initial content.
+     *
+     * @param index       the index of the first cell to read in the initial content, which must be the number of cells
+     *                    already read if this source is sequential
+     * @param destination the destination array
+     * @param offset      the index of the first cell in the destination array
+     * @param count       the maximum number of cells to read
+     * @return The number of cells read (-1 if the initial content has no more cells).
+     * @throws IOException if the source cannot be read
+     */
+    int read(long index, char[] destination, int offset, int count) throws IOException;
+
+    /**
+     * @return true if and only if this source can only be read in order.
+     */
+    boolean isSequential();
+
+    /**
+     * @return The number of cells of the initial content (-1 if it is unknown, which is always the case for sequential
+     * sources).
+     */
+    long length();
+}
@@ -0,0 +1,59 @@
+package com.example.turing;
+
+import java.io.IOException;
+import java.io.UncheckedIOException;
+
+/**
+ * Step observer that appends every step to an {@link ExecutionTrace}.
+ */
+class TraceRecorder implements StepObserver {
+    /**
+     * The trace.
+     */
+    private final ExecutionTrace trace;
+    /**
+     * The transition table.
+     */
+    private final TransitionTable table;
+    /**
+     * The observed tape.
+     */
+    private final Tape tape;
+
+    /**
+     * Creates a new recorder.
+     *
+     * @param trace the trace
+     * @param table the transition table
+     * @param tape  the tape
+     */
+    TraceRecorder(ExecutionTrace trace, TransitionTable table, Tape tape) {
+        this.trace = trace;
+        this.table = table;
+        this.tape = tape;
+    }
+
+    @Override
+    public boolean onStep(int transition, int position, char symbol) {
+        try {
+            trace.append(transition);
+
+            if (trace.isKeyframeDue()) {
+                trace.addKeyframe(table.getNextState(transition), tape);
+                trace.updateHeader();
+            }
+        } catch (IOException e) {
+            throw new UncheckedIOException(e);
+        }
+
+        return true;
+    }
+
+    /**
+     * @return null, since this observer never stops an execution.
+     */
+    @Override
+    public ExecutionStatus getStopStatus() {
+        return null;
+    }
+}
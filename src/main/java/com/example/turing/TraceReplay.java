@@ -0,0 +1,201 @@
+package com.example.turing;
+
+/**
+ * Replay of an {@link ExecutionTrace}.
+ * <p>
+ * A replay holds its own copy of the configuration at its current step, where step 0 is the configuration the trace
+ * started from, and moves it forwards or backwards one step at a time. Seeking far away starts from the nearest
+ * keyframe, so it performs fewer steps than the keyframe interval.
+ */
+public class TraceReplay {
+    /**
+     * The replayed trace.
+     */
+    private final ExecutionTrace trace;
+    /**
+     * The transition table.
+     */
+    private final TransitionTable table;
+    /**
+     * The tape.
+     */
+    private Tape tape;
+    /**
+     * The current state index.
+     */
+    private int state;
+    /**
+     * The current step.
+     */
+    private long step;
+
+    /**
+     * Creates a new replay placed on the first configuration of the given trace.
+     *
+     * @param trace the trace
+     */
+    TraceReplay(ExecutionTrace trace) {
+        this.trace = trace;
+        this.table = trace.getTable();
+
+        restore(0);
+    }
+
+    /**
+     * Restores the last keyframe at or before the given step.
+     *
+     * @param target the step
+     */
+    private void restore(long target) {
+        ExecutionTrace.Keyframe keyframe = trace.getKeyframe(target);
+
+        tape = keyframe.newTape(trace.getBlank());
+        state = keyframe.getState();
+        step = target - target % trace.getKeyframeInterval();
+    }
+
+    /**
+     * Moves one step forwards.
+     *
+     * @return true if and only if there was a next step.
+     * @throws IllegalStateException if the trace is closed
+     */
+    public boolean stepForward() throws IllegalStateException {
+        trace.validateOpen();
+
+        if (step >= trace.getStepCount()) {
+            return false;
+        }
+
+        int transition = trace.getTransition(step++);
+
+        tape.write(table.getReplacement(transition));
+        state = table.getNextState(transition);
+
+        switch (table.getMove(transition)) {
+            case TransitionTable.MOVE_LEFT:
+                tape.left();
+                break;
+            case TransitionTable.MOVE_RIGHT:
+                tape.right();
+                break;
+            default:
+                break;
+        }
+
+        return true;
+    }
+
+    /**
+     * Moves one step backwards.
+     *
+     * @return true if and only if there was a previous step.
+     * @throws IllegalStateException if the trace is closed
+     */
+    public boolean stepBackward() throws IllegalStateException {
+        trace.validateOpen();
+
+        if (step == 0) {
+            return false;
+        }
+
+        int transition = trace.getTransition(--step);
+
+        switch (table.getMove(transition)) {
+            case TransitionTable.MOVE_LEFT:
+                tape.right();
+                break;
+            case TransitionTable.MOVE_RIGHT:
+                tape.left();
+                break;
+            default:
+                break;
+        }
+
+        tape.write(table.getReadSymbol(transition));
+        state = table.getSourceState(transition);
+
+        return true;
+    }
+
+    /**
+     * Moves to the given step.
+     *
+     * @param target the step, from 0 to the number of recorded steps
+     * @throws IllegalArgumentException if the step is out of range
+     * @throws IllegalStateException    if the trace is closed
+     */
+    public void seek(long target) throws IllegalArgumentException, IllegalStateException {
+        validateSeekArguments(target);
+
+        if (target < step ? step - target > trace.getKeyframeInterval() : target - step > trace.getKeyframeInterval()) {
+            restore(target);
+        }
+
+        while (step < target) {
+            stepForward();
+        }
+
+        while (step > target) {
+            stepBackward();
+        }
+    }
+
+    /**
+     * Validates the {@link #seek(long)} arguments.
+     *
+     * @param target the step
+     * @throws IllegalArgumentException if the step is out of range
+     * @throws IllegalStateException    if the trace is closed
+     */
+    private void validateSeekArguments(long target) throws IllegalArgumentException, IllegalStateException {
+        trace.validateOpen();
+
+        if (target < 0 || target > trace.getStepCount()) {
+            throw new IllegalArgumentException("the step is out of range");
+        }
+    }
+
+    /**
+     * @return The current step.
+     */
+    public long getStep() {
+        return step;
+    }
+
+    /**
+     * @return true if and only if the current state is a final or accepting state.
+     */
+    public boolean isAccepted() {
+        return table.isAccepting(state);
+    }
+
+    /**
+     * @return The current state name.
+     */
+    public String getCurrentStateName() {
+        return table.getName(state);
+    }
+
+    /**
+     * @return The content of the tape as a string.
+     */
+    public String getContent() {
+        return tape.getContent();
+    }
+
+    /**
+     * @return The position of the first non blank character (Integer.MAX_VALUE if the tape only contains blank
+     * characters)
+     */
+    public int getContentOffset() {
+        return tape.getOffset();
+    }
+
+    /**
+     * @return The head position.
+     */
+    public int getHeadPosition() {
+        return tape.getCurrent();
+    }
+}
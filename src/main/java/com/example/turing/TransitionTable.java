@@ -0,0 +1,445 @@
+package com.example.turing;
+
+import java.nio.ByteBuffer;
+import java.nio.charset.StandardCharsets;
+import java.util.Arrays;
+import java.util.Collection;
+import java.util.HashMap;
+import java.util.Map;
+import java.util.SortedSet;
+import java.util.TreeSet;
+
+/**
+ * Compiled turing machine transition table.
+ * <p>
+ * States and symbols are mapped to dense indices, so the transition for a given state and symbol is found with plain
+ * array accesses instead of map lookups.
+ */
+class TransitionTable {
+    /**
+     * Move value for a head movement to the left.
+     */
+    static final byte MOVE_LEFT = -1;
+    /**
+     * Move value for a computation halt.
+     */
+    static final byte MOVE_HALT = 0;
+    /**
+     * Move value for a head movement to the right.
+     */
+    static final byte MOVE_RIGHT = 1;
+    /**
+     * Next state value for a missing transition.
+     */
+    static final int NO_TRANSITION = -1;
+
+    /**
+     * The number of states.
+     */
+    private final int stateCount;
+    /**
+     * The number of symbols.
+     */
+    private final int symbolCount;
+    /**
+     * The symbol for each symbol index.
+     */
+    private final char[] symbols;
+    /**
+     * The symbol index for each character (-1 for characters not in the alphabet).
+     */
+    private final int[] symbolIndices;
+    /**
+     * The next state index for each state and symbol index pair ({@link #NO_TRANSITION} if there is no transition).
+     */
+    private final int[] nextStates;
+    /**
+     * The replacement symbol for each state and symbol index pair.
+     */
+    private final char[] replacements;
+    /**
+     * The head move for each state and symbol index pair.
+     */
+    private final byte[] moves;
+    /**
+     * The name of each state (null for names not decoded from {@link #nameData} yet).
+     */
+    private final String[] names;
+    /**
+     * The UTF-8 encoded names not decoded yet (null if every name is decoded).
+     */
+    private final ByteBuffer nameData;
+    /**
+     * The offset of each encoded name in {@link #nameData}, followed by the length of the data (null if every name is
+     * decoded).
+     */
+    private final int[] nameOffsets;
+    /**
+     * true for each final or accepting state.
+     */
+    private final boolean[] accepting;
+    /**
+     * The initial state index.
+     */
+    private final int initialState;
+    /**
+     * true for each sweep transition.
+     */
+    private final boolean[] sweeps;
+
+    /**
+     * Creates a new transition table with the given data.
+     *
+     * @param symbols      the symbol for each symbol index
+     * @param nextStates   the next state index for each state and symbol index pair
+     * @param replacements the replacement symbol for each state and symbol index pair
+     * @param moves        the head move for each state and symbol index pair
+     * @param names        the name of each state
+     * @param accepting    true for each final or accepting state
+     * @param initialState the initial state index
+     */
+    TransitionTable(char[] symbols, int[] nextStates, char[] replacements, byte[] moves, String[] names, boolean[] accepting, int initialState) {
+        this(symbols, nextStates, replacements, moves, names, null, null, accepting, initialState);
+    }
+
+    /**
+     * Creates a new transition table with the given data, whose state names are decoded on first use.
+     *
+     * @param symbols      the symbol for each symbol index
+     * @param nextStates   the next state index for each state and symbol index pair
+     * @param replacements the replacement symbol for each state and symbol index pair
+     * @param moves        the head move for each state and symbol index pair
+     * @param nameData     the UTF-8 encoded state names
+     * @param nameOffsets  the offset of each encoded name in the name data, followed by the length of the data
+     * @param accepting    true for each final or accepting state
+     * @param initialState the initial state index
+     */
+    TransitionTable(char[] symbols, int[] nextStates, char[] replacements, byte[] moves, ByteBuffer nameData, int[] nameOffsets, boolean[] accepting, int initialState) {
+        this(symbols, nextStates, replacements, moves, new String[accepting.length], nameData, nameOffsets, accepting, initialState);
+    }
+
+    /**
+     * Creates a new transition table with the given data.
+     *
+     * @param symbols      the symbol for each symbol index
+     * @param nextStates   the next state index for each state and symbol index pair
+     * @param replacements the replacement symbol for each state and symbol index pair
+     * @param moves        the head move for each state and symbol index pair
+     * @param names        the name of each state (null for names to be decoded)
+     * @param nameData     the UTF-8 encoded state names (null if every name is given)
+     * @param nameOffsets  the offset of each encoded name in the name data, followed by the length of the data (null
+     *                     if every name is given)
+     * @param accepting    true for each final or accepting state
+     * @param initialState the initial state index
+     */
+    private TransitionTable(char[] symbols, int[] nextStates, char[] replacements, byte[] moves, String[] names, ByteBuffer nameData, int[] nameOffsets, boolean[] accepting, int initialState) {
+        this.stateCount = names.length;
+        this.symbolCount = symbols.length;
+        this.symbols = symbols;
+        this.symbolIndices = createSymbolIndices(symbols);
+        this.nextStates = nextStates;
+        this.replacements = replacements;
+        this.moves = moves;
+        this.names = names;
+        this.nameData = nameData;
+        this.nameOffsets = nameOffsets;
+        this.accepting = accepting;
+        this.initialState = initialState;
+        this.sweeps = findSweeps();
+    }
+
+    /**
+     * Compiles the given states into a transition table.
+     *
+     * @param states       the states, in index order
+     * @param initialState the initial state
+     * @return The compiled transition table.
+     */
+    static TransitionTable compile(Collection<State> states, State initialState) {
+        Map<State, Integer> stateIndices = new HashMap<>();
+        SortedSet<Character> alphabet = new TreeSet<>();
+
+        for (State state : states) {
+            stateIndices.put(state, stateIndices.size());
+
+            for (Map.Entry<Character, Transition> entry : state.getTransitions().entrySet()) {
+                alphabet.add(entry.getKey());
+                alphabet.add(entry.getValue().getReplacement());
+            }
+        }
+
+        char[] symbols = new char[alphabet.size()];
+        int i = 0;
+
+        for (char symbol : alphabet) {
+            symbols[i++] = symbol;
+        }
+
+        int[] symbolIndices = createSymbolIndices(symbols);
+        int[] nextStates = new int[states.size() * symbols.length];
+        char[] replacements = new char[nextStates.length];
+        byte[] moves = new byte[nextStates.length];
+        String[] names = new String[states.size()];
+        boolean[] accepting = new boolean[states.size()];
+
+        Arrays.fill(nextStates, NO_TRANSITION);
+
+        for (State state : states) {
+            int stateIndex = stateIndices.get(state);
+
+            names[stateIndex] = state.getName();
+            accepting[stateIndex] = state.isAccepting();
+
+            for (Map.Entry<Character, Transition> entry : state.getTransitions().entrySet()) {
+                Transition transition = entry.getValue();
+                int index = stateIndex * symbols.length + symbolIndices[entry.getKey()];
+
+                nextStates[index] = stateIndices.get(transition.getStateTo());
+                replacements[index] = transition.getReplacement();
+                moves[index] = toMove(transition.getAction());
+            }
+        }
+
+        return new TransitionTable(symbols, nextStates, replacements, moves, names, accepting, stateIndices.get(initialState));
+    }
+
+    /**
+     * Computes a fingerprint of this table, which only depends on its content, so equal tables built at different
+     * times or in different processes have the same fingerprint.
+     *
+     * @return The 64-bit FNV-1a hash of the content of this table.
+     */
+    long fingerprint() {
+        long hash = 0xCBF29CE484222325L;
+
+        hash = mix(hash, stateCount);
+        hash = mix(hash, symbolCount);
+        hash = mix(hash, initialState);
+
+        for (char symbol : symbols) {
+            hash = mix(hash, symbol);
+        }
+
+        for (int i = 0; i < nextStates.length; i++) {
+            hash = mix(hash, nextStates[i]);
+            hash = mix(hash, replacements[i]);
+            hash = mix(hash, moves[i]);
+        }
+
+        for (int state = 0; state < stateCount; state++) {
+            String name = getName(state);
+
+            hash = mix(hash, accepting[state] ? 1 : 0);
+            hash = mix(hash, name.length());
+
+            for (int i = 0; i < name.length(); i++) {
+                hash = mix(hash, name.charAt(i));
+            }
+        }
+
+        return hash;
+    }
+
+    /**
+     * Mixes a value into a FNV-1a hash.
+     *
+     * @param hash  the hash
+     * @param value the value
+     * @return The updated hash.
+     */
+    private static long mix(long hash, int value) {
+        for (int i = 0; i < 4; i++) {
+            hash ^= (value >>> (8 * i)) & 0xFF;
+            hash *= 0x100000001B3L;
+        }
+
+        return hash;
+    }
+
+    /**
+     * Finds the sweep transitions: the transitions that keep the state and the symbol under the head and move the
+     * head, so the machine keeps taking them until the head reaches another symbol.
+     *
+     * @return true for each sweep transition.
+     */
+    private boolean[] findSweeps() {
+        boolean[] sweeps = new boolean[nextStates.length];
+
+        for (int i = 0; i < nextStates.length; i++) {
+            sweeps[i] = nextStates[i] == i / symbolCount && replacements[i] == symbols[i % symbolCount] && moves[i] != MOVE_HALT;
+        }
+
+        return sweeps;
+    }
+
+    /**
+     * Maps each character to its symbol index.
+     *
+     * @param symbols the symbol for each symbol index
+     * @return The symbol index for each character, up to the greatest symbol (-1 for characters not in the alphabet).
+     */
+    private static int[] createSymbolIndices(char[] symbols) {
+        int max = -1;
+
+        for (char symbol : symbols) {
+            max = Math.max(max, symbol);
+        }
+
+        int[] symbolIndices = new int[max + 1];
+
+        Arrays.fill(symbolIndices, -1);
+
+        for (int i = 0; i < symbols.length; i++) {
+            symbolIndices[symbols[i]] = i;
+        }
+
+        return symbolIndices;
+    }
+
+    /**
+     * Converts an action to its move value.
+     *
+     * @param action the action
+     * @return The move value.
+     */
+    static byte toMove(Action action) {
+        switch (action) {
+            case LEFT:
+                return MOVE_LEFT;
+            case RIGHT:
+                return MOVE_RIGHT;
+            default:
+                return MOVE_HALT;
+        }
+    }
+
+    /**
+     * Gets the transition index for the given state and symbol.
+     *
+     * @param state  the state index
+     * @param symbol the symbol
+     * @return The transition index (-1 if there is no transition).
+     */
+    int getTransition(int state, char symbol) {
+        if (symbol >= symbolIndices.length) {
+            return -1;
+        }
+
+        int symbolIndex = symbolIndices[symbol];
+
+        if (symbolIndex < 0) {
+            return -1;
+        }
+
+        int index = state * symbolCount + symbolIndex;
+
+        return nextStates[index] == NO_TRANSITION ? -1 : index;
+    }
+
+    /**
+     * @param transition the transition index
+     * @return The next state index of the given transition.
+     */
+    int getNextState(int transition) {
+        return nextStates[transition];
+    }
+
+    /**
+     * @param transition the transition index
+     * @return The replacement symbol of the given transition.
+     */
+    char getReplacement(int transition) {
+        return replacements[transition];
+    }
+
+    /**
+     * @param transition the transition index
+     * @return The head move of the given transition.
+     */
+    byte getMove(int transition) {
+        return moves[transition];
+    }
+
+    /**
+     * @param transition the transition index
+     * @return true if and only if the given transition keeps the state and the symbol under the head and moves the
+     * head.
+     */
+    boolean isSweep(int transition) {
+        return sweeps[transition];
+    }
+
+    /**
+     * @param transition the transition index
+     * @return The state index the given transition starts from.
+     */
+    int getSourceState(int transition) {
+        return transition / symbolCount;
+    }
+
+    /**
+     * @param transition the transition index
+     * @return The symbol the given transition reads.
+     */
+    char getReadSymbol(int transition) {
+        return symbols[transition % symbolCount];
+    }
+
+    /**
+     * @return The number of states.
+     */
+    int getStateCount() {
+        return stateCount;
+    }
+
+    /**
+     * @return The number of symbols.
+     */
+    int getSymbolCount() {
+        return symbolCount;
+    }
+
+    /**
+     * @param symbolIndex the symbol index
+     * @return The symbol with the given index.
+     */
+    char getSymbol(int symbolIndex) {
+        return symbols[symbolIndex];
+    }
+
+    /**
+     * @param state the state index
+     * @return The name of the given state.
+     */
+    String getName(int state) {
+        String name = names[state];
+
+        if (name == null) {
+            // racing threads decode equal strings, so the array needs no synchronization
+            ByteBuffer data = nameData.duplicate();
+            byte[] bytes = new byte[nameOffsets[state + 1] - nameOffsets[state]];
+
+            data.position(nameOffsets[state]);
+            data.get(bytes);
+            name = new String(bytes, StandardCharsets.UTF_8);
+            names[state] = name;
+        }
+
+        return name;
+    }
+
+    /**
+     * @param state the state index
+     * @return true if and only if the given state is a final or accepting state.
+     */
+    boolean isAccepting(int state) {
+        return accepting[state];
+    }
+
+    /**
+     * @return The initial state index.
+     */
+    int getInitialState() {
+        return initialState;
+    }
+}
@@ -1,7 +1,15 @@
 package com.example.turing;
 
-import java.util.HashMap;
+import java.io.IOException;
+import java.nio.channels.WritableByteChannel;
+import java.nio.charset.Charset;
+import java.util.Collection;
+import java.util.LinkedHashMap;
+import java.util.List;
 import java.util.Map;
+import java.util.concurrent.Executor;
+import java.util.function.BiConsumer;
+import java.util.stream.Stream;
 
 /**
  * Turing machine implementation.
@@ -16,22 +24,22 @@ public class TuringMachine {
      */
     private State initialState;
     /**
-     * The current state.
+     * The frozen definition (null if this machine has changed since it was last frozen).
      */
-    private State currentState;
+    private MachineDefinition definition;
     /**
-     * This turing machine tape.
+     * The result of the last execution.
      */
-    private Tape tape;
+    private ExecutionResult result;
 
     /**
      * Creates a new turing machine with no states.
      */
     public TuringMachine() {
-        states = new HashMap<>();
+        states = new LinkedHashMap<>();
         initialState = null;
-        currentState = null;
-        tape = null;
+        definition = null;
+        result = null;
     }
 
     /**
@@ -46,6 +54,7 @@ public class TuringMachine {
         validateAddStateArguments(name);
 
         states.put(name, new State(name, accepting));
+        definition = null;
     }
 
     /**
@@ -87,6 +96,7 @@ public class TuringMachine {
         State stateTo = states.get(stateToName);
 
         stateFrom.addTransition(currentSymbol, new Transition(replacementSymbol, action, stateTo));
+        definition = null;
     }
 
     /**
@@ -140,6 +150,7 @@ public class TuringMachine {
         validateSetInitialStateArguments(name);
 
         initialState = states.get(name);
+        definition = null;
     }
 
     /**
@@ -170,27 +181,150 @@ public class TuringMachine {
      * @throws IllegalStateException if the initial state is not set
      */
     public void execute(String content, int offset, int current, char blank) throws NullPointerException, IllegalStateException {
-        validateExecuteArguments(content);
-        validateState();
+        execute(content, offset, current, blank, ExecutionLimits.NONE);
+    }
+
+    /**
+     * Executes this turing machine for the given input until it halts or any of the given limits is reached.
+     *
+     * @param content the initial content of this turing machine tape
+     * @param offset  the initial content offset
+     * @param current the head position
+     * @param blank   the blank character
+     * @param limits  the execution limits
+     * @return The execution result.
+     * @throws NullPointerException  if the initial content is null
+     * @throws NullPointerException  if the execution limits are null
+     * @throws IllegalStateException if the initial state is not set
+     */
+    public ExecutionResult execute(String content, int offset, int current, char blank, ExecutionLimits limits) throws NullPointerException, IllegalStateException {
+        validateExecuteArguments(content, limits);
+
+        result = freeze().execute(content, offset, current, blank, limits);
 
-        tape = new Tape(content, offset, current, blank);
-        currentState = initialState;
+        return result;
+    }
+
+    /**
+     * Executes this turing machine for each of the given inputs in parallel, using the common fork/join pool.
+     * <p>
+     * The executions are independent of each other and of {@link #execute(String, int, int, char)}, so the getters of
+     * this machine still refer to its last single execution.
+     *
+     * @param contents the initial content of this turing machine tape for each execution
+     * @param offset   the initial content offset
+     * @param current  the head position
+     * @param blank    the blank character
+     * @param limits   the execution limits of each execution
+     * @return The result of each execution, in input order.
+     * @throws NullPointerException  if the initial contents are null
+     * @throws NullPointerException  if any initial content is null
+     * @throws NullPointerException  if the execution limits are null
+     * @throws IllegalStateException if the initial state is not set
+     * @see MachineDefinition#executeAll(Collection, int, int, char, ExecutionLimits)
+     */
+    public List<ExecutionResult> executeAll(Collection<String> contents, int offset, int current, char blank, ExecutionLimits limits) throws NullPointerException, IllegalStateException {
+        return freeze().executeAll(contents, offset, current, blank, limits);
+    }
+
+    /**
+     * Executes this turing machine for each of the given inputs in parallel, using the given executor.
+     * <p>
+     * The executions are independent of each other and of {@link #execute(String, int, int, char)}, so the getters of
+     * this machine still refer to its last single execution.
+     *
+     * @param contents the initial content of this turing machine tape for each execution
+     * @param offset   the initial content offset
+     * @param current  the head position
+     * @param blank    the blank character
+     * @param limits   the execution limits of each execution
+     * @param executor the executor that runs the executions
+     * @return The result of each execution, in input order.
+     * @throws NullPointerException  if the initial contents are null
+     * @throws NullPointerException  if any initial content is null
+     * @throws NullPointerException  if the execution limits are null
+     * @throws NullPointerException  if the executor is null
+     * @throws IllegalStateException if the initial state is not set
+     * @see MachineDefinition#executeAll(Collection, int, int, char, ExecutionLimits, Executor)
+     */
+    public List<ExecutionResult> executeAll(Collection<String> contents, int offset, int current, char blank, ExecutionLimits limits, Executor executor) throws NullPointerException, IllegalStateException {
+        return freeze().executeAll(contents, offset, current, blank, limits, executor);
+    }
 
-        while (performStep()) {
-            // continue...
+    /**
+     * Executes this turing machine for each of the given inputs in parallel, passing each result to the given consumer
+     * as soon as it is available.
+     * <p>
+     * The executions are independent of each other and of {@link #execute(String, int, int, char)}, so the getters of
+     * this machine still refer to its last single execution.
+     *
+     * @param contents the initial content of this turing machine tape for each execution
+     * @param offset   the initial content offset
+     * @param current  the head position
+     * @param blank    the blank character
+     * @param limits   the execution limits of each execution
+     * @param consumer the consumer of each initial content and its execution result
+     * @throws NullPointerException  if the initial contents are null
+     * @throws NullPointerException  if any initial content is null
+     * @throws NullPointerException  if the execution limits are null
+     * @throws NullPointerException  if the consumer is null
+     * @throws IllegalStateException if the initial state is not set
+     * @see MachineDefinition#executeAllUnordered(Stream, int, int, char, ExecutionLimits, BiConsumer)
+     */
+    public void executeAllUnordered(Stream<String> contents, int offset, int current, char blank, ExecutionLimits limits, BiConsumer<String, ExecutionResult> consumer) throws NullPointerException, IllegalStateException {
+        freeze().executeAllUnordered(contents, offset, current, blank, limits, consumer);
+    }
+
+    /**
+     * Freezes the current definition of this machine.
+     * <p>
+     * The returned definition is immutable and safe to share across threads. It is reused until this machine is
+     * modified, and later modifications do not affect it.
+     *
+     * @return The immutable definition of this machine.
+     * @throws IllegalStateException if the initial state is not set
+     */
+    public MachineDefinition freeze() throws IllegalStateException {
+        validateState();
+
+        if (definition == null) {
+            definition = new MachineDefinition(TransitionTable.compile(states.values(), initialState));
         }
+
+        return definition;
     }
 
     /**
-     * Validates the {@link #execute(String, int, int, char)} arguments.
+     * Optimizes the current definition of this machine, without changing this machine.
+     *
+     * @return The optimization result.
+     * @throws IllegalStateException if the initial state is not set
+     * @see MachineDefinition#optimize()
+     */
+    public OptimizationResult optimize() throws IllegalStateException {
+        return freeze().optimize();
+    }
+
+    /**
+     * Validates the {@link #execute(String, int, int, char, ExecutionLimits)} arguments.
      *
      * @param content the initial content of this turing machine tape
+     * @param limits  the execution limits
      * @throws NullPointerException if the initial content is null
+     * @throws NullPointerException if the execution limits are null
      */
-    private void validateExecuteArguments(String content) throws NullPointerException {
+    private void validateExecuteArguments(String content, ExecutionLimits limits) throws NullPointerException {
         if (content == null) {
+            Metrics.getRegistry().executionRejected();
+
             throw new NullPointerException("the initial content is null");
         }
+
+        if (limits == null) {
+            Metrics.getRegistry().executionRejected();
+
+            throw new NullPointerException("the execution limits are null");
+        }
     }
 
     /**
@@ -204,33 +338,6 @@ public class TuringMachine {
         }
     }
 
-    /**
-     * Performs a single execution step.
-     *
-     * @return true if and only if there are still more steps.
-     */
-    private boolean performStep() {
-        Transition transition = currentState.getTransition(tape.read());
-
-        if (transition == null) {
-            return false; // stop
-        }
-
-        tape.write(transition.getReplacement());
-        currentState = transition.getStateTo();
-
-        switch (transition.getAction()) {
-            case LEFT:
-                tape.left();
-                return true; // continue
-            case RIGHT:
-                tape.right();
-                return true; // continue
-            default:
-                return false; // stop
-        }
-    }
-
     /**
      * @return true if and only if the current state is a final or accepting state.
      * @throws IllegalStateException if this machine has not already been executed
@@ -238,7 +345,7 @@ public class TuringMachine {
     public boolean isAccepted() throws IllegalStateException {
         validateExecution();
 
-        return currentState.isAccepting();
+        return result.isAccepted();
     }
 
     /**
@@ -248,7 +355,7 @@ public class TuringMachine {
     public String getCurrentStateName() throws IllegalStateException {
         validateExecution();
 
-        return currentState.getName();
+        return result.getCurrentStateName();
     }
 
     /**
@@ -258,7 +365,85 @@ public class TuringMachine {
     public String getContent() throws IllegalStateException {
         validateExecution();
 
-        return tape.getContent();
+        return result.getContent();
+    }
+
+    /**
+     * Gets the content of the given range of the tape, blank characters included. Only the cells in the range are
+     * read, so this is cheaper than {@link #getContent()} on large tapes.
+     *
+     * @param from the range start (inclusive)
+     * @param to   the range end (exclusive)
+     * @return The content of the given range as a string.
+     * @throws IllegalArgumentException if the range start is greater than the range end
+     * @throws IllegalStateException    if this machine has not already been executed
+     */
+    public String getContent(int from, int to) throws IllegalArgumentException, IllegalStateException {
+        validateExecution();
+
+        return result.getContent(from, to);
+    }
+
+    /**
+     * Gets the content of the cells at most the given distance away from the head, blank characters included.
+     *
+     * @param radius the maximum distance from the head
+     * @return The content around the head as a string.
+     * @throws IllegalArgumentException if the radius is negative
+     * @throws IllegalStateException    if this machine has not already been executed
+     */
+    public String getContentAroundHead(int radius) throws IllegalArgumentException, IllegalStateException {
+        validateExecution();
+
+        return result.getContentAroundHead(radius);
+    }
+
+    /**
+     * Writes the content of the tape to the given appendable (a {@link java.io.Writer}, for instance) without building
+     * it as a string.
+     *
+     * @param out the appendable
+     * @throws NullPointerException  if the appendable is null
+     * @throws IllegalStateException if this machine has not already been executed
+     * @throws IOException           if the appendable cannot be written
+     */
+    public void writeContent(Appendable out) throws NullPointerException, IllegalStateException, IOException {
+        validateExecution();
+
+        result.writeContent(out);
+    }
+
+    /**
+     * Writes the content of the given range of the tape, blank characters included, to the given appendable.
+     *
+     * @param from the range start (inclusive)
+     * @param to   the range end (exclusive)
+     * @param out  the appendable
+     * @throws IllegalArgumentException if the range start is greater than the range end
+     * @throws NullPointerException     if the appendable is null
+     * @throws IllegalStateException    if this machine has not already been executed
+     * @throws IOException              if the appendable cannot be written
+     */
+    public void writeContent(int from, int to, Appendable out) throws IllegalArgumentException, NullPointerException, IllegalStateException, IOException {
+        validateExecution();
+
+        result.writeContent(from, to, out);
+    }
+
+    /**
+     * Writes the content of the tape to the given channel, encoded with the given charset. The channel is not closed.
+     *
+     * @param channel the channel
+     * @param charset the charset
+     * @throws NullPointerException  if the channel is null
+     * @throws NullPointerException  if the charset is null
+     * @throws IllegalStateException if this machine has not already been executed
+     * @throws IOException           if the channel cannot be written
+     */
+    public void writeContent(WritableByteChannel channel, Charset charset) throws NullPointerException, IllegalStateException, IOException {
+        validateExecution();
+
+        result.writeContent(channel, charset);
     }
 
     /**
@@ -269,7 +454,7 @@ public class TuringMachine {
     public int getContentOffset() throws IllegalStateException {
         validateExecution();
 
-        return tape.getOffset();
+        return result.getContentOffset();
     }
 
     /**
@@ -279,7 +464,17 @@ public class TuringMachine {
     public int getHeadPosition() throws IllegalStateException {
         validateExecution();
 
-        return tape.getCurrent();
+        return result.getHeadPosition();
+    }
+
+    /**
+     * @return The number of steps performed by the last execution.
+     * @throws IllegalStateException if this machine has not already been executed
+     */
+    public long getSteps() throws IllegalStateException {
+        validateExecution();
+
+        return result.getSteps();
     }
 
     /**
@@ -289,7 +484,7 @@ public class TuringMachine {
     public char getBlank() throws IllegalStateException {
         validateExecution();
 
-        return tape.getBlank();
+        return result.getBlank();
     }
 
     /**
@@ -298,7 +493,7 @@ public class TuringMachine {
      * @throws IllegalStateException if this machine has not already been executed
      */
     private void validateExecution() throws IllegalStateException {
-        if (currentState == null || tape == null) {
+        if (result == null) {
             throw new IllegalStateException("this machine has not already been executed");
         }
     }
@@ -0,0 +1,225 @@
+package com.example.turing;
+
+import org.junit.Rule;
+import org.junit.Test;
+import org.junit.rules.TemporaryFolder;
+
+import java.io.IOException;
+import java.io.StringReader;
+import java.nio.channels.FileChannel;
+import java.nio.charset.StandardCharsets;
+import java.nio.file.Files;
+import java.nio.file.Path;
+
+import static org.junit.Assert.assertEquals;
+import static org.junit.Assert.assertFalse;
+import static org.junit.Assert.assertTrue;
+import static org.junit.Assert.fail;
+
+/**
+ * Unit tests for Checkpoint and Checkpointer classes.
+ */
+public class CheckpointTest {
+    @Rule
+    public TemporaryFolder folder = new TemporaryFolder();
+
+    @Test
+    public void testCheckpointerWithInvalidInterval() {
+        try {
+            new Checkpointer(folder.getRoot().toPath().resolve("checkpoint"), 0);
+
+            fail();
+        } catch (IllegalArgumentException e) {
+            assertEquals("the checkpoint interval is not positive", e.getMessage());
+        }
+    }
+
+    @Test
+    public void testReadInvalidFile() throws IOException {
+        Path file = folder.newFile().toPath();
+
+        Files.write(file, new byte[]{1, 2, 3, 4, 5});
+
+        try {
+            Checkpoint.read(file);
+
+            fail();
+        } catch (IOException e) {
+            assertEquals("the file is not a checkpoint", e.getMessage());
+        }
+    }
+
+    @Test
+    public void testResumeWithAnotherDefinition() {
+        Checkpoint checkpoint = getBusyBeaverTuringMachine().freeze().newExecution("", 0, 0, '0').checkpoint();
+
+        try {
+            getCounterTuringMachine().freeze().resume(checkpoint);
+
+            fail();
+        } catch (IllegalArgumentException e) {
+            assertEquals("the checkpoint belongs to another machine definition", e.getMessage());
+        }
+    }
+
+    @Test
+    public void testWriteAndRead() throws IOException {
+        Path file = folder.getRoot().toPath().resolve("checkpoint");
+        String content = "aaaaabcc" + new String(new char[1000]).replace('\0', 'x') + "\0\0d";
+        Execution execution = getCounterTuringMachine().freeze().newExecution(content, -3, 7, '\0');
+
+        execution.checkpoint().write(file);
+
+        Checkpoint checkpoint = Checkpoint.read(file);
+
+        assertEquals(content, checkpoint.getContent());
+        assertEquals(-3, checkpoint.getContentOffset());
+        assertEquals(7, checkpoint.getHeadPosition());
+        assertEquals('\0', checkpoint.getBlank());
+        assertEquals(0, checkpoint.getSteps());
+        assertFalse(checkpoint.isHalted());
+        assertTrue(Files.size(file) < 100);
+    }
+
+    @Test
+    public void testResumeMatchesRun() throws IOException {
+        MachineDefinition busyBeaver = getBusyBeaverTuringMachine().freeze();
+        ExecutionResult expected = busyBeaver.execute("", 0, 0, '0');
+        Path file = folder.getRoot().toPath().resolve("checkpoint");
+        Checkpointer checkpointer = new Checkpointer(file, 1000);
+
+        for (int maxSteps = 0; maxSteps <= 107; maxSteps += 10) {
+            ExecutionResult partial = busyBeaver.newExecution("", 0, 0, '0').runCheckpointing(checkpointer, new ExecutionLimits(maxSteps, Long.MAX_VALUE, null));
+            Execution resumed = busyBeaver.resume(Checkpoint.read(file));
+
+            assertEquals(partial.getSteps(), resumed.getSteps());
+
+            ExecutionResult result = resumed.run();
+
+            assertEquals(expected.getSteps(), result.getSteps());
+            assertEquals(expected.getContent(), result.getContent());
+            assertEquals(expected.getContentOffset(), result.getContentOffset());
+            assertEquals(expected.getHeadPosition(), result.getHeadPosition());
+            assertEquals(expected.getCurrentStateName(), result.getCurrentStateName());
+        }
+    }
+
+    @Test
+    public void testPeriodicCheckpoints() throws IOException {
+        MachineDefinition counter = getCounterTuringMachine().freeze();
+        Path file = folder.getRoot().toPath().resolve("checkpoint");
+        Checkpointer checkpointer = new Checkpointer(file, 1);
+        Execution execution = counter.newExecution("", 0, 0, '\0');
+        long deadline = System.currentTimeMillis() + 100;
+
+        ExecutionResult result = execution.runCheckpointing(checkpointer, new ExecutionLimits(Long.MAX_VALUE, deadline, null));
+
+        assertEquals(ExecutionStatus.DEADLINE_EXCEEDED, result.getStatus());
+        assertTrue(checkpointer.getWrittenCount() > 1);
+
+        Execution resumed = counter.resume(Checkpoint.read(file));
+
+        assertEquals(execution.getSteps(), resumed.getSteps());
+        assertEquals(execution.getContent(), resumed.getContent());
+
+        ExecutionLimits limits = new ExecutionLimits(100000, Long.MAX_VALUE, null);
+
+        assertEquals(execution.run(limits).getContent(), resumed.run(limits).getContent());
+    }
+
+    @Test
+    public void testCheckpointIsNotChangedByLaterSteps() throws IOException {
+        MachineDefinition sweeper = getSweeperTuringMachine().freeze();
+        String content = new String(new char[5000]).replace('\0', '0');
+        Path input = folder.newFile().toPath();
+        Execution expected = sweeper.newExecution(content, 0, 0, '\0');
+
+        Files.write(input, content.getBytes(StandardCharsets.ISO_8859_1));
+        expected.run(new ExecutionLimits(7000, Long.MAX_VALUE, null));
+
+        try (FileChannel channel = FileChannel.open(input)) {
+            Execution[] executions = {
+                    sweeper.newExecution(content, 0, 0, '\0'),
+                    sweeper.newPagedExecution(content, 0, 0, '\0', folder.getRoot().toPath(), Tape.MIN_MEMORY_LIMIT),
+                    sweeper.newStreamingExecution(new StringReader(content), 0, 0, '\0'),
+                    sweeper.newMappedExecution(channel, 0, 0, '\0')
+            };
+
+            for (Execution execution : executions) {
+                execution.run(new ExecutionLimits(7000, Long.MAX_VALUE, null));
+
+                Checkpoint checkpoint = execution.checkpoint();
+
+                execution.run(new ExecutionLimits(20000, Long.MAX_VALUE, null));
+
+                Path file = folder.newFile().toPath();
+
+                checkpoint.write(file);
+
+                assertEquals(expected.getContent(), checkpoint.getContent());
+                assertEquals(expected.getContentOffset(), checkpoint.getContentOffset());
+                assertEquals(expected.getHeadPosition(), checkpoint.getHeadPosition());
+                assertEquals(expected.getContent(), Checkpoint.read(file).getContent());
+                assertEquals(expected.getHeadPosition(), Checkpoint.read(file).getHeadPosition());
+                assertFalse(expected.getContent().equals(execution.getContent()));
+            }
+        }
+    }
+
+    private TuringMachine getSweeperTuringMachine() {
+        TuringMachine turingMachine = new TuringMachine();
+
+        turingMachine.addState("R", false);
+        turingMachine.addState("L", false);
+
+        // sweeps back and forth over the input, flipping every cell it passes
+        turingMachine.addTransition("R", '0', '1', Action.RIGHT, "R");
+        turingMachine.addTransition("R", '1', '0', Action.RIGHT, "R");
+        turingMachine.addTransition("R", '\0', '\0', Action.LEFT, "L");
+        turingMachine.addTransition("L", '0', '1', Action.LEFT, "L");
+        turingMachine.addTransition("L", '1', '0', Action.LEFT, "L");
+        turingMachine.addTransition("L", '\0', '\0', Action.RIGHT, "R");
+        turingMachine.setInitialState("R");
+
+        return turingMachine;
+    }
+
+    private TuringMachine getCounterTuringMachine() {
+        TuringMachine turingMachine = new TuringMachine();
+
+        turingMachine.addState("R", false);
+        turingMachine.addState("C", false);
+        turingMachine.addTransition("R", '0', '0', Action.RIGHT, "R");
+        turingMachine.addTransition("R", '1', '1', Action.RIGHT, "R");
+        turingMachine.addTransition("R", '\0', '\0', Action.LEFT, "C");
+        turingMachine.addTransition("C", '1', '0', Action.LEFT, "C");
+        turingMachine.addTransition("C", '0', '1', Action.RIGHT, "R");
+        turingMachine.addTransition("C", '\0', '1', Action.RIGHT, "R");
+        turingMachine.setInitialState("R");
+
+        return turingMachine;
+    }
+
+    private TuringMachine getBusyBeaverTuringMachine() {
+        TuringMachine turingMachine = new TuringMachine();
+
+        turingMachine.addState("A", false);
+        turingMachine.addState("B", false);
+        turingMachine.addState("C", false);
+        turingMachine.addState("D", false);
+        turingMachine.addState("H", true);
+
+        turingMachine.addTransition("A", '0', '1', Action.RIGHT, "B");
+        turingMachine.addTransition("A", '1', '1', Action.LEFT, "B");
+        turingMachine.addTransition("B", '0', '1', Action.LEFT, "A");
+        turingMachine.addTransition("B", '1', '0', Action.LEFT, "C");
+        turingMachine.addTransition("C", '0', '1', Action.HALT, "H");
+        turingMachine.addTransition("C", '1', '1', Action.LEFT, "D");
+        turingMachine.addTransition("D", '0', '1', Action.RIGHT, "D");
+        turingMachine.addTransition("D", '1', '0', Action.RIGHT, "A");
+
+        turingMachine.setInitialState("A");
+
+        return turingMachine;
+    }
+}
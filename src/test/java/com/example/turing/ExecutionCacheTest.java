@@ -0,0 +1,306 @@
+package com.example.turing;
+
+import org.junit.Test;
+
+import java.util.ArrayList;
+import java.util.List;
+import java.util.concurrent.ExecutionException;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+import java.util.concurrent.Future;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.TimeoutException;
+
+import static org.junit.Assert.assertEquals;
+import static org.junit.Assert.assertFalse;
+import static org.junit.Assert.assertNotEquals;
+import static org.junit.Assert.assertSame;
+import static org.junit.Assert.assertTrue;
+import static org.junit.Assert.fail;
+
+/**
+ * Unit tests for ExecutionCache class.
+ */
+public class ExecutionCacheTest {
+    @Test
+    public void testConstructorWithInvalidMaxEntries() {
+        try {
+            new ExecutionCache(0, 1);
+
+            fail();
+        } catch (IllegalArgumentException e) {
+            assertEquals("the maximum number of entries is not positive", e.getMessage());
+        }
+    }
+
+    @Test
+    public void testConstructorWithInvalidMaxWeight() {
+        try {
+            new ExecutionCache(1, 0);
+
+            fail();
+        } catch (IllegalArgumentException e) {
+            assertEquals("the maximum total weight is not positive", e.getMessage());
+        }
+    }
+
+    @Test
+    public void testExecuteWithNullDefinition() {
+        try {
+            new ExecutionCache(1, 1).execute(null, "", 0, 0, '\0', ExecutionLimits.NONE);
+
+            fail();
+        } catch (NullPointerException e) {
+            assertEquals("the machine definition is null", e.getMessage());
+        }
+    }
+
+    @Test
+    public void testFingerprint() {
+        assertEquals(getIncrementTuringMachine().freeze().getFingerprint(), getIncrementTuringMachine().freeze().getFingerprint());
+
+        TuringMachine turingMachine = getIncrementTuringMachine();
+
+        turingMachine.addState("X", false);
+
+        assertNotEquals(getIncrementTuringMachine().freeze().getFingerprint(), turingMachine.freeze().getFingerprint());
+    }
+
+    @Test
+    public void testHitsAndMisses() {
+        ExecutionCache cache = new ExecutionCache(10, 1000);
+        ExecutionResult result = cache.execute(getIncrementTuringMachine().freeze(), "1011", 0, 0, '\0', ExecutionLimits.NONE);
+
+        assertEquals("1100", result.getContent());
+        assertEquals(0, cache.getHitCount());
+        assertEquals(1, cache.getMissCount());
+
+        assertSame(result, cache.execute(getIncrementTuringMachine().freeze(), "1011", 0, 0, '\0', ExecutionLimits.NONE));
+        assertEquals(1, cache.getHitCount());
+        assertEquals(1, cache.getMissCount());
+
+        cache.execute(getIncrementTuringMachine().freeze(), "1011", 1, 1, '\0', ExecutionLimits.NONE);
+
+        assertEquals(2, cache.getMissCount());
+        assertEquals(2, cache.size());
+        assertEquals(16, cache.getWeight());
+    }
+
+    @Test
+    public void testTimingDependentResultsAreNotCached() {
+        ExecutionCache cache = new ExecutionCache(10, 1000);
+        CancellationToken cancellationToken = new CancellationToken();
+
+        cancellationToken.cancel();
+
+        TuringMachine turingMachine = new TuringMachine();
+
+        turingMachine.addState("0", false);
+        turingMachine.addTransition("0", '\0', '\0', Action.RIGHT, "0");
+        turingMachine.setInitialState("0");
+
+        ExecutionLimits limits = new ExecutionLimits(Long.MAX_VALUE, Long.MAX_VALUE, cancellationToken);
+
+        assertEquals(ExecutionStatus.CANCELLED, cache.execute(turingMachine.freeze(), "", 0, 0, '\0', limits).getStatus());
+        assertEquals(0, cache.size());
+    }
+
+    @Test
+    public void testEvictionByEntries() {
+        ExecutionCache cache = new ExecutionCache(2, 1000);
+        MachineDefinition definition = getIncrementTuringMachine().freeze();
+
+        cache.execute(definition, "0", 0, 0, '\0', ExecutionLimits.NONE);
+        cache.execute(definition, "1", 0, 0, '\0', ExecutionLimits.NONE);
+        cache.execute(definition, "0", 0, 0, '\0', ExecutionLimits.NONE);
+        cache.execute(definition, "10", 0, 0, '\0', ExecutionLimits.NONE);
+
+        assertEquals(2, cache.size());
+        assertEquals(1, cache.getEvictionCount());
+
+        cache.execute(definition, "0", 0, 0, '\0', ExecutionLimits.NONE);
+
+        assertEquals(2, cache.getHitCount());
+    }
+
+    @Test
+    public void testEvictionByWeight() {
+        ExecutionCache cache = new ExecutionCache(100, 10);
+        MachineDefinition definition = getIncrementTuringMachine().freeze();
+
+        cache.execute(definition, "100", 0, 0, '\0', ExecutionLimits.NONE);
+        cache.execute(definition, "101", 0, 0, '\0', ExecutionLimits.NONE);
+
+        assertEquals(1, cache.size());
+        assertEquals(6, cache.getWeight());
+        assertEquals(1, cache.getEvictionCount());
+    }
+
+    @Test
+    public void testConcurrentAccess() throws InterruptedException, ExecutionException {
+        final int THREADS = 4;
+        final int MAX = 500;
+
+        ExecutionCache cache = new ExecutionCache(100, 10000);
+        MachineDefinition definition = getIncrementTuringMachine().freeze();
+        ExecutorService executor = Executors.newFixedThreadPool(THREADS);
+
+        try {
+            List<Future<?>> futures = new ArrayList<>();
+
+            for (int t = 0; t < THREADS; t++) {
+                futures.add(executor.submit(() -> {
+                    for (int i = 0; i < 10 * MAX; i++) {
+                        int n = i % MAX;
+
+                        assertEquals(Integer.toBinaryString(n + 1), cache.execute(definition, Integer.toBinaryString(n), 0, 0, '\0', ExecutionLimits.NONE).getContent());
+                    }
+                }));
+            }
+
+            for (Future<?> future : futures) {
+                future.get();
+            }
+        } finally {
+            executor.shutdown();
+        }
+
+        assertEquals(THREADS * 10 * MAX, cache.getHitCount() + cache.getMissCount());
+        assertTrue(cache.size() <= 100);
+    }
+
+    @Test
+    public void testConcurrentContentReads() throws InterruptedException, ExecutionException {
+        final int THREADS = 8;
+
+        StringBuilder input = new StringBuilder();
+
+        for (int i = 0; i < 200000; i++) {
+            input.append(i % 3 == 0 ? '1' : '0');
+        }
+
+        ExecutionCache cache = new ExecutionCache(10, 1000000);
+        MachineDefinition definition = getIncrementTuringMachine().freeze();
+        String expected = cache.execute(definition, input.toString(), 0, 0, '\0', ExecutionLimits.NONE).getContent();
+        ExecutorService executor = Executors.newFixedThreadPool(THREADS);
+
+        try {
+            List<Future<?>> futures = new ArrayList<>();
+
+            for (int t = 0; t < THREADS; t++) {
+                futures.add(executor.submit(() -> {
+                    for (int i = 0; i < 50; i++) {
+                        assertTrue(expected.equals(cache.execute(definition, input.toString(), 0, 0, '\0', ExecutionLimits.NONE).getContent()));
+                    }
+                }));
+            }
+
+            for (Future<?> future : futures) {
+                future.get();
+            }
+        } finally {
+            executor.shutdown();
+        }
+    }
+
+    @Test
+    public void testWaiterKeepsItsOwnDeadline() throws InterruptedException, ExecutionException, TimeoutException {
+        ExecutionCache cache = new ExecutionCache(10, 1000);
+        MachineDefinition definition = getPingPongTuringMachine().freeze();
+        CancellationToken cancellationToken = new CancellationToken();
+        ExecutorService executor = Executors.newSingleThreadExecutor();
+
+        try {
+            Future<ExecutionResult> running = executor.submit(() -> cache.execute(definition, "", 0, 0, '\0', new ExecutionLimits(Long.MAX_VALUE, Long.MAX_VALUE, cancellationToken)));
+
+            awaitMisses(cache, 1);
+
+            ExecutionResult result = cache.execute(definition, "", 0, 0, '\0', new ExecutionLimits(Long.MAX_VALUE, System.currentTimeMillis() + 10, null));
+
+            assertEquals(ExecutionStatus.DEADLINE_EXCEEDED, result.getStatus());
+            assertFalse(running.isDone());
+
+            cancellationToken.cancel();
+
+            assertEquals(ExecutionStatus.CANCELLED, running.get(10, TimeUnit.SECONDS).getStatus());
+        } finally {
+            cancellationToken.cancel();
+            executor.shutdown();
+        }
+    }
+
+    @Test
+    public void testWaiterRunsAgainWhenAnotherRequestCancels() throws InterruptedException, ExecutionException, TimeoutException {
+        ExecutionCache cache = new ExecutionCache(10, 1000);
+        MachineDefinition definition = getPingPongTuringMachine().freeze();
+        CancellationToken first = new CancellationToken();
+        CancellationToken second = new CancellationToken();
+        ExecutorService executor = Executors.newFixedThreadPool(2);
+
+        try {
+            Future<ExecutionResult> cancelled = executor.submit(() -> cache.execute(definition, "", 0, 0, '\0', new ExecutionLimits(Long.MAX_VALUE, Long.MAX_VALUE, first)));
+
+            awaitMisses(cache, 1);
+
+            Future<ExecutionResult> waiting = executor.submit(() -> cache.execute(definition, "", 0, 0, '\0', new ExecutionLimits(Long.MAX_VALUE, Long.MAX_VALUE, second)));
+
+            Thread.sleep(50);
+            first.cancel();
+
+            assertEquals(ExecutionStatus.CANCELLED, cancelled.get(10, TimeUnit.SECONDS).getStatus());
+
+            // the waiting request does not take the cancellation of the other one, and runs on its own
+            awaitMisses(cache, 2);
+            assertFalse(waiting.isDone());
+
+            second.cancel();
+
+            assertEquals(ExecutionStatus.CANCELLED, waiting.get(10, TimeUnit.SECONDS).getStatus());
+            assertEquals(0, cache.getHitCount());
+        } finally {
+            first.cancel();
+            second.cancel();
+            executor.shutdown();
+        }
+    }
+
+    private static void awaitMisses(ExecutionCache cache, long misses) throws InterruptedException {
+        long deadline = System.currentTimeMillis() + 10000;
+
+        while (cache.getMissCount() < misses) {
+            assertTrue(System.currentTimeMillis() < deadline);
+            Thread.sleep(1);
+        }
+    }
+
+    private TuringMachine getPingPongTuringMachine() {
+        TuringMachine turingMachine = new TuringMachine();
+
+        turingMachine.addState("A", false);
+        turingMachine.addState("B", false);
+        turingMachine.addTransition("A", '\0', '\0', Action.RIGHT, "B");
+        turingMachine.addTransition("B", '\0', '\0', Action.LEFT, "A");
+        turingMachine.setInitialState("A");
+
+        return turingMachine;
+    }
+
+    private TuringMachine getIncrementTuringMachine() {
+        TuringMachine turingMachine = new TuringMachine();
+
+        turingMachine.addState("R", false);
+        turingMachine.addState("C", false);
+        turingMachine.addState("H", true);
+
+        turingMachine.addTransition("R", '0', '0', Action.RIGHT, "R");
+        turingMachine.addTransition("R", '1', '1', Action.RIGHT, "R");
+        turingMachine.addTransition("R", '\0', '\0', Action.LEFT, "C");
+        turingMachine.addTransition("C", '1', '0', Action.LEFT, "C");
+        turingMachine.addTransition("C", '0', '1', Action.HALT, "H");
+        turingMachine.addTransition("C", '\0', '1', Action.HALT, "H");
+
+        turingMachine.setInitialState("R");
+
+        return turingMachine;
+    }
+}
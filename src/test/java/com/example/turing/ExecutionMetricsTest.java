@@ -0,0 +1,215 @@
+package com.example.turing;
+
+import org.junit.After;
+import org.junit.Rule;
+import org.junit.Test;
+import org.junit.rules.TemporaryFolder;
+
+import javax.management.MBeanServer;
+import javax.management.MBeanServerFactory;
+import javax.management.ObjectName;
+import java.io.FilterReader;
+import java.io.IOException;
+import java.io.InputStreamReader;
+import java.io.Reader;
+import java.nio.channels.FileChannel;
+import java.nio.charset.StandardCharsets;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.util.Arrays;
+
+import static org.junit.Assert.assertArrayEquals;
+import static org.junit.Assert.assertEquals;
+import static org.junit.Assert.assertSame;
+import static org.junit.Assert.assertTrue;
+import static org.junit.Assert.fail;
+
+/**
+ * Unit tests for ExecutionMetrics class.
+ */
+public class ExecutionMetricsTest {
+    @Rule
+    public TemporaryFolder folder = new TemporaryFolder();
+
+    @After
+    public void tearDown() {
+        Metrics.setRegistry(MetricsRegistry.NONE);
+    }
+
+    @Test
+    public void testSetNullRegistry() {
+        try {
+            Metrics.setRegistry(null);
+
+            fail();
+        } catch (NullPointerException e) {
+            assertEquals("the metrics registry is null", e.getMessage());
+        }
+    }
+
+    @Test
+    public void testDefaultRegistry() {
+        assertSame(MetricsRegistry.NONE, Metrics.getRegistry());
+    }
+
+    @Test
+    public void testCounters() {
+        ExecutionMetrics metrics = new ExecutionMetrics();
+        MachineDefinition definition = getIncrementTuringMachine().freeze();
+
+        Metrics.setRegistry(metrics);
+
+        definition.execute("1011", 0, 0, '\0');
+        definition.execute("111", 0, 0, '\0');
+        definition.execute("1011", 0, 0, '\0', new ExecutionLimits(2, Long.MAX_VALUE, null));
+
+        try {
+            definition.execute(null, 0, 0, '\0');
+
+            fail();
+        } catch (NullPointerException e) {
+            assertEquals(1, metrics.getRejectedCount());
+        }
+
+        assertEquals(3, metrics.getStartedCount());
+        assertEquals(3, metrics.getCompletedCount());
+        assertEquals(2, metrics.getHaltedCount());
+        assertEquals(0, metrics.getActiveCount());
+        assertEquals(8 + 8 + 2, metrics.getTotalSteps());
+        assertEquals(4, metrics.getPeakTapeWidth());
+        assertTrue(metrics.getStepsPerSecond() > 0);
+
+        long[] expected = new long[Histogram.BUCKETS];
+
+        expected[2] = 1;
+        expected[4] = 2;
+
+        assertArrayEquals(expected, metrics.getStepHistogram());
+
+        metrics.reset();
+
+        assertEquals(0, metrics.getStartedCount());
+        assertEquals(0, metrics.getPeakTapeWidth());
+        assertArrayEquals(new long[Histogram.BUCKETS], metrics.getStepHistogram());
+    }
+
+    @Test
+    public void testFailedAndRejectedRuns() {
+        ExecutionMetrics metrics = new ExecutionMetrics();
+        Execution execution = getIncrementTuringMachine().freeze().newExecution("1011", 0, 0, '\0');
+
+        Metrics.setRegistry(metrics);
+
+        try {
+            execution.runUntil(e -> {
+                throw new IllegalStateException("failure");
+            }, ExecutionLimits.NONE);
+
+            fail();
+        } catch (IllegalStateException e) {
+            assertEquals("failure", e.getMessage());
+        }
+
+        assertEquals(1, metrics.getStartedCount());
+        assertEquals(0, metrics.getCompletedCount());
+        assertEquals(1, metrics.getFailedCount());
+        assertEquals(0, metrics.getActiveCount());
+        assertEquals(1, metrics.getTotalSteps());
+
+        try {
+            getIncrementTuringMachine().execute(null, 0, 0, '\0', ExecutionLimits.NONE);
+
+            fail();
+        } catch (NullPointerException e) {
+            assertEquals(1, metrics.getRejectedCount());
+        }
+
+        assertEquals("1100", execution.run().getContent());
+        assertEquals(1, metrics.getCompletedCount());
+        assertEquals(0, metrics.getActiveCount());
+    }
+
+    @Test
+    public void testMeasuringReadsLazily() throws IOException {
+        Path file = folder.newFile().toPath();
+        byte[] content = new byte[1 << 20];
+
+        Arrays.fill(content, (byte) '1');
+        content[0] = '0';
+        Files.write(file, content);
+
+        ExecutionMetrics metrics = new ExecutionMetrics();
+        Reader reader = new InputStreamReader(Files.newInputStream(file), StandardCharsets.ISO_8859_1);
+        int[] read = new int[1];
+
+        Metrics.setRegistry(metrics);
+
+        try (Reader counting = new FilterReader(reader) {
+            @Override
+            public int read(char[] buffer, int offset, int length) throws IOException {
+                int n = super.read(buffer, offset, length);
+
+                read[0] += Math.max(n, 0);
+
+                return n;
+            }
+        }) {
+            getIncrementTuringMachine().freeze().newStreamingExecution(counting, 0, 0, '\0').run(new ExecutionLimits(10, Long.MAX_VALUE, null));
+        }
+
+        try (FileChannel channel = FileChannel.open(file)) {
+            getIncrementTuringMachine().freeze().newMappedExecution(channel, 0, 0, '\0').run(new ExecutionLimits(10, Long.MAX_VALUE, null));
+        }
+
+        assertTrue(read[0] <= 1024);
+        assertEquals(2, metrics.getCompletedCount());
+        assertEquals(content.length, metrics.getPeakTapeWidth());
+    }
+
+    @Test
+    public void testHistogramBuckets() {
+        assertEquals(0, Histogram.bucket(-1));
+        assertEquals(0, Histogram.bucket(0));
+        assertEquals(1, Histogram.bucket(1));
+        assertEquals(2, Histogram.bucket(2));
+        assertEquals(2, Histogram.bucket(3));
+        assertEquals(3, Histogram.bucket(4));
+        assertEquals(Histogram.BUCKETS - 1, Histogram.bucket(Long.MAX_VALUE));
+    }
+
+    @Test
+    public void testMBean() throws Exception {
+        MBeanServer server = MBeanServerFactory.newMBeanServer();
+        ObjectName name = new ObjectName(ExecutionMetrics.OBJECT_NAME);
+        ExecutionMetrics metrics = new ExecutionMetrics();
+
+        metrics.register(server, name);
+        Metrics.setRegistry(metrics);
+
+        getIncrementTuringMachine().freeze().execute("1", 0, 0, '\0');
+
+        assertEquals(1L, server.getAttribute(name, "StartedCount"));
+        assertEquals(1L, server.getAttribute(name, "HaltedCount"));
+        assertEquals(4L, server.getAttribute(name, "TotalSteps"));
+        assertEquals(2L, server.getAttribute(name, "PeakTapeWidth"));
+    }
+
+    private TuringMachine getIncrementTuringMachine() {
+        TuringMachine turingMachine = new TuringMachine();
+
+        turingMachine.addState("R", false);
+        turingMachine.addState("C", false);
+        turingMachine.addState("H", true);
+
+        turingMachine.addTransition("R", '0', '0', Action.RIGHT, "R");
+        turingMachine.addTransition("R", '1', '1', Action.RIGHT, "R");
+        turingMachine.addTransition("R", '\0', '\0', Action.LEFT, "C");
+        turingMachine.addTransition("C", '1', '0', Action.LEFT, "C");
+        turingMachine.addTransition("C", '0', '1', Action.HALT, "H");
+        turingMachine.addTransition("C", '\0', '1', Action.HALT, "H");
+
+        turingMachine.setInitialState("R");
+
+        return turingMachine;
+    }
+}
@@ -0,0 +1,344 @@
+package com.example.turing;
+
+import org.junit.Test;
+
+import java.io.Reader;
+import java.util.ArrayDeque;
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.Collections;
+import java.util.List;
+import java.util.Queue;
+import java.util.concurrent.CompletableFuture;
+import java.util.concurrent.ExecutionException;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+import java.util.concurrent.RejectedExecutionException;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.TimeoutException;
+
+import static org.junit.Assert.assertEquals;
+import static org.junit.Assert.assertFalse;
+import static org.junit.Assert.assertTrue;
+import static org.junit.Assert.fail;
+
+/**
+ * Unit tests for ExecutionScheduler class.
+ */
+public class ExecutionSchedulerTest {
+    @Test
+    public void testConstructorWithInvalidArguments() {
+        try {
+            new ExecutionScheduler(null, 1, 1);
+
+            fail();
+        } catch (NullPointerException e) {
+            assertEquals("the executor is null", e.getMessage());
+        }
+
+        try {
+            new ExecutionScheduler(Runnable::run, 0, 1);
+
+            fail();
+        } catch (IllegalArgumentException e) {
+            assertEquals("the parallelism is not positive", e.getMessage());
+        }
+
+        try {
+            new ExecutionScheduler(0);
+
+            fail();
+        } catch (IllegalArgumentException e) {
+            assertEquals("the quantum is not positive", e.getMessage());
+        }
+    }
+
+    @Test
+    public void testSubmitWithInvalidArguments() {
+        ExecutionScheduler scheduler = new ExecutionScheduler(new ArrayDeque<Runnable>()::add, 1, 1);
+        Execution execution = getIncrementTuringMachine().freeze().newExecution("1011", 0, 0, '\0');
+
+        try {
+            scheduler.submit(null, ExecutionLimits.NONE);
+
+            fail();
+        } catch (NullPointerException e) {
+            assertEquals("the execution is null", e.getMessage());
+        }
+
+        try {
+            scheduler.submit(execution, null, 0, ExecutionLimits.NONE);
+
+            fail();
+        } catch (NullPointerException e) {
+            assertEquals("the tenant is null", e.getMessage());
+        }
+
+        try {
+            scheduler.submit(execution, null);
+
+            fail();
+        } catch (NullPointerException e) {
+            assertEquals("the execution limits are null", e.getMessage());
+        }
+
+        try {
+            scheduler.setTenantQuota("x", 0);
+
+            fail();
+        } catch (IllegalArgumentException e) {
+            assertEquals("the quota is not positive", e.getMessage());
+        }
+
+        scheduler.close();
+
+        try {
+            scheduler.submit(execution, ExecutionLimits.NONE);
+
+            fail();
+        } catch (IllegalStateException e) {
+            assertEquals("the scheduler is closed", e.getMessage());
+        }
+    }
+
+    @Test
+    public void testScheduledResultsMatchExecution() throws InterruptedException, ExecutionException {
+        MachineDefinition definition = getIncrementTuringMachine().freeze();
+        ExecutorService executor = Executors.newFixedThreadPool(4);
+        List<String> contents = new ArrayList<>();
+        List<CompletableFuture<ExecutionResult>> futures = new ArrayList<>();
+
+        try (ExecutionScheduler scheduler = new ExecutionScheduler(executor, 4, 3)) {
+            for (int i = 0; i < 500; i++) {
+                String content = Integer.toBinaryString(i);
+
+                contents.add(content);
+                futures.add(scheduler.submit(definition.newExecution(content, 0, 0, '\0'), "t" + i % 7, i % 3, ExecutionLimits.NONE));
+            }
+
+            for (int i = 0; i < contents.size(); i++) {
+                ExecutionResult expected = definition.execute(contents.get(i), 0, 0, '\0');
+                ExecutionResult actual = futures.get(i).get();
+
+                assertEquals(ExecutionStatus.HALTED, actual.getStatus());
+                assertEquals(expected.getSteps(), actual.getSteps());
+                assertEquals(expected.getContent(), actual.getContent());
+                assertEquals(expected.getHeadPosition(), actual.getHeadPosition());
+            }
+
+            assertEquals(0, scheduler.getQueuedCount());
+        } finally {
+            executor.shutdown();
+        }
+    }
+
+    @Test
+    public void testStepLimitAppliesToWholeRun() throws InterruptedException, ExecutionException {
+        Queue<Runnable> tasks = new ArrayDeque<>();
+        ExecutionScheduler scheduler = new ExecutionScheduler(tasks::add, 1, 3);
+        Execution execution = getIncrementTuringMachine().freeze().newExecution("1011", 0, 0, '\0');
+        CompletableFuture<ExecutionResult> future = scheduler.submit(execution, new ExecutionLimits(7, Long.MAX_VALUE, null));
+
+        tasks.poll().run();
+
+        assertEquals(ExecutionStatus.STEP_LIMIT_REACHED, future.get().getStatus());
+        assertEquals(7, future.get().getSteps());
+        assertEquals(0, scheduler.getWorkerCount());
+    }
+
+    @Test
+    public void testPrioritiesAndTenants() {
+        Queue<Runnable> tasks = new ArrayDeque<>();
+        ExecutionScheduler scheduler = new ExecutionScheduler(tasks::add, 1, 5);
+        MachineDefinition definition = getIncrementTuringMachine().freeze();
+        List<String> completed = Collections.synchronizedList(new ArrayList<>());
+
+        // every execution takes 8 steps, so two quanta
+        scheduler.submit(definition.newExecution("1011", 0, 0, '\0'), "x", 0, ExecutionLimits.NONE).thenRun(() -> completed.add("x1"));
+        scheduler.submit(definition.newExecution("1011", 0, 0, '\0'), "x", 0, ExecutionLimits.NONE).thenRun(() -> completed.add("x2"));
+        scheduler.submit(definition.newExecution("1011", 0, 0, '\0'), "y", 0, ExecutionLimits.NONE).thenRun(() -> completed.add("y1"));
+        scheduler.submit(definition.newExecution("1011", 0, 0, '\0'), "z", 1, ExecutionLimits.NONE).thenRun(() -> completed.add("z1"));
+
+        assertEquals(1, tasks.size());
+        assertEquals(4, scheduler.getQueuedCount());
+
+        tasks.poll().run();
+
+        assertEquals(Arrays.asList("z1", "y1", "x1", "x2"), completed);
+    }
+
+    @Test
+    public void testShortExecutionDoesNotWaitForLongExecution() throws InterruptedException, ExecutionException, TimeoutException {
+        ExecutorService executor = Executors.newSingleThreadExecutor();
+
+        try (ExecutionScheduler scheduler = new ExecutionScheduler(executor, 1, 1000)) {
+            Execution loop = getLoopTuringMachine().freeze().newExecution("", 0, 0, '\0');
+            CompletableFuture<ExecutionResult> longFuture = scheduler.submit(loop, ExecutionLimits.NONE);
+            CompletableFuture<ExecutionResult> shortFuture = scheduler.submit(getIncrementTuringMachine().freeze().newExecution("1011", 0, 0, '\0'), ExecutionLimits.NONE);
+
+            assertEquals(8, shortFuture.get(10, TimeUnit.SECONDS).getSteps());
+            assertFalse(longFuture.isDone());
+
+            longFuture.cancel(false);
+        } finally {
+            executor.shutdown();
+            assertTrue(executor.awaitTermination(10, TimeUnit.SECONDS));
+        }
+    }
+
+    @Test
+    public void testCloseCancelsQueuedExecutions() {
+        Queue<Runnable> tasks = new ArrayDeque<>();
+        ExecutionScheduler scheduler = new ExecutionScheduler(tasks::add, 1, 1);
+        CompletableFuture<ExecutionResult> future = scheduler.submit(getIncrementTuringMachine().freeze().newExecution("1011", 0, 0, '\0'), ExecutionLimits.NONE);
+
+        scheduler.close();
+
+        assertTrue(future.isCancelled());
+        assertEquals(0, scheduler.getQueuedCount());
+
+        tasks.poll().run();
+
+        assertEquals(0, scheduler.getWorkerCount());
+    }
+
+    @Test
+    public void testCancelRemovesQueuedExecution() {
+        Queue<Runnable> tasks = new ArrayDeque<>();
+        ExecutionScheduler scheduler = new ExecutionScheduler(tasks::add, 1, 1);
+        MachineDefinition increment = getIncrementTuringMachine().freeze();
+        CompletableFuture<ExecutionResult> first = scheduler.submit(increment.newExecution("1011", 0, 0, '\0'), ExecutionLimits.NONE);
+        CompletableFuture<ExecutionResult> second = scheduler.submit(increment.newExecution("1011", 0, 0, '\0'), "other", 1, ExecutionLimits.NONE);
+
+        assertEquals(2, scheduler.getQueuedCount());
+
+        second.cancel(false);
+
+        assertEquals(1, scheduler.getQueuedCount());
+
+        tasks.poll().run();
+
+        assertEquals("1100", first.join().getContent());
+        assertEquals(0, scheduler.getQueuedCount());
+        assertEquals(0, scheduler.getWorkerCount());
+    }
+
+    @Test
+    public void testRejectedWorkersLeaveJobsToRunningWorkers() {
+        List<Runnable> tasks = new ArrayList<>();
+
+        // only the first worker is accepted
+        ExecutionScheduler scheduler = new ExecutionScheduler(task -> {
+            if (!tasks.isEmpty()) {
+                throw new RejectedExecutionException();
+            }
+
+            tasks.add(task);
+        }, 4, 1);
+        MachineDefinition increment = getIncrementTuringMachine().freeze();
+        List<CompletableFuture<ExecutionResult>> futures = new ArrayList<>();
+
+        for (int i = 0; i < 3; i++) {
+            futures.add(scheduler.submit(increment.newExecution("1011", 0, 0, '\0'), "tenant" + i, 0, ExecutionLimits.NONE));
+        }
+
+        assertEquals(3, scheduler.getQueuedCount());
+        assertEquals(1, scheduler.getWorkerCount());
+
+        tasks.get(0).run();
+
+        for (CompletableFuture<ExecutionResult> future : futures) {
+            assertEquals("1100", future.join().getContent());
+        }
+
+        assertEquals(0, scheduler.getQueuedCount());
+        assertEquals(0, scheduler.getWorkerCount());
+
+        ExecutionScheduler rejecting = new ExecutionScheduler(task -> {
+            throw new RejectedExecutionException();
+        }, 1, 1);
+
+        try {
+            rejecting.submit(increment.newExecution("1011", 0, 0, '\0'), ExecutionLimits.NONE);
+
+            fail();
+        } catch (RejectedExecutionException e) {
+            assertEquals(0, rejecting.getQueuedCount());
+            assertEquals(0, rejecting.getWorkerCount());
+        }
+    }
+
+    @Test
+    public void testErrorCompletesExecutionAndReleasesTenant() throws InterruptedException {
+        Queue<Runnable> tasks = new ArrayDeque<>();
+        ExecutionScheduler scheduler = new ExecutionScheduler(tasks::add, 1, 1);
+        MachineDefinition increment = getIncrementTuringMachine().freeze();
+
+        // the source fails once the head moves past its first segment
+        Reader reader = new Reader() {
+            private int count;
+
+            @Override
+            public int read(char[] buffer, int offset, int length) {
+                if (count == 1024) {
+                    throw new StackOverflowError();
+                }
+
+                length = Math.min(length, 1024 - count);
+                Arrays.fill(buffer, offset, offset + length, '1');
+                count += length;
+
+                return length;
+            }
+
+            @Override
+            public void close() {
+            }
+        };
+        CompletableFuture<ExecutionResult> failing = scheduler.submit(increment.newStreamingExecution(reader, 0, 0, '\0'), "tenant", 1, ExecutionLimits.NONE);
+        CompletableFuture<ExecutionResult> next = scheduler.submit(increment.newExecution("1011", 0, 0, '\0'), "tenant", 1, ExecutionLimits.NONE);
+
+        tasks.poll().run();
+
+        try {
+            failing.get();
+
+            fail();
+        } catch (ExecutionException e) {
+            assertTrue(e.getCause() instanceof StackOverflowError);
+        }
+
+        assertEquals("1100", next.join().getContent());
+        assertEquals(0, scheduler.getQueuedCount());
+        assertEquals(0, scheduler.getWorkerCount());
+    }
+
+    private TuringMachine getLoopTuringMachine() {
+        TuringMachine turingMachine = new TuringMachine();
+
+        turingMachine.addState("A", false);
+        turingMachine.addTransition("A", '\0', '\0', Action.RIGHT, "A");
+        turingMachine.setInitialState("A");
+
+        return turingMachine;
+    }
+
+    private TuringMachine getIncrementTuringMachine() {
+        TuringMachine turingMachine = new TuringMachine();
+
+        turingMachine.addState("R", false);
+        turingMachine.addState("C", false);
+        turingMachine.addState("H", true);
+
+        turingMachine.addTransition("R", '0', '0', Action.RIGHT, "R");
+        turingMachine.addTransition("R", '1', '1', Action.RIGHT, "R");
+        turingMachine.addTransition("R", '\0', '\0', Action.LEFT, "C");
+        turingMachine.addTransition("C", '1', '0', Action.LEFT, "C");
+        turingMachine.addTransition("C", '0', '1', Action.HALT, "H");
+        turingMachine.addTransition("C", '\0', '1', Action.HALT, "H");
+
+        turingMachine.setInitialState("R");
+
+        return turingMachine;
+    }
+}
@@ -0,0 +1,327 @@
+package com.example.turing;
+
+import org.junit.Rule;
+import org.junit.Test;
+import org.junit.rules.TemporaryFolder;
+
+import java.io.IOException;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.nio.file.StandardCopyOption;
+import java.util.ArrayList;
+import java.util.List;
+
+import static org.junit.Assert.assertEquals;
+import static org.junit.Assert.assertFalse;
+import static org.junit.Assert.assertTrue;
+import static org.junit.Assert.fail;
+
+/**
+ * Unit tests for ExecutionTrace and TraceReplay classes.
+ */
+public class ExecutionTraceTest {
+    @Rule
+    public TemporaryFolder folder = new TemporaryFolder();
+
+    @Test
+    public void testConstructorWithInvalidKeyframeInterval() throws IOException {
+        try {
+            new ExecutionTrace(folder.newFile().toPath(), 0);
+
+            fail();
+        } catch (IllegalArgumentException e) {
+            assertEquals("the keyframe interval is not positive", e.getMessage());
+        }
+    }
+
+    @Test
+    public void testRunRecordingWithAnotherExecution() throws IOException {
+        MachineDefinition definition = getBusyBeaverTuringMachine().freeze();
+
+        try (ExecutionTrace trace = new ExecutionTrace(folder.newFile().toPath())) {
+            definition.newExecution("", 0, 0, '0').runRecording(trace, ExecutionLimits.NONE);
+
+            try {
+                definition.newExecution("", 0, 0, '0').runRecording(trace, ExecutionLimits.NONE);
+
+                fail();
+            } catch (IllegalArgumentException e) {
+                assertEquals("the trace records another execution", e.getMessage());
+            }
+        }
+    }
+
+    @Test
+    public void testRunRecordingAfterUnrecordedSteps() throws IOException {
+        Execution execution = getBusyBeaverTuringMachine().freeze().newExecution("", 0, 0, '0');
+        ExecutionLimits limits = new ExecutionLimits(10, Long.MAX_VALUE, null);
+
+        try (ExecutionTrace trace = new ExecutionTrace(folder.newFile().toPath())) {
+            execution.runRecording(trace, limits);
+            execution.run(limits);
+
+            try {
+                execution.runRecording(trace, limits);
+
+                fail();
+            } catch (IllegalStateException e) {
+                assertEquals("the execution performed steps that were not recorded", e.getMessage());
+            }
+        }
+    }
+
+    @Test
+    public void testReplayAfterClose() throws IOException {
+        ExecutionTrace trace = new ExecutionTrace(folder.newFile().toPath());
+
+        getBusyBeaverTuringMachine().freeze().newExecution("", 0, 0, '0').runRecording(trace, ExecutionLimits.NONE);
+
+        TraceReplay replay = trace.newReplay();
+
+        trace.close();
+
+        try {
+            replay.stepForward();
+
+            fail();
+        } catch (IllegalStateException e) {
+            assertEquals("the trace is closed", e.getMessage());
+        }
+    }
+
+    @Test
+    public void testRecordingMatchesRun() throws IOException {
+        MachineDefinition busyBeaver = getBusyBeaverTuringMachine().freeze();
+        ExecutionResult expected = busyBeaver.execute("", 0, 0, '0');
+        Path file = folder.newFile().toPath();
+        Execution execution = busyBeaver.newExecution("", 0, 0, '0');
+
+        try (ExecutionTrace trace = new ExecutionTrace(file, 7)) {
+            ExecutionLimits limits = new ExecutionLimits(50, Long.MAX_VALUE, null);
+
+            while (execution.runRecording(trace, limits).getStatus() != ExecutionStatus.HALTED) {
+                assertEquals(execution.getSteps(), trace.getStepCount());
+            }
+
+            assertEquals(107, trace.getStepCount());
+        }
+
+        assertEquals(expected.getContent(), execution.getContent());
+        assertEquals(expected.getHeadPosition(), execution.getHeadPosition());
+
+        // the file only holds the header, 16 keyframes and the steps
+        assertTrue(Files.size(file) < 2048);
+
+        try (ExecutionTrace trace = ExecutionTrace.open(file, busyBeaver)) {
+            assertEquals(107, trace.getStepCount());
+            assertEquals(0, trace.getFirstStep());
+
+            TraceReplay replay = trace.newReplay();
+
+            replay.seek(107);
+
+            assertEquals(expected.getContent(), replay.getContent());
+            assertEquals(expected.getHeadPosition(), replay.getHeadPosition());
+            assertEquals(expected.getCurrentStateName(), replay.getCurrentStateName());
+        }
+    }
+
+    @Test
+    public void testOpenWithInvalidArguments() throws IOException {
+        Path file = folder.newFile().toPath();
+        MachineDefinition busyBeaver = getBusyBeaverTuringMachine().freeze();
+
+        try {
+            ExecutionTrace.open(null, busyBeaver);
+
+            fail();
+        } catch (NullPointerException e) {
+            assertEquals("the trace file is null", e.getMessage());
+        }
+
+        try {
+            ExecutionTrace.open(file, null);
+
+            fail();
+        } catch (NullPointerException e) {
+            assertEquals("the machine definition is null", e.getMessage());
+        }
+
+        try {
+            ExecutionTrace.open(file, busyBeaver);
+
+            fail();
+        } catch (IOException e) {
+            assertEquals("the file is not a trace", e.getMessage());
+        }
+
+        try (ExecutionTrace trace = new ExecutionTrace(file)) {
+            busyBeaver.newExecution("", 0, 0, '0').runRecording(trace, ExecutionLimits.NONE);
+        }
+
+        TuringMachine other = getBusyBeaverTuringMachine();
+
+        other.addState("X", false);
+
+        try {
+            ExecutionTrace.open(file, other.freeze());
+
+            fail();
+        } catch (IOException e) {
+            assertEquals("the trace belongs to another machine definition", e.getMessage());
+        }
+
+        try (ExecutionTrace trace = ExecutionTrace.open(file, busyBeaver)) {
+            try {
+                busyBeaver.newExecution("", 0, 0, '0').runRecording(trace, ExecutionLimits.NONE);
+
+                fail();
+            } catch (IllegalStateException e) {
+                assertEquals("the trace is read only", e.getMessage());
+            }
+        }
+    }
+
+    @Test
+    public void testOpenTraceOfDeadProcess() throws IOException {
+        MachineDefinition busyBeaver = getBusyBeaverTuringMachine().freeze();
+        Execution execution = busyBeaver.newExecution("", 0, 0, '0');
+        Path file = folder.newFile().toPath();
+        Path copy = folder.getRoot().toPath().resolve("copy");
+        List<String> configurations = new ArrayList<>();
+
+        configurations.add(getConfiguration(execution));
+
+        try (ExecutionTrace trace = new ExecutionTrace(file, 10)) {
+            execution.runRecording(trace, new ExecutionLimits(1, Long.MAX_VALUE, null));
+            configurations.add(getConfiguration(execution));
+
+            while (execution.getSteps() < 45) {
+                execution.runRecording(trace, new ExecutionLimits(1, Long.MAX_VALUE, null));
+                configurations.add(getConfiguration(execution));
+            }
+
+            // a copy of the open trace is what a process that died would leave behind
+            Files.copy(file, copy, StandardCopyOption.REPLACE_EXISTING);
+        }
+
+        try (ExecutionTrace trace = ExecutionTrace.open(copy, busyBeaver)) {
+            TraceReplay replay = trace.newReplay();
+
+            assertEquals(45, trace.getStepCount());
+
+            for (int step : new int[]{45, 0, 31, 9, 40}) {
+                replay.seek(step);
+
+                assertEquals(configurations.get(step), getConfiguration(replay));
+            }
+        }
+    }
+
+    @Test
+    public void testReplayForwardsAndBackwards() throws IOException {
+        MachineDefinition busyBeaver = getBusyBeaverTuringMachine().freeze();
+        Execution execution = busyBeaver.newExecution("", 0, 0, '0');
+        List<String> configurations = new ArrayList<>();
+
+        configurations.add(getConfiguration(execution));
+
+        while (!execution.isHalted()) {
+            execution.run(new ExecutionLimits(1, Long.MAX_VALUE, null));
+            configurations.add(getConfiguration(execution));
+        }
+
+        try (ExecutionTrace trace = new ExecutionTrace(folder.newFile().toPath(), 10)) {
+            busyBeaver.newExecution("", 0, 0, '0').runRecording(trace, ExecutionLimits.NONE);
+
+            TraceReplay replay = trace.newReplay();
+
+            assertEquals(configurations.get(0), getConfiguration(replay));
+            assertFalse(replay.stepBackward());
+
+            while (replay.stepForward()) {
+                assertEquals(configurations.get((int) replay.getStep()), getConfiguration(replay));
+            }
+
+            assertEquals(107, replay.getStep());
+
+            while (replay.stepBackward()) {
+                assertEquals(configurations.get((int) replay.getStep()), getConfiguration(replay));
+            }
+
+            for (int step : new int[]{93, 5, 60, 61, 0, 107, 11, 100}) {
+                replay.seek(step);
+
+                assertEquals(configurations.get(step), getConfiguration(replay));
+            }
+
+            try {
+                replay.seek(108);
+
+                fail();
+            } catch (IllegalArgumentException e) {
+                assertEquals("the step is out of range", e.getMessage());
+            }
+        }
+    }
+
+    @Test
+    public void testRecordingAcrossRegions() throws IOException {
+        TuringMachine turingMachine = new TuringMachine();
+
+        turingMachine.addState("A", false);
+        turingMachine.addState("B", false);
+        turingMachine.addTransition("A", '\0', 'x', Action.RIGHT, "B");
+        turingMachine.addTransition("B", '\0', '\0', Action.LEFT, "A");
+        turingMachine.addTransition("B", 'x', '\0', Action.LEFT, "A");
+        turingMachine.addTransition("A", 'x', '\0', Action.RIGHT, "B");
+        turingMachine.setInitialState("A");
+
+        Execution execution = turingMachine.freeze().newExecution("", 0, 0, '\0');
+
+        try (ExecutionTrace trace = new ExecutionTrace(folder.newFile().toPath())) {
+            execution.runRecording(trace, new ExecutionLimits(5000001, Long.MAX_VALUE, null));
+
+            TraceReplay replay = trace.newReplay();
+
+            replay.seek(5000001);
+
+            assertEquals(execution.getContent(), replay.getContent());
+            assertEquals(execution.getHeadPosition(), replay.getHeadPosition());
+            assertEquals(execution.getCurrentStateName(), replay.getCurrentStateName());
+            assertTrue(replay.stepBackward());
+            assertEquals(5000000, replay.getStep());
+        }
+    }
+
+    private String getConfiguration(Execution execution) {
+        return execution.getCurrentStateName() + " " + execution.getContent() + " " + execution.getContentOffset() + " " + execution.getHeadPosition();
+    }
+
+    private String getConfiguration(TraceReplay replay) {
+        return replay.getCurrentStateName() + " " + replay.getContent() + " " + replay.getContentOffset() + " " + replay.getHeadPosition();
+    }
+
+    private TuringMachine getBusyBeaverTuringMachine() {
+        TuringMachine turingMachine = new TuringMachine();
+
+        turingMachine.addState("A", false);
+        turingMachine.addState("B", false);
+        turingMachine.addState("C", false);
+        turingMachine.addState("D", false);
+        turingMachine.addState("H", true);
+
+        turingMachine.addTransition("A", '0', '1', Action.RIGHT, "B");
+        turingMachine.addTransition("A", '1', '1', Action.LEFT, "B");
+        turingMachine.addTransition("B", '0', '1', Action.LEFT, "A");
+        turingMachine.addTransition("B", '1', '0', Action.LEFT, "C");
+        turingMachine.addTransition("C", '0', '1', Action.HALT, "H");
+        turingMachine.addTransition("C", '1', '1', Action.LEFT, "D");
+        turingMachine.addTransition("D", '0', '1', Action.RIGHT, "D");
+        turingMachine.addTransition("D", '1', '0', Action.RIGHT, "A");
+
+        turingMachine.setInitialState("A");
+
+        return turingMachine;
+    }
+}
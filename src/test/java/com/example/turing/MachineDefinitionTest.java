@@ -0,0 +1,1144 @@
+package com.example.turing;
+
+import org.junit.Rule;
+import org.junit.Test;
+import org.junit.rules.TemporaryFolder;
+
+import java.io.ByteArrayInputStream;
+import java.io.File;
+import java.io.IOException;
+import java.io.Reader;
+import java.io.StringReader;
+import java.nio.channels.FileChannel;
+import java.nio.charset.StandardCharsets;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.List;
+import java.util.Random;
+import java.util.concurrent.ExecutionException;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+import java.util.concurrent.Future;
+
+import static org.junit.Assert.assertEquals;
+import static org.junit.Assert.assertFalse;
+import static org.junit.Assert.assertNull;
+import static org.junit.Assert.assertSame;
+import static org.junit.Assert.assertTrue;
+import static org.junit.Assert.fail;
+
+/**
+ * Unit tests for MachineDefinition and Execution classes.
+ */
+public class MachineDefinitionTest {
+    @Rule
+    public TemporaryFolder folder = new TemporaryFolder();
+
+    @Test
+    public void testFreezeWithoutInitialState() {
+        try {
+            TuringMachine turingMachine = new TuringMachine();
+
+            turingMachine.freeze();
+
+            fail();
+        } catch (IllegalStateException e) {
+            assertEquals("the initial state is not set", e.getMessage());
+        }
+    }
+
+    @Test
+    public void testNewExecutionWithNullContent() {
+        try {
+            MachineDefinition definition = getIncrementTuringMachine().freeze();
+
+            definition.newExecution(null, 0, 0, '\0');
+
+            fail();
+        } catch (NullPointerException e) {
+            assertEquals("the initial content is null", e.getMessage());
+        }
+    }
+
+    @Test
+    public void testRunWithNullLimits() {
+        try {
+            Execution execution = getIncrementTuringMachine().freeze().newExecution("", 0, 0, '\0');
+
+            execution.run(null);
+
+            fail();
+        } catch (NullPointerException e) {
+            assertEquals("the execution limits are null", e.getMessage());
+        }
+    }
+
+    @Test
+    public void testFreezeIsReusedUntilModified() {
+        TuringMachine turingMachine = getIncrementTuringMachine();
+        MachineDefinition definition = turingMachine.freeze();
+
+        assertSame(definition, turingMachine.freeze());
+
+        turingMachine.addState("X", false);
+
+        assertEquals(3, definition.getStateCount());
+        assertEquals(4, turingMachine.freeze().getStateCount());
+        assertEquals("R", definition.getInitialStateName());
+    }
+
+    @Test
+    public void testExecution() {
+        Execution execution = getIncrementTuringMachine().freeze().newExecution("1011", 0, 0, '\0');
+
+        assertNull(execution.getResult());
+        assertFalse(execution.isHalted());
+
+        ExecutionResult result = execution.run();
+
+        assertSame(result, execution.getResult());
+        assertTrue(execution.isHalted());
+        assertTrue(execution.isAccepted());
+        assertEquals("H", execution.getCurrentStateName());
+        assertEquals("1100", execution.getContent());
+        assertEquals(0, execution.getContentOffset());
+        assertEquals(1, execution.getHeadPosition());
+        assertEquals(result.getSteps(), execution.getSteps());
+    }
+
+    @Test
+    public void testExecutionResumesAfterStepLimit() {
+        MachineDefinition definition = getIncrementTuringMachine().freeze();
+        long total = definition.execute("1011", 0, 0, '\0').getSteps();
+        Execution execution = definition.newExecution("1011", 0, 0, '\0');
+        ExecutionLimits limits = new ExecutionLimits(1, Long.MAX_VALUE, null);
+        long runs = 0;
+
+        while (execution.run(limits).getStatus() == ExecutionStatus.STEP_LIMIT_REACHED) {
+            runs++;
+        }
+
+        assertEquals(total - 1, runs);
+        assertEquals(total, execution.getSteps());
+        assertEquals("1100", execution.getContent());
+        assertEquals(ExecutionStatus.HALTED, execution.run(limits).getStatus());
+        assertEquals(total, execution.getSteps());
+    }
+
+    @Test
+    public void testStep() {
+        Execution execution = getIncrementTuringMachine().freeze().newExecution("1011", 0, 0, '\0');
+
+        assertEquals(ExecutionStatus.STEP_LIMIT_REACHED, execution.step(3).getStatus());
+        assertEquals(3, execution.getSteps());
+        assertEquals("R", execution.getCurrentStateName());
+        assertEquals(3, execution.getHeadPosition());
+        assertEquals('1', execution.getCurrentSymbol());
+        assertEquals(ExecutionStatus.STEP_LIMIT_REACHED, execution.step(0).getStatus());
+        assertEquals(3, execution.getSteps());
+        assertEquals(ExecutionStatus.HALTED, execution.step(100).getStatus());
+        assertEquals(8, execution.getSteps());
+        assertEquals("1100", execution.getContent());
+    }
+
+    @Test
+    public void testBreakpoints() {
+        Execution execution = getIncrementTuringMachine().freeze().newExecution("1011", 0, 0, '\0');
+
+        execution.addStateBreakpoint("C");
+
+        ExecutionResult result = execution.run();
+
+        assertEquals(ExecutionStatus.BREAKPOINT_REACHED, result.getStatus());
+        assertEquals(5, result.getSteps());
+        assertEquals(3, result.getHeadPosition());
+        assertFalse(execution.isHalted());
+        assertEquals(ExecutionStatus.BREAKPOINT_REACHED, execution.run().getStatus());
+        assertEquals(6, execution.getSteps());
+
+        execution.clearBreakpoints();
+        execution.addSymbolBreakpoint('0');
+
+        assertEquals(ExecutionStatus.BREAKPOINT_REACHED, execution.run().getStatus());
+        assertEquals(7, execution.getSteps());
+        assertEquals('0', execution.getCurrentSymbol());
+
+        execution.clearBreakpoints();
+        execution.addPositionBreakpoint(1);
+
+        assertEquals(ExecutionStatus.HALTED, execution.run().getStatus());
+        assertEquals(8, execution.getSteps());
+        assertEquals("1100", execution.getContent());
+    }
+
+    @Test
+    public void testRunUntil() {
+        Execution execution = getIncrementTuringMachine().freeze().newExecution("1011", 0, 0, '\0');
+
+        assertEquals(ExecutionStatus.BREAKPOINT_REACHED, execution.runUntil(e -> e.getCurrentSymbol() == '\0', ExecutionLimits.NONE).getStatus());
+        assertEquals(4, execution.getSteps());
+        assertEquals(4, execution.getHeadPosition());
+        assertEquals(ExecutionStatus.BREAKPOINT_REACHED, execution.runUntil(e -> e.getSteps() == 6, ExecutionLimits.NONE).getStatus());
+        assertEquals(6, execution.getSteps());
+        assertEquals("1010", execution.getContent());
+        assertEquals(ExecutionStatus.STEP_LIMIT_REACHED, execution.runUntil(e -> false, new ExecutionLimits(1, Long.MAX_VALUE, null)).getStatus());
+        assertEquals(ExecutionStatus.HALTED, execution.run().getStatus());
+        assertEquals(8, execution.getSteps());
+    }
+
+    @Test
+    public void testSteppingWithInvalidArguments() {
+        Execution execution = getIncrementTuringMachine().freeze().newExecution("1011", 0, 0, '\0');
+
+        try {
+            execution.step(-1);
+
+            fail();
+        } catch (IllegalArgumentException e) {
+            assertEquals("the number of steps is negative", e.getMessage());
+        }
+
+        try {
+            execution.runUntil(null, ExecutionLimits.NONE);
+
+            fail();
+        } catch (NullPointerException e) {
+            assertEquals("the condition is null", e.getMessage());
+        }
+
+        try {
+            execution.addStateBreakpoint(null);
+
+            fail();
+        } catch (NullPointerException e) {
+            assertEquals("the state name is null", e.getMessage());
+        }
+
+        try {
+            execution.addStateBreakpoint("X");
+
+            fail();
+        } catch (IllegalArgumentException e) {
+            assertEquals("the state name does not exist", e.getMessage());
+        }
+    }
+
+    @Test
+    public void testSweepsMatchSteppedExecution() {
+        MachineDefinition definition = getSweepTuringMachine().freeze();
+        MachineDefinition compiled = definition.compile();
+        StringBuilder content = new StringBuilder("x");
+
+        for (int i = 0; i < 3000; i++) {
+            content.append('\0');
+        }
+
+        for (int i = 0; i < 3000; i++) {
+            content.append('a');
+        }
+
+        for (long maxSteps : new long[]{1, 2, 1023, 1024, 1025, 3000, 3001, 4500, 6001, 6002, 9001, 9002, 10000}) {
+            ExecutionLimits limits = new ExecutionLimits(maxSteps, Long.MAX_VALUE, null);
+            Execution stepped = definition.newExecution(content.toString(), -2000, 1001, '\0');
+            ExecutionResult expected = stepped.runUntil(execution -> false, limits);
+
+            assertSameResult(expected, definition.execute(content.toString(), -2000, 1001, '\0', limits));
+            assertSameResult(expected, compiled.execute(content.toString(), -2000, 1001, '\0', limits));
+            assertSameResult(expected, definition.newStreamingExecution(new StringReader(content.toString()), -2000, 1001, '\0').run(limits));
+        }
+
+        ExecutionResult result = definition.execute(content.toString(), -2000, 1001, '\0');
+
+        assertEquals(ExecutionStatus.HALTED, result.getStatus());
+        assertEquals(9002, result.getSteps());
+        assertEquals(-2000, result.getHeadPosition());
+    }
+
+    @Test
+    public void testConcurrentExecutions() throws InterruptedException, ExecutionException {
+        final int THREADS = 4;
+        final int MAX = 20000;
+
+        MachineDefinition definition = getIncrementTuringMachine().freeze();
+        ExecutorService executor = Executors.newFixedThreadPool(THREADS);
+
+        try {
+            List<Future<?>> futures = new ArrayList<>();
+
+            for (int t = 0; t < THREADS; t++) {
+                futures.add(executor.submit(() -> {
+                    for (int n = 0; n < MAX; n++) {
+                        String binary = Integer.toBinaryString(n);
+
+                        assertEquals(Integer.toBinaryString(n + 1), definition.execute(binary, 0, 0, '\0').getContent());
+                    }
+                }));
+            }
+
+            for (Future<?> future : futures) {
+                future.get();
+            }
+        } finally {
+            executor.shutdown();
+        }
+    }
+
+    @Test
+    public void testRunMacroWithInvalidBlockSize() {
+        try {
+            Execution execution = getIncrementTuringMachine().freeze().newExecution("", 0, 0, '\0');
+
+            execution.runMacro(0, ExecutionLimits.NONE);
+
+            fail();
+        } catch (IllegalArgumentException e) {
+            assertEquals("the block size is not positive", e.getMessage());
+        }
+    }
+
+    @Test
+    public void testRunMacroMatchesRun() {
+        MachineDefinition busyBeaver = getBusyBeaverTuringMachine().freeze();
+        MachineDefinition increment = getIncrementTuringMachine().freeze();
+
+        for (int blockSize = 1; blockSize <= 8; blockSize++) {
+            assertSameConfiguration(busyBeaver.newExecution("", 0, 0, '0'), busyBeaver.newExecution("", 0, 0, '0'), blockSize, ExecutionLimits.NONE);
+
+            for (int n = 0; n < 300; n++) {
+                String binary = Integer.toBinaryString(n);
+
+                assertSameConfiguration(increment.newExecution(binary, -n, 0, '\0'), increment.newExecution(binary, -n, 0, '\0'), blockSize, ExecutionLimits.NONE);
+            }
+        }
+    }
+
+    @Test
+    public void testRunMacroWithStepLimitMatchesRun() {
+        MachineDefinition busyBeaver = getBusyBeaverTuringMachine().freeze();
+
+        for (int blockSize = 1; blockSize <= 5; blockSize++) {
+            for (int maxSteps = 0; maxSteps <= 110; maxSteps++) {
+                ExecutionLimits limits = new ExecutionLimits(maxSteps, Long.MAX_VALUE, null);
+
+                assertSameConfiguration(busyBeaver.newExecution("", 0, 0, '0'), busyBeaver.newExecution("", 0, 0, '0'), blockSize, limits);
+            }
+        }
+    }
+
+    @Test
+    public void testRunMacroWithBoundedCachesMatchesRun() {
+        TuringMachine turingMachine = new TuringMachine();
+
+        turingMachine.addState("R", false);
+        turingMachine.addState("C", false);
+
+        // counts up forever, so the lowest block takes more contents than the caches keep
+        turingMachine.addTransition("R", '0', '0', Action.RIGHT, "R");
+        turingMachine.addTransition("R", '1', '1', Action.RIGHT, "R");
+        turingMachine.addTransition("R", '\0', '\0', Action.LEFT, "C");
+        turingMachine.addTransition("C", '1', '0', Action.LEFT, "C");
+        turingMachine.addTransition("C", '0', '1', Action.RIGHT, "R");
+        turingMachine.addTransition("C", '\0', '1', Action.RIGHT, "R");
+        turingMachine.setInitialState("R");
+
+        MachineDefinition counter = turingMachine.freeze();
+        ExecutionLimits limits = new ExecutionLimits(8L * (MacroSimulator.MAX_BLOCKS + MacroSimulator.MAX_TRANSITIONS), Long.MAX_VALUE, null);
+
+        assertSameConfiguration(counter.newExecution("", 0, 0, '\0'), counter.newExecution("", 0, 0, '\0'), 20, limits);
+    }
+
+    @Test
+    public void testRunMacroWithMoreBlocksOnTapeThanCached() {
+        TuringMachine turingMachine = new TuringMachine();
+
+        turingMachine.addState("R", false);
+        turingMachine.addState("L", false);
+        turingMachine.addState("H", true);
+
+        // inverts every bit on its way right, then again on its way back
+        turingMachine.addTransition("R", '0', '1', Action.RIGHT, "R");
+        turingMachine.addTransition("R", '1', '0', Action.RIGHT, "R");
+        turingMachine.addTransition("R", '\0', '\0', Action.LEFT, "L");
+        turingMachine.addTransition("L", '0', '1', Action.LEFT, "L");
+        turingMachine.addTransition("L", '1', '0', Action.LEFT, "L");
+        turingMachine.addTransition("L", '\0', '\0', Action.HALT, "H");
+        turingMachine.setInitialState("R");
+
+        // every block holds a different content, so compacting cannot bring them back under the bound
+        StringBuilder content = new StringBuilder();
+
+        for (int i = 0; i < MacroSimulator.MAX_BLOCKS + 1000; i++) {
+            String binary = Integer.toBinaryString(i);
+
+            for (int j = binary.length(); j < 20; j++) {
+                content.append('0');
+            }
+
+            content.append(binary);
+        }
+
+        MachineDefinition invert = turingMachine.freeze();
+
+        assertSameConfiguration(invert.newExecution(content.toString(), 0, 0, '\0'), invert.newExecution(content.toString(), 0, 0, '\0'), 20, ExecutionLimits.NONE);
+    }
+
+    @Test
+    public void testRunDetectingCyclesOnBlankTape() {
+        TuringMachine turingMachine = new TuringMachine();
+
+        turingMachine.addState("A", false);
+        turingMachine.addState("B", false);
+        turingMachine.addTransition("A", '\0', '\0', Action.RIGHT, "B");
+        turingMachine.addTransition("B", '\0', '\0', Action.LEFT, "A");
+        turingMachine.setInitialState("A");
+
+        ExecutionResult result = turingMachine.freeze().newExecution("", 0, 0, '\0').runDetectingCycles(ExecutionLimits.NONE);
+
+        assertEquals(ExecutionStatus.LOOPS_FOREVER, result.getStatus());
+        assertEquals(2, result.getCycleLength());
+        assertFalse(result.isHalted());
+    }
+
+    @Test
+    public void testRunDetectingCyclesWithShiftedConfiguration() {
+        TuringMachine turingMachine = new TuringMachine();
+
+        turingMachine.addState("A", false);
+        turingMachine.addState("B", false);
+        turingMachine.addState("C", false);
+        turingMachine.addTransition("A", '1', '\0', Action.RIGHT, "B");
+        turingMachine.addTransition("B", '\0', '1', Action.RIGHT, "C");
+        turingMachine.addTransition("C", '\0', '\0', Action.LEFT, "A");
+        turingMachine.setInitialState("A");
+
+        ExecutionResult result = turingMachine.freeze().newExecution("1", 0, 0, '\0').runDetectingCycles(ExecutionLimits.NONE);
+
+        assertEquals(ExecutionStatus.LOOPS_FOREVER, result.getStatus());
+        assertEquals(3, result.getCycleLength());
+        assertEquals("1", result.getContent());
+        assertEquals("A", result.getCurrentStateName());
+        assertEquals(result.getContentOffset(), result.getHeadPosition());
+    }
+
+    @Test
+    public void testRunDetectingCyclesWithoutCycle() {
+        MachineDefinition busyBeaver = getBusyBeaverTuringMachine().freeze();
+        ExecutionResult result = busyBeaver.newExecution("", 0, 0, '0').runDetectingCycles(ExecutionLimits.NONE);
+
+        assertEquals(ExecutionStatus.HALTED, result.getStatus());
+        assertEquals(0, result.getCycleLength());
+        assertEquals(busyBeaver.execute("", 0, 0, '0').getContent(), result.getContent());
+        assertEquals(107, result.getSteps());
+
+        TuringMachine turingMachine = new TuringMachine();
+
+        turingMachine.addState("R", false);
+        turingMachine.addState("C", false);
+        turingMachine.addTransition("R", '0', '0', Action.RIGHT, "R");
+        turingMachine.addTransition("R", '1', '1', Action.RIGHT, "R");
+        turingMachine.addTransition("R", '\0', '\0', Action.LEFT, "C");
+        turingMachine.addTransition("C", '1', '0', Action.LEFT, "C");
+        turingMachine.addTransition("C", '0', '1', Action.RIGHT, "R");
+        turingMachine.addTransition("C", '\0', '1', Action.RIGHT, "R");
+        turingMachine.setInitialState("R");
+
+        ExecutionResult counter = turingMachine.freeze().newExecution("", 0, 0, '\0').runDetectingCycles(new ExecutionLimits(100000, Long.MAX_VALUE, null));
+
+        assertEquals(ExecutionStatus.STEP_LIMIT_REACHED, counter.getStatus());
+        assertEquals(100000, counter.getSteps());
+    }
+
+    @Test
+    public void testCompileMatchesRun() {
+        MachineDefinition busyBeaver = getBusyBeaverTuringMachine().freeze();
+        MachineDefinition increment = getIncrementTuringMachine().freeze();
+        MachineDefinition compiledBusyBeaver = busyBeaver.compile();
+        MachineDefinition compiledIncrement = increment.compile();
+
+        assertTrue(compiledBusyBeaver.isCompiled());
+        assertFalse(busyBeaver.isCompiled());
+        assertSame(compiledBusyBeaver, busyBeaver.compile());
+        assertSame(compiledBusyBeaver, compiledBusyBeaver.compile());
+        assertEquals(busyBeaver.getFingerprint(), compiledBusyBeaver.getFingerprint());
+
+        for (int maxSteps = 0; maxSteps <= 110; maxSteps++) {
+            ExecutionLimits limits = new ExecutionLimits(maxSteps, Long.MAX_VALUE, null);
+
+            assertSameResult(busyBeaver.execute("", 0, 0, '0', limits), compiledBusyBeaver.execute("", 0, 0, '0', limits));
+        }
+
+        for (int n = 0; n < 300; n++) {
+            String binary = Integer.toBinaryString(n);
+
+            assertSameResult(increment.execute(binary, -n, 0, '\0'), compiledIncrement.execute(binary, -n, 0, '\0'));
+        }
+    }
+
+    @Test
+    public void testCompileLargeMachineFallsBackToInterpreter() {
+        TuringMachine turingMachine = new TuringMachine();
+
+        for (int state = 0; state <= MachineCompiler.MAX_TRANSITIONS; state++) {
+            turingMachine.addState("q" + state, false);
+        }
+
+        for (int state = 0; state < MachineCompiler.MAX_TRANSITIONS; state++) {
+            turingMachine.addTransition("q" + state, '\0', '1', Action.RIGHT, "q" + (state + 1));
+        }
+
+        turingMachine.addTransition("q" + MachineCompiler.MAX_TRANSITIONS, '\0', '1', Action.HALT, "q0");
+        turingMachine.setInitialState("q0");
+
+        MachineDefinition definition = turingMachine.freeze();
+
+        assertSame(definition, definition.compile());
+        assertEquals(MachineCompiler.MAX_TRANSITIONS + 1, definition.compile().execute("", 0, 0, '\0').getContent().length());
+    }
+
+    @Test
+    public void testStreamingExecutionMatchesExecution() {
+        MachineDefinition increment = getIncrementTuringMachine().freeze();
+
+        for (int n : new int[]{0, 1, 1023, 1024, 5000}) {
+            StringBuilder binary = new StringBuilder("1");
+
+            for (int i = 0; i < n; i++) {
+                binary.append(i % 7 == 0 ? '0' : '1');
+            }
+
+            for (int offset : new int[]{-1500, -1, 0, 700}) {
+                ExecutionResult expected = increment.execute(binary.toString(), offset, offset, '\0');
+                ExecutionResult result = increment.newStreamingExecution(new StringReader(binary.toString()), offset, offset, '\0').run();
+
+                assertSameResult(expected, result);
+            }
+        }
+
+        ExecutionResult result = increment.newStreamingExecution(new ByteArrayInputStream("1011".getBytes(StandardCharsets.UTF_8)), StandardCharsets.UTF_8, 0, 0, '\0').run();
+
+        assertEquals("1100", result.getContent());
+    }
+
+    @Test
+    public void testPackedExecutionMatchesExecution() {
+        Random random = new Random(42);
+
+        // 2, 4 and 16 symbols use 1, 2 and 4 bits per cell, and 17 symbols use a plain tape
+        for (int symbolCount : new int[]{2, 3, 4, 5, 16, 17}) {
+            for (int i = 0; i < 5; i++) {
+                MachineDefinition definition = getRandomTuringMachine(random, symbolCount, 4).freeze();
+                ExecutionLimits limits = new ExecutionLimits(20000, Long.MAX_VALUE, null);
+                String content = "a" + (char) ('a' + symbolCount / 2) + "\u0000a";
+
+                for (int offset : new int[]{-1025, 0, 1020}) {
+                    ExecutionResult expected = definition.newStreamingExecution(new StringReader(content), offset, offset, '\0').run(limits);
+                    ExecutionResult result = definition.execute(content, offset, offset, '\0', limits);
+
+                    assertSameResult(expected, result);
+                    assertEquals(expected.getContentAroundHead(1500), result.getContentAroundHead(1500));
+                }
+            }
+        }
+    }
+
+    @Test
+    public void testPackedExecutionKeepsUnknownSymbols() {
+        ExecutionResult result = getIncrementTuringMachine().freeze().execute("\u00e9x1011", -2, 0, '\0');
+
+        assertEquals("\u00e9x1100", result.getContent());
+        assertEquals(-2, result.getContentOffset());
+    }
+
+    @Test
+    public void testStreamingExecutionReadsLazily() {
+        final int LENGTH = 1 << 20;
+
+        int[] read = new int[1];
+        Reader reader = new Reader() {
+            @Override
+            public int read(char[] buffer, int offset, int length) {
+                int n = Math.min(length, LENGTH - read[0]);
+
+                if (n == 0) {
+                    return -1;
+                }
+
+                for (int i = 0; i < n; i++) {
+                    buffer[offset + i] = '1';
+                }
+
+                read[0] += n;
+
+                return n;
+            }
+
+            @Override
+            public void close() {
+            }
+        };
+
+        TuringMachine turingMachine = new TuringMachine();
+
+        turingMachine.addState("A", false);
+        turingMachine.addState("H", true);
+        turingMachine.addTransition("A", '1', '0', Action.HALT, "H");
+        turingMachine.setInitialState("A");
+
+        Execution execution = turingMachine.freeze().newStreamingExecution(reader, 0, 0, '\0');
+
+        assertTrue(execution.run().isHalted());
+        assertTrue(read[0] <= 1024);
+        assertEquals(0, execution.getContentOffset());
+        assertEquals(LENGTH, read[0]);
+    }
+
+    @Test
+    public void testRunDetectingCyclesReadsLazily() {
+        final int LENGTH = 1 << 20;
+
+        int[] read = new int[1];
+        Reader reader = new Reader() {
+            @Override
+            public int read(char[] buffer, int offset, int length) {
+                int n = Math.min(length, LENGTH - read[0]);
+
+                if (n == 0) {
+                    return -1;
+                }
+
+                for (int i = 0; i < n; i++) {
+                    buffer[offset + i] = '1';
+                }
+
+                read[0] += n;
+
+                return n;
+            }
+
+            @Override
+            public void close() {
+            }
+        };
+
+        TuringMachine turingMachine = new TuringMachine();
+
+        turingMachine.addState("A", false);
+        turingMachine.addState("B", false);
+        turingMachine.addTransition("A", '1', '0', Action.RIGHT, "B");
+        turingMachine.addTransition("A", '0', '1', Action.RIGHT, "B");
+        turingMachine.addTransition("B", '1', '1', Action.LEFT, "A");
+        turingMachine.setInitialState("A");
+
+        ExecutionResult result = turingMachine.freeze().newStreamingExecution(reader, 0, 0, '\0').runDetectingCycles(ExecutionLimits.NONE);
+
+        assertEquals(ExecutionStatus.LOOPS_FOREVER, result.getStatus());
+        assertEquals(4, result.getCycleLength());
+        assertTrue(read[0] <= 1024);
+        assertEquals("1111", result.getContent(0, 4));
+    }
+
+    @Test
+    public void testMappedExecution() throws IOException {
+        Path file = folder.newFile().toPath();
+
+        Files.write(file, "1011".getBytes(StandardCharsets.ISO_8859_1));
+
+        try (FileChannel channel = FileChannel.open(file)) {
+            ExecutionResult result = getIncrementTuringMachine().freeze().newMappedExecution(channel, -2, -2, '\0').run();
+
+            assertEquals("1100", result.getContent());
+            assertEquals(-2, result.getContentOffset());
+        }
+    }
+
+    @Test
+    public void testMappedExecutionReadsOnlyReachedSegments() throws IOException {
+        Path file = folder.newFile().toPath();
+        byte[] content = new byte[1 << 20];
+
+        Arrays.fill(content, (byte) 'x');
+        content[content.length - 1] = '1';
+        Files.write(file, content);
+
+        TuringMachine turingMachine = new TuringMachine();
+
+        turingMachine.addState("A", false);
+        turingMachine.addState("H", true);
+        turingMachine.addTransition("A", '1', '0', Action.HALT, "H");
+        turingMachine.setInitialState("A");
+
+        try (FileChannel channel = FileChannel.open(file)) {
+            Execution execution = turingMachine.freeze().newMappedExecution(channel, 0, content.length - 1, '\0');
+
+            assertTrue(execution.run().isAccepted());
+            assertEquals(0, execution.getContentOffset());
+            assertEquals(content.length, execution.getContent().length());
+        }
+    }
+
+    @Test
+    public void testWriteAndRead() throws IOException {
+        Path file = folder.newFile().toPath();
+        MachineDefinition busyBeaver = getBusyBeaverTuringMachine().freeze();
+
+        busyBeaver.write(file);
+
+        MachineDefinition read = MachineDefinition.read(file);
+
+        assertEquals(busyBeaver.getFingerprint(), read.getFingerprint());
+        assertEquals(busyBeaver.getStateCount(), read.getStateCount());
+        assertEquals(busyBeaver.getInitialStateName(), read.getInitialStateName());
+        assertEquals(busyBeaver.getTable().fingerprint(), read.getTable().fingerprint());
+        assertSameResult(busyBeaver.execute("", 0, 0, '0'), read.execute("", 0, 0, '0'));
+        assertSameResult(busyBeaver.execute("", 0, 0, '0'), read.compile().execute("", 0, 0, '0'));
+    }
+
+    @Test
+    public void testWriteAndReadNonAsciiNames() throws IOException {
+        Path file = folder.newFile().toPath();
+        TuringMachine turingMachine = new TuringMachine();
+
+        turingMachine.addState("estado inicial \u00f1", false);
+        turingMachine.addState("", false);
+        turingMachine.addState("\u00e9tat final \u2713", true);
+        turingMachine.addTransition("estado inicial \u00f1", '\u03b1', '\u03b2', Action.RIGHT, "");
+        turingMachine.addTransition("", '\0', '\0', Action.HALT, "\u00e9tat final \u2713");
+        turingMachine.setInitialState("estado inicial \u00f1");
+        turingMachine.freeze().write(file);
+
+        MachineDefinition read = MachineDefinition.read(file);
+        ExecutionResult result = read.execute("\u03b1", 0, 0, '\0');
+
+        assertEquals("estado inicial \u00f1", read.getInitialStateName());
+        assertTrue(result.isAccepted());
+        assertEquals("\u00e9tat final \u2713", result.getCurrentStateName());
+        assertEquals("\u03b2", result.getContent());
+        assertEquals(turingMachine.freeze().getFingerprint(), read.getTable().fingerprint());
+    }
+
+    @Test
+    public void testReadInvalidFiles() throws IOException {
+        Path file = folder.newFile().toPath();
+
+        getIncrementTuringMachine().freeze().write(file);
+
+        byte[] valid = Files.readAllBytes(file);
+
+        assertReadFails(file, Arrays.copyOf(valid, 10), "the file is not a machine definition");
+        assertReadFails(file, Arrays.copyOf(valid, valid.length - 1), "the machine file is corrupted");
+
+        byte[] bytes = valid.clone();
+
+        bytes[0] ^= 1;
+        assertReadFails(file, bytes, "the file is not a machine definition");
+
+        bytes = valid.clone();
+        bytes[7] = 2;
+        assertReadFails(file, bytes, "the machine file version is not supported");
+
+        for (int i = 8; i < valid.length; i++) {
+            bytes = valid.clone();
+            bytes[i] ^= 0x10;
+            assertReadFails(file, bytes, "the machine file is corrupted");
+        }
+
+        try {
+            MachineDefinition.read(null);
+
+            fail();
+        } catch (NullPointerException e) {
+            assertEquals("the machine file is null", e.getMessage());
+        }
+
+        try {
+            getIncrementTuringMachine().freeze().write(null);
+
+            fail();
+        } catch (NullPointerException e) {
+            assertEquals("the machine file is null", e.getMessage());
+        }
+    }
+
+    @Test
+    public void testOptimizePrunesAndMergesStates() {
+        TuringMachine turingMachine = new TuringMachine();
+
+        turingMachine.addState("A", false);
+        turingMachine.addState("B", false);
+        turingMachine.addState("C", false);
+        turingMachine.addState("D", false);
+        turingMachine.addState("H", true);
+        turingMachine.addState("I", true);
+        turingMachine.addState("U", false);
+
+        // A and B scan right alternating, C and D carry left alternating, H and I are equivalent halting states
+        turingMachine.addTransition("A", '0', '0', Action.RIGHT, "B");
+        turingMachine.addTransition("A", '1', '1', Action.RIGHT, "B");
+        turingMachine.addTransition("A", '\0', '\0', Action.LEFT, "C");
+        turingMachine.addTransition("B", '0', '0', Action.RIGHT, "A");
+        turingMachine.addTransition("B", '1', '1', Action.RIGHT, "A");
+        turingMachine.addTransition("B", '\0', '\0', Action.LEFT, "D");
+        turingMachine.addTransition("C", '1', '0', Action.LEFT, "D");
+        turingMachine.addTransition("C", '0', '1', Action.HALT, "H");
+        turingMachine.addTransition("C", '\0', '1', Action.HALT, "I");
+        turingMachine.addTransition("D", '1', '0', Action.LEFT, "C");
+        turingMachine.addTransition("D", '0', '1', Action.HALT, "I");
+        turingMachine.addTransition("D", '\0', '1', Action.HALT, "H");
+        turingMachine.addTransition("U", 'z', 'y', Action.RIGHT, "A");
+        turingMachine.setInitialState("A");
+
+        MachineDefinition definition = turingMachine.freeze();
+        OptimizationResult result = turingMachine.optimize();
+        MachineDefinition optimized = result.getDefinition();
+
+        assertEquals(7, result.getOriginalStateCount());
+        assertEquals(3, result.getStateCount());
+        assertEquals(1, result.getUnreachableStateCount());
+        assertEquals(3, result.getMergedStateCount());
+        assertEquals(13, result.getOriginalTransitionCount());
+        assertEquals(6, result.getTransitionCount());
+        assertEquals(5, result.getOriginalSymbolCount());
+        assertEquals(3, result.getSymbolCount());
+        assertEquals(3, optimized.getStateCount());
+        assertEquals("A", optimized.getInitialStateName());
+
+        assertEquals("A", result.getOptimizedStateName("B"));
+        assertEquals("C", result.getOptimizedStateName("D"));
+        assertEquals("H", result.getOptimizedStateName("I"));
+        assertEquals("H", result.getOptimizedStateName("H"));
+        assertNull(result.getOptimizedStateName("U"));
+        assertNull(result.getOptimizedStateName("X"));
+
+        for (int n = 0; n < 300; n++) {
+            String binary = Integer.toBinaryString(n);
+            ExecutionResult expected = definition.execute(binary, 0, 0, '\0');
+            ExecutionResult actual = optimized.execute(binary, 0, 0, '\0');
+
+            assertEquals(expected.getStatus(), actual.getStatus());
+            assertEquals(expected.getSteps(), actual.getSteps());
+            assertEquals(expected.getContent(), actual.getContent());
+            assertEquals(expected.getContentOffset(), actual.getContentOffset());
+            assertEquals(expected.getHeadPosition(), actual.getHeadPosition());
+            assertEquals(expected.isAccepted(), actual.isAccepted());
+            assertEquals(result.getOptimizedStateName(expected.getCurrentStateName()), actual.getCurrentStateName());
+        }
+
+        ExecutionResult unknown = optimized.execute("z", 0, 0, '\0');
+
+        assertEquals(definition.execute("z", 0, 0, '\0').getSteps(), unknown.getSteps());
+        assertEquals("z", unknown.getContent());
+    }
+
+    @Test
+    public void testOptimizeMinimalMachine() {
+        MachineDefinition busyBeaver = getBusyBeaverTuringMachine().freeze();
+        OptimizationResult result = busyBeaver.optimize();
+
+        assertEquals(busyBeaver.getStateCount(), result.getStateCount());
+        assertEquals(0, result.getUnreachableStateCount());
+        assertEquals(0, result.getMergedStateCount());
+        assertEquals(result.getOriginalTransitionCount(), result.getTransitionCount());
+        assertEquals(busyBeaver.getFingerprint(), result.getDefinition().getFingerprint());
+        assertSameResult(busyBeaver.execute("", 0, 0, '0'), result.getDefinition().execute("", 0, 0, '0'));
+
+        try {
+            result.getOptimizedStateName(null);
+
+            fail();
+        } catch (NullPointerException e) {
+            assertEquals("the state name is null", e.getMessage());
+        }
+    }
+
+    @Test
+    public void testPagedExecutionMatchesExecution() throws IOException {
+        MachineDefinition increment = getIncrementTuringMachine().freeze();
+        StringBuilder binary = new StringBuilder();
+        Random random = new Random(42);
+
+        for (int i = 0; i < 20000; i++) {
+            binary.append(random.nextBoolean() ? '1' : '0');
+        }
+
+        binary.append("111111");
+
+        for (long memoryLimit : new long[]{4096, 10000, 1 << 20}) {
+            ExecutionResult expected = increment.execute(binary.toString(), -7000, -7000, '\0');
+
+            try (Execution execution = increment.newPagedExecution(binary.toString(), -7000, -7000, '\0', folder.getRoot().toPath(), memoryLimit)) {
+                assertSameResult(expected, execution.run());
+                assertEquals(expected.getContent(-7100, 13100), execution.getContent(-7100, 13100));
+            }
+        }
+
+        MachineDefinition busyBeaver = getBusyBeaverTuringMachine().freeze();
+
+        try (Execution execution = busyBeaver.newPagedExecution("", 0, 0, '0', folder.getRoot().toPath(), 4096)) {
+            assertSameResult(busyBeaver.execute("", 0, 0, '0'), execution.run());
+        }
+    }
+
+    @Test
+    public void testPagedTapeOnlyWritesBackDirtySegments() throws IOException {
+        String content = new String(new char[10 * Tape.SEGMENT_SIZE]).replace('\0', '1');
+        Tape tape = Tape.paged(content, 0, 0, '\0', folder.getRoot().toPath(), Tape.MIN_MEMORY_LIMIT);
+
+        try {
+            // the first sweep evicts the last segments written while the content was set
+            sweep(tape, content.length());
+
+            long written = tape.getPageWriteCount();
+
+            for (int sweep = 0; sweep < 3; sweep++) {
+                sweep(tape, content.length());
+            }
+
+            assertEquals(written, tape.getPageWriteCount());
+
+            tape.write('0');
+            sweep(tape, content.length());
+
+            assertEquals(written + 1, tape.getPageWriteCount());
+            assertEquals('0' + content.substring(1), tape.getContent());
+        } finally {
+            tape.close();
+        }
+    }
+
+    @Test
+    public void testSnapshotOfPagedTapeKeepsEvictedPages() throws IOException {
+        String content = new String(new char[10 * Tape.SEGMENT_SIZE]).replace('\0', '1');
+        Tape tape = Tape.paged(content, 0, 0, '\0', folder.getRoot().toPath(), Tape.MIN_MEMORY_LIMIT);
+
+        try {
+            long read = tape.getPageReadCount();
+            Tape snapshot = tape.snapshot();
+
+            // the evicted segments are not read back when the snapshot is taken
+            assertEquals(read, tape.getPageReadCount());
+
+            for (int i = 0; i < content.length(); i++) {
+                tape.write('0');
+                tape.right();
+            }
+
+            // the segments written since have been written back to new pages, but for the resident ones
+            assertEquals(content, snapshot.getContent());
+            assertEquals(content.replace('1', '0'), tape.getContent());
+        } finally {
+            tape.close();
+        }
+    }
+
+    @Test
+    public void testErasingBoundSkipsBlankSegments() throws IOException {
+        Tape tape = Tape.paged("", 0, 0, '\0', folder.getRoot().toPath(), Tape.MIN_MEMORY_LIMIT);
+        int last = 21 * Tape.SEGMENT_SIZE;
+
+        try {
+            tape.set(0, '1');
+
+            // the segments in between are allocated, and evicted, but blank
+            for (int position = Tape.SEGMENT_SIZE; position < last; position += Tape.SEGMENT_SIZE) {
+                tape.set(position, '1');
+                tape.set(position, '\0');
+            }
+
+            tape.set(last, '1');
+            tape.moveTo(0);
+
+            long read = tape.getPageReadCount();
+
+            tape.write('\0');
+
+            assertEquals(last, tape.getOffset());
+            assertEquals(last, tape.getLast());
+            assertEquals(true, tape.getPageReadCount() - read <= 1);
+
+            tape.write('1');
+            tape.set(last, '\0');
+
+            assertEquals(0, tape.getOffset());
+            assertEquals(0, tape.getLast());
+        } finally {
+            tape.close();
+        }
+    }
+
+    private void sweep(Tape tape, int length) {
+        for (int i = 1; i < length; i++) {
+            tape.right();
+            assertEquals('1', tape.read());
+        }
+
+        for (int i = 1; i < length; i++) {
+            tape.left();
+        }
+    }
+
+    @Test
+    public void testPagedExecutionDeletesScratchFile() throws IOException {
+        File directory = folder.newFolder();
+        Execution execution = getIncrementTuringMachine().freeze().newPagedExecution("1011", 0, 0, '\0', directory.toPath(), 4096);
+
+        assertEquals("1100", execution.run().getContent());
+
+        execution.close();
+
+        assertEquals(0, directory.list().length);
+    }
+
+    @Test
+    public void testNewPagedExecutionWithInvalidArguments() {
+        MachineDefinition definition = getIncrementTuringMachine().freeze();
+
+        try {
+            definition.newPagedExecution(null, 0, 0, '\0', folder.getRoot().toPath(), 4096);
+
+            fail();
+        } catch (NullPointerException e) {
+            assertEquals("the initial content is null", e.getMessage());
+        } catch (IOException e) {
+            fail();
+        }
+
+        try {
+            definition.newPagedExecution("", 0, 0, '\0', null, 4096);
+
+            fail();
+        } catch (NullPointerException e) {
+            assertEquals("the scratch directory is null", e.getMessage());
+        } catch (IOException e) {
+            fail();
+        }
+
+        try {
+            definition.newPagedExecution("", 0, 0, '\0', folder.getRoot().toPath(), 4095);
+
+            fail();
+        } catch (IllegalArgumentException e) {
+            assertEquals("the memory limit is too small", e.getMessage());
+        } catch (IOException e) {
+            fail();
+        }
+    }
+
+    private void assertReadFails(Path file, byte[] bytes, String message) throws IOException {
+        Files.write(file, bytes);
+
+        try {
+            MachineDefinition.read(file);
+
+            fail();
+        } catch (IOException e) {
+            assertEquals(message, e.getMessage());
+        }
+    }
+
+    private void assertSameResult(ExecutionResult expected, ExecutionResult actual) {
+        assertEquals(expected.getStatus(), actual.getStatus());
+        assertEquals(expected.getSteps(), actual.getSteps());
+        assertEquals(expected.getCurrentStateName(), actual.getCurrentStateName());
+        assertEquals(expected.getContent(), actual.getContent());
+        assertEquals(expected.getContentOffset(), actual.getContentOffset());
+        assertEquals(expected.getHeadPosition(), actual.getHeadPosition());
+    }
+
+    private void assertSameConfiguration(Execution execution, Execution macroExecution, int blockSize, ExecutionLimits limits) {
+        ExecutionResult result = execution.run(limits);
+        ExecutionResult macroResult = macroExecution.runMacro(blockSize, limits);
+
+        assertEquals(result.getStatus(), macroResult.getStatus());
+        assertEquals(result.getSteps(), macroResult.getSteps());
+        assertEquals(result.getCurrentStateName(), macroResult.getCurrentStateName());
+        assertEquals(result.getContent(), macroResult.getContent());
+        assertEquals(result.getContentOffset(), macroResult.getContentOffset());
+        assertEquals(result.getHeadPosition(), macroResult.getHeadPosition());
+    }
+
+    private TuringMachine getBusyBeaverTuringMachine() {
+        TuringMachine turingMachine = new TuringMachine();
+
+        turingMachine.addState("A", false);
+        turingMachine.addState("B", false);
+        turingMachine.addState("C", false);
+        turingMachine.addState("D", false);
+        turingMachine.addState("H", true);
+
+        turingMachine.addTransition("A", '0', '1', Action.RIGHT, "B");
+        turingMachine.addTransition("A", '1', '1', Action.LEFT, "B");
+        turingMachine.addTransition("B", '0', '1', Action.LEFT, "A");
+        turingMachine.addTransition("B", '1', '0', Action.LEFT, "C");
+        turingMachine.addTransition("C", '0', '1', Action.HALT, "H");
+        turingMachine.addTransition("C", '1', '1', Action.LEFT, "D");
+        turingMachine.addTransition("D", '0', '1', Action.RIGHT, "D");
+        turingMachine.addTransition("D", '1', '0', Action.RIGHT, "A");
+
+        turingMachine.setInitialState("A");
+
+        return turingMachine;
+    }
+
+    private TuringMachine getSweepTuringMachine() {
+        TuringMachine turingMachine = new TuringMachine();
+
+        turingMachine.addState("A", false);
+        turingMachine.addState("C", false);
+        turingMachine.addState("E", false);
+        turingMachine.addState("H", true);
+
+        // sweep right over the a's, mark the end, then sweep left over the a's and the blanks before them
+        turingMachine.addTransition("A", 'a', 'a', Action.RIGHT, "A");
+        turingMachine.addTransition("A", '\0', 'b', Action.LEFT, "C");
+        turingMachine.addTransition("C", 'a', 'a', Action.LEFT, "C");
+        turingMachine.addTransition("C", '\0', '\0', Action.LEFT, "E");
+        turingMachine.addTransition("E", '\0', '\0', Action.LEFT, "E");
+        turingMachine.addTransition("E", 'x', 'x', Action.HALT, "H");
+
+        turingMachine.setInitialState("A");
+
+        return turingMachine;
+    }
+
+    private TuringMachine getRandomTuringMachine(Random random, int symbolCount, int stateCount) {
+        TuringMachine turingMachine = new TuringMachine();
+
+        for (int state = 0; state < stateCount; state++) {
+            turingMachine.addState("S" + state, false);
+        }
+
+        for (int state = 0; state < stateCount; state++) {
+            for (int symbol = 0; symbol < symbolCount; symbol++) {
+                char replacement = random.nextInt(3) == 0 ? '\0' : (char) ('a' + random.nextInt(symbolCount - 1));
+                Action action = random.nextBoolean() ? Action.LEFT : Action.RIGHT;
+
+                turingMachine.addTransition("S" + state, symbol == 0 ? '\0' : (char) ('a' + symbol - 1), replacement, action, "S" + random.nextInt(stateCount));
+            }
+        }
+
+        turingMachine.setInitialState("S0");
+
+        return turingMachine;
+    }
+
+    private TuringMachine getIncrementTuringMachine() {
+        TuringMachine turingMachine = new TuringMachine();
+
+        turingMachine.addState("R", false);
+        turingMachine.addState("C", false);
+        turingMachine.addState("H", true);
+
+        turingMachine.addTransition("R", '0', '0', Action.RIGHT, "R");
+        turingMachine.addTransition("R", '1', '1', Action.RIGHT, "R");
+        turingMachine.addTransition("R", '\0', '\0', Action.LEFT, "C");
+        turingMachine.addTransition("C", '1', '0', Action.LEFT, "C");
+        turingMachine.addTransition("C", '0', '1', Action.HALT, "H");
+        turingMachine.addTransition("C", '\0', '1', Action.HALT, "H");
+
+        turingMachine.setInitialState("R");
+
+        return turingMachine;
+    }
+}
@@ -0,0 +1,220 @@
+package com.example.turing;
+
+import org.junit.Rule;
+import org.junit.Test;
+import org.junit.rules.TemporaryFolder;
+
+import java.io.IOException;
+import java.nio.channels.FileChannel;
+import java.nio.charset.StandardCharsets;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.nio.file.StandardOpenOption;
+import java.util.ArrayList;
+import java.util.HashSet;
+import java.util.List;
+import java.util.Set;
+import java.util.concurrent.ForkJoinPool;
+
+import static org.junit.Assert.assertEquals;
+import static org.junit.Assert.fail;
+
+/**
+ * Unit tests for MachineSearch class.
+ */
+public class MachineSearchTest {
+    @Rule
+    public TemporaryFolder folder = new TemporaryFolder();
+
+    @Test
+    public void testConstructorWithInvalidArguments() {
+        try {
+            new MachineSearch(0, 2, 100);
+
+            fail();
+        } catch (IllegalArgumentException e) {
+            assertEquals("the number of states is out of range", e.getMessage());
+        }
+
+        try {
+            new MachineSearch(27, 2, 100);
+
+            fail();
+        } catch (IllegalArgumentException e) {
+            assertEquals("the number of states is out of range", e.getMessage());
+        }
+
+        try {
+            new MachineSearch(2, 1, 100);
+
+            fail();
+        } catch (IllegalArgumentException e) {
+            assertEquals("the number of symbols is out of range", e.getMessage());
+        }
+
+        try {
+            new MachineSearch(2, 11, 100);
+
+            fail();
+        } catch (IllegalArgumentException e) {
+            assertEquals("the number of symbols is out of range", e.getMessage());
+        }
+
+        try {
+            new MachineSearch(2, 2, 0);
+
+            fail();
+        } catch (IllegalArgumentException e) {
+            assertEquals("the step limit is not positive", e.getMessage());
+        }
+    }
+
+    @Test
+    public void testRunWithInvalidArguments() throws IOException {
+        MachineSearch search = new MachineSearch(2, 2, 100);
+
+        try {
+            search.run(null);
+
+            fail();
+        } catch (NullPointerException e) {
+            assertEquals("the search file is null", e.getMessage());
+        }
+
+        try {
+            search.run(folder.newFile().toPath(), null);
+
+            fail();
+        } catch (NullPointerException e) {
+            assertEquals("the pool is null", e.getMessage());
+        }
+    }
+
+    @Test
+    public void testBusyBeavers() throws IOException {
+        SearchResult result = new MachineSearch(2, 2, 100).run(folder.newFile().toPath());
+
+        assertEquals(6, result.getMaxSteps());
+        assertEquals(4, result.getMaxOnes());
+        assertEquals(result.getMachineCount(), result.getHaltingCount() + result.getLoopingCount() + result.getUndecidedCount());
+
+        result = new MachineSearch(3, 2, 500).run(folder.newFile().toPath());
+
+        assertEquals(21, result.getMaxSteps());
+        assertEquals(6, result.getMaxOnes());
+
+        result = new MachineSearch(2, 3, 500).run(folder.newFile().toPath(), new ForkJoinPool(3));
+
+        assertEquals(38, result.getMaxSteps());
+        assertEquals(9, result.getMaxOnes());
+    }
+
+    @Test
+    public void testUndecidedMachines() throws IOException {
+        Path file = folder.newFile().toPath();
+        SearchResult result = new MachineSearch(3, 2, 10).run(file);
+        long undecided = Files.readAllLines(file, StandardCharsets.US_ASCII).stream()
+                .filter(line -> line.startsWith("U "))
+                .count();
+
+        assertEquals(result.getUndecidedCount(), undecided);
+        assertEquals(result.getMachineCount(), result.getHaltingCount() + result.getLoopingCount() + result.getUndecidedCount());
+        assertEquals(true, result.getUndecidedCount() > 0);
+        assertEquals(true, result.getMaxSteps() <= 11);
+    }
+
+    @Test
+    public void testResume() throws IOException {
+        MachineSearch search = new MachineSearch(3, 2, 500);
+        Path file = folder.newFile().toPath();
+        SearchResult first = search.run(file);
+        SearchResult second = search.run(file);
+
+        assertEquals(0, first.getResumedSeedCount());
+        assertEquals(first.getSeedCount(), second.getResumedSeedCount());
+        assertSameTotals(first, second);
+
+        // an interrupted run leaves a partially written part behind
+        try (FileChannel channel = FileChannel.open(file, StandardOpenOption.WRITE)) {
+            channel.truncate(channel.size() * 2 / 3);
+            channel.position(channel.size());
+            channel.write(StandardCharsets.US_ASCII.encode("H 3 2 1R"));
+        }
+
+        SearchResult third = search.run(file);
+
+        assertEquals(true, third.getResumedSeedCount() < third.getSeedCount());
+        assertSameTotals(first, third);
+        assertSameTotals(first, search.run(file));
+    }
+
+    @Test
+    public void testResumeWithUncommittedParts() throws IOException {
+        MachineSearch search = new MachineSearch(3, 2, 500);
+        Path file = folder.newFile().toPath();
+        SearchResult first = search.run(file);
+        List<String> lines = new ArrayList<>(Files.readAllLines(file, StandardCharsets.US_ASCII));
+
+        // the records of parts 0 and 5 were appended, but the parts were never committed
+        lines.removeIf(line -> line.startsWith("D 0 ") || line.startsWith("D 5 "));
+        Files.write(file, lines, StandardCharsets.US_ASCII);
+        Files.write(file, "U 3 1R".getBytes(StandardCharsets.US_ASCII), StandardOpenOption.APPEND);
+
+        SearchResult second = search.run(file);
+
+        assertEquals(first.getSeedCount() - 2, second.getResumedSeedCount());
+        assertSameTotals(first, second);
+        assertEquals(true, Files.readAllLines(file, StandardCharsets.US_ASCII).contains("R"));
+
+        SearchResult third = search.run(file);
+
+        assertEquals(first.getSeedCount(), third.getResumedSeedCount());
+        assertSameTotals(first, third);
+    }
+
+    @Test
+    public void testRecordsBelongToCommittedParts() throws IOException {
+        Path file = folder.newFile().toPath();
+
+        new MachineSearch(2, 3, 200).run(file, new ForkJoinPool(4));
+
+        List<String> lines = Files.readAllLines(file, StandardCharsets.US_ASCII);
+        Set<String> committed = new HashSet<>();
+
+        for (int i = lines.size() - 1; i > 0; i--) {
+            String[] fields = lines.get(i).split(" ");
+
+            if (fields[0].equals("D")) {
+                committed.add(fields[1]);
+            } else {
+                assertEquals(true, committed.contains(fields[1]));
+            }
+        }
+    }
+
+    @Test
+    public void testRunWithAnotherSearchFile() throws IOException {
+        Path file = folder.newFile().toPath();
+
+        new MachineSearch(2, 2, 100).run(file);
+
+        try {
+            new MachineSearch(2, 2, 200).run(file);
+
+            fail();
+        } catch (IOException e) {
+            assertEquals("the search file belongs to another search", e.getMessage());
+        }
+    }
+
+    private static void assertSameTotals(SearchResult expected, SearchResult actual) {
+        assertEquals(expected.getMachineCount(), actual.getMachineCount());
+        assertEquals(expected.getHaltingCount(), actual.getHaltingCount());
+        assertEquals(expected.getLoopingCount(), actual.getLoopingCount());
+        assertEquals(expected.getUndecidedCount(), actual.getUndecidedCount());
+        assertEquals(expected.getMaxSteps(), actual.getMaxSteps());
+        assertEquals(expected.getMaxStepsMachine(), actual.getMaxStepsMachine());
+        assertEquals(expected.getMaxOnes(), actual.getMaxOnes());
+        assertEquals(expected.getMaxOnesMachine(), actual.getMaxOnesMachine());
+    }
+}
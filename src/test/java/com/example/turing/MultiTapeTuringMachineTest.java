@@ -0,0 +1,212 @@
+package com.example.turing;
+
+import org.junit.Test;
+
+import java.util.Arrays;
+
+import static org.junit.Assert.assertEquals;
+import static org.junit.Assert.assertFalse;
+import static org.junit.Assert.assertTrue;
+import static org.junit.Assert.fail;
+
+/**
+ * Unit tests for MultiTapeTuringMachine class.
+ */
+public class MultiTapeTuringMachineTest {
+    @Test
+    public void testConstructorWithInvalidTapeCount() {
+        try {
+            new MultiTapeTuringMachine(0);
+
+            fail();
+        } catch (IllegalArgumentException e) {
+            assertEquals("the number of tapes is not positive", e.getMessage());
+        }
+    }
+
+    @Test
+    public void testAddTransitionWithWrongNumberOfSymbols() {
+        try {
+            MultiTapeTuringMachine turingMachine = new MultiTapeTuringMachine(2);
+
+            turingMachine.addState("A", false);
+            turingMachine.addTransition("A", "a", "bb", "A", Direction.LEFT, Direction.RIGHT);
+
+            fail();
+        } catch (IllegalArgumentException e) {
+            assertEquals("the number of symbols or head movements does not match the number of tapes", e.getMessage());
+        }
+    }
+
+    @Test
+    public void testAddTransitionWithNullDirection() {
+        try {
+            MultiTapeTuringMachine turingMachine = new MultiTapeTuringMachine(2);
+
+            turingMachine.addState("A", false);
+            turingMachine.addTransition("A", "aa", "bb", "A", Direction.LEFT, null);
+
+            fail();
+        } catch (NullPointerException e) {
+            assertEquals("a head movement is null", e.getMessage());
+        }
+    }
+
+    @Test
+    public void testAddExistingTransition() {
+        try {
+            MultiTapeTuringMachine turingMachine = new MultiTapeTuringMachine(2);
+
+            turingMachine.addState("A", false);
+            turingMachine.addTransition("A", "aa", "bb", "A", Direction.LEFT, Direction.STAY);
+            turingMachine.addTransition("A", "aa", "cc", "A", Direction.RIGHT, Direction.STAY);
+
+            fail();
+        } catch (IllegalArgumentException e) {
+            assertEquals("the transition already exists", e.getMessage());
+        }
+    }
+
+    @Test
+    public void testNewExecutionWithWrongNumberOfContents() {
+        try {
+            getPalindromeTuringMachine().freeze().newExecution(new String[]{"a"}, '\0');
+
+            fail();
+        } catch (IllegalArgumentException e) {
+            assertEquals("the number of initial contents does not match the number of tapes", e.getMessage());
+        }
+    }
+
+    @Test
+    public void testGetContentWithInvalidTapeIndex() {
+        try {
+            getPalindromeTuringMachine().freeze().execute(new String[]{"a", ""}, '\0').getContent(2);
+
+            fail();
+        } catch (IndexOutOfBoundsException e) {
+            assertEquals("the tape index is out of range", e.getMessage());
+        }
+    }
+
+    @Test
+    public void testPalindromes() {
+        MultiTapeDefinition definition = getPalindromeTuringMachine().freeze();
+
+        assertTrue(definition.getTable().isDense());
+
+        for (String s : Arrays.asList("", "a", "ab", "aa", "aba", "abb", "abba", "babab", "babba")) {
+            MultiTapeExecutionResult result = definition.execute(new String[]{s, ""}, '\0');
+
+            assertTrue(result.isHalted());
+            assertEquals(new StringBuilder(s).reverse().toString().equals(s), result.isAccepted());
+            assertEquals(s, result.getContent(0));
+            assertEquals(s, result.getContent(1));
+        }
+    }
+
+    @Test
+    public void testLongPalindromeTakesLinearTime() {
+        final int N = 100000;
+
+        StringBuilder half = new StringBuilder();
+
+        for (int i = 0; i < N; i++) {
+            half.append(i % 3 == 0 ? 'a' : 'b');
+        }
+
+        String s = half.toString() + half.reverse();
+        MultiTapeExecutionResult result = getPalindromeTuringMachine().freeze().execute(new String[]{s, ""}, '\0');
+
+        assertTrue(result.isAccepted());
+        assertEquals(3 * s.length() + 3, result.getSteps());
+        assertEquals(s.length(), result.getHeadPosition(0));
+        assertEquals(-1, result.getHeadPosition(1));
+        assertEquals(0, result.getContentOffset(1));
+    }
+
+    @Test
+    public void testStepLimit() {
+        MultiTapeDefinition definition = getPalindromeTuringMachine().freeze();
+        MultiTapeExecution execution = definition.newExecution(new String[]{"abba", ""}, '\0');
+        ExecutionLimits limits = new ExecutionLimits(3, Long.MAX_VALUE, null);
+
+        assertEquals(ExecutionStatus.STEP_LIMIT_REACHED, execution.run(limits).getStatus());
+        assertEquals("abb", execution.getResult().getContent(1));
+        assertFalse(execution.isHalted());
+
+        while (execution.run(limits).getStatus() != ExecutionStatus.HALTED) {
+            assertFalse(execution.isHalted());
+        }
+
+        assertEquals(15, execution.getSteps());
+        assertTrue(execution.getResult().isAccepted());
+    }
+
+    @Test
+    public void testManyTapes() {
+        final int TAPES = 20;
+
+        MultiTapeTuringMachine turingMachine = new MultiTapeTuringMachine(TAPES);
+        Direction[] right = new Direction[TAPES];
+        Direction[] stay = new Direction[TAPES];
+        char[] ones = new char[TAPES];
+        char[] zeros = new char[TAPES];
+        char[] blanks = new char[TAPES];
+        String[] contents = new String[TAPES];
+
+        Arrays.fill(right, Direction.RIGHT);
+        Arrays.fill(stay, Direction.STAY);
+        Arrays.fill(ones, '1');
+        Arrays.fill(zeros, '0');
+
+        turingMachine.addState("A", false);
+        turingMachine.addState("H", true);
+        turingMachine.addTransition("A", new String(ones), new String(zeros), "A", right);
+        turingMachine.addTransition("A", new String(blanks), new String(blanks), "H", stay);
+        turingMachine.setInitialState("A");
+
+        for (int i = 0; i < TAPES; i++) {
+            contents[i] = "111";
+        }
+
+        MultiTapeDefinition definition = turingMachine.freeze();
+        MultiTapeExecutionResult result = definition.execute(contents, '\0');
+
+        assertFalse(definition.getTable().isDense());
+        assertTrue(result.isAccepted());
+        assertEquals(4, result.getSteps());
+
+        for (int i = 0; i < TAPES; i++) {
+            assertEquals("000", result.getContent(i));
+            assertEquals(3, result.getHeadPosition(i));
+        }
+    }
+
+    private MultiTapeTuringMachine getPalindromeTuringMachine() {
+        MultiTapeTuringMachine turingMachine = new MultiTapeTuringMachine(2);
+
+        turingMachine.addState("copy", false);
+        turingMachine.addState("rewind", false);
+        turingMachine.addState("compare", false);
+        turingMachine.addState("accept", true);
+
+        turingMachine.addTransition("copy", "a\0", "aa", "copy", Direction.RIGHT, Direction.RIGHT);
+        turingMachine.addTransition("copy", "b\0", "bb", "copy", Direction.RIGHT, Direction.RIGHT);
+        turingMachine.addTransition("copy", "\0\0", "\0\0", "rewind", Direction.LEFT, Direction.LEFT);
+
+        for (char c : new char[]{'a', 'b', '\0'}) {
+            turingMachine.addTransition("rewind", "a" + c, "a" + c, "rewind", Direction.LEFT, Direction.STAY);
+            turingMachine.addTransition("rewind", "b" + c, "b" + c, "rewind", Direction.LEFT, Direction.STAY);
+            turingMachine.addTransition("rewind", "\0" + c, "\0" + c, "compare", Direction.RIGHT, Direction.STAY);
+        }
+
+        turingMachine.addTransition("compare", "aa", "aa", "compare", Direction.RIGHT, Direction.LEFT);
+        turingMachine.addTransition("compare", "bb", "bb", "compare", Direction.RIGHT, Direction.LEFT);
+        turingMachine.addTransition("compare", "\0\0", "\0\0", "accept", Direction.STAY, Direction.STAY);
+
+        turingMachine.setInitialState("copy");
+
+        return turingMachine;
+    }
+}
@@ -0,0 +1,287 @@
+package com.example.turing;
+
+import org.junit.Test;
+
+import java.util.ArrayList;
+import java.util.List;
+import java.util.concurrent.ForkJoinPool;
+
+import static org.junit.Assert.assertEquals;
+import static org.junit.Assert.assertFalse;
+import static org.junit.Assert.assertTrue;
+import static org.junit.Assert.fail;
+
+/**
+ * Unit tests for NondeterministicTuringMachine class.
+ */
+public class NondeterministicTuringMachineTest {
+    @Test
+    public void testAddExistingTransition() {
+        NondeterministicTuringMachine turingMachine = new NondeterministicTuringMachine();
+
+        turingMachine.addState("A", false);
+        turingMachine.addState("B", false);
+        turingMachine.addTransition("A", 'a', 'a', Action.RIGHT, "A");
+        turingMachine.addTransition("A", 'a', 'a', Action.RIGHT, "B");
+        turingMachine.addTransition("A", 'a', 'b', Action.RIGHT, "A");
+        turingMachine.addTransition("A", 'a', 'a', Action.LEFT, "A");
+
+        try {
+            turingMachine.addTransition("A", 'a', 'a', Action.RIGHT, "B");
+
+            fail();
+        } catch (IllegalArgumentException e) {
+            assertEquals("the transition already exists", e.getMessage());
+        }
+    }
+
+    @Test
+    public void testAddTransitionWithInvalidArguments() {
+        NondeterministicTuringMachine turingMachine = new NondeterministicTuringMachine();
+
+        turingMachine.addState("A", false);
+
+        try {
+            turingMachine.addTransition("A", 'a', 'a', null, "A");
+
+            fail();
+        } catch (NullPointerException e) {
+            assertEquals("the action to be taken is null", e.getMessage());
+        }
+
+        try {
+            turingMachine.addTransition("A", 'a', 'a', Action.RIGHT, "B");
+
+            fail();
+        } catch (IllegalArgumentException e) {
+            assertEquals("the destination state name does not exist", e.getMessage());
+        }
+
+        try {
+            turingMachine.freeze();
+
+            fail();
+        } catch (IllegalStateException e) {
+            assertEquals("the initial state is not set", e.getMessage());
+        }
+    }
+
+    @Test
+    public void testExploreWithInvalidArguments() {
+        NondeterministicDefinition definition = getSubstringTuringMachine().freeze();
+
+        try {
+            definition.explore(null, 0, 0, '\0');
+
+            fail();
+        } catch (NullPointerException e) {
+            assertEquals("the initial content is null", e.getMessage());
+        }
+
+        try {
+            definition.explore("", 0, 0, '\0', ExecutionLimits.NONE, null);
+
+            fail();
+        } catch (NullPointerException e) {
+            assertEquals("the pool is null", e.getMessage());
+        }
+    }
+
+    @Test
+    public void testSubstringForEveryString() {
+        NondeterministicDefinition definition = getSubstringTuringMachine().freeze();
+
+        for (String s : getStrings(8)) {
+            ExplorationResult result = definition.explore(s, 0, 0, '\0');
+
+            assertEquals(ExecutionStatus.HALTED, result.getStatus());
+            assertEquals(s, s.contains("abc"), result.isAccepted());
+
+            if (result.isAccepted()) {
+                assertEquals(s.indexOf("abc") + 3, result.getSteps());
+                assertEquals("F", result.getCurrentStateName());
+                assertEquals(s, result.getContent());
+                assertEquals(s.indexOf("abc") + 3, result.getHeadPosition());
+            }
+        }
+    }
+
+    @Test
+    public void testRejectedResultHasNoConfiguration() {
+        ExplorationResult result = getSubstringTuringMachine().freeze().explore("abab", 0, 0, '\0');
+
+        assertFalse(result.isAccepted());
+
+        try {
+            result.getContent();
+
+            fail();
+        } catch (IllegalStateException e) {
+            assertEquals("no branch reached an accepting state", e.getMessage());
+        }
+    }
+
+    @Test
+    public void testLoopingBranchesAreDropped() {
+        NondeterministicTuringMachine turingMachine = new NondeterministicTuringMachine();
+
+        turingMachine.addState("L", false);
+        turingMachine.addState("R", false);
+        turingMachine.addState("F", true);
+
+        // every branch bounces between two cells forever, unless it finds an 'x'
+        turingMachine.addTransition("L", '\0', '\0', Action.RIGHT, "R");
+        turingMachine.addTransition("R", '\0', '\0', Action.LEFT, "L");
+        turingMachine.addTransition("R", '\0', 'y', Action.LEFT, "L");
+        turingMachine.addTransition("L", 'y', 'y', Action.RIGHT, "R");
+        turingMachine.addTransition("R", 'x', 'x', Action.HALT, "F");
+        turingMachine.setInitialState("L");
+
+        ExplorationResult result = turingMachine.freeze().explore("", 0, 0, '\0');
+
+        assertEquals(ExecutionStatus.HALTED, result.getStatus());
+        assertFalse(result.isAccepted());
+        assertEquals(4, result.getConfigurationCount());
+
+        result = turingMachine.freeze().explore("x", 1, 0, '\0');
+
+        assertTrue(result.isAccepted());
+        assertEquals(2, result.getSteps());
+    }
+
+    @Test
+    public void testLimits() {
+        NondeterministicTuringMachine turingMachine = new NondeterministicTuringMachine();
+
+        turingMachine.addState("A", false);
+        turingMachine.addTransition("A", '\0', '0', Action.RIGHT, "A");
+        turingMachine.addTransition("A", '\0', '1', Action.RIGHT, "A");
+        turingMachine.setInitialState("A");
+
+        NondeterministicDefinition definition = turingMachine.freeze();
+        ExplorationResult result = definition.explore("", 0, 0, '\0', new ExecutionLimits(10, Long.MAX_VALUE, null));
+
+        assertEquals(ExecutionStatus.STEP_LIMIT_REACHED, result.getStatus());
+        assertEquals(10, result.getSteps());
+        assertEquals((1 << 11) - 1, result.getConfigurationCount());
+
+        CancellationToken cancellationToken = new CancellationToken();
+
+        cancellationToken.cancel();
+
+        result = definition.explore("", 0, 0, '\0', new ExecutionLimits(Long.MAX_VALUE, Long.MAX_VALUE, cancellationToken));
+
+        assertEquals(ExecutionStatus.CANCELLED, result.getStatus());
+        assertEquals(0, result.getSteps());
+
+        result = definition.explore("", 0, 0, '\0', new ExecutionLimits(Long.MAX_VALUE, System.currentTimeMillis() + 100, null));
+
+        assertEquals(ExecutionStatus.DEADLINE_EXCEEDED, result.getStatus());
+
+        result = definition.explore("", 0, 0, '\0', new ExecutionLimits(Long.MAX_VALUE, Long.MAX_VALUE, null, 100));
+
+        assertEquals(ExecutionStatus.STEP_LIMIT_REACHED, result.getStatus());
+        assertEquals(6, result.getSteps());
+        assertEquals((1 << 7) - 1, result.getConfigurationCount());
+
+        try {
+            new ExecutionLimits(10, Long.MAX_VALUE, null, 0);
+
+            fail();
+        } catch (IllegalArgumentException e) {
+            assertEquals("the maximum number of configurations is not positive", e.getMessage());
+        }
+    }
+
+    @Test
+    public void testSharedTapeWritesFarApart() {
+        SharedTape initial = SharedTape.of("ab\0c", -1, '\0');
+        SharedTape tape = initial.with(1_000_000, 'x').with(-1_000_000, 'y').with(5, 'z');
+        SharedTape other = initial.with(5, 'z').with(-1_000_000, 'y').with(1_000_000, 'x');
+
+        assertEquals("ab\0c", initial.getContent());
+        assertEquals(-1, initial.getOffset());
+        assertEquals('\0', initial.get(1_000_000));
+        assertEquals('x', tape.get(1_000_000));
+        assertEquals('y', tape.get(-1_000_000));
+        assertEquals('b', tape.get(0));
+        assertEquals(-1_000_000, tape.getOffset());
+        assertEquals(2_000_001, tape.getContent().length());
+        assertTrue(tape.hasSameContent(other));
+        assertFalse(tape.hasSameContent(other.with(3, 'w')));
+        assertTrue(tape.hasSameContent(other.with(3, 'w').with(3, '\0')));
+        assertTrue(initial.hasSameContent(initial.with(1_000_000, 'x').with(1_000_000, '\0')));
+    }
+
+    @Test
+    public void testGuessingInParallel() {
+        final int BITS = 14;
+
+        NondeterministicTuringMachine turingMachine = new NondeterministicTuringMachine();
+
+        for (int i = 0; i <= BITS; i++) {
+            turingMachine.addState("G" + i, false);
+            turingMachine.addState("K" + i, i == BITS);
+        }
+
+        // guess every string of bits, then accept the one that only contains ones
+        for (int i = 0; i < BITS; i++) {
+            turingMachine.addTransition("G" + i, '\0', '0', Action.RIGHT, "G" + (i + 1));
+            turingMachine.addTransition("G" + i, '\0', '1', Action.RIGHT, "G" + (i + 1));
+            turingMachine.addTransition("K" + i, '1', '1', Action.LEFT, "K" + (i + 1));
+        }
+
+        turingMachine.addTransition("G" + BITS, '\0', '\0', Action.LEFT, "K0");
+        turingMachine.setInitialState("G0");
+
+        ForkJoinPool pool = new ForkJoinPool(4);
+
+        try {
+            ExplorationResult result = turingMachine.freeze().explore("", 0, 0, '\0', ExecutionLimits.NONE, pool);
+
+            assertTrue(result.isAccepted());
+            assertEquals(2 * BITS + 1, result.getSteps());
+            assertEquals("11111111111111", result.getContent());
+            assertEquals(0, result.getContentOffset());
+            assertEquals(-1, result.getHeadPosition());
+            assertTrue(result.getConfigurationCount() > 1 << BITS);
+        } finally {
+            pool.shutdown();
+        }
+    }
+
+    private NondeterministicTuringMachine getSubstringTuringMachine() {
+        NondeterministicTuringMachine turingMachine = new NondeterministicTuringMachine();
+
+        turingMachine.addState("S", false);
+        turingMachine.addState("A", false);
+        turingMachine.addState("B", false);
+        turingMachine.addState("F", true);
+
+        // skip any prefix, then guess where "abc" starts
+        turingMachine.addTransition("S", 'a', 'a', Action.RIGHT, "S");
+        turingMachine.addTransition("S", 'b', 'b', Action.RIGHT, "S");
+        turingMachine.addTransition("S", 'c', 'c', Action.RIGHT, "S");
+        turingMachine.addTransition("S", 'a', 'a', Action.RIGHT, "A");
+        turingMachine.addTransition("A", 'b', 'b', Action.RIGHT, "B");
+        turingMachine.addTransition("B", 'c', 'c', Action.RIGHT, "F");
+
+        turingMachine.setInitialState("S");
+
+        return turingMachine;
+    }
+
+    private List<String> getStrings(int maxLength) {
+        List<String> strings = new ArrayList<>();
+
+        strings.add("");
+
+        for (int i = 0; i < strings.size() && strings.get(i).length() < maxLength; i++) {
+            for (char c = 'a'; c <= 'c'; c++) {
+                strings.add(strings.get(i) + c);
+            }
+        }
+
+        return strings;
+    }
+}
@@ -2,9 +2,17 @@ package com.example.turing;
 
 import org.junit.Test;
 
+import java.io.ByteArrayOutputStream;
+import java.io.IOException;
+import java.io.StringWriter;
+import java.nio.channels.Channels;
+import java.nio.charset.StandardCharsets;
 import java.util.ArrayList;
 import java.util.Arrays;
 import java.util.List;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+import java.util.concurrent.atomic.AtomicInteger;
 import java.util.regex.Pattern;
 import java.util.stream.Collectors;
 
@@ -260,6 +268,140 @@ public class TuringMachineTest {
         }
     }
 
+    @Test
+    public void testExecuteWithNullLimits() {
+        try {
+            TuringMachine turingMachine = new TuringMachine();
+
+            turingMachine.execute("", 0, 0, '\0', null);
+
+            fail();
+        } catch (NullPointerException e) {
+            assertEquals("the execution limits are null", e.getMessage());
+        }
+    }
+
+    @Test
+    public void testExecutionLimitsWithNegativeMaxSteps() {
+        try {
+            new ExecutionLimits(-1, Long.MAX_VALUE, null);
+
+            fail();
+        } catch (IllegalArgumentException e) {
+            assertEquals("the maximum number of steps is negative", e.getMessage());
+        }
+    }
+
+    @Test
+    public void testExecuteWithStepLimit() {
+        TuringMachine turingMachine = getNonHaltingTuringMachine();
+
+        ExecutionResult result = turingMachine.execute("", 0, 0, '\0', new ExecutionLimits(1000000, Long.MAX_VALUE, null));
+
+        assertEquals(ExecutionStatus.STEP_LIMIT_REACHED, result.getStatus());
+        assertFalse(result.isHalted());
+        assertEquals(1000000, result.getSteps());
+        assertEquals(1000000, result.getHeadPosition());
+        assertEquals("1", result.getCurrentStateName());
+        assertEquals(1000000, turingMachine.getSteps());
+        assertEquals(1000000, turingMachine.getHeadPosition());
+    }
+
+    @Test
+    public void testExecuteWithCancelledToken() {
+        TuringMachine turingMachine = getNonHaltingTuringMachine();
+        CancellationToken cancellationToken = new CancellationToken();
+
+        cancellationToken.cancel();
+
+        ExecutionResult result = turingMachine.execute("", 0, 0, '\0', new ExecutionLimits(Long.MAX_VALUE, Long.MAX_VALUE, cancellationToken));
+
+        assertEquals(ExecutionStatus.CANCELLED, result.getStatus());
+        assertTrue(result.getSteps() > 0);
+        assertEquals(result.getSteps(), result.getHeadPosition());
+    }
+
+    @Test
+    public void testExecuteWithPassedDeadline() {
+        TuringMachine turingMachine = getNonHaltingTuringMachine();
+
+        ExecutionResult result = turingMachine.execute("", 0, 0, '\0', new ExecutionLimits(Long.MAX_VALUE, 0, null));
+
+        assertEquals(ExecutionStatus.DEADLINE_EXCEEDED, result.getStatus());
+        assertTrue(result.getSteps() > 0);
+    }
+
+    @Test
+    public void testExecuteWithLimitsUntilHalt() {
+        TuringMachine turingMachine = getMultiplyByTwoTuringMachine();
+
+        ExecutionResult result = turingMachine.execute("125", 0, 2, '\0', new ExecutionLimits(4, Long.MAX_VALUE, null));
+
+        assertEquals(ExecutionStatus.HALTED, result.getStatus());
+        assertTrue(result.isAccepted());
+        assertEquals(4, result.getSteps());
+        assertEquals("250", result.getContent());
+        assertEquals(0, result.getContentOffset());
+        assertEquals(-1, result.getHeadPosition());
+        assertEquals('\0', result.getBlank());
+    }
+
+    private TuringMachine getNonHaltingTuringMachine() {
+        TuringMachine turingMachine = new TuringMachine();
+
+        turingMachine.addState("0", false);
+        turingMachine.addState("1", false);
+
+        turingMachine.addTransition("0", '\0', '1', Action.RIGHT, "1");
+        turingMachine.addTransition("1", '\0', '\0', Action.RIGHT, "1");
+
+        turingMachine.setInitialState("0");
+
+        return turingMachine;
+    }
+
+    @Test
+    public void testExecuteAfterAddingTransition() {
+        TuringMachine turingMachine = new TuringMachine();
+
+        turingMachine.addState("0", false);
+        turingMachine.addState("1", true);
+        turingMachine.setInitialState("0");
+
+        turingMachine.execute("a", 0, 0, '\0');
+
+        assertFalse(turingMachine.isAccepted());
+        assertEquals("a", turingMachine.getContent());
+
+        turingMachine.addTransition("0", 'a', 'b', Action.HALT, "1");
+        turingMachine.execute("a", 0, 0, '\0');
+
+        assertTrue(turingMachine.isAccepted());
+        assertEquals("b", turingMachine.getContent());
+    }
+
+    @Test
+    public void testExecuteOnWideSparseTape() {
+        TuringMachine turingMachine = new TuringMachine();
+
+        turingMachine.addState("0", false);
+        turingMachine.addState("1", false);
+        turingMachine.addState("H", true);
+
+        turingMachine.addTransition("0", '\0', '\0', Action.LEFT, "0");
+        turingMachine.addTransition("0", 'x', '\0', Action.LEFT, "1");
+        turingMachine.addTransition("1", 'y', 'z', Action.HALT, "H");
+
+        turingMachine.setInitialState("0");
+
+        turingMachine.execute("yx", -100000, 100000, '\0');
+
+        assertTrue(turingMachine.isAccepted());
+        assertEquals("z", turingMachine.getContent());
+        assertEquals(-100000, turingMachine.getContentOffset());
+        assertEquals(-100000, turingMachine.getHeadPosition());
+    }
+
     @Test
     public void testMultiplyByTwo() {
         final int FIRST = 0;
@@ -322,6 +464,125 @@ public class TuringMachineTest {
         assertEquals('\0', turingMachine.getBlank());
     }
 
+    @Test
+    public void testContentRanges() throws IOException {
+        TuringMachine turingMachine = getMultiplyByTwoTuringMachine();
+
+        turingMachine.execute("6789", 0, 3, '\0');
+
+        assertEquals("13578", turingMachine.getContent());
+        assertEquals("\u0000\u000013578\u0000\u0000", turingMachine.getContent(-3, 6));
+        assertEquals("357", turingMachine.getContent(0, 3));
+        assertEquals("", turingMachine.getContent(2, 2));
+        assertEquals("\u0000\u0000135", turingMachine.getContentAroundHead(2));
+        assertEquals("1", turingMachine.getContentAroundHead(0));
+
+        String far = turingMachine.getContent(-5000, 5000);
+
+        assertEquals(10000, far.length());
+        assertEquals("13578", far.substring(4999, 5004));
+        assertEquals(10000 - 5, far.chars().filter(c -> c == '\0').count());
+
+        StringBuilder builder = new StringBuilder();
+        StringWriter writer = new StringWriter();
+        ByteArrayOutputStream stream = new ByteArrayOutputStream();
+
+        turingMachine.writeContent(builder);
+        turingMachine.writeContent(writer);
+        turingMachine.writeContent(Channels.newChannel(stream), StandardCharsets.UTF_8);
+
+        assertEquals("13578", builder.toString());
+        assertEquals("13578", writer.toString());
+        assertEquals("13578", new String(stream.toByteArray(), StandardCharsets.UTF_8));
+
+        builder.setLength(0);
+        turingMachine.writeContent(-2, 1, builder);
+
+        assertEquals("\u000013", builder.toString());
+    }
+
+    @Test
+    public void testContentRangesOfBlankTape() throws IOException {
+        TuringMachine turingMachine = getMultiplyByTwoTuringMachine();
+
+        turingMachine.execute("", 0, 0, '_');
+
+        StringWriter writer = new StringWriter();
+
+        turingMachine.writeContent(writer);
+
+        assertEquals("", writer.toString());
+        assertEquals("___", turingMachine.getContentAroundHead(1));
+        assertEquals(Integer.MAX_VALUE, turingMachine.getContentOffset());
+    }
+
+    @Test
+    public void testContentRangesAtTapeLimits() {
+        TuringMachine turingMachine = getMultiplyByTwoTuringMachine();
+
+        turingMachine.execute("5", Integer.MAX_VALUE, Integer.MAX_VALUE, '\0');
+
+        assertEquals("10", turingMachine.getContent());
+        assertEquals("\u000010", turingMachine.getContentAroundHead(1));
+        assertEquals("\u0000\u0000\u0000\u0000\u000010", turingMachine.getContentAroundHead(5));
+        assertEquals("", turingMachine.getContent(Integer.MAX_VALUE, Integer.MAX_VALUE));
+    }
+
+    @Test
+    public void testContentRangesWithInvalidArguments() throws IOException {
+        TuringMachine turingMachine = getMultiplyByTwoTuringMachine();
+
+        try {
+            turingMachine.getContent(0, 1);
+
+            fail();
+        } catch (IllegalStateException e) {
+            assertEquals("this machine has not already been executed", e.getMessage());
+        }
+
+        turingMachine.execute("1", 0, 0, '\0');
+
+        try {
+            turingMachine.getContent(1, 0);
+
+            fail();
+        } catch (IllegalArgumentException e) {
+            assertEquals("the range start is greater than the range end", e.getMessage());
+        }
+
+        try {
+            turingMachine.getContentAroundHead(-1);
+
+            fail();
+        } catch (IllegalArgumentException e) {
+            assertEquals("the radius is negative", e.getMessage());
+        }
+
+        try {
+            turingMachine.writeContent(null);
+
+            fail();
+        } catch (NullPointerException e) {
+            assertEquals("the appendable is null", e.getMessage());
+        }
+
+        try {
+            turingMachine.writeContent(null, StandardCharsets.UTF_8);
+
+            fail();
+        } catch (NullPointerException e) {
+            assertEquals("the channel is null", e.getMessage());
+        }
+
+        try {
+            turingMachine.writeContent(Channels.newChannel(new ByteArrayOutputStream()), null);
+
+            fail();
+        } catch (NullPointerException e) {
+            assertEquals("the charset is null", e.getMessage());
+        }
+    }
+
     @Test
     public void testABCTuringMachineForEveryString() {
         final int MAX_LENGTH = 12;
@@ -333,6 +594,84 @@ public class TuringMachineTest {
         }
     }
 
+    @Test
+    public void testExecuteAllWithNullContents() {
+        try {
+            TuringMachine turingMachine = getABCTuringMachine();
+
+            turingMachine.executeAll(null, 0, 0, '\0', ExecutionLimits.NONE);
+
+            fail();
+        } catch (NullPointerException e) {
+            assertEquals("the initial contents are null", e.getMessage());
+        }
+    }
+
+    @Test
+    public void testExecuteAllWithNullContent() {
+        try {
+            TuringMachine turingMachine = getABCTuringMachine();
+
+            turingMachine.executeAll(Arrays.asList("abc", null), 0, 0, '\0', ExecutionLimits.NONE);
+
+            fail();
+        } catch (NullPointerException e) {
+            assertEquals("the initial content is null", e.getMessage());
+        }
+    }
+
+    @Test
+    public void testExecuteAllABCTuringMachine() {
+        final int MAX_LENGTH = 9;
+
+        TuringMachine turingMachine = getABCTuringMachine();
+        List<String> strings = getStrings(Arrays.asList('a', 'b', 'c'), MAX_LENGTH);
+        List<ExecutionResult> results = turingMachine.executeAll(strings, 0, 0, '\0', ExecutionLimits.NONE);
+
+        assertEquals(strings.size(), results.size());
+
+        for (int i = 0; i < strings.size(); i++) {
+            assertEquals(matchesABC(strings.get(i)), results.get(i).isAccepted());
+        }
+    }
+
+    @Test
+    public void testExecuteAllABCTuringMachineWithExecutor() {
+        final int MAX_LENGTH = 9;
+
+        TuringMachine turingMachine = getABCTuringMachine();
+        List<String> strings = getStrings(Arrays.asList('a', 'b', 'c'), MAX_LENGTH);
+        ExecutorService executor = Executors.newFixedThreadPool(3);
+
+        try {
+            List<ExecutionResult> results = turingMachine.executeAll(strings, 0, 0, '\0', ExecutionLimits.NONE, executor);
+
+            assertEquals(strings.size(), results.size());
+
+            for (int i = 0; i < strings.size(); i++) {
+                assertEquals(matchesABC(strings.get(i)), results.get(i).isAccepted());
+            }
+        } finally {
+            executor.shutdown();
+        }
+    }
+
+    @Test
+    public void testExecuteAllUnorderedABCTuringMachine() {
+        final int MAX_LENGTH = 9;
+
+        TuringMachine turingMachine = getABCTuringMachine();
+        List<String> strings = getStrings(Arrays.asList('a', 'b', 'c'), MAX_LENGTH);
+        AtomicInteger count = new AtomicInteger();
+
+        turingMachine.executeAllUnordered(strings.stream(), 0, 0, '\0', ExecutionLimits.NONE, (s, result) -> {
+            assertEquals(matchesABC(s), result.isAccepted());
+            count.incrementAndGet();
+        });
+
+        assertEquals(strings.size(), count.get());
+    }
+
     private TuringMachine getABCTuringMachine() {
         TuringMachine turingMachine = new TuringMachine();
 